@@ -1,9 +1,11 @@
 package org.jboss.forge.addon.facets;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 
@@ -15,6 +17,12 @@ public abstract class AbstractFaceted<FACETTYPE extends Facet<?>> implements Mut
 {
    private Set<FACETTYPE> facets = Collections.newSetFromMap(new ConcurrentHashMap<FACETTYPE, Boolean>());
 
+   /**
+    * The installed facets matching each requested type. Replaced (never cleared) after the installed facets change, so
+    * that a lookup racing with a change cannot store a stale entry in the new index.
+    */
+   private volatile ConcurrentMap<Class<?>, List<FACETTYPE>> index = new ConcurrentHashMap<Class<?>, List<FACETTYPE>>();
+
    @Override
    public boolean hasFacet(Class<? extends FACETTYPE> type)
    {
@@ -54,7 +62,8 @@ public abstract class AbstractFaceted<FACETTYPE extends Facet<?>> implements Mut
       {
          if (facet.isInstalled() || facet.install())
          {
-            facets.add(facet);
+            if (facets.add(facet))
+               invalidateIndex();
             return true;
          }
       }
@@ -74,7 +83,8 @@ public abstract class AbstractFaceted<FACETTYPE extends Facet<?>> implements Mut
       {
          if (facet.isInstalled())
          {
-            facets.add(facet);
+            if (facets.add(facet))
+               invalidateIndex();
             return true;
          }
       }
@@ -85,15 +95,7 @@ public abstract class AbstractFaceted<FACETTYPE extends Facet<?>> implements Mut
    @SuppressWarnings("unchecked")
    public <F extends FACETTYPE> Iterable<F> getFacets(Class<F> type)
    {
-      Set<F> result = new HashSet<F>();
-      for (FACETTYPE facet : facets)
-      {
-         if (type.isInstance(facet))
-         {
-            result.add((F) facet);
-         }
-      }
-      return result;
+      return (Iterable<F>) lookup(type);
    }
 
    /**
@@ -106,30 +108,60 @@ public abstract class AbstractFaceted<FACETTYPE extends Facet<?>> implements Mut
     */
    @SuppressWarnings("unchecked")
    private <F extends FACETTYPE> F safeGetFacet(Class<F> type)
+   {
+      List<FACETTYPE> matches = lookup(type);
+      return matches.isEmpty() ? null : (F) matches.get(0);
+   }
 
+   /**
+    * Returns the installed facets that are instances of the given type, scanning the installed facets only the first
+    * time a type is requested after a change.
+    */
+   private List<FACETTYPE> lookup(Class<?> type)
    {
-      for (FACETTYPE facet : facets)
+      ConcurrentMap<Class<?>, List<FACETTYPE>> current = index;
+      List<FACETTYPE> result = current.get(type);
+      if (result == null)
       {
-         if (type.isInstance(facet))
+         List<FACETTYPE> matches = new ArrayList<FACETTYPE>();
+         for (FACETTYPE facet : facets)
          {
-            return (F) facet;
+            if (type.isInstance(facet))
+            {
+               matches.add(facet);
+            }
          }
+         result = Collections.unmodifiableList(matches);
+         current.put(type, result);
       }
-      return null;
+      return result;
+   }
+
+   private void invalidateIndex()
+   {
+      index = new ConcurrentHashMap<Class<?>, List<FACETTYPE>>();
    }
 
    @Override
    public boolean uninstall(FACETTYPE facet)
    {
       return facet.isInstalled() ?
-               (facet.uninstall() && facets.remove(facet))
-               : (!facets.contains(facet) || facets.remove(facet));
+               (facet.uninstall() && remove(facet))
+               : (!facets.contains(facet) || remove(facet));
    }
 
    @Override
    public boolean unregister(FACETTYPE facet)
    {
-      return facet.isInstalled() ? false : facets.remove(facet);
+      return facet.isInstalled() ? false : remove(facet);
+   }
+
+   private boolean remove(FACETTYPE facet)
+   {
+      boolean removed = facets.remove(facet);
+      if (removed)
+         invalidateIndex();
+      return removed;
    }
 
 }
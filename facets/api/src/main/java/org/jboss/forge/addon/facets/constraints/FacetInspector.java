@@ -7,7 +7,11 @@
 
 package org.jboss.forge.addon.facets.constraints;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.jboss.forge.addon.facets.Facet;
@@ -15,7 +19,8 @@ import org.jboss.forge.addon.facets.Faceted;
 import org.jboss.forge.furnace.util.Annotations;
 
 /**
- * Used to inspect types that may or may not depend on {@link Facet}s or packaging types.
+ * Used to inspect types that may or may not depend on {@link Facet}s or packaging types. The constraints of each
+ * inspected type are read once, and the resulting graph (including transitive closures) is cached for later calls.
  * 
  * @author <a href="mailto:lincolnbaxter@gmail.com">Lincoln Baxter, III</a>
  */
@@ -46,16 +51,7 @@ public abstract class FacetInspector
    public static <FACETEDTYPE extends Faceted<?>, FACETTYPE extends Facet<FACETEDTYPE>> boolean hasCircularConstraints(
             Class<?> inspectedType)
    {
-      Set<Class<FACETTYPE>> allRelatedFacets = getAllRelatedFacets(inspectedType);
-      for (Class<? extends Facet<?>> requirement : allRelatedFacets)
-      {
-         for (Class<? extends Facet<?>> subrequirement : getAllRelatedFacets(requirement))
-         {
-            if (subrequirement.isAssignableFrom(requirement))
-               return true;
-         }
-      }
-      return false;
+      return GRAPHS.get(inspectedType).hasCircularConstraints();
    }
 
    /**
@@ -77,6 +73,21 @@ public abstract class FacetInspector
    @SuppressWarnings({ "unchecked", "rawtypes" })
    private static <FACETTYPE extends Facet<?>> Set<Class<FACETTYPE>> getRelatedFacets(final Class<?> inspectedType,
             FacetConstraintType... constraintTypes)
+   {
+      ConstraintGraph graph = DIRECT_CONSTRAINTS.get(inspectedType);
+      if (constraintTypes == null || constraintTypes.length == 0)
+         return (Set) graph.related;
+      else if (constraintTypes.length == 1 && constraintTypes[0] == FacetConstraintType.REQUIRED)
+         return (Set) graph.required;
+      else if (constraintTypes.length == 1 && constraintTypes[0] == FacetConstraintType.OPTIONAL)
+         return (Set) graph.optional;
+      else
+         return readRelatedFacets(inspectedType, constraintTypes);
+   }
+
+   @SuppressWarnings({ "unchecked", "rawtypes" })
+   private static <FACETTYPE extends Facet<?>> Set<Class<FACETTYPE>> readRelatedFacets(final Class<?> inspectedType,
+            FacetConstraintType... constraintTypes)
    {
       Set<Class<FACETTYPE>> result = new LinkedHashSet<Class<FACETTYPE>>();
 
@@ -133,32 +144,43 @@ public abstract class FacetInspector
     * Inspect the given {@link Class} for all {@link FacetConstraintType#OPTIONAL} dependency {@link Facet} types. This
     * method inspects the entire constraint tree.
     */
+   @SuppressWarnings({ "unchecked", "rawtypes" })
    public static <FACETEDTYPE extends Faceted<FACETTYPE>, FACETTYPE extends Facet<FACETEDTYPE>> Set<Class<FACETTYPE>> getAllOptionalFacets(
             final Class<FACETTYPE> inspectedType)
    {
-      Set<Class<FACETTYPE>> seen = new LinkedHashSet<Class<FACETTYPE>>();
-      return getAllRelatedFacets(seen, inspectedType, FacetConstraintType.OPTIONAL);
+      return (Set) GRAPHS.get(inspectedType).allOptional;
    }
 
    /**
     * Inspect the given {@link Class} for all {@link FacetConstraintType#REQUIRED} dependency {@link Facet} types. This
     * method inspects the entire constraint tree.
     */
+   @SuppressWarnings({ "unchecked", "rawtypes" })
    public static <FACETEDTYPE extends Faceted<FACETTYPE>, FACETTYPE extends Facet<FACETEDTYPE>> Set<Class<FACETTYPE>> getAllRequiredFacets(
             final Class<FACETTYPE> inspectedType)
    {
-      Set<Class<FACETTYPE>> seen = new LinkedHashSet<Class<FACETTYPE>>();
-      return getAllRelatedFacets(seen, inspectedType, FacetConstraintType.REQUIRED);
+      return (Set) GRAPHS.get(inspectedType).allRequired;
    }
 
    /**
     * Inspect the given {@link Class} for all {@link Facet} types from all {@link FacetConstraint} declarations. This
     * method inspects the entire constraint tree.
     */
+   @SuppressWarnings({ "unchecked", "rawtypes" })
    public static <FACETTYPE extends Facet<?>> Set<Class<FACETTYPE>> getAllRelatedFacets(final Class<?> inspectedType)
    {
-      Set<Class<FACETTYPE>> seen = new LinkedHashSet<Class<FACETTYPE>>();
-      return getAllRelatedFacets(seen, inspectedType);
+      return (Set) GRAPHS.get(inspectedType).allRelated;
+   }
+
+   /**
+    * Inspect the given {@link Class} for all {@link FacetConstraintType#REQUIRED} dependency {@link Facet} types, in
+    * the order they should be installed: every type appears after the types it requires. The inspected type itself is
+    * not included.
+    */
+   @SuppressWarnings({ "unchecked", "rawtypes" })
+   public static <FACETTYPE extends Facet<?>> List<Class<FACETTYPE>> getInstallOrder(final Class<?> inspectedType)
+   {
+      return (List) GRAPHS.get(inspectedType).installOrder;
    }
 
    private static <FACETTYPE extends Facet<?>> Set<Class<FACETTYPE>> getAllRelatedFacets(
@@ -179,4 +201,104 @@ public abstract class FacetInspector
       result.addAll(related);
       return result;
    }
-}
\ No newline at end of file
+
+   private static void addInstallOrder(Set<Class<?>> visited, List<Class<?>> order, Class<?> type)
+   {
+      for (Class<?> requiredType : DIRECT_CONSTRAINTS.get(type).required)
+      {
+         if (visited.add(requiredType))
+         {
+            addInstallOrder(visited, order, requiredType);
+            order.add(requiredType);
+         }
+      }
+   }
+
+   /**
+    * The {@link FacetConstraint} declarations of a single type. Kept apart from the {@link ConstraintGraph} so that the
+    * graph of a type can be built from the declarations of its related types without recursing into itself.
+    */
+   private static final ClassValue<ConstraintGraph> DIRECT_CONSTRAINTS = new ClassValue<ConstraintGraph>()
+   {
+      @Override
+      protected ConstraintGraph computeValue(Class<?> type)
+      {
+         ConstraintGraph graph = new ConstraintGraph();
+         graph.related = Collections.unmodifiableSet(readRelatedFacets(type));
+         graph.required = Collections.unmodifiableSet(readRelatedFacets(type, FacetConstraintType.REQUIRED));
+         graph.optional = Collections.unmodifiableSet(readRelatedFacets(type, FacetConstraintType.OPTIONAL));
+         return graph;
+      }
+   };
+
+   /**
+    * The constraint graph of each inspected type, computed once. Values are attached to the {@link Class} itself, so
+    * they are discarded along with the {@link ClassLoader} of the addon that defined the type.
+    */
+   private static final ClassValue<ConstraintGraph> GRAPHS = new ClassValue<ConstraintGraph>()
+   {
+      @Override
+      @SuppressWarnings("unchecked")
+      protected ConstraintGraph computeValue(Class<?> type)
+      {
+         ConstraintGraph direct = DIRECT_CONSTRAINTS.get(type);
+         ConstraintGraph graph = new ConstraintGraph();
+         graph.related = direct.related;
+         graph.required = direct.required;
+         graph.optional = direct.optional;
+         graph.allRelated = Collections.unmodifiableSet(getAllRelatedFacets(new LinkedHashSet(), type));
+         graph.allRequired = Collections.unmodifiableSet(getAllRelatedFacets(new LinkedHashSet(), type,
+                  FacetConstraintType.REQUIRED));
+         graph.allOptional = Collections.unmodifiableSet(getAllRelatedFacets(new LinkedHashSet(), type,
+                  FacetConstraintType.OPTIONAL));
+
+         List<Class<?>> order = new ArrayList<Class<?>>();
+         Set<Class<?>> visited = new HashSet<Class<?>>();
+         visited.add(type);
+         addInstallOrder(visited, order, type);
+         graph.installOrder = Collections.unmodifiableList(order);
+         return graph;
+      }
+   };
+
+   /**
+    * The direct and transitive {@link FacetConstraint} declarations of a type
+    */
+   @SuppressWarnings("rawtypes")
+   private static class ConstraintGraph
+   {
+      private Set related;
+      private Set required;
+      private Set optional;
+      private Set allRelated;
+      private Set allRequired;
+      private Set allOptional;
+      private List installOrder;
+      /*
+       * Computed lazily, as it requires the graphs of all related types
+       */
+      private volatile Boolean circular;
+
+      @SuppressWarnings("unchecked")
+      boolean hasCircularConstraints()
+      {
+         if (circular == null)
+         {
+            boolean result = false;
+            outer: for (Class<?> requirement : (Set<Class<?>>) allRelated)
+            {
+               for (Class<?> subrequirement : (Set<Class<?>>) GRAPHS.get(requirement).allRelated)
+               {
+                  if (subrequirement.isAssignableFrom(requirement))
+                  {
+                     result = true;
+                     break outer;
+                  }
+               }
+            }
+            circular = result;
+         }
+         return circular;
+      }
+   }
+}
@@ -84,6 +84,22 @@ public class FacetedTest
       Assert.assertTrue(faceted.uninstall(facet));
    }
 
+   @Test
+   public void testFacetLookupReflectsChanges()
+   {
+      MockFaceted faceted = new MockFaceted();
+      MockFacet facet = new MockFacet(faceted);
+
+      Assert.assertFalse(faceted.hasFacet(MockFacet.class));
+      Assert.assertFalse(faceted.getFacets(MockFacet.class).iterator().hasNext());
+      Assert.assertTrue(faceted.install(facet));
+      Assert.assertTrue(faceted.hasFacet(MockFacet.class));
+      Assert.assertEquals(facet, faceted.getFacets(MockFacet.class).iterator().next());
+      Assert.assertTrue(faceted.uninstall(facet));
+      Assert.assertFalse(faceted.hasFacet(MockFacet.class));
+      Assert.assertFalse(faceted.getFacets(MockFacet.class).iterator().hasNext());
+   }
+
    @Test
    public void testSupports()
    {
@@ -6,10 +6,13 @@
  */
 package test.org.jboss.forge.addon.facets.constraints;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
 import org.jboss.forge.addon.facets.AbstractFacet;
 import org.jboss.forge.addon.facets.AbstractFaceted;
+import org.jboss.forge.addon.facets.constraints.FacetConstraint;
 import org.jboss.forge.addon.facets.constraints.FacetInspector;
 import org.junit.Assert;
 import org.junit.Test;
@@ -27,6 +30,70 @@ public class FacetInspectorTest
       Assert.assertTrue("Facet list should have been empty", facets.isEmpty());
    }
 
+   @Test
+   public void testTransitiveRequiredFacets()
+   {
+      Set<Class<FacetA>> facets = FacetInspector.getAllRequiredFacets(FacetA.class);
+      Assert.assertEquals(2, facets.size());
+      Assert.assertTrue(facets.contains(FacetB.class));
+      Assert.assertTrue(facets.contains(FacetC.class));
+      Assert.assertSame(facets, FacetInspector.getAllRequiredFacets(FacetA.class));
+      Assert.assertFalse(FacetInspector.hasCircularConstraints(FacetA.class));
+   }
+
+   @Test
+   public void testInstallOrder()
+   {
+      List<Class<FacetA>> order = FacetInspector.getInstallOrder(FacetA.class);
+      Assert.assertEquals(Arrays.<Class<?>> asList(FacetC.class, FacetB.class), order);
+   }
+
+   @Test
+   public void testCircularConstraints()
+   {
+      Assert.assertTrue(FacetInspector.hasCircularConstraints(FacetX.class));
+      Assert.assertTrue(FacetInspector.hasCircularConstraints(FacetY.class));
+   }
+
+   @FacetConstraint(FacetB.class)
+   public class FacetA extends MockFacet
+   {
+   }
+
+   @FacetConstraint(FacetC.class)
+   public class FacetB extends MockFacet
+   {
+   }
+
+   public class FacetC extends MockFacet
+   {
+   }
+
+   @FacetConstraint(FacetY.class)
+   public class FacetX extends MockFacet
+   {
+   }
+
+   @FacetConstraint(FacetX.class)
+   public class FacetY extends MockFacet
+   {
+   }
+
+   public abstract class MockFacet extends AbstractFacet<AbstractFaceted<MockFacet>>
+   {
+      @Override
+      public boolean install()
+      {
+         return false;
+      }
+
+      @Override
+      public boolean isInstalled()
+      {
+         return false;
+      }
+   }
+
    public class FacetZ extends AbstractFacet<AbstractFaceted<FacetZ>>
    {
       @Override
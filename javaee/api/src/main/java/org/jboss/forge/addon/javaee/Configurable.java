@@ -20,7 +20,8 @@ import org.jboss.forge.addon.resource.FileResource;
 public interface Configurable<DESCRIPTOR>
 {
    /**
-    * Return the {@link Descriptor} of the specification for which this facet represents.
+    * Return the {@link Descriptor} of the specification for which this facet represents. Changes to it must be
+    * persisted with {@link #saveConfig(Object)}.
     */
    DESCRIPTOR getConfig();
 
@@ -20,7 +20,9 @@ import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.projects.ProjectFacet;
 import org.jboss.forge.addon.projects.dependencies.DependencyInstaller;
 import org.jboss.forge.addon.projects.facets.DependencyFacet;
+import org.jboss.forge.addon.resource.FileResource;
 import org.jboss.forge.furnace.versions.Version;
+import org.jboss.shrinkwrap.descriptor.api.Descriptor;
 
 /**
  * A base facet implementation for Facets which require Java EE library APIs to be installed.
@@ -38,6 +40,9 @@ public abstract class AbstractJavaEEFacet extends AbstractFacet<Project> impleme
 
    private final DependencyInstaller installer;
 
+   @Inject
+   private DescriptorCache descriptorCache;
+
    @Inject
    public AbstractJavaEEFacet(final DependencyInstaller installer)
    {
@@ -112,4 +117,21 @@ public abstract class AbstractJavaEEFacet extends AbstractFacet<Project> impleme
       return installer;
    }
 
+   /**
+    * Return a new {@link Descriptor} of the given type parsed from the given existing file. Changes to it must be
+    * persisted with {@link #saveDescriptor(FileResource, Descriptor)}.
+    */
+   protected <T extends Descriptor> T getDescriptor(FileResource<?> file, Class<T> type)
+   {
+      return descriptorCache.get(file, type);
+   }
+
+   /**
+    * Write the given {@link Descriptor} to the given file.
+    */
+   protected void saveDescriptor(FileResource<?> file, Descriptor descriptor)
+   {
+      descriptorCache.save(file, descriptor);
+   }
+
 }
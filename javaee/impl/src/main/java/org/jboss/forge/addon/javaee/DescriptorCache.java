@@ -0,0 +1,161 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.addon.javaee;
+
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.enterprise.event.Observes;
+import javax.inject.Singleton;
+
+import org.jboss.forge.addon.resource.FileResource;
+import org.jboss.forge.furnace.container.cdi.events.Local;
+import org.jboss.forge.furnace.event.PreShutdown;
+import org.jboss.forge.furnace.util.Streams;
+import org.jboss.shrinkwrap.descriptor.api.Descriptor;
+import org.jboss.shrinkwrap.descriptor.spi.node.Node;
+import org.jboss.shrinkwrap.descriptor.spi.node.NodeDescriptor;
+
+/**
+ * Keeps the parsed configuration descriptors of the Java EE facets (<code>web.xml</code>, <code>persistence.xml</code>,
+ * <code>beans.xml</code>, <code>faces-config.xml</code>, ...), keyed by file and checked against its modification time
+ * and size on each lookup, so that a descriptor file is only parsed again when it changes. The modification time and
+ * size are read through the {@link FileResource}, so they reflect the changes made by a running resource transaction
+ * and the cache is used inside transactions as well.
+ *
+ * Every call to {@link #get(FileResource, Class)} returns a new copy of the cached descriptor, made by copying its node
+ * tree without parsing XML, so changes made to it are not seen by other callers until they are saved with
+ * {@link #save(FileResource, Descriptor)}.
+ */
+@Singleton
+public class DescriptorCache
+{
+   private static final Logger log = Logger.getLogger(DescriptorCache.class.getName());
+
+   private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+   /**
+    * Returns a new descriptor of the given type parsed from the given existing file
+    */
+   public <T extends Descriptor> T get(FileResource<?> file, Class<T> type)
+   {
+      String path = file.getFullyQualifiedName();
+      long lastModified = file.getLastModified();
+      long size = file.getSize();
+      Entry entry = entries.get(path);
+      if (entry == null || !entry.matches(type, lastModified, size))
+      {
+         entry = new Entry(Descriptors.importAs(type).fromString(read(file)), lastModified, size);
+         entries.put(path, entry);
+      }
+      Descriptor copy = copy(entry.descriptor);
+      if (copy == null)
+      {
+         return Descriptors.importAs(type).fromString(entry.descriptor.exportAsString());
+      }
+      return type.cast(copy);
+   }
+
+   /**
+    * Writes the given descriptor to the given file, and caches a copy of it as the current contents of that file
+    */
+   public void save(FileResource<?> file, Descriptor descriptor)
+   {
+      file.setContents(descriptor.exportAsString());
+      Descriptor copy = copy(descriptor);
+      if (copy == null)
+      {
+         entries.remove(file.getFullyQualifiedName());
+      }
+      else
+      {
+         entries.put(file.getFullyQualifiedName(), new Entry(copy, file.getLastModified(), file.getSize()));
+      }
+   }
+
+   public void preShutdown(@Observes @Local PreShutdown event)
+   {
+      entries.clear();
+   }
+
+   private String read(FileResource<?> file)
+   {
+      InputStream stream = file.getResourceInputStream();
+      try
+      {
+         return Streams.toString(stream);
+      }
+      finally
+      {
+         Streams.closeQuietly(stream);
+      }
+   }
+
+   /**
+    * Returns a copy of the given descriptor sharing nothing with it, or <code>null</code> if it is not backed by a node
+    * tree that can be copied
+    */
+   private static Descriptor copy(Descriptor descriptor)
+   {
+      if (descriptor instanceof NodeDescriptor)
+      {
+         try
+         {
+            Constructor<? extends Descriptor> constructor = descriptor.getClass().getConstructor(String.class,
+                     Node.class);
+            Node root = copy(((NodeDescriptor) descriptor).getRootNode(), null);
+            return constructor.newInstance(descriptor.getDescriptorName(), root);
+         }
+         catch (ReflectiveOperationException e)
+         {
+            log.log(Level.FINE, "Could not copy descriptor " + descriptor.getClass().getName(), e);
+         }
+      }
+      return null;
+   }
+
+   private static Node copy(Node node, Node parent)
+   {
+      Node copy = new Node(node.getName(), parent, node.isComment());
+      for (Map.Entry<String, String> attribute : node.getAttributes().entrySet())
+      {
+         copy.attribute(attribute.getKey(), attribute.getValue());
+      }
+      if (node.getText() != null)
+      {
+         copy.text(node.getText());
+      }
+      for (Node child : node.getChildren())
+      {
+         copy(child, copy);
+      }
+      return copy;
+   }
+
+   private static class Entry
+   {
+      private final Descriptor descriptor;
+      private final long lastModified;
+      private final long size;
+
+      Entry(Descriptor descriptor, long lastModified, long size)
+      {
+         this.descriptor = descriptor;
+         this.lastModified = lastModified;
+         this.size = size;
+      }
+
+      boolean matches(Class<? extends Descriptor> type, long lastModified, long size)
+      {
+         return type.isInstance(descriptor) && this.lastModified == lastModified && this.size == size;
+      }
+   }
+}
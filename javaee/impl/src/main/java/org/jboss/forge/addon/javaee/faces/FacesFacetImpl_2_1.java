@@ -55,8 +55,7 @@ public class FacesFacetImpl_2_1 extends AbstractFacesFacetImpl<WebFacesConfigDes
    @Override
    public void saveConfig(WebFacesConfigDescriptor descriptor)
    {
-      String output = descriptor.exportAsString();
-      getConfigFile().setContents(output);
+      saveDescriptor(getConfigFile(), descriptor);
    }
 
    @Override
@@ -70,6 +69,6 @@ public class FacesFacetImpl_2_1 extends AbstractFacesFacetImpl<WebFacesConfigDes
    {
       WebFacesConfigDescriptor descriptorContents = Descriptors.create(WebFacesConfigDescriptor.class)
                .version("2.1");
-      descriptor.setContents(descriptorContents.exportAsString());      
+      saveDescriptor(descriptor, descriptorContents);      
    }
 }
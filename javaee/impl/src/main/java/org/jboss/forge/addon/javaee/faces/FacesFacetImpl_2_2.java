@@ -56,8 +56,7 @@ public class FacesFacetImpl_2_2 extends AbstractFacesFacetImpl<WebFacesConfigDes
    @Override
    public void saveConfig(WebFacesConfigDescriptor descriptor)
    {
-      String output = descriptor.exportAsString();
-      getConfigFile().setContents(output);
+      saveDescriptor(getConfigFile(), descriptor);
    }
 
    @Override
@@ -71,6 +70,6 @@ public class FacesFacetImpl_2_2 extends AbstractFacesFacetImpl<WebFacesConfigDes
    {
       WebFacesConfigDescriptor descriptorContents = Descriptors.create(WebFacesConfigDescriptor.class)
                .version("2.2");
-      descriptor.setContents(descriptorContents.exportAsString());
+      saveDescriptor(descriptor, descriptorContents);
    }
 }
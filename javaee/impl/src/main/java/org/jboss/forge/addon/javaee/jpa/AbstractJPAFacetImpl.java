@@ -16,6 +16,9 @@ import javax.persistence.Entity;
 
 import org.jboss.forge.addon.javaee.AbstractJavaEEFacet;
 import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
+import org.jboss.forge.addon.parser.java.facets.JavaTypeIndexFacet;
+import org.jboss.forge.addon.parser.java.index.JavaTypeDescriptor;
+import org.jboss.forge.addon.parser.java.index.JavaTypeDescriptor.Kind;
 import org.jboss.forge.addon.parser.java.resources.JavaResource;
 import org.jboss.forge.addon.parser.java.resources.JavaResourceVisitor;
 import org.jboss.forge.addon.projects.dependencies.DependencyInstaller;
@@ -100,6 +103,26 @@ public abstract class AbstractJPAFacetImpl<DESCRIPTOR extends PersistenceCommonD
    public List<JavaClass> getAllEntities()
    {
       final List<JavaClass> result = new ArrayList<>();
+      if (getFaceted().hasFacet(JavaTypeIndexFacet.class))
+      {
+         JavaTypeIndexFacet index = getFaceted().getFacet(JavaTypeIndexFacet.class);
+         for (JavaTypeDescriptor type : index.getTypesAnnotatedWith(Entity.class))
+         {
+            if (type.getKind() == Kind.CLASS)
+            {
+               try
+               {
+                  result.add((JavaClass) index.getJavaResource(type).getJavaSource());
+               }
+               catch (FileNotFoundException e)
+               {
+                  throw new IllegalStateException(e);
+               }
+            }
+         }
+         return result;
+      }
+
       JavaSourceFacet javaSourceFacet = getFaceted().getFacet(JavaSourceFacet.class);
       javaSourceFacet.visitJavaSources(new JavaResourceVisitor()
       {
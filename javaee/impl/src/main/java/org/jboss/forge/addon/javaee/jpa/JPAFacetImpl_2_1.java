@@ -21,7 +21,6 @@ import org.jboss.forge.addon.projects.dependencies.DependencyInstaller;
 import org.jboss.forge.addon.resource.FileResource;
 import org.jboss.forge.furnace.versions.SingleVersion;
 import org.jboss.forge.furnace.versions.Version;
-import org.jboss.shrinkwrap.descriptor.api.DescriptorImporter;
 import org.jboss.shrinkwrap.descriptor.api.persistence21.PersistenceDescriptor;
 
 /**
@@ -54,14 +53,12 @@ public class JPAFacetImpl_2_1 extends AbstractJPAFacetImpl<PersistenceDescriptor
    @Override
    public PersistenceDescriptor getConfig()
    {
-      DescriptorImporter<PersistenceDescriptor> importer = Descriptors.importAs(PersistenceDescriptor.class);
       final FileResource<?> configFile = getConfigFile();
       if (!configFile.exists())
       {
          createDefaultConfig(configFile);
       }
-      PersistenceDescriptor descriptor = importer.fromStream(configFile.getResourceInputStream());
-      return descriptor;
+      return getDescriptor(configFile, PersistenceDescriptor.class);
    }
 
    @Override
@@ -69,14 +66,13 @@ public class JPAFacetImpl_2_1 extends AbstractJPAFacetImpl<PersistenceDescriptor
    {
       PersistenceDescriptor descriptorContents = Descriptors.create(PersistenceDescriptor.class)
                .version("2.1");
-      descriptor.setContents(descriptorContents.exportAsString());
+      saveDescriptor(descriptor, descriptorContents);
    }
 
    @Override
    public void saveConfig(final PersistenceDescriptor descriptor)
    {
-      String output = descriptor.exportAsString();
-      getConfigFile().setContents(output);
+      saveDescriptor(getConfigFile(), descriptor);
    }
 
 }
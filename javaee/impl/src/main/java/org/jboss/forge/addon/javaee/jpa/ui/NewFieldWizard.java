@@ -29,6 +29,8 @@ import org.jboss.forge.addon.convert.Converter;
 import org.jboss.forge.addon.javaee.jpa.FieldOperations;
 import org.jboss.forge.addon.javaee.ui.AbstractJavaEECommand;
 import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
+import org.jboss.forge.addon.parser.java.facets.JavaTypeIndexFacet;
+import org.jboss.forge.addon.parser.java.index.JavaTypeDescriptor;
 import org.jboss.forge.addon.parser.java.resources.JavaResource;
 import org.jboss.forge.addon.parser.java.resources.JavaResourceVisitor;
 import org.jboss.forge.addon.projects.Project;
@@ -227,7 +229,18 @@ public class NewFieldWizard extends AbstractJavaEECommand implements UIWizard
    private List<JavaResource> getProjectEntities(Project project)
    {
       final List<JavaResource> entities = new ArrayList<>();
-      if (project != null)
+      if (project != null && project.hasFacet(JavaTypeIndexFacet.class))
+      {
+         JavaTypeIndexFacet index = project.getFacet(JavaTypeIndexFacet.class);
+         for (JavaTypeDescriptor type : index.getTypes())
+         {
+            if (type.hasAnnotation(Entity.class) || type.hasAnnotation(MappedSuperclass.class))
+            {
+               entities.add(index.getJavaResource(type));
+            }
+         }
+      }
+      else if (project != null)
       {
          project.getFacet(JavaSourceFacet.class).visitJavaSources(new JavaResourceVisitor()
          {
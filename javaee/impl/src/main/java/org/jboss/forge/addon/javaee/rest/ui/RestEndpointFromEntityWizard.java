@@ -9,7 +9,7 @@ package org.jboss.forge.addon.javaee.rest.ui;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -39,6 +39,7 @@ import org.jboss.forge.addon.ui.input.UISelectMany;
 import org.jboss.forge.addon.ui.input.UISelectOne;
 import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
 import org.jboss.forge.addon.ui.metadata.WithAttributes;
+import org.jboss.forge.addon.ui.progress.UIProgressMonitor;
 import org.jboss.forge.addon.ui.result.NavigationResult;
 import org.jboss.forge.addon.ui.result.Result;
 import org.jboss.forge.addon.ui.result.Results;
@@ -162,7 +163,8 @@ public class RestEndpointFromEntityWizard extends AbstractJavaEECommand implemen
    {
       UIContext uiContext = context.getUIContext();
       RestGenerationContextImpl generationContext = createContextFor(uiContext);
-      Set<JavaClass> endpoints = generateEndpoints(generationContext);
+      UIProgressMonitor monitor = context.getProgressMonitor();
+      Set<JavaClass> endpoints = generateEndpoints(generationContext, monitor);
       Project project = generationContext.getProject();
       JavaSourceFacet javaSourceFacet = project.getFacet(JavaSourceFacet.class);
       List<JavaResource> selection = new ArrayList<>();
@@ -171,19 +173,42 @@ public class RestEndpointFromEntityWizard extends AbstractJavaEECommand implemen
       {
          selection.add(javaSourceFacet.saveJavaSource(javaClass));
       }
+      monitor.done();
       uiContext.setSelection(selection);
+      if (monitor.isCancelled())
+      {
+         return Results.fail("REST endpoint generation was cancelled, "
+                  + "only some of the selected entities were generated.");
+      }
       return Results.success("Endpoint created");
    }
 
-   private Set<JavaClass> generateEndpoints(RestGenerationContextImpl generationContext) throws Exception
+   /**
+    * Generates the endpoints of the selected entities, in the order of the entities. The generators run on this thread,
+    * one entity at a time, as they may modify the entities and read other project sources.
+    */
+   private Set<JavaClass> generateEndpoints(RestGenerationContextImpl generationContext, UIProgressMonitor monitor)
+            throws Exception
    {
       RestResourceGenerator selectedGenerator = generator.getValue();
-      Set<JavaClass> classes = new HashSet<>();
+      List<JavaClass> entities = new ArrayList<>();
       for (JavaClass target : targets.getValue())
       {
+         entities.add(target);
+      }
+      monitor.beginTask("Generating REST endpoints", entities.size());
+      Set<JavaClass> classes = new LinkedHashSet<>();
+      for (JavaClass target : entities)
+      {
+         if (monitor.isCancelled())
+         {
+            break;
+         }
+         monitor.subTask("Generating REST endpoint for " + target.getName());
          generationContext.setEntity(target);
          List<JavaClass> artifacts = selectedGenerator.generateFrom(generationContext);
          classes.addAll(artifacts);
+         monitor.worked(1);
       }
       return classes;
    }
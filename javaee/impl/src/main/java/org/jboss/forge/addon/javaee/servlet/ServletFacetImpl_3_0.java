@@ -7,7 +7,6 @@
 
 package org.jboss.forge.addon.javaee.servlet;
 
-import java.io.InputStream;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -21,10 +20,8 @@ import org.jboss.forge.addon.javaee.Descriptors;
 import org.jboss.forge.addon.projects.dependencies.DependencyInstaller;
 import org.jboss.forge.addon.projects.facets.MetadataFacet;
 import org.jboss.forge.addon.resource.FileResource;
-import org.jboss.forge.furnace.util.Streams;
 import org.jboss.forge.furnace.versions.SingleVersion;
 import org.jboss.forge.furnace.versions.Version;
-import org.jboss.shrinkwrap.descriptor.api.DescriptorImporter;
 import org.jboss.shrinkwrap.descriptor.api.webapp30.WebAppDescriptor;
 
 public class ServletFacetImpl_3_0 extends AbstractServletFacet<WebAppDescriptor> implements ServletFacet_3_0
@@ -62,17 +59,7 @@ public class ServletFacetImpl_3_0 extends AbstractServletFacet<WebAppDescriptor>
       WebAppDescriptor descriptor;
       if (configFile.exists())
       {
-
-         DescriptorImporter<WebAppDescriptor> importer = Descriptors.importAs(WebAppDescriptor.class);
-         InputStream inputStream = configFile.getResourceInputStream();
-         try
-         {
-            descriptor = importer.fromStream(inputStream);
-         }
-         finally
-         {
-            Streams.closeQuietly(inputStream);
-         }
+         descriptor = getDescriptor(configFile, WebAppDescriptor.class);
       }
       else
       {
@@ -92,8 +79,6 @@ public class ServletFacetImpl_3_0 extends AbstractServletFacet<WebAppDescriptor>
    @Override
    public void saveConfig(final WebAppDescriptor descriptor)
    {
-      FileResource<?> configFile = getConfigFile();
-      String output = descriptor.exportAsString();
-      configFile.setContents(output);
+      saveDescriptor(getConfigFile(), descriptor);
    }
 }
\ No newline at end of file
@@ -15,6 +15,9 @@ import javax.inject.Inject;
 import org.jboss.forge.addon.javaee.ui.AbstractJavaEECommand;
 import org.jboss.forge.addon.javaee.validation.ValidationFacet;
 import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
+import org.jboss.forge.addon.parser.java.facets.JavaTypeIndexFacet;
+import org.jboss.forge.addon.parser.java.index.JavaTypeDescriptor;
+import org.jboss.forge.addon.parser.java.index.JavaTypeDescriptor.Kind;
 import org.jboss.forge.addon.parser.java.resources.JavaResource;
 import org.jboss.forge.addon.parser.java.resources.JavaResourceVisitor;
 import org.jboss.forge.addon.projects.Project;
@@ -62,7 +65,15 @@ public class AddConstraintWizard extends AbstractJavaEECommand implements UIWiza
       UISelection<FileResource<?>> selection = context.getInitialSelection();
       Project project = getSelectedProject(context);
       final List<JavaResource> classes = new ArrayList<>();
-      if (project != null)
+      if (project != null && project.hasFacet(JavaTypeIndexFacet.class))
+      {
+         JavaTypeIndexFacet index = project.getFacet(JavaTypeIndexFacet.class);
+         for (JavaTypeDescriptor type : index.getTypes(Kind.CLASS))
+         {
+            classes.add(index.getJavaResource(type));
+         }
+      }
+      else if (project != null)
       {
          project.getFacet(JavaSourceFacet.class).visitJavaSources(new JavaResourceVisitor()
          {
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.javaee.jpa;
+
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.persistence.Entity;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.forge.addon.javaee.ProjectHelper;
+import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
+import org.jboss.forge.addon.parser.java.facets.JavaTypeIndexFacet;
+import org.jboss.forge.addon.parser.java.index.JavaTypeDescriptor;
+import org.jboss.forge.addon.parser.java.resources.JavaResource;
+import org.jboss.forge.addon.projects.Project;
+import org.jboss.forge.arquillian.AddonDependency;
+import org.jboss.forge.arquillian.Dependencies;
+import org.jboss.forge.arquillian.archive.ForgeArchive;
+import org.jboss.forge.furnace.repositories.AddonDependencyEntry;
+import org.jboss.forge.parser.JavaParser;
+import org.jboss.forge.parser.java.JavaClass;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(Arquillian.class)
+public class PersistenceEntityIndexTest
+{
+   @Deployment
+   @Dependencies({
+            @AddonDependency(name = "org.jboss.forge.addon:javaee"),
+            @AddonDependency(name = "org.jboss.forge.addon:maven")
+   })
+   public static ForgeArchive getDeployment()
+   {
+      return ShrinkWrap.create(ForgeArchive.class)
+               .addBeansXML()
+               .addClass(ProjectHelper.class)
+               .addAsAddonDependencies(
+                        AddonDependencyEntry.create("org.jboss.forge.furnace.container:cdi"),
+                        AddonDependencyEntry.create("org.jboss.forge.addon:projects"),
+                        AddonDependencyEntry.create("org.jboss.forge.addon:javaee"),
+                        AddonDependencyEntry.create("org.jboss.forge.addon:maven")
+               );
+   }
+
+   @Inject
+   private ProjectHelper projectHelper;
+
+   @Test
+   public void testEntitiesAreIndexed() throws Exception
+   {
+      Project project = projectHelper.createJavaLibraryProject();
+      JPAFacet_2_0 jpa = projectHelper.installJPA_2_0(project);
+      Assert.assertTrue(project.hasFacet(JavaTypeIndexFacet.class));
+      JavaTypeIndexFacet index = project.getFacet(JavaTypeIndexFacet.class);
+      Assert.assertTrue(index.getTypesAnnotatedWith(Entity.class).isEmpty());
+
+      JavaResource customer = projectHelper.createJPAEntity(project, "Customer");
+      List<JavaTypeDescriptor> types = index.getTypesAnnotatedWith(Entity.class);
+      Assert.assertEquals(1, types.size());
+      Assert.assertEquals(customer.getJavaSource().getQualifiedName(), types.get(0).getQualifiedName());
+      Assert.assertEquals(customer, index.getJavaResource(types.get(0)));
+
+      List<JavaClass> entities = jpa.getAllEntities();
+      Assert.assertEquals(1, entities.size());
+      Assert.assertEquals("Customer", entities.get(0).getName());
+
+      customer.delete();
+      Assert.assertTrue(index.getTypesAnnotatedWith(Entity.class).isEmpty());
+   }
+
+   @Test
+   public void testEntitiesImportedWithWildcardAreIndexed() throws Exception
+   {
+      Project project = projectHelper.createJavaLibraryProject();
+      JPAFacet_2_0 jpa = projectHelper.installJPA_2_0(project);
+      JavaTypeIndexFacet index = project.getFacet(JavaTypeIndexFacet.class);
+      JavaSourceFacet java = project.getFacet(JavaSourceFacet.class);
+      java.saveJavaSource(JavaParser.parse(JavaClass.class, "package org.example.model; import javax.persistence.*; "
+               + "@Entity public class Order { @Id private Long id; }"));
+      java.saveJavaSource(JavaParser.parse(JavaClass.class, "package org.example.other; import org.example.api.*; "
+               + "@Entity public class Report { }"));
+
+      List<JavaTypeDescriptor> types = index.getTypesAnnotatedWith(Entity.class);
+      Assert.assertEquals(1, types.size());
+      Assert.assertEquals("org.example.model.Order", types.get(0).getQualifiedName());
+      Assert.assertEquals(types.get(0).getPath(), index.getType("org.example.model.Order").getPath());
+
+      List<JavaClass> entities = jpa.getAllEntities();
+      Assert.assertEquals(1, entities.size());
+      Assert.assertEquals("Order", entities.get(0).getName());
+   }
+}
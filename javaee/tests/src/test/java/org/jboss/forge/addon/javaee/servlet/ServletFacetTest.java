@@ -13,9 +13,11 @@ import org.jboss.arquillian.container.test.api.Deployment;
 import org.jboss.arquillian.junit.Arquillian;
 import org.jboss.forge.addon.facets.FacetFactory;
 import org.jboss.forge.addon.facets.FacetIsAmbiguousException;
+import org.jboss.forge.addon.javaee.Descriptors;
 import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.projects.ProjectFactory;
 import org.jboss.forge.addon.projects.facets.MetadataFacet;
+import org.jboss.forge.addon.resource.transaction.ResourceTransaction;
 import org.jboss.forge.arquillian.AddonDependency;
 import org.jboss.forge.arquillian.Dependencies;
 import org.jboss.forge.arquillian.archive.ForgeArchive;
@@ -95,6 +97,55 @@ public class ServletFacetTest
       Assert.assertNotNull(project.getFacet(ServletFacet.class));
    }
 
+   @Test
+   public void testWebXMLConfigReflectsChanges() throws Exception
+   {
+      Project project = projectFactory.createTempProject();
+      ServletFacet_3_0 facet = facetFactory.install(project, ServletFacet_3_0.class);
+      WebAppDescriptor config = facet.getConfig();
+      config.removeAllDisplayName().displayName("Saved");
+      facet.saveConfig(config);
+      Assert.assertEquals("Saved", facet.getConfig().getAllDisplayName().get(0));
+
+      WebAppDescriptor changed = Descriptors.create(WebAppDescriptor.class).displayName("Changed Outside");
+      facet.getConfigFile().setContents(changed.exportAsString());
+      Assert.assertEquals("Changed Outside", facet.getConfig().getAllDisplayName().get(0));
+   }
+
+   @Test
+   public void testUnsavedWebXMLChangesAreNotShared() throws Exception
+   {
+      Project project = projectFactory.createTempProject();
+      ServletFacet_3_0 facet = facetFactory.install(project, ServletFacet_3_0.class);
+      facet.getConfig().removeAllDisplayName().displayName("Unsaved");
+      Assert.assertFalse(facet.getConfig().getAllDisplayName().contains("Unsaved"));
+   }
+
+   @Test
+   public void testWebXMLConfigInTransaction() throws Exception
+   {
+      Project project = projectFactory.createTempProject();
+      ServletFacet_3_0 facet = facetFactory.install(project, ServletFacet_3_0.class);
+      WebAppDescriptor config = facet.getConfig();
+      config.removeAllDisplayName().displayName("Committed");
+      facet.saveConfig(config);
+
+      ResourceTransaction transaction = project.getRootDirectory().getResourceFactory().getTransaction();
+      transaction.begin();
+      try
+      {
+         WebAppDescriptor changed = facet.getConfig();
+         changed.removeAllDisplayName().displayName("Uncommitted");
+         facet.saveConfig(changed);
+         Assert.assertEquals("Uncommitted", facet.getConfig().getAllDisplayName().get(0));
+      }
+      finally
+      {
+         transaction.rollback();
+      }
+      Assert.assertEquals("Committed", facet.getConfig().getAllDisplayName().get(0));
+   }
+
    @Test
    public void testWebXMLInitialInfo_2_5() throws Exception
    {
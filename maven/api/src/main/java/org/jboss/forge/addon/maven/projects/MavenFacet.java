@@ -39,6 +39,28 @@ public interface MavenFacet extends ProvidedProjectFacet
     */
    void setModel(Model pom);
 
+   /**
+    * Start a batch of {@link Model} changes. Until the matching call to {@link #commitModelChanges()},
+    * {@link #setModel(Model)} only keeps the given {@link Model} in memory, and {@link #getModel()} returns a copy of
+    * it. Batches may be nested; the POM file is written once, when the outermost batch is committed.
+    */
+   void beginModelChanges();
+
+   /**
+    * Commit a batch of {@link Model} changes started by {@link #beginModelChanges()}.
+    * 
+    * @throws IllegalStateException if no batch was started
+    */
+   void commitModelChanges();
+
+   /**
+    * Discard a batch of {@link Model} changes started by {@link #beginModelChanges()}, as when the changes failed. If
+    * the batch is nested, the changes of the enclosing batches are discarded too when the outermost batch ends.
+    * 
+    * @throws IllegalStateException if no batch was started
+    */
+   void rollbackModelChanges();
+
    /**
     * Get a {@link Map} of all resolvable project properties.
     */
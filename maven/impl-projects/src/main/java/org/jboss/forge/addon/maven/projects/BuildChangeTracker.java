@@ -0,0 +1,217 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.addon.maven.projects;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.inject.Singleton;
+
+/**
+ * Records the state of the files of each project when it is built, so that incremental builds know what changed since
+ * the last successful build, however the files were changed (through Forge, an IDE or a version control system).
+ * Projects are only tracked once they were built, so the first build of a project in a Forge session is always a full
+ * build. The arguments of each build are recorded as well, since the outputs of a build made with other goals or flags
+ * cannot be reused.
+ *
+ * Build outputs (<code>target</code> directories) and hidden directories are not tracked.
+ */
+@Singleton
+public class BuildChangeTracker
+{
+   /**
+    * Files modified this close to a snapshot may be modified again without their time stamp changing, so they are
+    * always considered changed by the next build
+    */
+   private static final long TIMESTAMP_RESOLUTION = 2000L;
+
+   private static final Logger log = Logger.getLogger(BuildChangeTracker.class.getName());
+
+   private final Map<String, Snapshot> snapshots = new HashMap<>();
+
+   /**
+    * Returns the changes made in the given project directory since its last successful build, and records the current
+    * state of the project for the next build, made with the given arguments. Returns <code>null</code> if the project
+    * was not built before, or if its files could not be read.
+    */
+   public synchronized Changes take(File root, List<String> arguments)
+   {
+      String path = root.getAbsolutePath();
+      Snapshot previous = snapshots.remove(path);
+      Snapshot current;
+      try
+      {
+         current = Snapshot.of(root, arguments);
+      }
+      catch (IOException e)
+      {
+         log.log(Level.FINE, "Could not record the files of " + root + ", building everything", e);
+         return null;
+      }
+      snapshots.put(path, current);
+      return previous == null ? null : new Changes(previous, current);
+   }
+
+   /**
+    * Restores the state recorded before the build the given changes were taken for, after that build has failed
+    */
+   public synchronized void restore(File root, Changes changes)
+   {
+      String path = root.getAbsolutePath();
+      if (changes == null)
+      {
+         // Never built successfully
+         snapshots.remove(path);
+      }
+      else
+      {
+         snapshots.put(path, changes.previous);
+      }
+   }
+
+   /**
+    * The files changed in a project since it was last built
+    */
+   public static class Changes
+   {
+      private final Snapshot previous;
+      private final Set<String> paths = new LinkedHashSet<>();
+      private final boolean sameArguments;
+      private boolean cleanRequired;
+
+      private Changes(Snapshot previous, Snapshot current)
+      {
+         this.previous = previous;
+         this.sameArguments = previous.arguments.equals(current.arguments);
+         for (Entry<String, FileState> entry : current.files.entrySet())
+         {
+            FileState before = previous.files.get(entry.getKey());
+            if (before == null || !before.equals(entry.getValue())
+                     || previous.time - before.lastModified < TIMESTAMP_RESOLUTION)
+            {
+               paths.add(entry.getKey());
+            }
+         }
+         for (String path : previous.files.keySet())
+         {
+            if (!current.files.containsKey(path))
+            {
+               // Outputs of the removed file would be left behind
+               paths.add(path);
+               cleanRequired = true;
+            }
+         }
+      }
+
+      /**
+       * Returns the absolute paths of the changed, added and removed files
+       */
+      public Set<String> getPaths()
+      {
+         return paths;
+      }
+
+      /**
+       * Returns <code>true</code> if the last build was made with the same arguments, so that its outputs match the
+       * requested build
+       */
+      public boolean isSameArguments()
+      {
+         return sameArguments;
+      }
+
+      /**
+       * Returns <code>true</code> if files were deleted or renamed, so that the build outputs must be cleaned
+       */
+      public boolean isCleanRequired()
+      {
+         return cleanRequired;
+      }
+   }
+
+   private static class Snapshot
+   {
+      private final long time;
+      private final List<String> arguments;
+      private final Map<String, FileState> files = new HashMap<>();
+
+      private Snapshot(long time, List<String> arguments)
+      {
+         this.time = time;
+         this.arguments = arguments;
+      }
+
+      static Snapshot of(File root, List<String> arguments) throws IOException
+      {
+         final Path rootPath = root.toPath();
+         final Snapshot snapshot = new Snapshot(System.currentTimeMillis(), new ArrayList<>(arguments));
+         Files.walkFileTree(rootPath, new SimpleFileVisitor<Path>()
+         {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+            {
+               String name = dir.getFileName().toString();
+               if (!dir.equals(rootPath) && (name.equals("target") || name.startsWith(".")))
+               {
+                  return FileVisitResult.SKIP_SUBTREE;
+               }
+               return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+            {
+               snapshot.files.put(file.toAbsolutePath().toString(),
+                        new FileState(attrs.lastModifiedTime().toMillis(), attrs.size()));
+               return FileVisitResult.CONTINUE;
+            }
+         });
+         return snapshot;
+      }
+   }
+
+   private static class FileState
+   {
+      private final long lastModified;
+      private final long size;
+
+      FileState(long lastModified, long size)
+      {
+         this.lastModified = lastModified;
+         this.size = size;
+      }
+
+      @Override
+      public int hashCode()
+      {
+         return (int) (lastModified ^ (lastModified >>> 32)) * 31 + (int) (size ^ (size >>> 32));
+      }
+
+      @Override
+      public boolean equals(Object obj)
+      {
+         if (!(obj instanceof FileState))
+            return false;
+         FileState other = (FileState) obj;
+         return lastModified == other.lastModified && size == other.size;
+      }
+   }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.addon.maven.projects;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.maven.Maven;
+import org.apache.maven.execution.AbstractExecutionListener;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenExecutionRequestPopulator;
+import org.apache.maven.execution.MavenExecutionResult;
+import org.apache.maven.plugin.MojoExecution;
+import org.jboss.forge.furnace.manager.maven.MavenContainer;
+import org.jboss.forge.furnace.util.ClassLoaders;
+
+/**
+ * Runs Maven builds inside the Forge process, reusing the same Plexus container for every build. Unlike
+ * {@link org.apache.maven.cli.MavenCli}, which starts and disposes a container on each invocation, this keeps the
+ * container, its plugin realm cache and the JIT-compiled Maven code warm between builds.
+ *
+ * Only goals and the <code>-D</code>, <code>-P</code>, <code>-pl</code>, <code>-am</code>, <code>-amd</code>,
+ * <code>-o</code>, <code>-q</code> and <code>-B</code> options are understood. Builds with other arguments, or when
+ * <code>maven.embedded.warm</code> is set to <code>false</code>, are left to {@link org.apache.maven.cli.MavenCli}.
+ *
+ * The shared container only logs errors, so the progress of a build is reported by this executor, which only prints
+ * errors when <code>-q</code> is given.
+ */
+@Singleton
+class EmbeddedMavenExecutor
+{
+   private static final Logger log = Logger.getLogger(EmbeddedMavenExecutor.class.getName());
+
+   private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("maven.embedded.warm", "true"));
+
+   @Inject
+   private PlexusContainer plexus;
+
+   @Inject
+   private MavenContainer container;
+
+   /**
+    * Runs Maven with the given arguments on the project in the given directory.
+    *
+    * @return {@link Boolean#TRUE} if the build succeeded, {@link Boolean#FALSE} if it failed, or <code>null</code> if
+    *         the build could not be run by this executor
+    */
+   synchronized Boolean execute(final File directory, final String[] arguments, final PrintStream out,
+            final PrintStream err)
+   {
+      if (!ENABLED)
+      {
+         return null;
+      }
+      final MavenExecutionRequest request = createRequest(directory, arguments);
+      if (request == null)
+      {
+         return null;
+      }
+      try
+      {
+         return ClassLoaders.executeIn(Thread.currentThread().getContextClassLoader(), new Callable<Boolean>()
+         {
+            @Override
+            public Boolean call() throws Exception
+            {
+               return execute(request, out, err);
+            }
+         });
+      }
+      catch (Exception e)
+      {
+         log.log(Level.FINE, "Could not run embedded Maven build in [" + directory + "]", e);
+         return null;
+      }
+   }
+
+   private Boolean execute(MavenExecutionRequest request, PrintStream out, PrintStream err) throws Exception
+   {
+      boolean quiet = request.getLoggingLevel() == MavenExecutionRequest.LOGGING_LEVEL_ERROR;
+      MavenExecutionRequestPopulator populator = plexus.lookup(MavenExecutionRequestPopulator.class);
+      populator.populateFromSettings(request, container.getSettings());
+      populator.populateDefaults(request);
+      request.setExecutionListener(new OutputExecutionListener(out, quiet));
+
+      long start = System.currentTimeMillis();
+      MavenExecutionResult result = plexus.lookup(Maven.class).execute(request);
+      long duration = System.currentTimeMillis() - start;
+
+      if (result.hasExceptions())
+      {
+         for (Throwable exception : result.getExceptions())
+         {
+            err.println("[ERROR] " + exception.getMessage());
+         }
+      }
+      if (!quiet)
+      {
+         out.println(result.hasExceptions() ? "[INFO] BUILD FAILURE" : "[INFO] BUILD SUCCESS");
+         out.println("[INFO] Total time: " + duration + "ms");
+      }
+      return !result.hasExceptions();
+   }
+
+   /**
+    * Returns the request for the given arguments, or <code>null</code> if some arguments are not supported
+    */
+   static MavenExecutionRequest createRequest(File directory, String[] arguments)
+   {
+      List<String> goals = new ArrayList<>();
+      Properties userProperties = new Properties();
+      MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+      request.setLoggingLevel(MavenExecutionRequest.LOGGING_LEVEL_INFO);
+      boolean alsoMake = false;
+      boolean alsoMakeDependents = false;
+      List<String> args = arguments == null ? new ArrayList<String>() : Arrays.asList(arguments);
+      for (int i = 0; i < args.size(); i++)
+      {
+         String arg = args.get(i).trim();
+         if (arg.isEmpty())
+         {
+            continue;
+         }
+         else if (!arg.startsWith("-"))
+         {
+            goals.add(arg);
+         }
+         else if (arg.startsWith("-D") && arg.length() > 2)
+         {
+            String property = arg.substring(2);
+            int separator = property.indexOf('=');
+            if (separator == -1)
+               userProperties.setProperty(property, "true");
+            else
+               userProperties.setProperty(property.substring(0, separator), property.substring(separator + 1));
+         }
+         else if (arg.equals("-P") || arg.equals("--activate-profiles"))
+         {
+            if (++i == args.size())
+               return null;
+            request.addActiveProfiles(Arrays.asList(args.get(i).split(",")));
+         }
+         else if (arg.startsWith("-P"))
+         {
+            request.addActiveProfiles(Arrays.asList(arg.substring(2).split(",")));
+         }
+         else if (arg.equals("-pl") || arg.equals("--projects"))
+         {
+            if (++i == args.size())
+               return null;
+            request.setSelectedProjects(Arrays.asList(args.get(i).split(",")));
+         }
+         else if (arg.equals("-am") || arg.equals("--also-make"))
+         {
+            alsoMake = true;
+         }
+         else if (arg.equals("-amd") || arg.equals("--also-make-dependents"))
+         {
+            alsoMakeDependents = true;
+         }
+         else if (arg.equals("-o") || arg.equals("--offline"))
+         {
+            request.setOffline(true);
+         }
+         else if (arg.equals("-q") || arg.equals("--quiet"))
+         {
+            request.setLoggingLevel(MavenExecutionRequest.LOGGING_LEVEL_ERROR);
+         }
+         else if (arg.equals("-B") || arg.equals("--batch-mode"))
+         {
+            // Embedded builds are never interactive
+         }
+         else
+         {
+            return null;
+         }
+      }
+      if (goals.isEmpty())
+      {
+         return null;
+      }
+      if (alsoMake && alsoMakeDependents)
+         request.setMakeBehavior(MavenExecutionRequest.REACTOR_MAKE_BOTH);
+      else if (alsoMake)
+         request.setMakeBehavior(MavenExecutionRequest.REACTOR_MAKE_UPSTREAM);
+      else if (alsoMakeDependents)
+         request.setMakeBehavior(MavenExecutionRequest.REACTOR_MAKE_DOWNSTREAM);
+
+      Properties systemProperties = new Properties();
+      systemProperties.putAll(System.getProperties());
+      systemProperties.putAll(userProperties);
+      request.setGoals(goals);
+      request.setUserProperties(userProperties);
+      request.setSystemProperties(systemProperties);
+      request.setBaseDirectory(directory);
+      request.setPom(new File(directory, "pom.xml"));
+      request.setInteractiveMode(false);
+      return request;
+   }
+
+   /**
+    * Reports the progress of a build to the given {@link PrintStream}
+    */
+   private static class OutputExecutionListener extends AbstractExecutionListener
+   {
+      private final PrintStream out;
+      private final boolean quiet;
+
+      OutputExecutionListener(PrintStream out, boolean quiet)
+      {
+         this.out = out;
+         this.quiet = quiet;
+      }
+
+      @Override
+      public void projectStarted(ExecutionEvent event)
+      {
+         if (quiet)
+            return;
+         org.apache.maven.project.MavenProject project = event.getProject();
+         out.println("[INFO] Building " + project.getName() + " " + project.getVersion());
+      }
+
+      @Override
+      public void mojoStarted(ExecutionEvent event)
+      {
+         if (quiet)
+            return;
+         MojoExecution mojo = event.getMojoExecution();
+         out.println("[INFO] --- " + mojo.getArtifactId() + ":" + mojo.getVersion() + ":" + mojo.getGoal() + " ("
+                  + mojo.getExecutionId() + ") @ " + event.getProject().getArtifactId() + " ---");
+      }
+
+      @Override
+      public void projectFailed(ExecutionEvent event)
+      {
+         out.println("[ERROR] Failed to build " + event.getProject().getName());
+      }
+   }
+}
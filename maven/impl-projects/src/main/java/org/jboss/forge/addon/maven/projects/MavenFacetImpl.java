@@ -18,7 +18,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -31,6 +36,7 @@ import org.apache.maven.execution.DefaultMavenExecutionRequest;
 import org.apache.maven.execution.MavenExecutionRequest;
 import org.apache.maven.execution.MavenExecutionRequestPopulator;
 import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
 import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
 import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingRequest;
@@ -49,7 +55,9 @@ import org.eclipse.aether.util.repository.DefaultProxySelector;
 import org.jboss.forge.addon.environment.Environment;
 import org.jboss.forge.addon.facets.AbstractFacet;
 import org.jboss.forge.addon.maven.environment.Network;
+import org.jboss.forge.addon.maven.projects.util.EffectiveModelPatcher;
 import org.jboss.forge.addon.maven.projects.util.NativeSystemCall;
+import org.jboss.forge.addon.maven.projects.util.PropertyInterpolator;
 import org.jboss.forge.addon.maven.projects.util.RepositoryUtils;
 import org.jboss.forge.addon.maven.resources.MavenModelResource;
 import org.jboss.forge.addon.projects.Project;
@@ -63,6 +71,7 @@ import org.jboss.forge.furnace.container.cdi.events.Local;
 import org.jboss.forge.furnace.event.PreShutdown;
 import org.jboss.forge.furnace.manager.maven.MavenContainer;
 import org.jboss.forge.furnace.spi.ListenerRegistration;
+import org.jboss.forge.furnace.util.ClassLoaders;
 import org.jboss.forge.furnace.util.OperatingSystemUtils;
 
 /**
@@ -72,7 +81,30 @@ public class MavenFacetImpl extends AbstractFacet<Project> implements ProjectFac
 {
    private static final Logger log = Logger.getLogger(MavenFacetImpl.class.getName());
 
+   private static final boolean EAGER_BUILDS = !Boolean.getBoolean("maven.project.build.lazy");
+
    private ProjectBuildingResult buildingResult;
+   private ProjectBuildingResult interpolatedResult;
+   private PropertyInterpolator interpolator;
+   private Model pendingModel;
+   private int pendingChanges;
+   private boolean pendingRollback;
+   /*
+    * The POM contents the current building result was built from, or patched to
+    */
+   private String resultContents;
+   /*
+    * Incremented each time the POM changes, so that builds of previous versions are discarded
+    */
+   private int generation;
+   private FutureTask<ProjectBuildingResult> pendingBuild;
+   /*
+    * The thread running the current build in the background, if any
+    */
+   private Thread buildThread;
+   private ProjectBuildingResult lastKnownResult;
+   private long lastBuildDuration = -1;
+   private long staleSince;
    private ProjectBuilder builder;
    private ResourceMonitor monitor;
    private ListenerRegistration<ResourceListener> listenerRegistration;
@@ -89,6 +121,15 @@ public class MavenFacetImpl extends AbstractFacet<Project> implements ProjectFac
    @Inject
    private PlexusContainer plexus;
 
+   @Inject
+   private ProjectModelCache modelCache;
+
+   @Inject
+   private ProjectBuildingExecutor buildExecutor;
+
+   @Inject
+   private EmbeddedMavenExecutor embeddedExecutor;
+
    private ProjectBuilder getBuilder()
    {
       if (builder == null)
@@ -157,6 +198,8 @@ public class MavenFacetImpl extends AbstractFacet<Project> implements ProjectFac
          LocalRepository localRepo = new LocalRepository(settings.getLocalRepository());
          repositorySession.setLocalRepositoryManager(system.newLocalRepositoryManager(repositorySession, localRepo));
          repositorySession.setOffline(offline);
+         repositorySession.setWorkspaceReader(modelCache);
+         repositorySession.setCache(modelCache.getRepositoryCache(offline, settings, settingsRepos));
          List<Mirror> mirrors = executionRequest.getMirrors();
          if (mirrors != null)
          {
@@ -214,7 +257,7 @@ public class MavenFacetImpl extends AbstractFacet<Project> implements ProjectFac
             @Override
             public void processEvent(ResourceEvent event)
             {
-               invalidateBuildingResults();
+               modelResourceChanged();
             }
          });
       }
@@ -225,6 +268,14 @@ public class MavenFacetImpl extends AbstractFacet<Project> implements ProjectFac
    {
       if (listenerRegistration != null)
          listenerRegistration.removeListener();
+      synchronized (this)
+      {
+         if (pendingBuild != null)
+         {
+            pendingBuild.cancel(false);
+            pendingBuild = null;
+         }
+      }
    }
 
    @Override
@@ -269,21 +320,94 @@ public class MavenFacetImpl extends AbstractFacet<Project> implements ProjectFac
    }
 
    @Override
-   public Model getModel()
+   public synchronized Model getModel()
    {
+      if (pendingModel != null)
+      {
+         return pendingModel.clone();
+      }
       return getModelResource().getCurrentModel();
    }
 
    @Override
-   public void setModel(final Model pom)
+   public synchronized void setModel(final Model pom)
+   {
+      if (pendingChanges > 0)
+      {
+         pendingModel = pom;
+      }
+      else
+      {
+         writeModel(pom);
+      }
+   }
+
+   @Override
+   public synchronized void beginModelChanges()
+   {
+      pendingChanges++;
+   }
+
+   @Override
+   public synchronized void commitModelChanges()
+   {
+      if (pendingChanges == 0)
+      {
+         throw new IllegalStateException("No model changes were started");
+      }
+      if (--pendingChanges == 0)
+      {
+         endModelChanges();
+      }
+   }
+
+   @Override
+   public synchronized void rollbackModelChanges()
+   {
+      if (pendingChanges == 0)
+      {
+         throw new IllegalStateException("No model changes were started");
+      }
+      pendingRollback = true;
+      if (--pendingChanges == 0)
+      {
+         endModelChanges();
+      }
+   }
+
+   /**
+    * Writes the changes of the outermost batch, unless a batch was rolled back
+    */
+   private void endModelChanges()
    {
+      Model pom = pendingModel;
+      boolean rollback = pendingRollback;
+      pendingModel = null;
+      pendingRollback = false;
+      if (pom != null && !rollback)
+      {
+         writeModel(pom);
+      }
+   }
+
+   private void writeModel(final Model pom)
+   {
+      MavenModelResource pomResource = getModelResource();
+      Model previous = null;
+      if (buildingResult != null && resultContents != null && resultContents.equals(pomResource.getContents()))
+      {
+         previous = pomResource.getCurrentModel();
+      }
+      String contents;
       MavenXpp3Writer writer = new MavenXpp3Writer();
       ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
       Writer fw = new OutputStreamWriter(outputStream);
       try
       {
          writer.write(fw, pom);
-         getModelResource().setContents(outputStream.toString());
+         fw.flush();
+         contents = outputStream.toString();
+         pomResource.setContents(contents);
       }
       catch (IOException e)
       {
@@ -304,50 +428,331 @@ public class MavenFacetImpl extends AbstractFacet<Project> implements ProjectFac
 
       /*
        * Invalidate build result immediately; otherwise, the current thread may not get correct results until the
-       * monitor thread catches the change.
+       * monitor thread catches the change. Changes that cannot affect dependencies are applied to the current result.
        */
-      invalidateBuildingResults();
+      if (previous != null && EffectiveModelPatcher.patch(previous, pom, buildingResult.getProject().getModel()))
+      {
+         resultContents = contents;
+      }
+      else
+      {
+         modelCache.invalidate(pomResource.getUnderlyingResourceObject());
+         invalidateBuildingResults();
+      }
    }
 
    /*
     * POM manipulation methods
     */
-   public synchronized ProjectBuildingResult getProjectBuildingResult() throws Exception
+
+   /**
+    * Returns the {@link ProjectBuildingResult} of the current POM. If a build was started in the background after the
+    * POM changed, waits for it to complete, or runs it on the calling thread if it was not started yet; otherwise builds
+    * the project on the calling thread.
+    */
+   public ProjectBuildingResult getProjectBuildingResult() throws Exception
    {
-      if (this.buildingResult == null)
+      while (true)
       {
-         ProjectBuildingRequest request = null;
-         request = getRequest();
-         MavenModelResource pomResource = getModelResource();
-         if (request != null)
+         FutureTask<ProjectBuildingResult> build;
+         int buildGeneration;
+         synchronized (this)
+         {
+            if (buildingResult != null)
+            {
+               return buildingResult;
+            }
+            if (pendingBuild == null)
+            {
+               pendingBuild = newBuild();
+            }
+            else if (log.isLoggable(Level.FINE))
+            {
+               log.log(Level.FINE, "Waiting for project [" + getModelResource().getFullyQualifiedName()
+                        + "] to be built, stale for " + getBuildStaleness() + "ms, last build took "
+                        + getLastBuildDuration() + "ms");
+            }
+            build = pendingBuild;
+            buildGeneration = generation;
+         }
+
+         // Does nothing if the build was already started in the background
+         build.run();
+         try
+         {
+            build.get();
+         }
+         catch (CancellationException e)
          {
+            // Superseded by a later change to the POM
+         }
+         catch (ExecutionException e)
+         {
+            synchronized (this)
+            {
+               if (buildGeneration == generation)
+               {
+                  Throwable cause = e.getCause();
+                  if (cause instanceof RuntimeException)
+                     throw (RuntimeException) cause;
+                  throw new RuntimeException(cause);
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Returns the {@link ProjectBuildingResult} to read the project properties from. While the current POM is being
+    * built, this is the last known result if the change cannot affect the properties, so that property lookups do not
+    * wait for the build.
+    */
+   private ProjectBuildingResult getPropertiesBuildingResult() throws Exception
+   {
+      synchronized (this)
+      {
+         ProjectBuildingResult result = getLastKnownProjectBuildingResult();
+         if (result != null
+                  && (result == buildingResult || hasSameProperties(result.getProject().getOriginalModel(), getModel())))
+         {
+            return result;
+         }
+      }
+      return getProjectBuildingResult();
+   }
+
+   /**
+    * Returns <code>true</code> if a project built from the current POM {@link Model} has the properties of the one built
+    * from the given POM {@link Model}
+    */
+   private static boolean hasSameProperties(Model built, Model current)
+   {
+      if (built == null || !built.getProfiles().isEmpty() || !current.getProfiles().isEmpty())
+      {
+         // Profiles may be activated by the change
+         return false;
+      }
+      Parent parent = built.getParent();
+      Parent currentParent = current.getParent();
+      if (parent == null ? currentParent != null : currentParent == null
+               || !parent.getId().equals(currentParent.getId())
+               || !Objects.equals(parent.getRelativePath(), currentParent.getRelativePath()))
+      {
+         return false;
+      }
+      return built.getProperties().equals(current.getProperties());
+   }
+
+   /**
+    * Returns the {@link ProjectBuildingResult} of the current POM if available, or else the last one successfully
+    * built, without waiting for a build to complete. Returns <code>null</code> if the project was never built.
+    */
+   public synchronized ProjectBuildingResult getLastKnownProjectBuildingResult()
+   {
+      return buildingResult != null ? buildingResult : lastKnownResult;
+   }
+
+   /**
+    * Returns how long the last project build took, in milliseconds, or -1 if the project was never built
+    */
+   public synchronized long getLastBuildDuration()
+   {
+      return lastBuildDuration;
+   }
+
+   /**
+    * Returns for how long, in milliseconds, the POM has changed without a new {@link ProjectBuildingResult} being
+    * available. Returns 0 if the current result is up to date.
+    */
+   public synchronized long getBuildStaleness()
+   {
+      return staleSince == 0 ? 0 : System.currentTimeMillis() - staleSince;
+   }
+
+   /**
+    * Creates the task building the current POM. Must be called while holding the lock of this facet.
+    */
+   private FutureTask<ProjectBuildingResult> newBuild()
+   {
+      final int buildGeneration = generation;
+      final ProjectBuildingRequest request = getRequest();
+      if (request == null)
+      {
+         throw new RuntimeException("Project building request was null");
+      }
+      final ProjectBuilder projectBuilder = getBuilder();
+      /*
+       * The POM resource is read, and the POM files registered, here, as resources must not be used concurrently with
+       * the transaction of the calling thread
+       */
+      MavenModelResource pomResource = getModelResource();
+      final String contents = pomResource.getContents();
+      final File pomFile = pomResource.getUnderlyingResourceObject();
+      modelCache.register(pomFile, this);
+      final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+      return new FutureTask<>(new Callable<ProjectBuildingResult>()
+      {
+         @Override
+         public ProjectBuildingResult call() throws Exception
+         {
+            if (!buildStarted(buildGeneration))
+            {
+               throw new CancellationException();
+            }
+            final long start = System.currentTimeMillis();
             try
             {
-               request.setResolveDependencies(true);
-               // FORGE-1287
-               // buildingResult = getBuilder().build(new FileResourceModelSource(pomResource), request);
-               buildingResult = getBuilder().build(pomResource.getUnderlyingResourceObject(), request);
+               return ClassLoaders.executeIn(loader, new Callable<ProjectBuildingResult>()
+               {
+                  @Override
+                  public ProjectBuildingResult call() throws Exception
+                  {
+                     request.setResolveDependencies(true);
+                     // FORGE-1287
+                     // buildingResult = getBuilder().build(new FileResourceModelSource(pomResource), request);
+                     ProjectBuildingResult result = projectBuilder.build(pomFile, request);
+                     long duration = System.currentTimeMillis() - start;
+                     buildCompleted(buildGeneration, result, contents, duration);
+                     log.log(Level.FINE, "Built project [" + pomFile + "] in " + duration + "ms");
+                     return result;
+                  }
+               });
             }
             catch (RuntimeException full)
             {
+               buildFailed(buildGeneration);
                throw full;
             }
             catch (Exception full)
             {
+               buildFailed(buildGeneration);
                throw new RuntimeException(full);
             }
+            finally
+            {
+               buildFinished();
+            }
          }
-         else
+      });
+   }
+
+   /**
+    * Records the thread running a build started in the background, so that it can be interrupted once superseded.
+    * Returns <code>false</code> if the build was superseded already.
+    */
+   private synchronized boolean buildStarted(int buildGeneration)
+   {
+      if (buildGeneration != generation)
+      {
+         return false;
+      }
+      if (ProjectBuildingExecutor.isBuilderThread())
+      {
+         buildThread = Thread.currentThread();
+      }
+      return true;
+   }
+
+   private synchronized void buildFinished()
+   {
+      if (buildThread == Thread.currentThread())
+      {
+         buildThread = null;
+      }
+   }
+
+   private synchronized void buildCompleted(int buildGeneration, ProjectBuildingResult result, String contents,
+            long duration)
+   {
+      lastBuildDuration = duration;
+      if (buildGeneration == generation)
+      {
+         buildingResult = result;
+         resultContents = contents;
+         lastKnownResult = result;
+         pendingBuild = null;
+         staleSince = 0;
+      }
+   }
+
+   private synchronized void buildFailed(int buildGeneration)
+   {
+      if (buildGeneration == generation)
+      {
+         pendingBuild = null;
+      }
+   }
+
+   /**
+    * Returns the {@link PropertyInterpolator} for the properties of the current {@link ProjectBuildingResult}. The same
+    * instance is returned until the POM changes.
+    */
+   public PropertyInterpolator getPropertyInterpolator() throws Exception
+   {
+      ProjectBuildingResult result = getPropertiesBuildingResult();
+      synchronized (this)
+      {
+         if (interpolator == null || interpolatedResult != result)
          {
-            throw new RuntimeException("Project building request was null");
+            interpolator = new PropertyInterpolator(result.getProject().getProperties());
+            interpolatedResult = result;
          }
+         return interpolator;
       }
-      return buildingResult;
    }
 
+   /**
+    * Discards the current build result and schedules building the project again in the background. Builds of a
+    * previous version of the POM are cancelled if not started yet, interrupted if running in the background, and their
+    * result is ignored otherwise. Must be called while holding the lock of this facet.
+    */
    private void invalidateBuildingResults()
    {
       this.buildingResult = null;
+      this.resultContents = null;
+      generation++;
+      if (staleSince == 0)
+      {
+         staleSince = System.currentTimeMillis();
+      }
+      if (pendingBuild != null)
+      {
+         pendingBuild.cancel(false);
+         pendingBuild = null;
+      }
+      if (buildThread != null)
+      {
+         buildThread.interrupt();
+         buildThread = null;
+      }
+      if (EAGER_BUILDS && getModelResource().exists())
+      {
+         try
+         {
+            pendingBuild = newBuild();
+            buildExecutor.schedule(pendingBuild);
+         }
+         catch (RuntimeException e)
+         {
+            log.log(Level.FINE, "Could not start building project [" + getModelResource().getFullyQualifiedName()
+                     + "]", e);
+            pendingBuild = null;
+         }
+      }
+   }
+
+   /**
+    * Invalidates the build result, unless it already reflects the current POM contents (as when the change was made
+    * through {@link #setModel(Model)})
+    */
+   private synchronized void modelResourceChanged()
+   {
+      MavenModelResource pomResource = getModelResource();
+      if (resultContents == null || !pomResource.exists() || !resultContents.equals(pomResource.getContents()))
+      {
+         modelCache.invalidate(pomResource.getUnderlyingResourceObject());
+         invalidateBuildingResults();
+      }
    }
 
    @Override
@@ -357,7 +762,7 @@ public class MavenFacetImpl extends AbstractFacet<Project> implements ProjectFac
 
       try
       {
-         Properties properties = getProjectBuildingResult().getProject().getProperties();
+         Properties properties = getPropertiesBuildingResult().getProject().getProperties();
          for (Entry<Object, Object> o : properties.entrySet())
          {
             result.put((String) o.getKey(), (String) o.getValue());
@@ -379,16 +784,10 @@ public class MavenFacetImpl extends AbstractFacet<Project> implements ProjectFac
       String result = input;
       try
       {
-         if (input != null)
+         // Plain values do not need the project to be built
+         if (input != null && input.contains("${"))
          {
-            Properties properties = getProjectBuildingResult().getProject().getProperties();
-
-            for (Entry<Object, Object> e : properties.entrySet())
-            {
-               String key = "\\$\\{" + e.getKey().toString() + "\\}";
-               Object value = e.getValue();
-               result = result.replaceAll(key, value.toString());
-            }
+            result = getPropertyInterpolator().interpolate(input);
          }
       }
       catch (Exception e)
@@ -425,10 +824,24 @@ public class MavenFacetImpl extends AbstractFacet<Project> implements ProjectFac
       {
          parms = new String[] { "" };
       }
-      MavenCli cli = new MavenCli();
-      int i = cli.doMain(parms, getFaceted().getRootDirectory().getFullyQualifiedName(),
-               out, err);
-      return i == 0;
+      try
+      {
+         Boolean result = embeddedExecutor.execute(getFaceted().getRootDirectory().getUnderlyingResourceObject(),
+                  parms, out, err);
+         if (result != null)
+         {
+            return result;
+         }
+         MavenCli cli = new MavenCli();
+         int i = cli.doMain(parms, getFaceted().getRootDirectory().getFullyQualifiedName(),
+                  out, err);
+         return i == 0;
+      }
+      finally
+      {
+         // The build wrote to the file system behind the back of the current command
+         factory.getFileOperations().invalidate();
+      }
    }
 
    @Override
@@ -457,6 +870,11 @@ public class MavenFacetImpl extends AbstractFacet<Project> implements ProjectFac
       {
          return executeMavenEmbedded(parms);
       }
+      finally
+      {
+         // The build wrote to the file system behind the back of the current command
+         factory.getFileOperations().invalidate();
+      }
    }
 
    private String getMvnCommand()
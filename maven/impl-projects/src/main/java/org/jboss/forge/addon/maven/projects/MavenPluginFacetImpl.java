@@ -177,10 +177,24 @@ public class MavenPluginFacetImpl extends AbstractFacet<Project> implements Mave
 
    private void updatePlugin(final MavenPlugin plugin, boolean managedPlugin)
    {
-      this.removePlugin(plugin.getCoordinate(), managedPlugin);
-      if (!this.hasPlugin(plugin.getCoordinate(), managedPlugin, false))
+      MavenFacet mavenCoreFacet = getFaceted().getFacet(MavenFacet.class);
+      mavenCoreFacet.beginModelChanges();
+      boolean completed = false;
+      try
       {
-         this.addPlugin(plugin, managedPlugin);
+         this.removePlugin(plugin.getCoordinate(), managedPlugin);
+         if (!this.hasPlugin(plugin.getCoordinate(), managedPlugin, false))
+         {
+            this.addPlugin(plugin, managedPlugin);
+         }
+         completed = true;
+      }
+      finally
+      {
+         if (completed)
+            mavenCoreFacet.commitModelChanges();
+         else
+            mavenCoreFacet.rollbackModelChanges();
       }
    }
 
@@ -6,17 +6,24 @@
  */
 package org.jboss.forge.addon.maven.projects;
 
+import java.io.File;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
+import org.apache.maven.model.Model;
 import org.jboss.forge.addon.environment.Environment;
 import org.jboss.forge.addon.maven.environment.Network;
+import org.jboss.forge.addon.maven.projects.BuildChangeTracker.Changes;
 import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.projects.building.BuildException;
 import org.jboss.forge.addon.projects.building.ProjectBuilder;
 import org.jboss.forge.addon.projects.facets.PackagingFacet;
+import org.jboss.forge.addon.resource.DirectoryResource;
 import org.jboss.forge.addon.resource.Resource;
 
 /**
@@ -25,16 +32,32 @@ import org.jboss.forge.addon.resource.Resource;
  */
 public class MavenProjectBuilder implements ProjectBuilder
 {
+   /**
+    * The lifecycle phases that compile the project, after which the recorded changes are considered built
+    */
+   private static final Set<String> BUILD_PHASES = new LinkedHashSet<>(Arrays.asList("compile", "process-classes",
+            "test-compile", "process-test-classes", "test", "prepare-package", "package", "pre-integration-test",
+            "integration-test", "post-integration-test", "verify", "install", "deploy"));
+
    private final Environment environment;
    private final Project project;
+   private final BuildChangeTracker changeTracker;
 
    private boolean runTests = true;
+   private boolean incremental = false;
    private final List<String> args = new ArrayList<>();
 
    public MavenProjectBuilder(final Environment environment, final Project project)
+   {
+      this(environment, project, null);
+   }
+
+   public MavenProjectBuilder(final Environment environment, final Project project,
+            final BuildChangeTracker changeTracker)
    {
       this.environment = environment;
       this.project = project;
+      this.changeTracker = changeTracker;
    }
 
    @Override
@@ -51,6 +74,13 @@ public class MavenProjectBuilder implements ProjectBuilder
       return this;
    }
 
+   @Override
+   public ProjectBuilder incremental(final boolean incremental)
+   {
+      this.incremental = incremental;
+      return this;
+   }
+
    @Override
    public Resource<?> build()
    {
@@ -80,8 +110,28 @@ public class MavenProjectBuilder implements ProjectBuilder
          selected.add("-Dmaven.test.skip=true");
       }
 
+      DirectoryResource root = project.getRootDirectory();
+      Changes changes = null;
+      boolean tracked = changeTracker != null && !Collections.disjoint(selected, BUILD_PHASES);
+      if (tracked)
+      {
+         // Cleaning does not change what the build produces
+         List<String> arguments = new ArrayList<>(selected);
+         arguments.removeAll(Collections.singleton("clean"));
+         changes = changeTracker.take(root.getUnderlyingResourceObject(), arguments);
+         if (incremental && changes != null && !selectIncremental(selected, changes, out))
+         {
+            return project.getFacet(PackagingFacet.class).getFinalArtifact();
+         }
+      }
+
       boolean success = project.getFacet(MavenFacet.class).executeMavenEmbedded(selected, out, err);
 
+      if (!success && tracked)
+      {
+         changeTracker.restore(root.getUnderlyingResourceObject(), changes);
+      }
+
       if (success)
       {
          return project.getFacet(PackagingFacet.class).getFinalArtifact();
@@ -91,4 +141,97 @@ public class MavenProjectBuilder implements ProjectBuilder
          throw new BuildException("Build failed.");
       }
    }
+
+   /**
+    * Adjusts the given arguments to only rebuild what the given changes affect. Changed modules are built with the
+    * modules they depend on, which may not have been installed, and the modules depending on them.
+    *
+    * @return <code>false</code> if nothing changed since the last build, so that there is nothing to build
+    */
+   private boolean selectIncremental(List<String> selected, Changes changes, PrintStream out)
+   {
+      if (!changes.isSameArguments())
+      {
+         out.println("[INFO] Incremental build: the goals or arguments changed since the last build, "
+                  + "building everything");
+         return true;
+      }
+
+      if (changes.getPaths().isEmpty())
+      {
+         out.println("[INFO] Incremental build: no changes since the last build, skipping build");
+         return false;
+      }
+
+      if (changes.isCleanRequired())
+      {
+         out.println("[INFO] Incremental build: files were deleted or renamed since the last build, cleaning");
+      }
+      else if (selected.removeAll(Collections.singleton("clean")))
+      {
+         out.println("[INFO] Incremental build: skipping clean");
+      }
+
+      if (selected.contains("-pl") || selected.contains("--projects"))
+      {
+         return true;
+      }
+
+      Model model = project.getFacet(MavenFacet.class).getModel();
+      List<String> modules = model.getModules();
+      if (!"pom".equals(model.getPackaging()) || modules.isEmpty())
+      {
+         return true;
+      }
+
+      File rootDir = project.getRootDirectory().getUnderlyingResourceObject();
+      Set<String> changedModules = new LinkedHashSet<>();
+      for (String path : changes.getPaths())
+      {
+         String module = getModule(rootDir, modules, path);
+         if (module == null)
+         {
+            // A change outside of the modules, such as the parent POM, affects every module
+            return true;
+         }
+         changedModules.add(module);
+      }
+
+      List<String> skippedModules = new ArrayList<>(modules);
+      skippedModules.removeAll(changedModules);
+      if (!skippedModules.isEmpty())
+      {
+         selected.add("-pl");
+         StringBuilder projects = new StringBuilder();
+         for (String module : changedModules)
+         {
+            if (projects.length() > 0)
+               projects.append(',');
+            projects.append(module);
+         }
+         selected.add(projects.toString());
+         selected.add("-am");
+         selected.add("-amd");
+         out.println("[INFO] Incremental build: building " + changedModules
+                  + " with the modules they depend on and the modules depending on them, skipping unrelated modules "
+                  + skippedModules);
+      }
+      return true;
+   }
+
+   /**
+    * Returns the module of the given modules containing the given path, or <code>null</code> if it belongs to none
+    */
+   private String getModule(File rootDir, List<String> modules, String path)
+   {
+      for (String module : modules)
+      {
+         String moduleDir = new File(rootDir, module).toPath().normalize().toString();
+         if (path.startsWith(moduleDir + File.separator))
+         {
+            return module;
+         }
+      }
+      return null;
+   }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.addon.maven.projects;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.event.Observes;
+import javax.inject.Singleton;
+
+import org.jboss.forge.furnace.container.cdi.events.Local;
+import org.jboss.forge.furnace.event.PreShutdown;
+
+/**
+ * Runs the project builds {@link MavenFacetImpl} starts when a POM changes. Builds start once the POM did not change for
+ * <code>maven.project.build.delay</code> milliseconds (200 by default), so that a series of changes is built once. At
+ * most <code>maven.project.build.threads</code> builds (2 by default) run at the same time.
+ */
+@Singleton
+class ProjectBuildingExecutor
+{
+   private static final int THREADS = Integer.getInteger("maven.project.build.threads", 2);
+   private static final long DELAY = Long.getLong("maven.project.build.delay", 200L);
+
+   private static final ThreadLocal<Boolean> builderThread = new ThreadLocal<>();
+
+   private ScheduledExecutorService executor;
+
+   /**
+    * Runs the given task after the build delay. Tasks cancelled in the meantime do nothing when run.
+    */
+   synchronized void schedule(Runnable task)
+   {
+      if (executor == null)
+      {
+         executor = new ScheduledThreadPoolExecutor(THREADS, new ThreadFactory()
+         {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable r)
+            {
+               Thread thread = new Thread(new Runnable()
+               {
+                  @Override
+                  public void run()
+                  {
+                     builderThread.set(Boolean.TRUE);
+                     r.run();
+                  }
+               }, "Maven Project Builder " + count.incrementAndGet());
+               thread.setDaemon(true);
+               return thread;
+            }
+         });
+      }
+      executor.schedule(task, DELAY, TimeUnit.MILLISECONDS);
+   }
+
+   /**
+    * Returns <code>true</code> if the calling thread runs builds for this executor, and may thus be interrupted when
+    * its build is superseded
+    */
+   static boolean isBuilderThread()
+   {
+      return Boolean.TRUE.equals(builderThread.get());
+   }
+
+   public synchronized void preShutdown(@Observes @Local PreShutdown event)
+   {
+      if (executor != null)
+      {
+         executor.shutdownNow();
+         executor = null;
+      }
+   }
+}
@@ -0,0 +1,427 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.addon.maven.projects;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.settings.Mirror;
+import org.apache.maven.settings.Proxy;
+import org.apache.maven.settings.Settings;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.RepositoryCache;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.repository.WorkspaceReader;
+import org.eclipse.aether.repository.WorkspaceRepository;
+import org.jboss.forge.addon.resource.FileResource;
+import org.jboss.forge.addon.resource.ResourceFactory;
+import org.jboss.forge.addon.resource.events.ResourceEvent;
+import org.jboss.forge.addon.resource.monitor.ResourceListener;
+import org.jboss.forge.addon.resource.monitor.ResourceMonitor;
+import org.jboss.forge.furnace.container.cdi.events.Local;
+import org.jboss.forge.furnace.event.PreShutdown;
+import org.jboss.forge.furnace.util.Streams;
+
+/**
+ * Shared by all {@link MavenFacetImpl} instances, so that the modules of a multi-module build do not resolve the same
+ * parent POMs and imported BOMs over and over. Every POM a project is built from, and its parents, is registered here
+ * before the build is started, keyed by path and monitored for changes (POMs that cannot be monitored are checked
+ * against their modification time on each lookup instead). Project builds then resolve these POMs from the workspace
+ * instead of the repositories, and builds made with the same offline mode, settings and local repository share a
+ * {@link RepositoryCache}.
+ *
+ * Lookups made by the builds, which run in the background, only use <code>java.io</code>: the resources and the
+ * monitors are only used from {@link #register(File, Object)}, on the thread of the command. POMs are forgotten once
+ * every owner that registered them, usually a {@link MavenFacetImpl}, is garbage collected.
+ *
+ * The {@link RepositoryCache} instances are discarded whenever a registered POM changes, or after
+ * <code>maven.model.cache.age</code> milliseconds (5 minutes by default) so that newly installed artifacts are found.
+ */
+@Singleton
+class ProjectModelCache implements WorkspaceReader
+{
+   private static final Logger log = Logger.getLogger(ProjectModelCache.class.getName());
+
+   private static final long MAX_AGE = Long.getLong("maven.model.cache.age", TimeUnit.MINUTES.toMillis(5));
+
+   private final WorkspaceRepository repository = new WorkspaceRepository("forge");
+   private final Map<File, Entry> entries = new ConcurrentHashMap<>();
+   private final Map<String, CachedRepositoryCache> repositoryCaches = new HashMap<>();
+
+   @Inject
+   private ResourceFactory resourceFactory;
+
+   /**
+    * Registers the given POM file and its parents found on the file system for the given owner, so that their artifacts
+    * are resolved from the workspace until the owner is garbage collected. Must be called from the thread using the
+    * {@link ResourceFactory}, not from a project build.
+    */
+   void register(File pomFile, Object owner)
+   {
+      evictUnowned();
+      List<File> registered = new ArrayList<>();
+      File current = pomFile == null ? null : normalize(pomFile);
+      while (current != null && !registered.contains(current))
+      {
+         registered.add(current);
+         Entry entry = getEntry(current, true);
+         if (entry != null)
+         {
+            entry.addOwner(owner);
+         }
+         current = entry == null ? null : entry.parentFile;
+      }
+   }
+
+   /**
+    * Forgets the POM files of projects that are not used anymore
+    */
+   private void evictUnowned()
+   {
+      Iterator<Entry> iterator = entries.values().iterator();
+      while (iterator.hasNext())
+      {
+         Entry entry = iterator.next();
+         if (!entry.isOwned())
+         {
+            iterator.remove();
+            entry.cancel();
+         }
+      }
+   }
+
+   /**
+    * Discards what is known about the given POM file
+    */
+   void invalidate(File pomFile)
+   {
+      Entry entry = entries.remove(normalize(pomFile));
+      if (entry != null)
+      {
+         entry.cancel();
+         invalidateRepositoryCaches();
+      }
+   }
+
+   /**
+    * Returns the {@link RepositoryCache} shared by project builds made with the given offline mode, settings and
+    * remote repositories
+    */
+   synchronized RepositoryCache getRepositoryCache(boolean offline, Settings settings,
+            List<ArtifactRepository> repositories)
+   {
+      long now = System.currentTimeMillis();
+      Iterator<CachedRepositoryCache> iterator = repositoryCaches.values().iterator();
+      while (iterator.hasNext())
+      {
+         if (now - iterator.next().created > MAX_AGE)
+         {
+            iterator.remove();
+         }
+      }
+      String configuration = describe(offline, settings, repositories);
+      CachedRepositoryCache cached = repositoryCaches.get(configuration);
+      if (cached == null)
+      {
+         cached = new CachedRepositoryCache(now);
+         repositoryCaches.put(configuration, cached);
+      }
+      return cached.cache;
+   }
+
+   private synchronized void invalidateRepositoryCaches()
+   {
+      repositoryCaches.clear();
+   }
+
+   public void preShutdown(@Observes @Local PreShutdown event)
+   {
+      for (Entry entry : entries.values())
+      {
+         entry.cancel();
+      }
+      entries.clear();
+      invalidateRepositoryCaches();
+   }
+
+   @Override
+   public WorkspaceRepository getRepository()
+   {
+      return repository;
+   }
+
+   @Override
+   public File findArtifact(Artifact artifact)
+   {
+      if ("pom".equals(artifact.getExtension()) && artifact.getClassifier().isEmpty())
+      {
+         for (File pomFile : entries.keySet())
+         {
+            Entry entry = getEntry(pomFile, false);
+            if (entry != null && entry.matches(artifact) && entry.version.equals(artifact.getBaseVersion()))
+            {
+               return pomFile;
+            }
+         }
+      }
+      return null;
+   }
+
+   @Override
+   public List<String> findVersions(Artifact artifact)
+   {
+      List<String> result = new ArrayList<>();
+      if ("pom".equals(artifact.getExtension()) && artifact.getClassifier().isEmpty())
+      {
+         for (File pomFile : entries.keySet())
+         {
+            Entry entry = getEntry(pomFile, false);
+            if (entry != null && entry.matches(artifact))
+            {
+               result.add(entry.version);
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Returns the up to date {@link Entry} for the given POM file, reading it if it is not known yet or if it changed.
+    * The file is only monitored if requested, as monitors must not be created from project builds.
+    */
+   private Entry getEntry(File pomFile, boolean monitored)
+   {
+      Entry entry = entries.get(pomFile);
+      if (entry != null && (entry.monitor != null || entry.isCurrent(pomFile)))
+      {
+         return entry;
+      }
+      if (entry != null)
+      {
+         invalidate(pomFile);
+      }
+      Entry previous = entry;
+      entry = readEntry(pomFile, monitored);
+      if (entry != null)
+      {
+         if (previous != null)
+         {
+            synchronized (previous.owners)
+            {
+               entry.owners.addAll(previous.owners);
+            }
+         }
+         entries.put(pomFile, entry);
+         if (!entry.isCurrent(pomFile))
+         {
+            // Changed while it was read, the event may have been processed before the entry was added
+            invalidate(pomFile);
+            return null;
+         }
+      }
+      return entry;
+   }
+
+   private Entry readEntry(File pomFile, boolean monitored)
+   {
+      if (!pomFile.isFile())
+      {
+         return null;
+      }
+      // Monitored before it is read, so that no change is missed
+      ResourceMonitor monitor = monitored ? monitor(pomFile) : null;
+      long lastModified = pomFile.lastModified();
+      long length = pomFile.length();
+      InputStream stream = null;
+      try
+      {
+         stream = new FileInputStream(pomFile);
+         Model model = new MavenXpp3Reader().read(stream);
+         Parent parent = model.getParent();
+         String groupId = model.getGroupId() != null || parent == null ? model.getGroupId() : parent.getGroupId();
+         String version = model.getVersion() != null || parent == null ? model.getVersion() : parent.getVersion();
+         if (groupId == null || version == null || groupId.contains("${") || version.contains("${"))
+         {
+            // Cannot be resolved by coordinates without building the model
+            cancel(monitor);
+            return null;
+         }
+         return new Entry(groupId, model.getArtifactId(), version, getParentFile(pomFile, parent), lastModified,
+                  length, monitor);
+      }
+      catch (Exception e)
+      {
+         log.log(Level.FINE, "Could not read POM file [" + pomFile + "]", e);
+         cancel(monitor);
+         return null;
+      }
+      finally
+      {
+         Streams.closeQuietly(stream);
+      }
+   }
+
+   /**
+    * Monitors the given POM file, invalidating it when it changes. Returns <code>null</code> if it cannot be monitored.
+    */
+   @SuppressWarnings("unchecked")
+   private ResourceMonitor monitor(final File pomFile)
+   {
+      try
+      {
+         FileResource<?> resource = resourceFactory.create(FileResource.class, pomFile);
+         ResourceMonitor monitor = resourceFactory.monitor(resource);
+         monitor.addResourceListener(new ResourceListener()
+         {
+            @Override
+            public void processEvent(ResourceEvent event)
+            {
+               invalidate(pomFile);
+            }
+         });
+         return monitor;
+      }
+      catch (RuntimeException e)
+      {
+         log.log(Level.FINE, "Could not monitor POM file [" + pomFile + "]", e);
+         return null;
+      }
+   }
+
+   private static void cancel(ResourceMonitor monitor)
+   {
+      if (monitor != null)
+      {
+         monitor.cancel();
+      }
+   }
+
+   private static String describe(boolean offline, Settings settings, List<ArtifactRepository> repositories)
+   {
+      StringBuilder result = new StringBuilder(String.valueOf(settings.getLocalRepository()));
+      result.append(offline ? "|offline" : "|online");
+      for (Mirror mirror : settings.getMirrors())
+      {
+         result.append('|').append(mirror.getId()).append('=').append(mirror.getUrl()).append('>')
+                  .append(mirror.getMirrorOf());
+      }
+      Proxy proxy = settings.getActiveProxy();
+      if (proxy != null)
+      {
+         result.append("|proxy=").append(proxy.getHost()).append(':').append(proxy.getPort());
+      }
+      for (ArtifactRepository repository : repositories)
+      {
+         result.append('|').append(repository.getId()).append('=').append(repository.getUrl());
+      }
+      return result.toString();
+   }
+
+   /**
+    * Returns the POM file the given {@link Parent} points to, if it exists
+    */
+   private File getParentFile(File pomFile, Parent parent)
+   {
+      if (parent == null || parent.getRelativePath() == null || parent.getRelativePath().trim().isEmpty())
+      {
+         return null;
+      }
+      File parentFile = new File(pomFile.getParentFile(), parent.getRelativePath().trim());
+      if (parentFile.isDirectory())
+      {
+         parentFile = new File(parentFile, "pom.xml");
+      }
+      return parentFile.isFile() ? normalize(parentFile) : null;
+   }
+
+   private static File normalize(File file)
+   {
+      return file.getAbsoluteFile().toPath().normalize().toFile();
+   }
+
+   private static class Entry
+   {
+      private final String groupId;
+      private final String artifactId;
+      private final String version;
+      private final File parentFile;
+      private final long lastModified;
+      private final long length;
+      private final ResourceMonitor monitor;
+      private final Set<Object> owners = Collections.synchronizedSet(Collections
+               .newSetFromMap(new WeakHashMap<Object, Boolean>()));
+
+      Entry(String groupId, String artifactId, String version, File parentFile, long lastModified, long length,
+               ResourceMonitor monitor)
+      {
+         this.groupId = groupId;
+         this.artifactId = artifactId;
+         this.version = version;
+         this.parentFile = parentFile;
+         this.lastModified = lastModified;
+         this.length = length;
+         this.monitor = monitor;
+      }
+
+      boolean matches(Artifact artifact)
+      {
+         return groupId.equals(artifact.getGroupId()) && artifactId.equals(artifact.getArtifactId());
+      }
+
+      boolean isCurrent(File pomFile)
+      {
+         return lastModified == pomFile.lastModified() && length == pomFile.length();
+      }
+
+      void addOwner(Object owner)
+      {
+         owners.add(owner);
+      }
+
+      boolean isOwned()
+      {
+         return !owners.isEmpty();
+      }
+
+      void cancel()
+      {
+         ProjectModelCache.cancel(monitor);
+      }
+   }
+
+   private static class CachedRepositoryCache
+   {
+      private final RepositoryCache cache = new DefaultRepositoryCache();
+      private final long created;
+
+      CachedRepositoryCache(long created)
+      {
+         this.created = created;
+      }
+   }
+}
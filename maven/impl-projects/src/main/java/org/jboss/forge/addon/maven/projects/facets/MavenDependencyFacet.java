@@ -7,8 +7,11 @@
 package org.jboss.forge.addon.maven.projects.facets;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -34,6 +37,7 @@ import org.jboss.forge.addon.facets.constraints.FacetConstraint;
 import org.jboss.forge.addon.maven.dependencies.MavenDependencyAdapter;
 import org.jboss.forge.addon.maven.projects.MavenFacet;
 import org.jboss.forge.addon.maven.projects.MavenFacetImpl;
+import org.jboss.forge.addon.maven.projects.util.PropertyInterpolator;
 import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.projects.facets.DependencyFacet;
 
@@ -49,6 +53,10 @@ public class MavenDependencyFacet extends AbstractFacet<Project> implements Depe
    @Inject
    private DependencyResolver resolver;
 
+   private final Map<List<String>, List<String>> resolvedValues = new HashMap<>();
+   private PropertyInterpolator resolvedWith;
+   private DependencyIndex index;
+
    @Override
    public boolean isInstalled()
    {
@@ -64,14 +72,27 @@ public class MavenDependencyFacet extends AbstractFacet<Project> implements Depe
    @Override
    public void addDirectDependency(final Dependency dep)
    {
-      removeDependency(dep);
-
       MavenFacet maven = getFaceted().getFacet(MavenFacet.class);
-      Model pom = maven.getModel();
-      List<Dependency> dependencies = MavenDependencyAdapter.fromMavenList(pom.getDependencies());
-      dependencies.add(dep);
-      pom.setDependencies(MavenDependencyAdapter.toMavenList(dependencies));
-      maven.setModel(pom);
+      maven.beginModelChanges();
+      boolean completed = false;
+      try
+      {
+         removeDependency(dep);
+
+         Model pom = maven.getModel();
+         List<Dependency> dependencies = MavenDependencyAdapter.fromMavenList(pom.getDependencies());
+         dependencies.add(dep);
+         pom.setDependencies(MavenDependencyAdapter.toMavenList(dependencies));
+         maven.setModel(pom);
+         completed = true;
+      }
+      finally
+      {
+         if (completed)
+            maven.commitModelChanges();
+         else
+            maven.rollbackModelChanges();
+      }
    }
 
    @Override
@@ -81,9 +102,10 @@ public class MavenDependencyFacet extends AbstractFacet<Project> implements Depe
       Model pom = maven.getModel();
       List<Dependency> dependencies = MavenDependencyAdapter.fromMavenList(pom.getDependencies());
 
+      Dependency resolved = resolveProperties(dependency);
       for (Dependency dep : dependencies)
       {
-         if (Dependencies.areEquivalent(resolveProperties(dependency), dep))
+         if (Dependencies.areEquivalent(resolved, dep))
          {
             return true;
          }
@@ -98,10 +120,11 @@ public class MavenDependencyFacet extends AbstractFacet<Project> implements Depe
       Model pom = maven.getModel();
       List<Dependency> dependencies = MavenDependencyAdapter.fromMavenList(pom.getDependencies());
 
+      Dependency resolved = resolveProperties(dep);
       List<Dependency> toBeRemoved = new ArrayList<>();
       for (Dependency dependency : dependencies)
       {
-         if (Dependencies.areEquivalent(dependency, resolveProperties(dep)))
+         if (Dependencies.areEquivalent(dependency, resolved))
          {
             toBeRemoved.add(dependency);
          }
@@ -134,9 +157,10 @@ public class MavenDependencyFacet extends AbstractFacet<Project> implements Depe
       Model pom = maven.getModel();
       List<Dependency> dependencies = MavenDependencyAdapter.fromMavenList(pom.getDependencies());
 
+      Dependency resolved = resolveProperties(dependency);
       for (Dependency dep : dependencies)
       {
-         if (Dependencies.areEquivalent(resolveProperties(dependency), dep))
+         if (Dependencies.areEquivalent(resolved, dep))
          {
             return resolveProperties(dep);
          }
@@ -153,40 +177,22 @@ public class MavenDependencyFacet extends AbstractFacet<Project> implements Depe
    @Override
    public Dependency getEffectiveDependency(final Dependency manDep)
    {
-      for (Dependency dependency : getEffectiveDependencies())
-      {
-         if (Dependencies.areEquivalent(dependency, resolveProperties(manDep)))
-         {
-            return resolveProperties(dependency);
-         }
-      }
-      return null;
+      DependencyIndex index = getIndex();
+      return index == null ? null : index.getEffectiveDependency(resolveProperties(manDep));
    }
 
    @Override
    public List<Dependency> getEffectiveDependencies()
    {
       List<Dependency> result = new ArrayList<>();
-
-      MavenFacetImpl maven = getFaceted().getFacet(MavenFacetImpl.class);
-      try
+      DependencyIndex index = getIndex();
+      if (index != null)
       {
-         ProjectBuildingResult projectBuildingResult = maven.getProjectBuildingResult();
-         DependencyResolutionResult dependencyResolutionResult = projectBuildingResult.getDependencyResolutionResult();
-         List<Dependency> deps = MavenDependencyAdapter.fromAetherList(dependencyResolutionResult.getDependencies());
-
-         for (Dependency dependency : deps)
+         for (Dependency dependency : index.effective)
          {
-            result.add(resolveProperties(dependency));
+            result.add(DependencyBuilder.create(dependency));
          }
-
       }
-      catch (Exception e)
-      {
-         log.log(Level.SEVERE, "Could not resolve managed dependencies in project ["
-                  + maven.getModelResource().getFullyQualifiedName() + "]. ", e);
-      }
-
       return result;
    }
 
@@ -211,18 +217,31 @@ public class MavenDependencyFacet extends AbstractFacet<Project> implements Depe
    @Override
    public void addDirectManagedDependency(final Dependency dep)
    {
-      removeManagedDependency(dep);
-
       MavenFacet maven = getFaceted().getFacet(MavenFacet.class);
-      Model pom = maven.getModel();
-      DependencyManagement depMan = pom.getDependencyManagement();
-      depMan = depMan != null ? depMan : new DependencyManagement();
+      maven.beginModelChanges();
+      boolean completed = false;
+      try
+      {
+         removeManagedDependency(dep);
 
-      List<Dependency> managedDependencies = MavenDependencyAdapter.fromMavenList(depMan.getDependencies());
-      managedDependencies.add(dep);
-      depMan.setDependencies(MavenDependencyAdapter.toMavenList(managedDependencies));
-      pom.setDependencyManagement(depMan);
-      maven.setModel(pom);
+         Model pom = maven.getModel();
+         DependencyManagement depMan = pom.getDependencyManagement();
+         depMan = depMan != null ? depMan : new DependencyManagement();
+
+         List<Dependency> managedDependencies = MavenDependencyAdapter.fromMavenList(depMan.getDependencies());
+         managedDependencies.add(dep);
+         depMan.setDependencies(MavenDependencyAdapter.toMavenList(managedDependencies));
+         pom.setDependencyManagement(depMan);
+         maven.setModel(pom);
+         completed = true;
+      }
+      finally
+      {
+         if (completed)
+            maven.commitModelChanges();
+         else
+            maven.rollbackModelChanges();
+      }
    }
 
    @Override
@@ -234,28 +253,35 @@ public class MavenDependencyFacet extends AbstractFacet<Project> implements Depe
    @Override
    public Dependency getEffectiveManagedDependency(final Dependency manDep)
    {
-      MavenFacet maven = getFaceted().getFacet(MavenFacet.class);
+      DependencyIndex index = getIndex();
+      return index == null ? null : index.getManagedDependency(resolveProperties(manDep));
+   }
+
+   /**
+    * Returns the {@link DependencyIndex} of the current {@link ProjectBuildingResult}, building it if the POM changed
+    * since the last call, or <code>null</code> if the project could not be built
+    */
+   private DependencyIndex getIndex()
+   {
+      MavenFacetImpl maven = getFaceted().getFacet(MavenFacetImpl.class);
       try
       {
-         DependencyManagement depMan = ((MavenFacetImpl) maven).getProjectBuildingResult().getProject()
-                  .getDependencyManagement();
-         List<Dependency> managedDependencies = (depMan != null ? MavenDependencyAdapter.fromMavenList(depMan
-                  .getDependencies()) : new ArrayList<Dependency>());
-
-         for (Dependency managedDependency : managedDependencies)
+         ProjectBuildingResult projectBuildingResult = maven.getProjectBuildingResult();
+         synchronized (this)
          {
-            if (Dependencies.areEquivalent(managedDependency, resolveProperties(manDep)))
+            if (index == null || index.buildingResult != projectBuildingResult)
             {
-               return resolveProperties(managedDependency);
+               index = new DependencyIndex(projectBuildingResult);
             }
+            return index;
          }
       }
       catch (Exception e)
       {
          log.log(Level.SEVERE, "Could not resolve managed dependencies in project ["
                   + maven.getModelResource().getFullyQualifiedName() + "]. ", e);
+         return null;
       }
-      return null;
    }
 
    @Override
@@ -268,9 +294,10 @@ public class MavenDependencyFacet extends AbstractFacet<Project> implements Depe
       List<Dependency> managedDependencies = depMan != null ? MavenDependencyAdapter.fromMavenList(depMan
                .getDependencies()) : new ArrayList<Dependency>();
 
+      Dependency resolved = resolveProperties(managedDependency);
       for (Dependency manDep : managedDependencies)
       {
-         if (Dependencies.areEquivalent(resolveProperties(managedDependency), manDep))
+         if (Dependencies.areEquivalent(resolved, manDep))
          {
             return true;
          }
@@ -333,9 +360,10 @@ public class MavenDependencyFacet extends AbstractFacet<Project> implements Depe
       List<Dependency> managedDependencies = depMan != null ? MavenDependencyAdapter.fromMavenList(depMan
                .getDependencies()) : new ArrayList<Dependency>();
 
+      Dependency resolved = resolveProperties(manDep);
       for (Dependency managedDependency : managedDependencies)
       {
-         if (Dependencies.areEquivalent(managedDependency, resolveProperties(manDep)))
+         if (Dependencies.areEquivalent(managedDependency, resolved))
          {
             return resolveProperties(managedDependency);
          }
@@ -346,17 +374,85 @@ public class MavenDependencyFacet extends AbstractFacet<Project> implements Depe
    @Override
    public Dependency resolveProperties(final Dependency dependency)
    {
-      MavenFacet mvn = getFaceted().getFacet(MavenFacet.class);
+      Coordinate coordinate = dependency.getCoordinate();
+      List<String> values = Arrays.asList(coordinate.getGroupId(), coordinate.getArtifactId(),
+               coordinate.getVersion(), coordinate.getClassifier(), coordinate.getPackaging(),
+               dependency.getScopeType());
+      List<String> resolved = resolveProperties(values);
+
       DependencyBuilder builder = DependencyBuilder.create(dependency);
+      builder.setGroupId(resolved.get(0));
+      builder.setArtifactId(resolved.get(1));
+      builder.setVersion(resolved.get(2));
+      builder.setClassifier(resolved.get(3));
+      builder.setPackaging(resolved.get(4));
+      builder.setScopeType(resolved.get(5));
+      return builder;
+   }
 
-      builder.setGroupId(mvn.resolveProperties(dependency.getCoordinate().getGroupId()));
-      builder.setArtifactId(mvn.resolveProperties(dependency.getCoordinate().getArtifactId()));
-      builder.setVersion(mvn.resolveProperties(dependency.getCoordinate().getVersion()));
-      builder.setClassifier(mvn.resolveProperties(dependency.getCoordinate().getClassifier()));
-      builder.setPackaging(mvn.resolveProperties(dependency.getCoordinate().getPackaging()));
-      builder.setScopeType(mvn.resolveProperties(dependency.getScopeType()));
+   /**
+    * Resolves the given coordinate values, remembering the result until the POM changes
+    */
+   private List<String> resolveProperties(List<String> values)
+   {
+      boolean hasExpression = false;
+      for (String value : values)
+      {
+         if (value != null && value.contains("${"))
+         {
+            hasExpression = true;
+            break;
+         }
+      }
+      if (!hasExpression)
+      {
+         return values;
+      }
 
-      return builder;
+      MavenFacet mvn = getFaceted().getFacet(MavenFacet.class);
+      PropertyInterpolator interpolator = null;
+      if (mvn instanceof MavenFacetImpl)
+      {
+         try
+         {
+            interpolator = ((MavenFacetImpl) mvn).getPropertyInterpolator();
+         }
+         catch (Exception e)
+         {
+            log.log(Level.FINE, "Could not get property interpolator for project ["
+                     + mvn.getModelResource().getFullyQualifiedName() + "]. ", e);
+         }
+      }
+      if (interpolator == null)
+      {
+         List<String> result = new ArrayList<>();
+         for (String value : values)
+         {
+            result.add(mvn.resolveProperties(value));
+         }
+         return result;
+      }
+
+      synchronized (resolvedValues)
+      {
+         if (resolvedWith != interpolator)
+         {
+            resolvedValues.clear();
+            resolvedWith = interpolator;
+         }
+         List<String> result = resolvedValues.get(values);
+         if (result == null)
+         {
+            result = new ArrayList<>();
+            for (String value : values)
+            {
+               result.add(interpolator.interpolate(value));
+            }
+            result = Collections.unmodifiableList(result);
+            resolvedValues.put(values, result);
+         }
+         return result;
+      }
    }
 
    @Override
@@ -500,4 +596,68 @@ public class MavenDependencyFacet extends AbstractFacet<Project> implements Depe
    {
       super.setFaceted(project);
    }
+
+   /**
+    * The effective and managed dependencies of a {@link ProjectBuildingResult}, with their properties resolved and
+    * indexed by the fields compared by {@link Dependencies#areEquivalent(Dependency, Dependency)}
+    */
+   private class DependencyIndex
+   {
+      private final ProjectBuildingResult buildingResult;
+      private final List<Dependency> effective = new ArrayList<>();
+      private final Map<List<String>, Dependency> effectiveByKey = new HashMap<>();
+      private final Map<List<String>, Dependency> managedByKey = new HashMap<>();
+
+      DependencyIndex(ProjectBuildingResult buildingResult)
+      {
+         this.buildingResult = buildingResult;
+         DependencyResolutionResult dependencyResolutionResult = buildingResult.getDependencyResolutionResult();
+         for (Dependency dependency : MavenDependencyAdapter.fromAetherList(dependencyResolutionResult
+                  .getDependencies()))
+         {
+            Dependency resolved = resolveProperties(dependency);
+            effective.add(resolved);
+            index(effectiveByKey, resolved);
+         }
+         DependencyManagement depMan = buildingResult.getProject().getDependencyManagement();
+         if (depMan != null)
+         {
+            for (Dependency dependency : MavenDependencyAdapter.fromMavenList(depMan.getDependencies()))
+            {
+               index(managedByKey, resolveProperties(dependency));
+            }
+         }
+      }
+
+      Dependency getEffectiveDependency(Dependency dependency)
+      {
+         return copy(effectiveByKey.get(key(dependency)));
+      }
+
+      Dependency getManagedDependency(Dependency dependency)
+      {
+         return copy(managedByKey.get(key(dependency)));
+      }
+
+      private void index(Map<List<String>, Dependency> map, Dependency dependency)
+      {
+         // The first declaration wins, as it did when the list was scanned
+         List<String> key = key(dependency);
+         if (!map.containsKey(key))
+         {
+            map.put(key, dependency);
+         }
+      }
+
+      private List<String> key(Dependency dependency)
+      {
+         Coordinate coordinate = dependency.getCoordinate();
+         return Arrays.asList(coordinate.getGroupId(), coordinate.getArtifactId(), coordinate.getClassifier());
+      }
+
+      private Dependency copy(Dependency dependency)
+      {
+         return dependency == null ? null : DependencyBuilder.create(dependency);
+      }
+   }
 }
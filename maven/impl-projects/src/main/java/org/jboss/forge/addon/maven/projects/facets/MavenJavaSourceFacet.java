@@ -36,6 +36,24 @@ import org.jboss.forge.parser.java.JavaSource;
 @FacetConstraint(MavenFacet.class)
 public class MavenJavaSourceFacet extends AbstractFacet<Project> implements JavaSourceFacet
 {
+   private static final ResourceFilter DIRECTORY_FILTER = new ResourceFilter()
+   {
+      @Override
+      public boolean accept(Resource<?> resource)
+      {
+         return resource instanceof DirectoryResource;
+      }
+   };
+
+   private static final ResourceFilter JAVA_RESOURCE_FILTER = new ResourceFilter()
+   {
+      @Override
+      public boolean accept(Resource<?> resource)
+      {
+         return resource instanceof JavaResource;
+      }
+   };
+
    @Override
    public List<DirectoryResource> getSourceDirectories()
    {
@@ -193,43 +211,27 @@ public class MavenJavaSourceFacet extends AbstractFacet<Project> implements Java
    @Override
    public void visitJavaSources(final JavaResourceVisitor visitor)
    {
-      new ResourceVisit(getSourceDirectory()).perform(visitor, new ResourceFilter()
-      {
-         @Override
-         public boolean accept(Resource<?> resource)
-         {
-            return resource instanceof DirectoryResource;
-         }
-      }, new ResourceFilter()
-      {
-
-         @Override
-         public boolean accept(Resource<?> type)
-         {
-            return type instanceof JavaResource;
-         }
-      });
+      new ResourceVisit(getSourceDirectory()).perform(visitor, DIRECTORY_FILTER, JAVA_RESOURCE_FILTER);
    }
 
    @Override
    public void visitJavaTestSources(final JavaResourceVisitor visitor)
    {
-      new ResourceVisit(getTestSourceDirectory()).perform(visitor, new ResourceFilter()
-      {
-         @Override
-         public boolean accept(Resource<?> resource)
-         {
-            return resource instanceof DirectoryResource;
-         }
-      }, new ResourceFilter()
-      {
+      new ResourceVisit(getTestSourceDirectory()).perform(visitor, DIRECTORY_FILTER, JAVA_RESOURCE_FILTER);
+   }
 
-         @Override
-         public boolean accept(Resource<?> type)
-         {
-            return type instanceof JavaResource;
-         }
-      });
+   @Override
+   public void visitJavaSourcesInParallel(final JavaResourceVisitor visitor, final boolean ordered)
+   {
+      new ResourceVisit(getSourceDirectory()).performParallel(visitor, DIRECTORY_FILTER, JAVA_RESOURCE_FILTER,
+               ordered);
+   }
+
+   @Override
+   public void visitJavaTestSourcesInParallel(final JavaResourceVisitor visitor, final boolean ordered)
+   {
+      new ResourceVisit(getTestSourceDirectory()).performParallel(visitor, DIRECTORY_FILTER, JAVA_RESOURCE_FILTER,
+               ordered);
    }
 
 }
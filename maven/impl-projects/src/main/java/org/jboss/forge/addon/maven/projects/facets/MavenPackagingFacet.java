@@ -17,6 +17,7 @@ import org.apache.maven.model.Model;
 import org.jboss.forge.addon.environment.Environment;
 import org.jboss.forge.addon.facets.AbstractFacet;
 import org.jboss.forge.addon.facets.constraints.FacetConstraint;
+import org.jboss.forge.addon.maven.projects.BuildChangeTracker;
 import org.jboss.forge.addon.maven.projects.MavenFacet;
 import org.jboss.forge.addon.maven.projects.MavenFacetImpl;
 import org.jboss.forge.addon.maven.projects.MavenProjectBuilder;
@@ -44,6 +45,9 @@ public class MavenPackagingFacet extends AbstractFacet<Project> implements Packa
    @Inject
    private Environment environment;
 
+   @Inject
+   private BuildChangeTracker changeTracker;
+
    @Override
    public void setFaceted(Project origin)
    {
@@ -133,7 +137,7 @@ public class MavenPackagingFacet extends AbstractFacet<Project> implements Packa
    @Override
    public ProjectBuilder createBuilder()
    {
-      return new MavenProjectBuilder(environment, getFaceted());
+      return new MavenProjectBuilder(environment, getFaceted(), changeTracker);
    }
 
    @Override
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.maven.projects.util;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+
+/**
+ * Applies a change made to a POM to the effective {@link Model} built from it, when the change cannot affect the
+ * dependencies, properties or build directories of the project. This spares a full project build, including dependency
+ * resolution, after edits such as adding a plugin.
+ *
+ * Local changes are those limited to the project name, description and build plugins. They are only applied when the
+ * POM declares them as they appear in the effective {@link Model}: the POM has no parent and no profiles, the changed
+ * plugins are not managed and nothing changed contains an expression to interpolate.
+ */
+public class EffectiveModelPatcher
+{
+   private static final String EXPRESSION = "${";
+
+   private EffectiveModelPatcher()
+   {
+   }
+
+   /**
+    * Applies the changes between the previous and current POM {@link Model} to the given effective {@link Model}.
+    *
+    * @return <code>true</code> if the change was local and has been applied, <code>false</code> if the effective
+    *         {@link Model} must be built again. In the latter case, the effective {@link Model} is left untouched.
+    */
+   public static boolean patch(Model previous, Model current, Model effective)
+   {
+      if (previous.getParent() != null || current.getParent() != null || !previous.getProfiles().isEmpty()
+               || !current.getProfiles().isEmpty())
+      {
+         // Inherited or profile configuration would have to be merged again
+         return false;
+      }
+      if (!isLocalChange(previous, current) || !toString(getPlugins(previous, true).values()).equals(
+               toString(getPlugins(current, true).values())))
+      {
+         return false;
+      }
+      if ((previous.getName() != null && current.getName() == null)
+               || (previous.getDescription() != null && current.getDescription() == null)
+               || isExpression(current.getName()) || isExpression(current.getDescription()))
+      {
+         return false;
+      }
+      Map<String, Plugin> previousPlugins = getPlugins(previous, false);
+      Map<String, Plugin> currentPlugins = getPlugins(current, false);
+      if (!currentPlugins.keySet().containsAll(previousPlugins.keySet()))
+      {
+         // Removals are left to a full build
+         return false;
+      }
+      Map<String, Plugin> changed = getChangedPlugins(previousPlugins, currentPlugins);
+      Map<String, Plugin> managed = getPlugins(effective, true);
+      for (Plugin plugin : changed.values())
+      {
+         if (managed.containsKey(plugin.getKey()) || isExpression(toString(plugin)))
+         {
+            // The plugin version and configuration would have to be merged or interpolated
+            return false;
+         }
+      }
+
+      if (current.getName() != null)
+      {
+         effective.setName(current.getName());
+      }
+      if (current.getDescription() != null)
+      {
+         effective.setDescription(current.getDescription());
+      }
+      if (!changed.isEmpty())
+      {
+         Build build = effective.getBuild();
+         if (build == null)
+         {
+            build = new Build();
+            effective.setBuild(build);
+         }
+         build.setPlugins(merge(build.getPlugins(), changed));
+      }
+      return true;
+   }
+
+   private static boolean isExpression(String value)
+   {
+      return value != null && value.contains(EXPRESSION);
+   }
+
+   private static boolean isLocalChange(Model previous, Model current)
+   {
+      return toString(withoutLocalSections(previous)).equals(toString(withoutLocalSections(current)));
+   }
+
+   private static Model withoutLocalSections(Model model)
+   {
+      Model result = model.clone();
+      result.setName(null);
+      result.setDescription(null);
+      Build build = result.getBuild();
+      if (build != null)
+      {
+         build.setPlugins(new ArrayList<Plugin>());
+         build.setPluginManagement(null);
+         Model empty = new Model();
+         empty.setBuild(new Build());
+         Model onlyBuild = new Model();
+         onlyBuild.setBuild(build);
+         if (toString(empty).equals(toString(onlyBuild)))
+         {
+            result.setBuild(null);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Returns the plugins added or changed in the current POM
+    */
+   private static Map<String, Plugin> getChangedPlugins(Map<String, Plugin> previous, Map<String, Plugin> current)
+   {
+      Map<String, Plugin> result = new LinkedHashMap<>();
+      for (Plugin plugin : current.values())
+      {
+         Plugin old = previous.get(plugin.getKey());
+         if (old == null || !toString(plugin).equals(toString(old)))
+         {
+            result.put(plugin.getKey(), plugin);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Returns the effective plugins with the changed plugins replaced by their current declaration
+    */
+   private static List<Plugin> merge(List<Plugin> effective, Map<String, Plugin> changed)
+   {
+      Map<String, Plugin> result = new LinkedHashMap<>();
+      for (Plugin plugin : effective)
+      {
+         result.put(plugin.getKey(), plugin);
+      }
+      for (Plugin plugin : changed.values())
+      {
+         result.put(plugin.getKey(), plugin.clone());
+      }
+      return new ArrayList<>(result.values());
+   }
+
+   private static Map<String, Plugin> getPlugins(Model model, boolean managed)
+   {
+      Build build = model.getBuild();
+      List<Plugin> plugins = Collections.emptyList();
+      if (build != null && !managed)
+      {
+         plugins = build.getPlugins();
+      }
+      else if (build != null && build.getPluginManagement() != null)
+      {
+         plugins = build.getPluginManagement().getPlugins();
+      }
+      Map<String, Plugin> result = new LinkedHashMap<>();
+      for (Plugin plugin : plugins)
+      {
+         result.put(plugin.getKey(), plugin);
+      }
+      return result;
+   }
+
+   private static String toString(Plugin plugin)
+   {
+      return toString(Collections.singletonList(plugin));
+   }
+
+   private static String toString(Collection<Plugin> plugins)
+   {
+      Model model = new Model();
+      model.setBuild(new Build());
+      for (Plugin plugin : plugins)
+      {
+         model.getBuild().addPlugin(plugin.clone());
+      }
+      return toString(model);
+   }
+
+   private static String toString(Model model)
+   {
+      StringWriter writer = new StringWriter();
+      try
+      {
+         new MavenXpp3Writer().write(writer, model);
+      }
+      catch (IOException e)
+      {
+         // Should not happen
+         throw new RuntimeException("Could not write POM model", e);
+      }
+      return writer.toString();
+   }
+}
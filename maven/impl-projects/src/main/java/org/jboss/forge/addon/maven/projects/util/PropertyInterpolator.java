@@ -0,0 +1,108 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.maven.projects.util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Replaces <code>${property}</code> expressions in a single pass over the input. Property values may reference other
+ * properties; these are resolved once and remembered. Expressions referencing unknown properties, or taking part in a
+ * cycle, are left untouched.
+ */
+public class PropertyInterpolator
+{
+   private static final String PREFIX = "${";
+   private static final char SUFFIX = '}';
+
+   private final Map<String, String> properties = new HashMap<>();
+   private final Map<String, String> resolved = new ConcurrentHashMap<>();
+
+   public PropertyInterpolator(Properties properties)
+   {
+      for (Entry<Object, Object> entry : properties.entrySet())
+      {
+         if (entry.getKey() != null && entry.getValue() != null)
+         {
+            this.properties.put(entry.getKey().toString(), entry.getValue().toString());
+         }
+      }
+   }
+
+   /**
+    * Returns the given input with every known <code>${property}</code> expression replaced by its value
+    */
+   public String interpolate(String input)
+   {
+      if (input == null || input.indexOf(PREFIX) == -1)
+      {
+         return input;
+      }
+      return interpolate(input, new HashSet<String>());
+   }
+
+   private String interpolate(String input, Set<String> resolving)
+   {
+      StringBuilder result = null;
+      int copied = 0;
+      int position = 0;
+      int start;
+      while ((start = input.indexOf(PREFIX, position)) != -1)
+      {
+         int end = input.indexOf(SUFFIX, start + PREFIX.length());
+         if (end == -1)
+         {
+            break;
+         }
+         String value = resolve(input.substring(start + PREFIX.length(), end), resolving);
+         if (value != null)
+         {
+            if (result == null)
+            {
+               result = new StringBuilder(input.length() + 16);
+            }
+            result.append(input, copied, start).append(value);
+            copied = end + 1;
+         }
+         position = end + 1;
+      }
+
+      if (result == null)
+      {
+         return input;
+      }
+      result.append(input, copied, input.length());
+      return result.toString();
+   }
+
+   private String resolve(String name, Set<String> resolving)
+   {
+      String value = resolved.get(name);
+      if (value == null)
+      {
+         value = properties.get(name);
+         if (value == null || !resolving.add(name))
+         {
+            // Unknown property or circular reference
+            return null;
+         }
+         if (value.indexOf(PREFIX) != -1)
+         {
+            value = interpolate(value, resolving);
+         }
+         resolving.remove(name);
+         resolved.put(name, value);
+      }
+      return value;
+   }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven.addon.projects.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginManagement;
+import org.jboss.forge.addon.maven.projects.util.EffectiveModelPatcher;
+import org.junit.Test;
+
+/**
+ * Test case for {@link EffectiveModelPatcher} class
+ */
+public class EffectiveModelPatcherTest
+{
+   @Test
+   public void testPatchPlugins()
+   {
+      Model previous = createModel();
+      Model effective = createModel();
+      effective.getBuild().addPlugin(createPlugin("inherited-plugin", "1.0"));
+      Model current = previous.clone();
+      current.getBuild().getPlugins().get(0).setVersion("2.0");
+      current.getBuild().addPlugin(createPlugin("new-plugin", "1.0"));
+
+      assertTrue(EffectiveModelPatcher.patch(previous, current, effective));
+      assertEquals(3, effective.getBuild().getPlugins().size());
+      assertEquals("2.0", effective.getBuild().getPlugins().get(0).getVersion());
+      assertEquals("inherited-plugin", effective.getBuild().getPlugins().get(1).getArtifactId());
+      assertEquals("new-plugin", effective.getBuild().getPlugins().get(2).getArtifactId());
+   }
+
+   @Test
+   public void testPatchName()
+   {
+      Model previous = createModel();
+      Model effective = createModel();
+      Model current = previous.clone();
+      current.setName("Patched");
+
+      assertTrue(EffectiveModelPatcher.patch(previous, current, effective));
+      assertEquals("Patched", effective.getName());
+   }
+
+   @Test
+   public void testDependencyChangeIsNotLocal()
+   {
+      Model previous = createModel();
+      Model effective = createModel();
+      Model current = previous.clone();
+      Dependency dependency = new Dependency();
+      dependency.setGroupId("org.jboss.forge");
+      dependency.setArtifactId("dependency");
+      current.addDependency(dependency);
+
+      assertFalse(EffectiveModelPatcher.patch(previous, current, effective));
+      assertTrue(effective.getDependencies().isEmpty());
+   }
+
+   @Test
+   public void testRemovedPluginIsNotLocal()
+   {
+      Model previous = createModel();
+      Model effective = createModel();
+      Model current = previous.clone();
+      current.getBuild().getPlugins().clear();
+
+      assertFalse(EffectiveModelPatcher.patch(previous, current, effective));
+      assertEquals(1, effective.getBuild().getPlugins().size());
+   }
+
+   @Test
+   public void testPluginOfChildIsNotPatched()
+   {
+      Model previous = createModel();
+      Parent parent = new Parent();
+      parent.setGroupId("org.jboss.forge");
+      parent.setArtifactId("parent");
+      parent.setVersion("1.0");
+      previous.setParent(parent);
+      Model effective = createModel();
+      Model current = previous.clone();
+      current.getBuild().getPlugins().get(0).setVersion("2.0");
+
+      assertFalse(EffectiveModelPatcher.patch(previous, current, effective));
+      assertEquals("1.0", effective.getBuild().getPlugins().get(0).getVersion());
+   }
+
+   @Test
+   public void testManagedPluginIsNotPatched()
+   {
+      Model previous = createModel();
+      Model effective = createModel();
+      PluginManagement management = new PluginManagement();
+      management.addPlugin(createPlugin("managed-plugin", "1.0"));
+      effective.getBuild().setPluginManagement(management);
+      Model current = previous.clone();
+      current.getBuild().addPlugin(createPlugin("managed-plugin", null));
+
+      assertFalse(EffectiveModelPatcher.patch(previous, current, effective));
+      assertEquals(1, effective.getBuild().getPlugins().size());
+   }
+
+   @Test
+   public void testPluginManagementChangeIsNotLocal()
+   {
+      Model previous = createModel();
+      Model effective = createModel();
+      Model current = previous.clone();
+      PluginManagement management = new PluginManagement();
+      management.addPlugin(createPlugin("some-plugin", "2.0"));
+      current.getBuild().setPluginManagement(management);
+
+      assertFalse(EffectiveModelPatcher.patch(previous, current, effective));
+      assertNull(effective.getBuild().getPluginManagement());
+   }
+
+   @Test
+   public void testPluginExpressionIsNotPatched()
+   {
+      Model previous = createModel();
+      Model effective = createModel();
+      Model current = previous.clone();
+      current.getBuild().addPlugin(createPlugin("new-plugin", "${plugin.version}"));
+
+      assertFalse(EffectiveModelPatcher.patch(previous, current, effective));
+      assertEquals(1, effective.getBuild().getPlugins().size());
+   }
+
+   private Model createModel()
+   {
+      Model model = new Model();
+      model.setModelVersion("4.0.0");
+      model.setGroupId("org.jboss.forge");
+      model.setArtifactId("test");
+      model.setVersion("1.0");
+      Build build = new Build();
+      build.addPlugin(createPlugin("some-plugin", "1.0"));
+      model.setBuild(build);
+      return model;
+   }
+
+   private Plugin createPlugin(String artifactId, String version)
+   {
+      Plugin plugin = new Plugin();
+      plugin.setGroupId("org.jboss.forge");
+      plugin.setArtifactId(artifactId);
+      plugin.setVersion(version);
+      return plugin;
+   }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.maven.addon.projects.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Properties;
+
+import org.jboss.forge.addon.maven.projects.util.PropertyInterpolator;
+import org.junit.Test;
+
+/**
+ * Test case for {@link PropertyInterpolator} class
+ */
+public class PropertyInterpolatorTest
+{
+   @Test
+   public void testInterpolate()
+   {
+      Properties properties = new Properties();
+      properties.setProperty("version.forge", "2.0.1");
+      properties.setProperty("price", "$5\\");
+      PropertyInterpolator interpolator = new PropertyInterpolator(properties);
+
+      assertNull(interpolator.interpolate(null));
+      String plain = "org.jboss.forge";
+      assertSame(plain, interpolator.interpolate(plain));
+      assertEquals("2.0.1", interpolator.interpolate("${version.forge}"));
+      assertEquals("v2.0.1-2.0.1", interpolator.interpolate("v${version.forge}-${version.forge}"));
+      assertEquals("$5\\", interpolator.interpolate("${price}"));
+   }
+
+   @Test
+   public void testInterpolateNestedProperties()
+   {
+      Properties properties = new Properties();
+      properties.setProperty("a", "${b}-${c}");
+      properties.setProperty("b", "${c}");
+      properties.setProperty("c", "value");
+      PropertyInterpolator interpolator = new PropertyInterpolator(properties);
+
+      assertEquals("value-value", interpolator.interpolate("${a}"));
+   }
+
+   @Test
+   public void testUnknownAndCircularPropertiesAreKept()
+   {
+      Properties properties = new Properties();
+      properties.setProperty("a", "${b}");
+      properties.setProperty("b", "${a}");
+      properties.setProperty("c", "value");
+      PropertyInterpolator interpolator = new PropertyInterpolator(properties);
+
+      assertEquals("${unknown}-value", interpolator.interpolate("${unknown}-${c}"));
+      assertEquals("${b}", interpolator.interpolate("${b}"));
+      assertEquals("${c", interpolator.interpolate("${c"));
+   }
+}
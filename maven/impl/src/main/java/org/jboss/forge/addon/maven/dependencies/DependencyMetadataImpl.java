@@ -51,6 +51,15 @@ public class DependencyMetadataImpl implements DependencyMetadata
       }
    }
 
+   public DependencyMetadataImpl(Dependency query, List<DependencyRepository> repositories,
+            List<Dependency> managedDependencies, List<Dependency> dependencies)
+   {
+      this.dependency = query;
+      this.repositories = repositories;
+      this.managedDependencies = managedDependencies;
+      this.dependencies = dependencies;
+   }
+
    private Dependency convertToForge(org.eclipse.aether.graph.Dependency d)
    {
       Artifact a = d.getArtifact();
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.maven.dependencies;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jboss.forge.addon.dependencies.Coordinate;
+import org.jboss.forge.addon.dependencies.DependencyQuery;
+import org.jboss.forge.addon.dependencies.DependencyRepository;
+import org.jboss.forge.furnace.util.OperatingSystemUtils;
+import org.jboss.forge.furnace.util.Streams;
+
+/**
+ * Disk-backed cache of dependency query results, stored under the Forge user directory.
+ *
+ * An entry younger than <code>forge.dependency.cache.ttl</code> milliseconds (1 hour by default) is returned as is. An
+ * older entry is still returned immediately, but is refreshed on a background thread; entries older than
+ * <code>forge.dependency.cache.maxAge</code> milliseconds (7 days by default) are resolved again before returning. At
+ * most <code>forge.dependency.cache.size</code> entries (1000 by default) are kept on disk, the least recently written
+ * ones being removed first.
+ *
+ * Entries are keyed by the query and by the configuration of the repository session (remote repositories, mirrors,
+ * local repository and offline mode) they were resolved with. An entry is also resolved again when the local repository
+ * directory of the queried artifact changed since, so that locally installed versions are found right away.
+ */
+class DependencyQueryCache
+{
+   private static final Logger log = Logger.getLogger(DependencyQueryCache.class.getName());
+
+   private static final long TTL = Long.getLong("forge.dependency.cache.ttl", TimeUnit.HOURS.toMillis(1));
+   private static final long MAX_AGE = Long.getLong("forge.dependency.cache.maxAge", TimeUnit.DAYS.toMillis(7));
+   private static final int MAX_SIZE = Integer.getInteger("forge.dependency.cache.size", 1000);
+
+   private static final String TIMESTAMP = "timestamp";
+   private static final String LOCAL_TIMESTAMP = "localTimestamp";
+   private static final String ENTRY_SUFFIX = ".properties";
+
+   private final File directory;
+   private final Map<String, Properties> entries = new ConcurrentHashMap<>();
+   private final Map<String, Boolean> refreshing = new ConcurrentHashMap<>();
+   /*
+    * The number of entries on disk, or -1 if not counted yet
+    */
+   private int size = -1;
+   private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory()
+   {
+      @Override
+      public Thread newThread(Runnable r)
+      {
+         Thread thread = new Thread(r, "Dependency Cache Refresh");
+         thread.setDaemon(true);
+         thread.setContextClassLoader(null);
+         return thread;
+      }
+   });
+
+   DependencyQueryCache()
+   {
+      this(new File(OperatingSystemUtils.getUserForgeDir(), "cache/dependencies"));
+   }
+
+   DependencyQueryCache(File directory)
+   {
+      this.directory = directory;
+   }
+
+   /**
+    * Converts a cached value from and to its stored form
+    */
+   abstract static class Loader<T>
+   {
+      /**
+       * Resolves the value from the repositories
+       */
+      abstract T load() throws Exception;
+
+      abstract void write(T value, Properties properties);
+
+      abstract T read(Properties properties);
+   }
+
+   /**
+    * Returns the cached value of the given kind for the given {@link DependencyQuery}, calling the {@link Loader} if
+    * the value is not cached or too old
+    *
+    * @param configuration describes the repository session the query is resolved with
+    * @param local the directory of the local repository where the queried artifact is installed
+    */
+   <T> T get(String kind, DependencyQuery query, String configuration, final File local, final Loader<T> loader)
+            throws Exception
+   {
+      final String key = getKey(kind, query, configuration);
+      Properties properties = entries.get(key);
+      if (properties == null)
+      {
+         properties = readEntry(key);
+      }
+
+      long age = properties == null ? Long.MAX_VALUE : System.currentTimeMillis() - getTimestamp(properties, TIMESTAMP);
+      if (age > MAX_AGE || getTimestamp(properties, LOCAL_TIMESTAMP) != local.lastModified())
+      {
+         return store(key, local, loader, loader.load());
+      }
+      if (age > TTL && refreshing.put(key, Boolean.TRUE) == null)
+      {
+         try
+         {
+            executor.submit(new Callable<Void>()
+            {
+               @Override
+               public Void call() throws Exception
+               {
+                  try
+                  {
+                     store(key, local, loader, loader.load());
+                  }
+                  catch (Exception e)
+                  {
+                     log.log(Level.FINE, "Could not refresh cached dependency query [" + key + "]", e);
+                  }
+                  finally
+                  {
+                     refreshing.remove(key);
+                  }
+                  return null;
+               }
+            });
+         }
+         catch (RejectedExecutionException e)
+         {
+            // Shutting down
+            refreshing.remove(key);
+         }
+      }
+      return loader.read(properties);
+   }
+
+   void shutdown()
+   {
+      executor.shutdownNow();
+   }
+
+   private <T> T store(String key, File local, Loader<T> loader, T value)
+   {
+      Properties properties = new Properties();
+      loader.write(value, properties);
+      properties.setProperty(TIMESTAMP, String.valueOf(System.currentTimeMillis()));
+      properties.setProperty(LOCAL_TIMESTAMP, String.valueOf(local.lastModified()));
+      entries.put(key, properties);
+      writeEntry(key, properties);
+      return value;
+   }
+
+   private long getTimestamp(Properties properties, String name)
+   {
+      if (properties == null)
+      {
+         return -1;
+      }
+      try
+      {
+         return Long.parseLong(properties.getProperty(name, "-1"));
+      }
+      catch (NumberFormatException e)
+      {
+         return -1;
+      }
+   }
+
+   private Properties readEntry(String key)
+   {
+      File file = new File(directory, key + ENTRY_SUFFIX);
+      if (!file.isFile())
+      {
+         return null;
+      }
+      InputStream stream = null;
+      try
+      {
+         stream = new FileInputStream(file);
+         Properties properties = new Properties();
+         properties.load(stream);
+         entries.put(key, properties);
+         return properties;
+      }
+      catch (IOException e)
+      {
+         log.log(Level.FINE, "Could not read cached dependency query from [" + file + "]", e);
+         return null;
+      }
+      finally
+      {
+         Streams.closeQuietly(stream);
+      }
+   }
+
+   private void writeEntry(String key, Properties properties)
+   {
+      if (!directory.isDirectory() && !directory.mkdirs())
+      {
+         return;
+      }
+      File file = new File(directory, key + ENTRY_SUFFIX);
+      File temp = new File(directory, key + ".tmp");
+      boolean added = !file.exists();
+      OutputStream stream = null;
+      try
+      {
+         stream = new FileOutputStream(temp);
+         properties.store(stream, null);
+         stream.close();
+         stream = null;
+         if (!temp.renameTo(file))
+         {
+            file.delete();
+            temp.renameTo(file);
+         }
+      }
+      catch (IOException e)
+      {
+         log.log(Level.FINE, "Could not write cached dependency query to [" + file + "]", e);
+         temp.delete();
+         added = false;
+      }
+      finally
+      {
+         Streams.closeQuietly(stream);
+      }
+      if (added)
+      {
+         entryAdded();
+      }
+   }
+
+   /**
+    * Counts a new entry, removing the least recently written entries once there are more than the maximum size. As the
+    * directory is listed then, one tenth of the entries is removed at once.
+    */
+   private synchronized void entryAdded()
+   {
+      if (size < 0)
+      {
+         size = listEntries().length;
+      }
+      else
+      {
+         size++;
+      }
+      if (size <= MAX_SIZE)
+      {
+         return;
+      }
+      File[] files = listEntries();
+      Arrays.sort(files, new Comparator<File>()
+      {
+         @Override
+         public int compare(File o1, File o2)
+         {
+            return Long.compare(o1.lastModified(), o2.lastModified());
+         }
+      });
+      int remove = files.length - MAX_SIZE + MAX_SIZE / 10;
+      for (int i = 0; i < remove && i < files.length; i++)
+      {
+         String name = files[i].getName();
+         entries.remove(name.substring(0, name.length() - ENTRY_SUFFIX.length()));
+         files[i].delete();
+      }
+      size = listEntries().length;
+   }
+
+   /**
+    * Returns the number of entries stored on disk
+    */
+   synchronized int size()
+   {
+      return listEntries().length;
+   }
+
+   private File[] listEntries()
+   {
+      File[] files = directory.listFiles(new FilenameFilter()
+      {
+         @Override
+         public boolean accept(File dir, String name)
+         {
+            return name.endsWith(ENTRY_SUFFIX);
+         }
+      });
+      return files == null ? new File[0] : files;
+   }
+
+   private String getKey(String kind, DependencyQuery query, String configuration)
+   {
+      Coordinate coordinate = query.getCoordinate();
+      StringBuilder key = new StringBuilder(kind).append('|').append(coordinate.getGroupId()).append(':')
+               .append(coordinate.getArtifactId()).append(':').append(coordinate.getPackaging()).append(':')
+               .append(coordinate.getClassifier()).append(':').append(coordinate.getVersion()).append('|')
+               .append(query.getScopeType());
+      List<DependencyRepository> repositories = query.getDependencyRepositories();
+      for (DependencyRepository repository : repositories == null ? Collections
+               .<DependencyRepository> emptyList() : repositories)
+      {
+         key.append('|').append(repository.getId()).append('=').append(repository.getUrl());
+      }
+      key.append('|').append(configuration);
+      try
+      {
+         MessageDigest digest = MessageDigest.getInstance("SHA-1");
+         StringBuilder result = new StringBuilder();
+         for (byte b : digest.digest(key.toString().getBytes("UTF-8")))
+         {
+            result.append(String.format("%02x", b));
+         }
+         return result.toString();
+      }
+      catch (NoSuchAlgorithmException | IOException e)
+      {
+         throw new IllegalStateException(e);
+      }
+   }
+}
@@ -7,14 +7,17 @@
 
 package org.jboss.forge.addon.maven.dependencies;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Properties;
 import java.util.Set;
 
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
+import javax.inject.Singleton;
 
-import org.apache.maven.settings.Settings;
 import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.artifact.Artifact;
@@ -40,30 +43,44 @@ import org.jboss.forge.addon.dependencies.Dependency;
 import org.jboss.forge.addon.dependencies.DependencyException;
 import org.jboss.forge.addon.dependencies.DependencyMetadata;
 import org.jboss.forge.addon.dependencies.DependencyQuery;
+import org.jboss.forge.addon.dependencies.DependencyRepository;
 import org.jboss.forge.addon.dependencies.DependencyResolver;
 import org.jboss.forge.addon.dependencies.builder.CoordinateBuilder;
 import org.jboss.forge.addon.dependencies.builder.DependencyBuilder;
 import org.jboss.forge.addon.dependencies.builder.DependencyNodeBuilder;
+import org.jboss.forge.addon.maven.dependencies.DependencyQueryCache.Loader;
+import org.jboss.forge.addon.maven.dependencies.RepositorySessionCache.CachedSession;
 import org.jboss.forge.addon.maven.util.MavenConvertUtils;
 import org.jboss.forge.addon.resource.FileResource;
 import org.jboss.forge.addon.resource.ResourceFactory;
+import org.jboss.forge.furnace.container.cdi.events.Local;
+import org.jboss.forge.furnace.event.PreShutdown;
 import org.jboss.forge.furnace.manager.maven.MavenContainer;
 import org.jboss.forge.furnace.manager.maven.MavenOperationException;
-import org.jboss.forge.furnace.manager.maven.util.MavenRepositories;
 import org.jboss.forge.furnace.util.Predicate;
 import org.jboss.forge.furnace.util.Strings;
 
+@Singleton
 public class MavenDependencyResolver implements DependencyResolver
 {
-   private final MavenContainer container;
+   private static final String VERSIONS = "versions";
+   private static final String METADATA = "metadata";
+
    private final ResourceFactory factory;
+   private final RepositorySessionCache sessions;
+   private final DependencyQueryCache queryCache = new DependencyQueryCache();
 
    @Inject
    public MavenDependencyResolver(ResourceFactory factory, MavenContainer container)
    {
       super();
-      this.container = container;
       this.factory = factory;
+      this.sessions = new RepositorySessionCache(container);
+   }
+
+   void preShutdown(@Observes @Local PreShutdown event)
+   {
+      queryCache.shutdown();
    }
 
    @Override
@@ -71,16 +88,13 @@ public class MavenDependencyResolver implements DependencyResolver
    {
       Set<Dependency> result = new HashSet<>();
       Predicate<Dependency> filter = query.getDependencyFilter();
-      RepositorySystem system = container.getRepositorySystem();
-      Settings settings = container.getSettings();
-
-      DefaultRepositorySystemSession session = container.setupRepoSession(system, settings);
+      CachedSession cached = sessions.get();
+      RepositorySystem system = cached.getRepositorySystem();
+      DefaultRepositorySystemSession session = cached.newSession();
 
       Artifact queryArtifact = MavenConvertUtils.coordinateToMavenArtifact(query.getCoordinate());
 
-      List<RemoteRepository> remoteRepos = MavenConvertUtils.convertToMavenRepos(query.getDependencyRepositories(),
-               settings);
-      remoteRepos.addAll(MavenRepositories.getRemoteRepositories(container, settings));
+      List<RemoteRepository> remoteRepos = cached.getRemoteRepositories(query.getDependencyRepositories());
 
       CollectRequest collectRequest = new CollectRequest(new org.eclipse.aether.graph.Dependency(queryArtifact,
                query.getScopeType()), remoteRepos);
@@ -115,14 +129,39 @@ public class MavenDependencyResolver implements DependencyResolver
    }
 
    @Override
-   public List<Coordinate> resolveVersions(DependencyQuery query)
+   public List<Coordinate> resolveVersions(final DependencyQuery query)
    {
-      VersionRangeResult r = getVersions(query);
+      List<String> versions = cached(VERSIONS, query, null, new Loader<List<String>>()
+      {
+         @Override
+         List<String> load()
+         {
+            List<String> result = new ArrayList<>();
+            for (Version v : getVersions(query).getVersions())
+            {
+               result.add(v.toString());
+            }
+            return result;
+         }
+
+         @Override
+         void write(List<String> value, Properties properties)
+         {
+            writeList(properties, VERSIONS, value);
+         }
+
+         @Override
+         List<String> read(Properties properties)
+         {
+            return readList(properties, VERSIONS);
+         }
+      });
+
       List<Coordinate> result = new ArrayList<>();
       Predicate<Dependency> filter = query.getDependencyFilter();
-      for (Version v : r.getVersions())
+      for (String version : versions)
       {
-         CoordinateBuilder coord = CoordinateBuilder.create(query.getCoordinate()).setVersion(v.toString());
+         CoordinateBuilder coord = CoordinateBuilder.create(query.getCoordinate()).setVersion(version);
          DependencyBuilder versionedDep = DependencyBuilder.create().setCoordinate(coord);
          if (filter == null || filter.accept(versionedDep))
          {
@@ -153,14 +192,11 @@ public class MavenDependencyResolver implements DependencyResolver
             dep = CoordinateBuilder.create(dep).setVersion("[" + version + "]");
          }
 
-         RepositorySystem maven = container.getRepositorySystem();
-         Settings settings = container.getSettings();
-
-         DefaultRepositorySystemSession session = container.setupRepoSession(maven, settings);
+         CachedSession cached = sessions.get();
+         RepositorySystem maven = cached.getRepositorySystem();
+         DefaultRepositorySystemSession session = cached.newSession();
          Artifact artifact = MavenConvertUtils.coordinateToMavenArtifact(dep);
-         List<RemoteRepository> remoteRepos = MavenConvertUtils.convertToMavenRepos(query.getDependencyRepositories(),
-                  settings);
-         remoteRepos.addAll(MavenRepositories.getRemoteRepositories(container, settings));
+         List<RemoteRepository> remoteRepos = cached.getRemoteRepositories(query.getDependencyRepositories());
 
          VersionRangeRequest rangeRequest = new VersionRangeRequest(artifact, remoteRepos, null);
 
@@ -176,14 +212,12 @@ public class MavenDependencyResolver implements DependencyResolver
    @Override
    public Dependency resolveArtifact(DependencyQuery query)
    {
-      RepositorySystem system = container.getRepositorySystem();
-      Settings settings = container.getSettings();
+      CachedSession cached = sessions.get();
+      RepositorySystem system = cached.getRepositorySystem();
 
-      List<RemoteRepository> remoteRepos = MavenConvertUtils.convertToMavenRepos(query.getDependencyRepositories(),
-               settings);
-      remoteRepos.addAll(MavenRepositories.getRemoteRepositories(container, settings));
+      List<RemoteRepository> remoteRepos = cached.getRemoteRepositories(query.getDependencyRepositories());
 
-      DefaultRepositorySystemSession session = container.setupRepoSession(system, settings);
+      DefaultRepositorySystemSession session = cached.newSession();
       Artifact queryArtifact = MavenConvertUtils.coordinateToMavenArtifact(query.getCoordinate());
       ArtifactRequest request = new ArtifactRequest(queryArtifact, remoteRepos, null);
       try
@@ -213,9 +247,9 @@ public class MavenDependencyResolver implements DependencyResolver
    {
       try
       {
-         RepositorySystem system = container.getRepositorySystem();
-         Settings settings = container.getSettings();
-         DefaultRepositorySystemSession session = container.setupRepoSession(system, settings);
+         CachedSession cached = sessions.get();
+         RepositorySystem system = cached.getRepositorySystem();
+         DefaultRepositorySystemSession session = cached.newSession();
          session.setDependencyTraverser(new DependencyTraverser()
          {
             @Override
@@ -238,9 +272,7 @@ public class MavenDependencyResolver implements DependencyResolver
          final CoordinateBuilder coord = CoordinateBuilder.create(query.getCoordinate());
          Artifact queryArtifact = MavenConvertUtils.coordinateToMavenArtifact(coord);
 
-         List<RemoteRepository> remoteRepos = MavenConvertUtils.convertToMavenRepos(query.getDependencyRepositories(),
-                  settings);
-         remoteRepos.addAll(MavenRepositories.getRemoteRepositories(container, settings));
+         List<RemoteRepository> remoteRepos = cached.getRemoteRepositories(query.getDependencyRepositories());
          CollectRequest collectRequest = new CollectRequest(new org.eclipse.aether.graph.Dependency(queryArtifact,
                   null), remoteRepos);
 
@@ -266,27 +298,145 @@ public class MavenDependencyResolver implements DependencyResolver
             throw new IllegalArgumentException("Dependency query coordinate version must be specified.");
          }
 
-         RepositorySystem system = container.getRepositorySystem();
-         Settings settings = container.getSettings();
+         return cached(METADATA, query, query.getCoordinate().getVersion(), new Loader<DependencyMetadata>()
+         {
+            @Override
+            DependencyMetadata load() throws Exception
+            {
+               return readDependencyMetadata(query);
+            }
+
+            @Override
+            void write(DependencyMetadata value, Properties properties)
+            {
+               properties.setProperty(METADATA, toIdentifier(value.getDependency()));
+               List<String> repositories = new ArrayList<>();
+               for (DependencyRepository repository : value.getRepositories())
+               {
+                  repositories.add(repository.getId() + "=" + repository.getUrl());
+               }
+               writeList(properties, "repositories", repositories);
+               writeDependencies(properties, "managedDependencies", value.getManagedDependencies());
+               writeDependencies(properties, "dependencies", value.getDependencies());
+            }
+
+            @Override
+            DependencyMetadata read(Properties properties)
+            {
+               List<DependencyRepository> repositories = new ArrayList<>();
+               for (String repository : readList(properties, "repositories"))
+               {
+                  int separator = repository.indexOf('=');
+                  repositories.add(new DependencyRepository(repository.substring(0, separator), repository
+                           .substring(separator + 1)));
+               }
+               return new DependencyMetadataImpl(fromIdentifier(properties.getProperty(METADATA)), repositories,
+                        readDependencies(properties, "managedDependencies"),
+                        readDependencies(properties, "dependencies"));
+            }
+         });
+      }
+      catch (DependencyException e)
+      {
+         throw e;
+      }
+      catch (Exception e)
+      {
+         throw new DependencyException("Unable to resolve any artifacts for query [" + query + "]", e);
+      }
+   }
+
+   private DependencyMetadata readDependencyMetadata(DependencyQuery query) throws Exception
+   {
+      CachedSession cached = sessions.get();
+      RepositorySystem system = cached.getRepositorySystem();
+      DefaultRepositorySystemSession session = cached.newSession();
+      Artifact artifact = MavenConvertUtils.coordinateToMavenArtifact(query.getCoordinate());
 
-         DefaultRepositorySystemSession session = container.setupRepoSession(system, settings);
-         Artifact artifact = MavenConvertUtils.coordinateToMavenArtifact(query.getCoordinate());
+      List<RemoteRepository> remoteRepos = cached.getRemoteRepositories(query.getDependencyRepositories());
+      ArtifactDescriptorRequest ar = new ArtifactDescriptorRequest(artifact, remoteRepos, null);
+      ArtifactDescriptorResult results = system.readArtifactDescriptor(session, ar);
 
-         List<RemoteRepository> remoteRepos = MavenConvertUtils.convertToMavenRepos(query.getDependencyRepositories(),
-                  settings);
-         remoteRepos.addAll(MavenRepositories.getRemoteRepositories(container, settings));
-         ArtifactDescriptorRequest ar = new ArtifactDescriptorRequest(artifact, remoteRepos, null);
-         ArtifactDescriptorResult results = system.readArtifactDescriptor(session, ar);
+      Artifact a = results.getArtifact();
+      Dependency d = DependencyBuilder.create().setArtifactId(a.getArtifactId()).setGroupId(a.getGroupId())
+               .setVersion(a.getBaseVersion());
 
-         Artifact a = results.getArtifact();
-         Dependency d = DependencyBuilder.create().setArtifactId(a.getArtifactId()).setGroupId(a.getGroupId())
-                  .setVersion(a.getBaseVersion());
+      return new DependencyMetadataImpl(d, results);
+   }
 
-         return new DependencyMetadataImpl(d, results);
+   /**
+    * Looks up the given query in the on-disk cache. Entries are resolved again once the local repository directory of
+    * the given version of the artifact, or of the artifact if the version is <code>null</code>, changes. Resolution
+    * failures are rethrown as they are, unless checked.
+    */
+   private <T> T cached(String kind, DependencyQuery query, String version, Loader<T> loader)
+   {
+      try
+      {
+         CachedSession cached = sessions.get();
+         Coordinate coordinate = query.getCoordinate();
+         File local = cached.getLocalDirectory(coordinate.getGroupId(), coordinate.getArtifactId(), version);
+         return queryCache.get(kind, query, cached.getConfiguration(), local, loader);
+      }
+      catch (RuntimeException e)
+      {
+         throw e;
       }
       catch (Exception e)
       {
-         throw new DependencyException("Unable to resolve any artifacts for query [" + query + "]", e);
+         throw new DependencyException("Could not resolve query [" + query + "]", e);
+      }
+   }
+
+   private static void writeDependencies(Properties properties, String name, List<Dependency> dependencies)
+   {
+      List<String> identifiers = new ArrayList<>();
+      for (Dependency dependency : dependencies)
+      {
+         identifiers.add(toIdentifier(dependency));
       }
+      writeList(properties, name, identifiers);
+   }
+
+   private static List<Dependency> readDependencies(Properties properties, String name)
+   {
+      List<Dependency> result = new ArrayList<>();
+      for (String identifier : readList(properties, name))
+      {
+         result.add(fromIdentifier(identifier));
+      }
+      return result;
+   }
+
+   private static void writeList(Properties properties, String name, List<String> values)
+   {
+      properties.setProperty(name + ".size", String.valueOf(values.size()));
+      for (int i = 0; i < values.size(); i++)
+      {
+         properties.setProperty(name + "." + i, values.get(i));
+      }
+   }
+
+   private static List<String> readList(Properties properties, String name)
+   {
+      int size = Integer.parseInt(properties.getProperty(name + ".size", "0"));
+      List<String> result = new ArrayList<>(size);
+      for (int i = 0; i < size; i++)
+      {
+         result.add(properties.getProperty(name + "." + i));
+      }
+      return result;
+   }
+
+   private static String toIdentifier(Dependency dependency)
+   {
+      Coordinate coordinate = dependency.getCoordinate();
+      return coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":" + coordinate.getVersion();
+   }
+
+   private static Dependency fromIdentifier(String identifier)
+   {
+      String[] parts = identifier.split(":", 3);
+      return DependencyBuilder.create().setGroupId(parts[0]).setArtifactId(parts[1]).setVersion(parts[2]);
    }
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.maven.dependencies;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.settings.Mirror;
+import org.apache.maven.settings.Settings;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.jboss.forge.addon.dependencies.DependencyRepository;
+import org.jboss.forge.addon.maven.util.MavenConvertUtils;
+import org.jboss.forge.furnace.manager.maven.MavenContainer;
+import org.jboss.forge.furnace.manager.maven.util.MavenRepositories;
+
+/**
+ * Keeps the Maven {@link Settings}, a template {@link DefaultRepositorySystemSession} and the remote repositories
+ * derived from them, so that they are not rebuilt for every dependency resolution. Sessions handed out share a single
+ * {@link DefaultRepositoryCache}, which keeps Aether's descriptor and version range caches warm across calls.
+ *
+ * Everything is discarded when the user or global <code>settings.xml</code> changes, when the
+ * <code>org.apache.maven.user-settings</code> or <code>maven.repo.local</code> system properties change, or after
+ * <code>maven.session.cache.age</code> milliseconds (5 minutes by default) so that newly deployed versions are found.
+ */
+class RepositorySessionCache
+{
+   private static final long MAX_AGE = Long.getLong("maven.session.cache.age", TimeUnit.MINUTES.toMillis(5));
+   private static final String ALT_USER_SETTINGS_XML_LOCATION = "org.apache.maven.user-settings";
+   private static final String ALT_LOCAL_REPOSITORY_LOCATION = "maven.repo.local";
+
+   private final MavenContainer container;
+   private CachedSession current;
+
+   RepositorySessionCache(MavenContainer container)
+   {
+      this.container = container;
+   }
+
+   /**
+    * Returns the {@link CachedSession} for the current settings
+    */
+   synchronized CachedSession get()
+   {
+      String fingerprint = getSettingsFingerprint();
+      if (current == null || !current.fingerprint.equals(fingerprint)
+               || System.currentTimeMillis() - current.created > MAX_AGE)
+      {
+         current = new CachedSession(fingerprint);
+      }
+      return current;
+   }
+
+   private String getSettingsFingerprint()
+   {
+      StringBuilder result = new StringBuilder();
+      String userSettings = System.getProperty(ALT_USER_SETTINGS_XML_LOCATION);
+      if (userSettings == null)
+      {
+         appendFingerprint(result, new File(System.getProperty("user.home"), ".m2/settings.xml"));
+      }
+      else
+      {
+         appendFingerprint(result, new File(userSettings));
+      }
+      result.append(System.getProperty(ALT_LOCAL_REPOSITORY_LOCATION)).append(';');
+      String mavenHome = System.getenv("M2_HOME");
+      if (mavenHome != null)
+      {
+         appendFingerprint(result, new File(mavenHome, "conf/settings.xml"));
+      }
+      return result.toString();
+   }
+
+   private void appendFingerprint(StringBuilder builder, File file)
+   {
+      builder.append(file.getAbsolutePath()).append(':').append(file.lastModified()).append(':')
+               .append(file.length()).append(';');
+   }
+
+   /**
+    * The state shared by resolutions made with the same settings
+    */
+   class CachedSession
+   {
+      private final String fingerprint;
+      private final long created = System.currentTimeMillis();
+      private final RepositorySystem system;
+      private final Settings settings;
+      private final DefaultRepositorySystemSession template;
+      private final List<RemoteRepository> settingsRepositories;
+      private final String configuration;
+      private final Map<List<DependencyRepository>, List<RemoteRepository>> repositories = new ConcurrentHashMap<>();
+
+      private CachedSession(String fingerprint)
+      {
+         this.fingerprint = fingerprint;
+         this.system = container.getRepositorySystem();
+         this.settings = container.getSettings();
+         this.template = container.setupRepoSession(system, settings);
+         this.template.setCache(new DefaultRepositoryCache());
+         this.settingsRepositories = MavenRepositories.getRemoteRepositories(container, settings);
+         this.configuration = describe(template, settings, settingsRepositories);
+      }
+
+      RepositorySystem getRepositorySystem()
+      {
+         return system;
+      }
+
+      Settings getSettings()
+      {
+         return settings;
+      }
+
+      /**
+       * Returns a description of the local repository, offline mode, mirrors and repositories of the settings that
+       * queries are resolved with
+       */
+      String getConfiguration()
+      {
+         return configuration;
+      }
+
+      /**
+       * Returns the directory of the given artifact in the local repository, or the directory of the given version of
+       * it if the version is not <code>null</code>
+       */
+      File getLocalDirectory(String groupId, String artifactId, String version)
+      {
+         File directory = new File(template.getLocalRepository().getBasedir(), groupId.replace('.', File.separatorChar)
+                  + File.separator + artifactId);
+         return version == null ? directory : new File(directory, version);
+      }
+
+      /**
+       * Returns a new session sharing the repository cache of this {@link CachedSession}. The returned session may be
+       * customized freely.
+       */
+      DefaultRepositorySystemSession newSession()
+      {
+         return new DefaultRepositorySystemSession(template);
+      }
+
+      /**
+       * Returns the given repositories followed by the repositories configured in the settings
+       */
+      List<RemoteRepository> getRemoteRepositories(List<DependencyRepository> queryRepositories)
+      {
+         List<DependencyRepository> key = queryRepositories == null ? Collections.<DependencyRepository> emptyList()
+                  : new ArrayList<>(queryRepositories);
+         List<RemoteRepository> result = repositories.get(key);
+         if (result == null)
+         {
+            result = MavenConvertUtils.convertToMavenRepos(key, settings);
+            result.addAll(settingsRepositories);
+            result = Collections.unmodifiableList(result);
+            repositories.put(key, result);
+         }
+         return new ArrayList<>(result);
+      }
+   }
+
+   private static String describe(DefaultRepositorySystemSession session, Settings settings,
+            List<RemoteRepository> repositories)
+   {
+      StringBuilder result = new StringBuilder(session.getLocalRepository().getBasedir().getAbsolutePath());
+      result.append(session.isOffline() ? "|offline" : "|online");
+      for (Mirror mirror : settings.getMirrors())
+      {
+         result.append('|').append(mirror.getId()).append('=').append(mirror.getUrl()).append('>')
+                  .append(mirror.getMirrorOf());
+      }
+      for (RemoteRepository repository : repositories)
+      {
+         result.append('|').append(repository.getId()).append('=').append(repository.getUrl());
+      }
+      return result.toString();
+   }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.addon.maven.dependencies;
+
+import java.io.File;
+import java.util.Properties;
+
+import org.jboss.forge.addon.dependencies.DependencyQuery;
+import org.jboss.forge.addon.dependencies.builder.DependencyQueryBuilder;
+import org.jboss.forge.addon.maven.dependencies.DependencyQueryCache.Loader;
+import org.jboss.forge.furnace.util.OperatingSystemUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DependencyQueryCacheTest
+{
+   private static final String CONFIGURATION = "/repository|online";
+
+   private DependencyQueryCache cache;
+   private File local;
+
+   @Before
+   public void setUp()
+   {
+      File root = OperatingSystemUtils.createTempDir();
+      cache = new DependencyQueryCache(new File(root, "cache"));
+      local = new File(root, "repository/org/example/example");
+   }
+
+   @After
+   public void tearDown()
+   {
+      cache.shutdown();
+   }
+
+   @Test
+   public void testCachedValueIsReturned() throws Exception
+   {
+      DependencyQuery query = DependencyQueryBuilder.create("org.example:example:1.0");
+      CountingLoader loader = new CountingLoader("1.0");
+      Assert.assertEquals("1.0", cache.get("versions", query, CONFIGURATION, local, loader));
+      Assert.assertEquals("1.0", cache.get("versions", query, CONFIGURATION, local, new CountingLoader("2.0")));
+      Assert.assertEquals(1, loader.loads);
+   }
+
+   @Test
+   public void testSessionConfigurationIsPartOfTheKey() throws Exception
+   {
+      DependencyQuery query = DependencyQueryBuilder.create("org.example:example:1.0");
+      cache.get("versions", query, CONFIGURATION, local, new CountingLoader("1.0"));
+      CountingLoader offline = new CountingLoader("2.0");
+      Assert.assertEquals("2.0", cache.get("versions", query, "/repository|offline", local, offline));
+      Assert.assertEquals("2.0", cache.get("versions", query, "/repository|offline", local, offline));
+      Assert.assertEquals(1, offline.loads);
+      Assert.assertEquals("1.0", cache.get("versions", query, CONFIGURATION, local, new CountingLoader("3.0")));
+   }
+
+   @Test
+   public void testLocalInstallIsFoundRightAway() throws Exception
+   {
+      DependencyQuery query = DependencyQueryBuilder.create("org.example:example:1.0");
+      Assert.assertEquals("1.0", cache.get("versions", query, CONFIGURATION, local, new CountingLoader("1.0")));
+
+      Assert.assertTrue(new File(local, "1.1").mkdirs());
+      local.setLastModified(System.currentTimeMillis() + 10000L);
+      CountingLoader installed = new CountingLoader("1.1");
+      Assert.assertEquals("1.1", cache.get("versions", query, CONFIGURATION, local, installed));
+      Assert.assertEquals(1, installed.loads);
+   }
+
+   @Test
+   public void testCacheSizeIsBounded() throws Exception
+   {
+      int maxSize = Integer.getInteger("forge.dependency.cache.size", 1000);
+      for (int i = 0; i <= maxSize; i++)
+      {
+         DependencyQuery query = DependencyQueryBuilder.create("org.example:example:" + i);
+         cache.get("versions", query, CONFIGURATION, local, new CountingLoader(String.valueOf(i)));
+      }
+      Assert.assertTrue(cache.size() <= maxSize);
+   }
+
+   private static class CountingLoader extends Loader<String>
+   {
+      private final String value;
+      private int loads;
+
+      CountingLoader(String value)
+      {
+         this.value = value;
+      }
+
+      @Override
+      String load() throws Exception
+      {
+         loads++;
+         return value;
+      }
+
+      @Override
+      void write(String value, Properties properties)
+      {
+         properties.setProperty("value", value);
+      }
+
+      @Override
+      String read(Properties properties)
+      {
+         return properties.getProperty("value");
+      }
+   }
+}
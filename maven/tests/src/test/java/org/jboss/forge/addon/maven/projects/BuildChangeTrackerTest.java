@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.addon.maven.projects;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.forge.addon.maven.projects.BuildChangeTracker.Changes;
+import org.jboss.forge.furnace.util.OperatingSystemUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BuildChangeTrackerTest
+{
+   private static final List<String> PACKAGE = Arrays.asList("package");
+
+   @Test
+   public void testFirstBuildIsNotIncremental() throws Exception
+   {
+      File root = OperatingSystemUtils.createTempDir();
+      Assert.assertNull(new BuildChangeTracker().take(root, PACKAGE));
+   }
+
+   @Test
+   public void testChangesMadeOutsideOfForgeAreSeen() throws Exception
+   {
+      File root = OperatingSystemUtils.createTempDir();
+      File source = new File(root, "src/main/java/Foo.java");
+      source.getParentFile().mkdirs();
+      Files.write(source.toPath(), "class Foo {}".getBytes());
+      File output = new File(root, "target/classes/Foo.class");
+      output.getParentFile().mkdirs();
+      output.createNewFile();
+      source.setLastModified(System.currentTimeMillis() - 60000L);
+
+      BuildChangeTracker tracker = new BuildChangeTracker();
+      tracker.take(root, PACKAGE);
+
+      Changes unchanged = tracker.take(root, PACKAGE);
+      Assert.assertTrue(unchanged.getPaths().isEmpty());
+
+      Files.write(source.toPath(), "class Foo { int bar; }".getBytes());
+      Files.write(output.toPath(), new byte[] { 1 });
+      Changes modified = tracker.take(root, PACKAGE);
+      Assert.assertEquals(1, modified.getPaths().size());
+      Assert.assertTrue(modified.getPaths().contains(source.getAbsolutePath()));
+      Assert.assertFalse(modified.isCleanRequired());
+
+      source.delete();
+      Changes deleted = tracker.take(root, PACKAGE);
+      Assert.assertTrue(deleted.getPaths().contains(source.getAbsolutePath()));
+      Assert.assertTrue(deleted.isCleanRequired());
+   }
+
+   @Test
+   public void testFailedBuildKeepsItsChanges() throws Exception
+   {
+      File root = OperatingSystemUtils.createTempDir();
+      File source = new File(root, "pom.xml");
+      Files.write(source.toPath(), "<project/>".getBytes());
+      source.setLastModified(System.currentTimeMillis() - 60000L);
+
+      BuildChangeTracker tracker = new BuildChangeTracker();
+      tracker.take(root, PACKAGE);
+      source.setLastModified(System.currentTimeMillis() - 30000L);
+      Changes failed = tracker.take(root, PACKAGE);
+      Assert.assertEquals(1, failed.getPaths().size());
+      tracker.restore(root, failed);
+
+      Assert.assertEquals(1, tracker.take(root, PACKAGE).getPaths().size());
+   }
+
+   @Test
+   public void testBuildWithOtherArgumentsIsNotUpToDate() throws Exception
+   {
+      File root = OperatingSystemUtils.createTempDir();
+      File source = new File(root, "pom.xml");
+      Files.write(source.toPath(), "<project/>".getBytes());
+      source.setLastModified(System.currentTimeMillis() - 60000L);
+
+      BuildChangeTracker tracker = new BuildChangeTracker();
+      tracker.take(root, Arrays.asList("compile"));
+      Changes install = tracker.take(root, Arrays.asList("install"));
+      Assert.assertTrue(install.getPaths().isEmpty());
+      Assert.assertFalse(install.isSameArguments());
+
+      Changes skipTests = tracker.take(root, Arrays.asList("install", "-Dmaven.test.skip=true"));
+      Assert.assertFalse(skipTests.isSameArguments());
+      Assert.assertTrue(tracker.take(root, Arrays.asList("install", "-Dmaven.test.skip=true")).isSameArguments());
+   }
+}
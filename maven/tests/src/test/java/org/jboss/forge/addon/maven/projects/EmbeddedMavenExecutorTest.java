@@ -0,0 +1,71 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.addon.maven.projects;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EmbeddedMavenExecutorTest
+{
+   private static final File DIRECTORY = new File("project").getAbsoluteFile();
+
+   @Test
+   public void testSupportedArguments() throws Exception
+   {
+      MavenExecutionRequest request = EmbeddedMavenExecutor.createRequest(DIRECTORY, new String[] { "clean",
+               "install", "-DskipTests", "-Dfoo=bar=baz", "-P", "a,b", "-Pc", "-pl", "core,web", "-am", "-amd", "-o",
+               "-B", " " });
+      Assert.assertNotNull(request);
+      Assert.assertEquals(Arrays.asList("clean", "install"), request.getGoals());
+      Assert.assertEquals("true", request.getUserProperties().getProperty("skipTests"));
+      Assert.assertEquals("bar=baz", request.getUserProperties().getProperty("foo"));
+      Assert.assertEquals("bar=baz", request.getSystemProperties().getProperty("foo"));
+      Assert.assertEquals(Arrays.asList("a", "b", "c"), request.getActiveProfiles());
+      Assert.assertEquals(Arrays.asList("core", "web"), request.getSelectedProjects());
+      Assert.assertEquals(MavenExecutionRequest.REACTOR_MAKE_BOTH, request.getMakeBehavior());
+      Assert.assertTrue(request.isOffline());
+      Assert.assertFalse(request.isInteractiveMode());
+      Assert.assertEquals(MavenExecutionRequest.LOGGING_LEVEL_INFO, request.getLoggingLevel());
+      Assert.assertEquals(DIRECTORY.getAbsolutePath(), request.getBaseDirectory());
+      Assert.assertEquals(new File(DIRECTORY, "pom.xml"), request.getPom());
+   }
+
+   @Test
+   public void testLongOptionsAndMakeBehavior() throws Exception
+   {
+      MavenExecutionRequest request = EmbeddedMavenExecutor.createRequest(DIRECTORY, new String[] { "package",
+               "--projects", "core", "--also-make", "--quiet", "--offline", "--batch-mode" });
+      Assert.assertNotNull(request);
+      Assert.assertEquals(Arrays.asList("core"), request.getSelectedProjects());
+      Assert.assertEquals(MavenExecutionRequest.REACTOR_MAKE_UPSTREAM, request.getMakeBehavior());
+      Assert.assertEquals(MavenExecutionRequest.LOGGING_LEVEL_ERROR, request.getLoggingLevel());
+      Assert.assertTrue(request.isOffline());
+
+      request = EmbeddedMavenExecutor.createRequest(DIRECTORY, new String[] { "package", "--also-make-dependents",
+               "-q" });
+      Assert.assertEquals(MavenExecutionRequest.REACTOR_MAKE_DOWNSTREAM, request.getMakeBehavior());
+      Assert.assertEquals(MavenExecutionRequest.LOGGING_LEVEL_ERROR, request.getLoggingLevel());
+   }
+
+   @Test
+   public void testUnsupportedArgumentsFallBackToMavenCli() throws Exception
+   {
+      Assert.assertNull(EmbeddedMavenExecutor.createRequest(DIRECTORY, new String[] { "install", "-X" }));
+      Assert.assertNull(EmbeddedMavenExecutor.createRequest(DIRECTORY, new String[] { "install", "-T", "4" }));
+      Assert.assertNull(EmbeddedMavenExecutor.createRequest(DIRECTORY, new String[] { "install", "-s",
+               "settings.xml" }));
+      Assert.assertNull(EmbeddedMavenExecutor.createRequest(DIRECTORY, new String[] { "install", "-pl" }));
+      Assert.assertNull(EmbeddedMavenExecutor.createRequest(DIRECTORY, new String[] { "install", "-P" }));
+      Assert.assertNull(EmbeddedMavenExecutor.createRequest(DIRECTORY, new String[] { "-o" }));
+      Assert.assertNull(EmbeddedMavenExecutor.createRequest(DIRECTORY, new String[] { "" }));
+      Assert.assertNull(EmbeddedMavenExecutor.createRequest(DIRECTORY, null));
+   }
+}
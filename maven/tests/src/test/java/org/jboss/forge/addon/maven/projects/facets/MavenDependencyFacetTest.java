@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.maven.projects.facets;
+
+import javax.inject.Inject;
+
+import org.apache.maven.model.Model;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.forge.addon.dependencies.Dependency;
+import org.jboss.forge.addon.dependencies.builder.DependencyBuilder;
+import org.jboss.forge.addon.maven.projects.MavenFacet;
+import org.jboss.forge.addon.projects.Project;
+import org.jboss.forge.addon.projects.ProjectFactory;
+import org.jboss.forge.addon.projects.facets.DependencyFacet;
+import org.jboss.forge.arquillian.AddonDependency;
+import org.jboss.forge.arquillian.Dependencies;
+import org.jboss.forge.arquillian.archive.ForgeArchive;
+import org.jboss.forge.furnace.repositories.AddonDependencyEntry;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(Arquillian.class)
+public class MavenDependencyFacetTest
+{
+
+   @Deployment
+   @Dependencies({
+            @AddonDependency(name = "org.jboss.forge.addon:resources"),
+            @AddonDependency(name = "org.jboss.forge.addon:projects"),
+            @AddonDependency(name = "org.jboss.forge.addon:maven")
+   })
+   public static ForgeArchive getDeployment()
+   {
+      ForgeArchive archive = ShrinkWrap
+               .create(ForgeArchive.class)
+               .addBeansXML()
+               .addAsAddonDependencies(
+                        AddonDependencyEntry.create("org.jboss.forge.furnace.container:cdi"),
+                        AddonDependencyEntry.create("org.jboss.forge.addon:maven"),
+                        AddonDependencyEntry.create("org.jboss.forge.addon:projects")
+               );
+
+      return archive;
+   }
+
+   private Project project;
+
+   @Inject
+   private ProjectFactory projectFactory;
+
+   @Before
+   public void setUp()
+   {
+      project = projectFactory.createTempProject();
+   }
+
+   @Test
+   public void testEffectiveManagedDependencyReflectsChanges() throws Exception
+   {
+      DependencyFacet facet = project.getFacet(DependencyFacet.class);
+      MavenFacet maven = project.getFacet(MavenFacet.class);
+      Dependency dependency = DependencyBuilder.create("org.jboss.forge.test:managed:${managed.version}");
+      Dependency classified = DependencyBuilder.create("org.jboss.forge.test:managed").setClassifier("sources");
+      Assert.assertNull(facet.getEffectiveManagedDependency(dependency));
+
+      Model pom = maven.getModel();
+      pom.addProperty("managed.version", "1.0");
+      maven.setModel(pom);
+      facet.addDirectManagedDependency(dependency);
+      Dependency managed = facet.getEffectiveManagedDependency(dependency);
+      Assert.assertNotNull(managed);
+      Assert.assertEquals("1.0", managed.getCoordinate().getVersion());
+      Assert.assertFalse(facet.hasEffectiveManagedDependency(classified));
+
+      facet.removeManagedDependency(dependency);
+      Assert.assertNull(facet.getEffectiveManagedDependency(dependency));
+   }
+
+   @Test
+   public void testRolledBackModelChangesAreNotWritten() throws Exception
+   {
+      MavenFacet maven = project.getFacet(MavenFacet.class);
+      String contents = maven.getModelResource().getContents();
+
+      maven.beginModelChanges();
+      maven.beginModelChanges();
+      Model pom = maven.getModel();
+      pom.addProperty("partial", "true");
+      maven.setModel(pom);
+      maven.rollbackModelChanges();
+      maven.commitModelChanges();
+
+      Assert.assertEquals(contents, maven.getModelResource().getContents());
+      Assert.assertNull(maven.getModel().getProperties().getProperty("partial"));
+   }
+}
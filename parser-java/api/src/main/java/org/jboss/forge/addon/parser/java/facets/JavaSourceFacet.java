@@ -15,6 +15,7 @@ import org.jboss.forge.addon.parser.java.resources.JavaResourceVisitor;
 import org.jboss.forge.addon.projects.Project;
 import org.jboss.forge.addon.projects.ProjectFacet;
 import org.jboss.forge.addon.resource.DirectoryResource;
+import org.jboss.forge.addon.resource.visit.ConcurrentResourceVisitor;
 import org.jboss.forge.parser.java.JavaClass;
 import org.jboss.forge.parser.java.JavaSource;
 
@@ -129,4 +130,26 @@ public interface JavaSourceFacet extends ProjectFacet
     */
    public void visitJavaTestSources(JavaResourceVisitor visitor);
 
+   /**
+    * Recursively loops over all the source directories in parallel and for each java file it finds, calls the visitor.
+    * The visitor is called concurrently only if it implements {@link ConcurrentResourceVisitor} and <code>ordered</code>
+    * is <code>false</code>.
+    * 
+    * @param visitor The {@link JavaResourceVisitor} that processes all the found java files. Cannot be null.
+    * @param ordered Whether java files must be visited in the same order as {@link #visitJavaSources}, from the calling
+    *           thread.
+    */
+   public void visitJavaSourcesInParallel(JavaResourceVisitor visitor, boolean ordered);
+
+   /**
+    * Recursively loops over all the test source directories in parallel and for each java file it finds, calls the
+    * visitor. The visitor is called concurrently only if it implements {@link ConcurrentResourceVisitor} and
+    * <code>ordered</code> is <code>false</code>.
+    * 
+    * @param visitor The {@link JavaResourceVisitor} that processes all the found java files. Cannot be null.
+    * @param ordered Whether java files must be visited in the same order as {@link #visitJavaTestSources}, from the
+    *           calling thread.
+    */
+   public void visitJavaTestSourcesInParallel(JavaResourceVisitor visitor, boolean ordered);
+
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.addon.parser.java.facets;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+import org.jboss.forge.addon.parser.java.index.JavaTypeDescriptor;
+import org.jboss.forge.addon.parser.java.index.JavaTypeDescriptor.Kind;
+import org.jboss.forge.addon.parser.java.resources.JavaResource;
+import org.jboss.forge.addon.projects.ProjectFacet;
+
+/**
+ * Provides fast queries over the types declared in {@link JavaSourceFacet#getSourceDirectory()}. The index is kept
+ * under the project's <code>.forge</code> directory and is updated when files change, so that queries do not scan the
+ * project.
+ */
+public interface JavaTypeIndexFacet extends ProjectFacet
+{
+   /**
+    * Return all indexed types
+    */
+   List<JavaTypeDescriptor> getTypes();
+
+   /**
+    * Return the type with the given qualified name, or <code>null</code> if it is not declared in this project
+    */
+   JavaTypeDescriptor getType(String qualifiedName);
+
+   /**
+    * Return all indexed types of the given {@link Kind}
+    */
+   List<JavaTypeDescriptor> getTypes(Kind kind);
+
+   /**
+    * Return all types annotated with the given annotation
+    */
+   List<JavaTypeDescriptor> getTypesAnnotatedWith(Class<? extends Annotation> annotation);
+
+   /**
+    * Return all types annotated with the annotation of the given qualified name
+    */
+   List<JavaTypeDescriptor> getTypesAnnotatedWith(String annotationType);
+
+   /**
+    * Return all types directly extending or implementing the type of the given name
+    */
+   List<JavaTypeDescriptor> getSubTypesOf(String typeName);
+
+   /**
+    * Return the {@link JavaResource} declaring the given {@link JavaTypeDescriptor}
+    */
+   JavaResource getJavaResource(JavaTypeDescriptor type);
+}
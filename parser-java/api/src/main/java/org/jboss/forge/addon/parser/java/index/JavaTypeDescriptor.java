@@ -0,0 +1,161 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.addon.parser.java.index;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.forge.addon.parser.java.facets.JavaTypeIndexFacet;
+import org.jboss.forge.parser.java.JavaSource;
+
+/**
+ * A lightweight, immutable summary of a {@link JavaSource} stored in the {@link JavaTypeIndexFacet}.
+ */
+public class JavaTypeDescriptor
+{
+   /**
+    * The kind of type declared by a {@link JavaSource}
+    */
+   public enum Kind
+   {
+      CLASS, INTERFACE, ENUM, ANNOTATION
+   }
+
+   private final String path;
+   private final String qualifiedName;
+   private final Kind kind;
+   private final String superType;
+   private final List<String> interfaces;
+   private final List<String> annotations;
+   private final List<String> members;
+   private final List<String> wildcardImports;
+
+   public JavaTypeDescriptor(String path, String qualifiedName, Kind kind, String superType,
+            List<String> interfaces, List<String> annotations, List<String> members, List<String> wildcardImports)
+   {
+      this.path = path;
+      this.qualifiedName = qualifiedName;
+      this.kind = kind;
+      this.superType = superType;
+      this.interfaces = Collections.unmodifiableList(interfaces);
+      this.annotations = Collections.unmodifiableList(annotations);
+      this.members = Collections.unmodifiableList(members);
+      this.wildcardImports = Collections.unmodifiableList(wildcardImports);
+   }
+
+   /**
+    * The absolute path of the file declaring this type
+    */
+   public String getPath()
+   {
+      return path;
+   }
+
+   public String getQualifiedName()
+   {
+      return qualifiedName;
+   }
+
+   public Kind getKind()
+   {
+      return kind;
+   }
+
+   /**
+    * The qualified name of the super class, or <code>null</code> if this type is not a class
+    */
+   public String getSuperType()
+   {
+      return superType;
+   }
+
+   /**
+    * The names of the interfaces implemented by this type, as declared in the source
+    */
+   public List<String> getInterfaces()
+   {
+      return interfaces;
+   }
+
+   /**
+    * The qualified names of the annotations present in this type declaration. Annotations that could not be resolved,
+    * such as those imported with a wildcard, are stored by their simple name.
+    */
+   public List<String> getAnnotations()
+   {
+      return annotations;
+   }
+
+   /**
+    * The signatures of the fields and methods declared in this type
+    */
+   public List<String> getMembers()
+   {
+      return members;
+   }
+
+   /**
+    * The packages imported with a wildcard by the file declaring this type
+    */
+   public List<String> getWildcardImports()
+   {
+      return wildcardImports;
+   }
+
+   public boolean hasAnnotation(Class<? extends Annotation> type)
+   {
+      return hasAnnotation(type.getName());
+   }
+
+   /**
+    * Returns true if this type is annotated with the given annotation. As with <code>Types.areEquivalent</code>, a
+    * simple name matches a qualified name with the same simple name, provided that the package of the qualified name is
+    * visible from this type.
+    */
+   public boolean hasAnnotation(String qualifiedName)
+   {
+      if (annotations.contains(qualifiedName))
+      {
+         return true;
+      }
+      String simpleName = getSimpleName(qualifiedName);
+      boolean qualified = !simpleName.equals(qualifiedName);
+      for (String annotation : annotations)
+      {
+         if (qualified ? annotation.equals(simpleName) && isVisible(getPackage(qualifiedName))
+                  : getSimpleName(annotation).equals(simpleName))
+         {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private boolean isVisible(String packageName)
+   {
+      return wildcardImports.isEmpty() || wildcardImports.contains(packageName)
+               || packageName.equals(getPackage(qualifiedName));
+   }
+
+   private static String getSimpleName(String name)
+   {
+      return name.substring(name.lastIndexOf('.') + 1);
+   }
+
+   private static String getPackage(String name)
+   {
+      int index = name.lastIndexOf('.');
+      return index == -1 ? "" : name.substring(0, index);
+   }
+
+   @Override
+   public String toString()
+   {
+      return qualifiedName;
+   }
+}
@@ -27,7 +27,8 @@ public interface JavaResource extends FileResource<JavaResource>
    public JavaResource setContents(final JavaSource<?> source);
 
    /**
-    * Attempt to determine and return the {@link JavaSource} type of the underlying {@link Class}.
+    * Attempt to determine and return the {@link JavaSource} type of the underlying {@link Class}. Each invocation
+    * returns a new {@link JavaSource} instance, which may be freely modified.
     */
    public JavaSource<?> getJavaSource() throws FileNotFoundException;
 
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.addon.parser.java.facets;
+
+import java.io.File;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.enterprise.context.Dependent;
+import javax.inject.Inject;
+
+import org.jboss.forge.addon.facets.AbstractFacet;
+import org.jboss.forge.addon.facets.constraints.FacetConstraint;
+import org.jboss.forge.addon.parser.java.index.JavaTypeDescriptor;
+import org.jboss.forge.addon.parser.java.index.JavaTypeDescriptor.Kind;
+import org.jboss.forge.addon.parser.java.index.JavaTypeIndexRegistry;
+import org.jboss.forge.addon.parser.java.resources.JavaResource;
+import org.jboss.forge.addon.projects.Project;
+import org.jboss.forge.addon.resource.ResourceFactory;
+
+/**
+ * Default implementation of the {@link JavaTypeIndexFacet}
+ */
+@Dependent
+@FacetConstraint(JavaSourceFacet.class)
+public class JavaTypeIndexFacetImpl extends AbstractFacet<Project> implements JavaTypeIndexFacet
+{
+   @Inject
+   private JavaTypeIndexRegistry registry;
+
+   @Override
+   public boolean install()
+   {
+      return isInstalled();
+   }
+
+   @Override
+   public boolean isInstalled()
+   {
+      return getFaceted().hasFacet(JavaSourceFacet.class);
+   }
+
+   @Override
+   public List<JavaTypeDescriptor> getTypes()
+   {
+      return registry.getTypes(getFaceted());
+   }
+
+   @Override
+   public JavaTypeDescriptor getType(String qualifiedName)
+   {
+      return registry.getType(getFaceted(), qualifiedName);
+   }
+
+   @Override
+   public List<JavaTypeDescriptor> getTypes(Kind kind)
+   {
+      List<JavaTypeDescriptor> result = new ArrayList<>();
+      for (JavaTypeDescriptor type : getTypes())
+      {
+         if (type.getKind() == kind)
+         {
+            result.add(type);
+         }
+      }
+      return result;
+   }
+
+   @Override
+   public List<JavaTypeDescriptor> getTypesAnnotatedWith(Class<? extends Annotation> annotation)
+   {
+      return getTypesAnnotatedWith(annotation.getName());
+   }
+
+   @Override
+   public List<JavaTypeDescriptor> getTypesAnnotatedWith(String annotationType)
+   {
+      List<JavaTypeDescriptor> result = new ArrayList<>();
+      for (JavaTypeDescriptor type : getTypes())
+      {
+         if (type.hasAnnotation(annotationType))
+         {
+            result.add(type);
+         }
+      }
+      return result;
+   }
+
+   @Override
+   public List<JavaTypeDescriptor> getSubTypesOf(String typeName)
+   {
+      String simpleName = typeName.substring(typeName.lastIndexOf('.') + 1);
+      List<JavaTypeDescriptor> result = new ArrayList<>();
+      for (JavaTypeDescriptor type : getTypes())
+      {
+         if (matches(type.getSuperType(), typeName, simpleName))
+         {
+            result.add(type);
+         }
+         else
+         {
+            for (String iface : type.getInterfaces())
+            {
+               if (matches(iface, typeName, simpleName))
+               {
+                  result.add(type);
+                  break;
+               }
+            }
+         }
+      }
+      return result;
+   }
+
+   @Override
+   public JavaResource getJavaResource(JavaTypeDescriptor type)
+   {
+      ResourceFactory factory = getFaceted().getRootDirectory().getResourceFactory();
+      return factory.create(JavaResource.class, new File(type.getPath()));
+   }
+
+   private boolean matches(String declared, String typeName, String simpleName)
+   {
+      return declared != null && (declared.equals(typeName) || declared.equals(simpleName));
+   }
+}
@@ -0,0 +1,550 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.addon.parser.java.index;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
+import org.jboss.forge.addon.parser.java.index.JavaTypeDescriptor.Kind;
+import org.jboss.forge.addon.parser.java.resources.JavaResource;
+import org.jboss.forge.addon.parser.java.resources.JavaResourceVisitor;
+import org.jboss.forge.addon.resource.visit.ConcurrentResourceVisitor;
+import org.jboss.forge.addon.resource.visit.VisitContext;
+import org.jboss.forge.furnace.util.Streams;
+import org.jboss.forge.parser.java.Annotation;
+import org.jboss.forge.parser.java.Field;
+import org.jboss.forge.parser.java.Import;
+import org.jboss.forge.parser.java.InterfaceCapable;
+import org.jboss.forge.parser.java.JavaClass;
+import org.jboss.forge.parser.java.JavaSource;
+import org.jboss.forge.parser.java.Member;
+import org.jboss.forge.parser.java.Method;
+
+/**
+ * The {@link JavaTypeDescriptor} index of a single project. The whole source directory is only scanned by
+ * {@link #initialize(JavaSourceFacet, Set)}, where entries loaded from the storage are validated against the last
+ * modification time and size of their files so that only changed files are parsed. Afterwards the index is kept up to
+ * date by {@link #refresh(Collection)}, and reading it never touches the file system. Queries share an immutable
+ * snapshot of the indexed types, which is only built again after the index changed.
+ *
+ * The index is stored in a line-oriented text file, one type per line.
+ */
+public class JavaTypeIndex
+{
+   private static final Logger log = Logger.getLogger(JavaTypeIndex.class.getName());
+
+   private static final Charset UTF_8 = Charset.forName("UTF-8");
+   private static final String VERSION = "#forge-java-type-index:2";
+   private static final String FIELD_SEPARATOR = "\t";
+   private static final String LIST_SEPARATOR = "|";
+
+   private final File storage;
+   private final String sourceDirectory;
+   private final Map<String, IndexEntry> entries = new ConcurrentSkipListMap<>();
+
+   /**
+    * Paths changed by the transaction running during {@link #initialize(JavaSourceFacet, Set)}, which must be indexed
+    * once that transaction ends
+    */
+   private final Set<String> skipped = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+   private final AtomicInteger modifications = new AtomicInteger();
+   private volatile TypeSnapshot snapshot;
+
+   private volatile boolean initialized;
+
+   public JavaTypeIndex(File storage, String sourceDirectory)
+   {
+      this.storage = storage;
+      this.sourceDirectory = sourceDirectory;
+   }
+
+   /**
+    * Bring this index up to date with the sources of the given {@link JavaSourceFacet} the first time it is called,
+    * parsing only new or changed files. Later calls return immediately. The given paths, changed by a transaction that
+    * is not committed yet, are not indexed until {@link #takeSkipped()} is called.
+    */
+   public void initialize(JavaSourceFacet facet, Set<String> uncommitted)
+   {
+      if (initialized)
+         return;
+      synchronized (this)
+      {
+         if (initialized)
+            return;
+         load();
+         modifications.incrementAndGet();
+
+         final Set<String> seen = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+         final AtomicBoolean changed = new AtomicBoolean();
+         facet.visitJavaSourcesInParallel(new IndexingVisitor(seen, changed, uncommitted), false);
+
+         if (entries.keySet().retainAll(seen))
+         {
+            modifications.incrementAndGet();
+            changed.set(true);
+         }
+         if (changed.get())
+         {
+            save();
+         }
+         initialized = true;
+      }
+   }
+
+   /**
+    * Returns the paths that were not indexed by {@link #initialize(JavaSourceFacet, Set)}, which must be refreshed once
+    * the transaction that changed them ends
+    */
+   public synchronized List<String> takeSkipped()
+   {
+      List<String> result = new ArrayList<>(skipped);
+      skipped.clear();
+      return result;
+   }
+
+   /**
+    * Returns true if the file at the given path belongs in this index
+    */
+   public boolean indexes(String path)
+   {
+      return path.endsWith(".java") && isInSourceDirectory(path);
+   }
+
+   /**
+    * Returns true if the given path is in the source directory this index covers
+    */
+   public boolean isInSourceDirectory(String path)
+   {
+      return path.startsWith(sourceDirectory + File.separator);
+   }
+
+   /**
+    * Returns the indexed paths below the given directory
+    */
+   public List<String> getPathsUnder(String directory)
+   {
+      List<String> result = new ArrayList<>();
+      String prefix = directory + File.separator;
+      for (String path : entries.keySet())
+      {
+         if (path.startsWith(prefix))
+         {
+            result.add(path);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Returns the indexed types
+    */
+   public List<JavaTypeDescriptor> getTypes()
+   {
+      return getSnapshot().types;
+   }
+
+   /**
+    * Returns the indexed type of the given qualified name, as if the given changed resources were indexed, or
+    * <code>null</code> if there is no such type
+    */
+   public JavaTypeDescriptor getType(String qualifiedName, Collection<JavaResource> changed)
+   {
+      JavaTypeDescriptor result = getSnapshot().byName.get(qualifiedName);
+      Set<String> changedPaths = new HashSet<>();
+      for (JavaResource resource : changed)
+      {
+         changedPaths.add(resource.getFullyQualifiedName());
+         JavaTypeDescriptor type = describeUncommitted(resource);
+         if (type != null && type.getQualifiedName().equals(qualifiedName))
+         {
+            return type;
+         }
+      }
+      if (result != null && changedPaths.contains(result.getPath()))
+      {
+         return null;
+      }
+      return result;
+   }
+
+   /**
+    * Returns the indexed types, as if the given changed resources were indexed (deleted if they do not exist anymore),
+    * without changing this index. Used to see the changes of a transaction that is not committed yet.
+    */
+   public List<JavaTypeDescriptor> getTypes(Collection<JavaResource> changed)
+   {
+      if (changed.isEmpty())
+      {
+         return getTypes();
+      }
+      Map<String, JavaTypeDescriptor> result = new ConcurrentSkipListMap<>();
+      for (Map.Entry<String, IndexEntry> entry : entries.entrySet())
+      {
+         result.put(entry.getKey(), entry.getValue().descriptor);
+      }
+      for (JavaResource resource : changed)
+      {
+         String path = resource.getFullyQualifiedName();
+         result.remove(path);
+         JavaTypeDescriptor type = describeUncommitted(resource);
+         if (type != null)
+         {
+            result.put(path, type);
+         }
+      }
+      return new ArrayList<>(result.values());
+   }
+
+   /**
+    * Describes the given changed resource without indexing it, or returns <code>null</code> if it does not exist
+    * anymore or cannot be parsed
+    */
+   private JavaTypeDescriptor describeUncommitted(JavaResource resource)
+   {
+      String path = resource.getFullyQualifiedName();
+      if (resource.exists())
+      {
+         try
+         {
+            return describe(path, resource.getJavaSource());
+         }
+         catch (Exception e)
+         {
+            log.log(Level.FINE, "Could not index Java source [" + path + "]", e);
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Parses the given resources again if they changed since they were indexed, and removes those that do not exist
+    * anymore
+    */
+   public synchronized void refresh(Collection<JavaResource> resources)
+   {
+      if (!initialized)
+         return;
+      boolean changed = false;
+      for (JavaResource resource : resources)
+      {
+         String path = resource.getFullyQualifiedName();
+         if (!resource.exists())
+         {
+            if (entries.remove(path) != null)
+            {
+               modifications.incrementAndGet();
+               changed = true;
+            }
+         }
+         else
+         {
+            changed |= index(path, resource);
+         }
+      }
+      if (changed)
+      {
+         save();
+      }
+   }
+
+   /**
+    * Parses the given resource if it is not indexed with its current modification time and size. Returns true if the
+    * index changed.
+    */
+   private boolean index(String path, JavaResource resource)
+   {
+      long lastModified = resource.getLastModified();
+      long size = resource.getSize();
+      IndexEntry entry = entries.get(path);
+      if (entry != null && entry.lastModified == lastModified && entry.size == size)
+      {
+         return false;
+      }
+      entries.remove(path);
+      try
+      {
+         JavaTypeDescriptor descriptor = describe(path, resource.getJavaSource());
+         entries.put(path, new IndexEntry(lastModified, size, descriptor));
+      }
+      catch (Exception e)
+      {
+         log.log(Level.FINE, "Could not index Java source [" + path + "]", e);
+      }
+      modifications.incrementAndGet();
+      return true;
+   }
+
+   /**
+    * Returns the snapshot of the indexed types, building it again if the index changed since it was taken
+    */
+   private TypeSnapshot getSnapshot()
+   {
+      TypeSnapshot current = snapshot;
+      int modification = modifications.get();
+      if (current == null || current.modification != modification)
+      {
+         List<JavaTypeDescriptor> types = new ArrayList<>(entries.size());
+         for (IndexEntry entry : entries.values())
+         {
+            types.add(entry.descriptor);
+         }
+         current = new TypeSnapshot(modification, types);
+         snapshot = current;
+      }
+      return current;
+   }
+
+   static JavaTypeDescriptor describe(String path, JavaSource<?> source)
+   {
+      Kind kind;
+      if (source.isInterface())
+         kind = Kind.INTERFACE;
+      else if (source.isEnum())
+         kind = Kind.ENUM;
+      else if (source.isAnnotation())
+         kind = Kind.ANNOTATION;
+      else
+         kind = Kind.CLASS;
+
+      String superType = null;
+      if (source instanceof JavaClass)
+      {
+         superType = ((JavaClass) source).getSuperType();
+      }
+
+      List<String> interfaces = new ArrayList<>();
+      if (source instanceof InterfaceCapable)
+      {
+         interfaces.addAll(((InterfaceCapable<?>) source).getInterfaces());
+      }
+
+      List<String> annotations = new ArrayList<>();
+      for (Annotation<?> annotation : source.getAnnotations())
+      {
+         annotations.add(annotation.getQualifiedName());
+      }
+
+      List<String> members = new ArrayList<>();
+      for (Member<?, ?> member : source.getMembers())
+      {
+         if (member instanceof Method)
+         {
+            members.add(((Method<?>) member).toSignature());
+         }
+         else if (member instanceof Field)
+         {
+            Field<?> field = (Field<?>) member;
+            members.add(field.getName() + " : " + field.getType());
+         }
+      }
+
+      List<String> wildcardImports = new ArrayList<>();
+      for (Import imprt : source.getImports())
+      {
+         if (imprt.isWildcard() && !imprt.isStatic())
+         {
+            String name = imprt.getQualifiedName();
+            wildcardImports.add(name.endsWith(".*") ? name.substring(0, name.length() - 2) : name);
+         }
+      }
+      return new JavaTypeDescriptor(path, source.getQualifiedName(), kind, superType, interfaces, annotations,
+               members, wildcardImports);
+   }
+
+   private void load()
+   {
+      if (!storage.isFile())
+         return;
+
+      BufferedReader reader = null;
+      try
+      {
+         reader = new BufferedReader(new InputStreamReader(new FileInputStream(storage), UTF_8));
+         if (!VERSION.equals(reader.readLine()))
+            return;
+
+         String line;
+         while ((line = reader.readLine()) != null)
+         {
+            String[] fields = line.split(FIELD_SEPARATOR, -1);
+            if (fields.length != 10)
+               continue;
+            JavaTypeDescriptor descriptor = new JavaTypeDescriptor(fields[0], fields[3], Kind.valueOf(fields[4]),
+                     fields[5].isEmpty() ? null : fields[5], split(fields[6]), split(fields[7]), split(fields[8]),
+                     split(fields[9]));
+            entries.put(fields[0], new IndexEntry(Long.parseLong(fields[1]), Long.parseLong(fields[2]), descriptor));
+         }
+      }
+      catch (Exception e)
+      {
+         log.log(Level.WARNING, "Discarding unreadable Java type index [" + storage + "]", e);
+         entries.clear();
+      }
+      finally
+      {
+         Streams.closeQuietly(reader);
+      }
+   }
+
+   private void save()
+   {
+      Writer writer = null;
+      try
+      {
+         storage.getParentFile().mkdirs();
+         writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(storage), UTF_8));
+         writer.write(VERSION);
+         writer.write('\n');
+         for (Map.Entry<String, IndexEntry> mapEntry : entries.entrySet())
+         {
+            IndexEntry entry = mapEntry.getValue();
+            JavaTypeDescriptor descriptor = entry.descriptor;
+            writer.write(mapEntry.getKey());
+            writer.write(FIELD_SEPARATOR);
+            writer.write(String.valueOf(entry.lastModified));
+            writer.write(FIELD_SEPARATOR);
+            writer.write(String.valueOf(entry.size));
+            writer.write(FIELD_SEPARATOR);
+            writer.write(descriptor.getQualifiedName());
+            writer.write(FIELD_SEPARATOR);
+            writer.write(descriptor.getKind().name());
+            writer.write(FIELD_SEPARATOR);
+            writer.write(descriptor.getSuperType() == null ? "" : descriptor.getSuperType());
+            writer.write(FIELD_SEPARATOR);
+            writer.write(join(descriptor.getInterfaces()));
+            writer.write(FIELD_SEPARATOR);
+            writer.write(join(descriptor.getAnnotations()));
+            writer.write(FIELD_SEPARATOR);
+            writer.write(join(descriptor.getMembers()));
+            writer.write(FIELD_SEPARATOR);
+            writer.write(join(descriptor.getWildcardImports()));
+            writer.write('\n');
+         }
+      }
+      catch (IOException e)
+      {
+         log.log(Level.WARNING, "Could not store Java type index [" + storage + "]", e);
+      }
+      finally
+      {
+         Streams.closeQuietly(writer);
+      }
+   }
+
+   private static String join(List<String> values)
+   {
+      StringBuilder sb = new StringBuilder();
+      for (String value : values)
+      {
+         if (sb.length() > 0)
+            sb.append(LIST_SEPARATOR);
+         sb.append(value.replace(FIELD_SEPARATOR, " ").replace(LIST_SEPARATOR, " "));
+      }
+      return sb.toString();
+   }
+
+   private static List<String> split(String value)
+   {
+      if (value.isEmpty())
+         return Collections.emptyList();
+      return Arrays.asList(value.split("\\" + LIST_SEPARATOR));
+   }
+
+   /**
+    * Parses new or changed files, possibly from multiple threads
+    */
+   private class IndexingVisitor extends JavaResourceVisitor implements ConcurrentResourceVisitor
+   {
+      private final Set<String> seen;
+      private final AtomicBoolean changed;
+      private final Set<String> uncommitted;
+
+      public IndexingVisitor(Set<String> seen, AtomicBoolean changed, Set<String> uncommitted)
+      {
+         this.seen = seen;
+         this.changed = changed;
+         this.uncommitted = uncommitted;
+      }
+
+      @Override
+      public void visit(VisitContext context, JavaResource resource)
+      {
+         String path = resource.getFullyQualifiedName();
+         if (uncommitted.contains(path))
+         {
+            // The contents read now may never be committed
+            skipped.add(path);
+            return;
+         }
+         seen.add(path);
+         if (index(path, resource))
+         {
+            changed.set(true);
+         }
+      }
+   }
+
+   private static class TypeSnapshot
+   {
+      private final int modification;
+      private final List<JavaTypeDescriptor> types;
+      private final Map<String, JavaTypeDescriptor> byName = new HashMap<>();
+
+      public TypeSnapshot(int modification, List<JavaTypeDescriptor> types)
+      {
+         this.modification = modification;
+         this.types = Collections.unmodifiableList(types);
+         for (JavaTypeDescriptor type : types)
+         {
+            // Types are ordered by path, the first declaration of a name wins
+            if (!byName.containsKey(type.getQualifiedName()))
+            {
+               byName.put(type.getQualifiedName(), type);
+            }
+         }
+      }
+   }
+
+   private static class IndexEntry
+   {
+      private final long lastModified;
+      private final long size;
+      private final JavaTypeDescriptor descriptor;
+
+      public IndexEntry(long lastModified, long size, JavaTypeDescriptor descriptor)
+      {
+         this.lastModified = lastModified;
+         this.size = size;
+         this.descriptor = descriptor;
+      }
+   }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.addon.parser.java.index;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.enterprise.event.Observes;
+import javax.inject.Singleton;
+
+import org.jboss.forge.addon.parser.java.facets.JavaSourceFacet;
+import org.jboss.forge.addon.parser.java.resources.JavaResource;
+import org.jboss.forge.addon.projects.Project;
+import org.jboss.forge.addon.resource.DirectoryResource;
+import org.jboss.forge.addon.resource.Resource;
+import org.jboss.forge.addon.resource.ResourceFactory;
+import org.jboss.forge.addon.resource.events.ResourceEvent;
+import org.jboss.forge.addon.resource.events.ResourceRenamed;
+import org.jboss.forge.addon.resource.monitor.ResourceListener;
+import org.jboss.forge.addon.resource.monitor.ResourceMonitor;
+import org.jboss.forge.addon.resource.transaction.ResourceTransaction;
+import org.jboss.forge.addon.resource.transaction.ResourceTransactionListener;
+import org.jboss.forge.furnace.container.cdi.events.Local;
+import org.jboss.forge.furnace.event.PreShutdown;
+import org.jboss.forge.furnace.spi.ListenerRegistration;
+
+/**
+ * Holds the {@link JavaTypeIndex} of every {@link Project}, keyed by the project root directory, so that indexes
+ * survive the re-creation of {@link Project} instances. Indexes are updated when a {@link ResourceTransaction} is
+ * committed, and when the resource monitor of their source directory reports a change made by other means, so that
+ * queries only read them. Changes of the running transaction are overlaid on the results without being indexed.
+ */
+@Singleton
+public class JavaTypeIndexRegistry
+{
+   public static final String INDEX_DIRECTORY = ".forge";
+   public static final String INDEX_FILE = "java-type-index";
+
+   private static final Logger log = Logger.getLogger(JavaTypeIndexRegistry.class.getName());
+
+   private final Map<String, JavaTypeIndex> indexes = new ConcurrentHashMap<>();
+   private final List<ResourceMonitor> monitors = new ArrayList<>();
+
+   private volatile ResourceFactory factory;
+   private volatile ListenerRegistration<ResourceTransactionListener> registration;
+
+   void shutdown(@Observes @Local PreShutdown shutdown)
+   {
+      if (registration != null)
+      {
+         registration.removeListener();
+         registration = null;
+      }
+      synchronized (monitors)
+      {
+         for (ResourceMonitor monitor : monitors)
+         {
+            monitor.cancel();
+         }
+         monitors.clear();
+      }
+      indexes.clear();
+   }
+
+   /**
+    * Return the {@link JavaTypeIndex} for the given {@link Project}, creating and building it if necessary.
+    */
+   public JavaTypeIndex getIndex(Project project)
+   {
+      ResourceFactory resourceFactory = project.getRootDirectory().getResourceFactory();
+      listenTo(resourceFactory);
+
+      JavaSourceFacet facet = project.getFacet(JavaSourceFacet.class);
+      String root = project.getRootDirectory().getFullyQualifiedName();
+      JavaTypeIndex index = indexes.get(root);
+      if (index == null)
+      {
+         synchronized (indexes)
+         {
+            index = indexes.get(root);
+            if (index == null)
+            {
+               File storage = new File(new File(project.getRootDirectory().getUnderlyingResourceObject(),
+                        INDEX_DIRECTORY), INDEX_FILE);
+               DirectoryResource sourceDirectory = facet.getSourceDirectory();
+               index = new JavaTypeIndex(storage, sourceDirectory.getFullyQualifiedName());
+               monitor(index, sourceDirectory);
+               indexes.put(root, index);
+            }
+         }
+      }
+
+      Set<String> uncommitted = new HashSet<>();
+      ResourceTransaction transaction = resourceFactory.getTransaction();
+      if (transaction.isStarted())
+      {
+         for (JavaResource resource : getChangedResources(index, transaction.getChangeSet()))
+         {
+            uncommitted.add(resource.getFullyQualifiedName());
+         }
+      }
+      index.initialize(facet, uncommitted);
+      return index;
+   }
+
+   /**
+    * Return the types of the given {@link Project}, including the changes of the running transaction
+    */
+   public List<JavaTypeDescriptor> getTypes(Project project)
+   {
+      JavaTypeIndex index = getIndex(project);
+      return index.getTypes(getUncommittedResources(index, project));
+   }
+
+   /**
+    * Return the type of the given qualified name in the given {@link Project}, including the changes of the running
+    * transaction, or <code>null</code> if there is no such type
+    */
+   public JavaTypeDescriptor getType(Project project, String qualifiedName)
+   {
+      JavaTypeIndex index = getIndex(project);
+      return index.getType(qualifiedName, getUncommittedResources(index, project));
+   }
+
+   private Collection<JavaResource> getUncommittedResources(JavaTypeIndex index, Project project)
+   {
+      ResourceTransaction transaction = project.getRootDirectory().getResourceFactory().getTransaction();
+      if (transaction.isStarted())
+      {
+         return getChangedResources(index, transaction.getChangeSet());
+      }
+      return Collections.emptyList();
+   }
+
+   private void listenTo(ResourceFactory resourceFactory)
+   {
+      if (registration == null)
+      {
+         synchronized (this)
+         {
+            if (registration == null)
+            {
+               factory = resourceFactory;
+               registration = resourceFactory.addTransactionListener(new IndexUpdateListener());
+            }
+         }
+      }
+   }
+
+   /**
+    * Keeps the given index up to date with the changes made to its source directory outside of resource transactions
+    */
+   private void monitor(final JavaTypeIndex index, DirectoryResource sourceDirectory)
+   {
+      if (!sourceDirectory.exists())
+      {
+         return;
+      }
+      try
+      {
+         ResourceMonitor monitor = sourceDirectory.monitor();
+         monitor.addResourceListener(new ResourceListener()
+         {
+            @Override
+            public void processEvent(ResourceEvent event)
+            {
+               index.refresh(getChangedResources(index, Collections.singleton(event)));
+            }
+         });
+         synchronized (monitors)
+         {
+            monitors.add(monitor);
+         }
+      }
+      catch (RuntimeException e)
+      {
+         log.log(Level.WARNING, "Could not monitor [" + sourceDirectory.getFullyQualifiedName()
+                  + "], changes made outside of Forge will not be indexed", e);
+      }
+   }
+
+   /**
+    * Returns the Java resources of the given index affected by the given changes. A changed directory affects every
+    * indexed type below it.
+    */
+   private Collection<JavaResource> getChangedResources(JavaTypeIndex index, Collection<ResourceEvent> changes)
+   {
+      Set<String> paths = new LinkedHashSet<>();
+      for (ResourceEvent event : changes)
+      {
+         Resource<?> resource = event.getResource();
+         if (resource == null)
+            continue;
+         addChangedPaths(index, resource.getFullyQualifiedName(), paths);
+         if (event instanceof ResourceRenamed)
+         {
+            addChangedPaths(index, ((ResourceRenamed) event).getOriginalLocation(), paths);
+         }
+      }
+      List<JavaResource> result = new ArrayList<>(paths.size());
+      for (String path : paths)
+      {
+         result.add(factory.create(JavaResource.class, new File(path)));
+      }
+      return result;
+   }
+
+   private void addChangedPaths(JavaTypeIndex index, String path, Set<String> paths)
+   {
+      if (path == null)
+         return;
+      if (index.indexes(path))
+      {
+         paths.add(path);
+      }
+      else if (!path.endsWith(".java") && index.isInSourceDirectory(path))
+      {
+         paths.addAll(index.getPathsUnder(path));
+      }
+   }
+
+   private class IndexUpdateListener implements ResourceTransactionListener
+   {
+      @Override
+      public void transactionStarted(ResourceTransaction transaction)
+      {
+      }
+
+      @Override
+      public void transactionCommitted(ResourceTransaction transaction, Set<ResourceEvent> changeSet)
+      {
+         for (JavaTypeIndex index : indexes.values())
+         {
+            Set<JavaResource> resources = new LinkedHashSet<>(getChangedResources(index, changeSet));
+            resources.addAll(getSkippedResources(index));
+            if (!resources.isEmpty())
+            {
+               index.refresh(resources);
+            }
+         }
+      }
+
+      @Override
+      public void transactionRolledBack(ResourceTransaction transaction)
+      {
+         for (JavaTypeIndex index : indexes.values())
+         {
+            List<JavaResource> resources = getSkippedResources(index);
+            if (!resources.isEmpty())
+            {
+               index.refresh(resources);
+            }
+         }
+      }
+
+      private List<JavaResource> getSkippedResources(JavaTypeIndex index)
+      {
+         List<JavaResource> result = new ArrayList<>();
+         for (String path : index.takeSkipped())
+         {
+            result.add(factory.create(JavaResource.class, new File(path)));
+         }
+         return result;
+      }
+   }
+}
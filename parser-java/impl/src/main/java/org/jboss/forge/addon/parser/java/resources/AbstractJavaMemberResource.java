@@ -47,6 +47,14 @@ public abstract class AbstractJavaMemberResource<T extends Member> extends Virtu
       return member;
    }
 
+   /**
+    * Returns the member this resource was listed from, which may belong to a shared source and must only be read
+    */
+   T getMember()
+   {
+      return member;
+   }
+
    @Override
    public String getName()
    {
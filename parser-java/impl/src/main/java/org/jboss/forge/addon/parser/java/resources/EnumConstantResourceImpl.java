@@ -21,12 +21,25 @@ import org.jboss.forge.parser.java.JavaEnum;
 public class EnumConstantResourceImpl extends VirtualResource<EnumConstant<JavaEnum>> implements EnumConstantResource
 {
    private final EnumConstant<JavaEnum> enumConstant;
+   private final boolean shared;
+   private EnumConstant<JavaEnum> copy;
 
    public EnumConstantResourceImpl(final ResourceFactory factory, final Resource<?> parent,
             final EnumConstant<JavaEnum> enumConstant)
+   {
+      this(factory, parent, enumConstant, false);
+   }
+
+   /**
+    * @param shared whether the given constant belongs to a shared, read-only source of the parent
+    *           {@link JavaResourceImpl}
+    */
+   EnumConstantResourceImpl(final ResourceFactory factory, final Resource<?> parent,
+            final EnumConstant<JavaEnum> enumConstant, boolean shared)
    {
       super(factory, parent);
       this.enumConstant = enumConstant;
+      this.shared = shared;
    }
 
    @Override
@@ -41,10 +54,21 @@ public class EnumConstantResourceImpl extends VirtualResource<EnumConstant<JavaE
       return Collections.emptyList();
    }
 
+   /**
+    * Returns the constant in a source of its own, that callers may change
+    */
    @Override
-   public EnumConstant<JavaEnum> getUnderlyingResourceObject()
+   public synchronized EnumConstant<JavaEnum> getUnderlyingResourceObject()
    {
-      return enumConstant;
+      if (!shared)
+      {
+         return enumConstant;
+      }
+      if (copy == null)
+      {
+         copy = ((JavaResourceImpl) getParent()).copyOf(enumConstant);
+      }
+      return copy;
    }
 
    @Override
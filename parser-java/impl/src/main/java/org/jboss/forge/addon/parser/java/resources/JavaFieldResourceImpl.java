@@ -26,12 +26,24 @@ public class JavaFieldResourceImpl extends AbstractJavaMemberResource<Field<? ex
          JavaFieldResource
 {
    private final Field<? extends JavaSource<?>> field;
+   private final boolean shared;
+   private Field<? extends JavaSource<?>> copy;
 
    public JavaFieldResourceImpl(final ResourceFactory factory, final Resource<?> parent,
             final Field<? extends JavaSource<?>> field)
+   {
+      this(factory, parent, field, false);
+   }
+
+   /**
+    * @param shared whether the given field belongs to a shared, read-only source of the parent {@link JavaResourceImpl}
+    */
+   JavaFieldResourceImpl(final ResourceFactory factory, final Resource<?> parent,
+            final Field<? extends JavaSource<?>> field, boolean shared)
    {
       super(factory, parent, field);
       this.field = field;
+      this.shared = shared;
    }
 
    @Override
@@ -46,10 +58,22 @@ public class JavaFieldResourceImpl extends AbstractJavaMemberResource<Field<? ex
       return Collections.emptyList();
    }
 
+   /**
+    * Returns the field in a source of its own, that callers may change
+    */
    @Override
-   public Field<? extends JavaSource<?>> getUnderlyingResourceObject()
+   @SuppressWarnings("unchecked")
+   public synchronized Field<? extends JavaSource<?>> getUnderlyingResourceObject()
    {
-      return field;
+      if (!shared)
+      {
+         return field;
+      }
+      if (copy == null)
+      {
+         copy = (Field<? extends JavaSource<?>>) ((JavaResourceImpl) getParent()).copyOf(field);
+      }
+      return copy;
    }
 
    @Override
@@ -68,11 +92,12 @@ public class JavaFieldResourceImpl extends AbstractJavaMemberResource<Field<? ex
    @SuppressWarnings({ "unchecked", "rawtypes" })
    public boolean delete() throws UnsupportedOperationException
    {
-      JavaSource<?> origin = field.getOrigin();
+      Field<? extends JavaSource<?>> target = getUnderlyingResourceObject();
+      JavaSource<?> origin = target.getOrigin();
       if (origin instanceof FieldHolder)
       {
-         ((FieldHolder) origin).removeField(field);
-         if (!((FieldHolder) origin).hasField(field))
+         ((FieldHolder) origin).removeField(target);
+         if (!((FieldHolder) origin).hasField(target))
          {
             ((JavaResource) this.getParent()).setContents(origin.toString());
             return true;
@@ -29,12 +29,25 @@ import org.jboss.forge.parser.java.util.Strings;
 public class JavaMethodResourceImpl extends AbstractJavaMemberResource<Method> implements JavaMethodResource
 {
    private final Method<? extends JavaSource<?>> method;
+   private final boolean shared;
+   private Method<? extends JavaSource<?>> copy;
 
    public JavaMethodResourceImpl(final ResourceFactory factory, final Resource<?> parent,
             final Method<? extends JavaSource<?>> method)
+   {
+      this(factory, parent, method, false);
+   }
+
+   /**
+    * @param shared whether the given method belongs to a shared, read-only source of the parent
+    *           {@link JavaResourceImpl}
+    */
+   JavaMethodResourceImpl(final ResourceFactory factory, final Resource<?> parent,
+            final Method<? extends JavaSource<?>> method, boolean shared)
    {
       super(factory, parent, method);
       this.method = method;
+      this.shared = shared;
    }
 
    @Override
@@ -49,10 +62,22 @@ public class JavaMethodResourceImpl extends AbstractJavaMemberResource<Method> i
       return Collections.emptyList();
    }
 
+   /**
+    * Returns the method in a source of its own, that callers may change
+    */
    @Override
-   public Method<? extends JavaSource<?>> getUnderlyingResourceObject()
+   @SuppressWarnings("unchecked")
+   public synchronized Method<? extends JavaSource<?>> getUnderlyingResourceObject()
    {
-      return method;
+      if (!shared)
+      {
+         return method;
+      }
+      if (copy == null)
+      {
+         copy = (Method<? extends JavaSource<?>>) ((JavaResourceImpl) getParent()).copyOf(method);
+      }
+      return copy;
    }
 
    @Override
@@ -78,11 +103,12 @@ public class JavaMethodResourceImpl extends AbstractJavaMemberResource<Method> i
    @SuppressWarnings({ "unchecked" })
    public boolean delete() throws UnsupportedOperationException
    {
-      JavaSource<?> origin = method.getOrigin();
+      Method<? extends JavaSource<?>> target = getUnderlyingResourceObject();
+      JavaSource<?> origin = target.getOrigin();
       if (origin instanceof MethodHolder)
       {
-         ((MethodHolder) origin).removeMethod(method);
-         if (!((MethodHolder) origin).hasMethodSignature(method))
+         ((MethodHolder) origin).removeMethod(target);
+         if (!((MethodHolder) origin).hasMethodSignature(target))
          {
             ((JavaResource) this.getParent()).setContents(origin.toString());
             return true;
@@ -9,6 +9,8 @@ package org.jboss.forge.addon.parser.java.resources;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -16,6 +18,7 @@ import java.util.List;
 
 import org.jboss.forge.addon.parser.java.JavaSourceFactory;
 import org.jboss.forge.addon.resource.AbstractFileResource;
+import org.jboss.forge.addon.resource.FileResource;
 import org.jboss.forge.addon.resource.Resource;
 import org.jboss.forge.addon.resource.ResourceException;
 import org.jboss.forge.addon.resource.ResourceFacet;
@@ -35,11 +38,19 @@ import org.jboss.forge.parser.java.Method;
 public class JavaResourceImpl extends AbstractFileResource<JavaResource> implements JavaResource
 {
    private final JavaSourceFactory parser;
+   private final JavaSourceCache cache;
 
    public JavaResourceImpl(final ResourceFactory factory, JavaSourceFactory parser, final File file)
+   {
+      this(factory, parser, null, file);
+   }
+
+   public JavaResourceImpl(final ResourceFactory factory, JavaSourceFactory parser, JavaSourceCache cache,
+            final File file)
    {
       super(factory, file);
       this.parser = parser;
+      this.cache = cache;
    }
 
    @Override
@@ -53,7 +64,7 @@ public class JavaResourceImpl extends AbstractFileResource<JavaResource> impleme
          if ((name != null) && (child instanceof AbstractJavaMemberResource<?>))
          {
             String childName = child.getName();
-            if (((Member<?, ?>) child.getUnderlyingResourceObject()).getName().equals(name.trim())
+            if (((Member<?, ?>) ((AbstractJavaMemberResource<?>) child).getMember()).getName().equals(name.trim())
                      || childName.equals(name))
             {
                subset.add(child);
@@ -83,15 +94,20 @@ public class JavaResourceImpl extends AbstractFileResource<JavaResource> impleme
       {
          List<Resource<?>> list = new LinkedList<>();
 
-         for (Member<?, ?> member : getJavaSource().getMembers())
+         // Member resources only read the shared source, and hand out members of a copy to callers
+         boolean shared = isCacheable();
+         JavaSource<?> source = shared ? getCachedJavaSource() : getJavaSource();
+         for (Member<?, ?> member : source.getMembers())
          {
             if (member instanceof Field)
             {
-               list.add(new JavaFieldResourceImpl(getResourceFactory(), this, (Field<? extends JavaSource<?>>) member));
+               list.add(new JavaFieldResourceImpl(getResourceFactory(), this, (Field<? extends JavaSource<?>>) member,
+                        shared));
             }
             else if (member instanceof Method)
             {
-               list.add(new JavaMethodResourceImpl(getResourceFactory(), this, (Method<? extends JavaSource<?>>) member));
+               list.add(new JavaMethodResourceImpl(getResourceFactory(), this,
+                        (Method<? extends JavaSource<?>>) member, shared));
             }
             else
             {
@@ -99,11 +115,11 @@ public class JavaResourceImpl extends AbstractFileResource<JavaResource> impleme
             }
          }
 
-         if (getJavaSource() instanceof JavaEnum)
+         if (source instanceof JavaEnum)
          {
-            for (EnumConstant<JavaEnum> e : ((JavaEnum) getJavaSource()).getEnumConstants())
+            for (EnumConstant<JavaEnum> e : ((JavaEnum) source).getEnumConstants())
             {
-               list.add(new EnumConstantResourceImpl(getResourceFactory(), this, e));
+               list.add(new EnumConstantResourceImpl(getResourceFactory(), this, e, shared));
             }
          }
 
@@ -126,6 +142,54 @@ public class JavaResourceImpl extends AbstractFileResource<JavaResource> impleme
       return this;
    }
 
+   @Override
+   public JavaResource setContents(final InputStream data)
+   {
+      try
+      {
+         return super.setContents(data);
+      }
+      finally
+      {
+         if (cache != null)
+         {
+            cache.evict(file);
+         }
+      }
+   }
+
+   @Override
+   public JavaResource setContents(final ByteBuffer data)
+   {
+      try
+      {
+         return super.setContents(data);
+      }
+      finally
+      {
+         if (cache != null)
+         {
+            cache.evict(file);
+         }
+      }
+   }
+
+   @Override
+   public JavaResource transferFrom(final FileResource<?> source)
+   {
+      try
+      {
+         return super.transferFrom(source);
+      }
+      finally
+      {
+         if (cache != null)
+         {
+            cache.evict(file);
+         }
+      }
+   }
+
    /**
     * Attempts to perform cast automatically. This can lead to problems.
     */
@@ -135,10 +199,95 @@ public class JavaResourceImpl extends AbstractFileResource<JavaResource> impleme
       return parser.parse(getResourceInputStream());
    }
 
+   /**
+    * Returns a copy of the given member of the shared source of this resource, in a newly parsed source that the caller
+    * may change
+    */
+   Member<?, ?> copyOf(Member<?, ?> member)
+   {
+      String key = keyOf(member);
+      for (Member<?, ?> copy : parse().getMembers())
+      {
+         if (key.equals(keyOf(copy)))
+         {
+            return copy;
+         }
+      }
+      throw new ResourceException("[" + key + "] is not declared in [" + getFullyQualifiedName() + "] anymore");
+   }
+
+   /**
+    * Returns a copy of the given enum constant of the shared source of this resource, in a newly parsed source that the
+    * caller may change
+    */
+   EnumConstant<JavaEnum> copyOf(EnumConstant<JavaEnum> constant)
+   {
+      JavaSource<?> source = parse();
+      if (source instanceof JavaEnum)
+      {
+         for (EnumConstant<JavaEnum> copy : ((JavaEnum) source).getEnumConstants())
+         {
+            if (copy.getName().equals(constant.getName()))
+            {
+               return copy;
+            }
+         }
+      }
+      throw new ResourceException("[" + constant.getName() + "] is not declared in [" + getFullyQualifiedName()
+               + "] anymore");
+   }
+
+   private JavaSource<?> parse()
+   {
+      try
+      {
+         return getJavaSource();
+      }
+      catch (FileNotFoundException e)
+      {
+         throw new ResourceException(e);
+      }
+   }
+
+   private static String keyOf(Member<?, ?> member)
+   {
+      return member instanceof Method ? ((Method<?>) member).toSignature() : member.getName();
+   }
+
+   /**
+    * Returns true if the parsed source of this resource may be shared through the cache. The cache is not used while a
+    * resource transaction is started, since the file on disk does not reflect the changes made by the transaction.
+    */
+   private boolean isCacheable()
+   {
+      return cache != null && !getResourceFactory().getTransaction().isStarted();
+   }
+
+   /**
+    * Returns a shared, read-only {@link JavaSource} for this resource, parsing the file only if it has changed since it
+    * was last cached. Must not be modified nor handed out to callers of {@link #getJavaSource()}.
+    */
+   private JavaSource<?> getCachedJavaSource() throws FileNotFoundException
+   {
+      if (!isCacheable())
+      {
+         return getJavaSource();
+      }
+      long lastModified = getLastModified();
+      long size = getSize();
+      JavaSource<?> source = cache.get(file, lastModified, size);
+      if (source == null)
+      {
+         source = getJavaSource();
+         cache.store(file, lastModified, size, source);
+      }
+      return source;
+   }
+
    @Override
    public JavaResourceImpl createFrom(final File file)
    {
-      return new JavaResourceImpl(getResourceFactory(), parser, file);
+      return new JavaResourceImpl(getResourceFactory(), parser, cache, file);
    }
 
    @Override
@@ -146,7 +295,7 @@ public class JavaResourceImpl extends AbstractFileResource<JavaResource> impleme
    {
       try
       {
-         return getJavaSource().getQualifiedName();
+         return getCachedJavaSource().getQualifiedName();
       }
       catch (FileNotFoundException e)
       {
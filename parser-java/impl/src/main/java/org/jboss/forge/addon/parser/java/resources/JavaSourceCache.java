@@ -0,0 +1,211 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.addon.parser.java.resources;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.event.Observes;
+import javax.inject.Singleton;
+
+import org.jboss.forge.addon.resource.Resource;
+import org.jboss.forge.addon.resource.ResourceFactory;
+import org.jboss.forge.addon.resource.events.ResourceEvent;
+import org.jboss.forge.addon.resource.transaction.ResourceTransaction;
+import org.jboss.forge.addon.resource.transaction.ResourceTransactionListener;
+import org.jboss.forge.furnace.container.cdi.events.Local;
+import org.jboss.forge.furnace.event.PreShutdown;
+import org.jboss.forge.furnace.spi.ListenerRegistration;
+import org.jboss.forge.parser.java.JavaSource;
+
+/**
+ * A bounded cache of parsed {@link JavaSource} instances, keyed by the absolute path of the underlying {@link File}.
+ * Entries are validated against the last modification time and size of the file before being returned.
+ *
+ * Cached instances are shared and must be treated as read-only. Callers that intend to change a {@link JavaSource}
+ * should obtain their own copy through {@link JavaResource#getJavaSource()}.
+ */
+@Singleton
+public class JavaSourceCache
+{
+   private static final int MAX_ENTRIES = Integer.getInteger("parser.java.cache.size", 512);
+
+   private final Map<String, CacheEntry> entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true)
+   {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Entry<String, CacheEntry> eldest)
+      {
+         return size() > MAX_ENTRIES;
+      }
+   };
+
+   private final AtomicLong hits = new AtomicLong();
+   private final AtomicLong misses = new AtomicLong();
+
+   private volatile ListenerRegistration<ResourceTransactionListener> registration;
+
+   void shutdown(@Observes @Local PreShutdown shutdown)
+   {
+      if (registration != null)
+      {
+         registration.removeListener();
+         registration = null;
+      }
+      invalidate();
+   }
+
+   /**
+    * Returns the cached {@link JavaSource} for the given {@link File}, or <code>null</code> if there is no entry or if
+    * the entry does not match the given modification time and size.
+    */
+   public JavaSource<?> get(File file, long lastModified, long size)
+   {
+      CacheEntry entry;
+      synchronized (entries)
+      {
+         entry = entries.get(file.getAbsolutePath());
+      }
+      if (entry != null && entry.lastModified == lastModified && entry.size == size)
+      {
+         hits.incrementAndGet();
+         return entry.source;
+      }
+      misses.incrementAndGet();
+      return null;
+   }
+
+   /**
+    * Stores the given {@link JavaSource} as the parsed representation of the given {@link File}.
+    */
+   public void store(File file, long lastModified, long size, JavaSource<?> source)
+   {
+      synchronized (entries)
+      {
+         entries.put(file.getAbsolutePath(), new CacheEntry(lastModified, size, source));
+      }
+   }
+
+   /**
+    * Removes the entry for the given {@link File}, if any.
+    */
+   public void evict(File file)
+   {
+      synchronized (entries)
+      {
+         entries.remove(file.getAbsolutePath());
+      }
+   }
+
+   /**
+    * Removes every entry from this cache.
+    */
+   public void invalidate()
+   {
+      synchronized (entries)
+      {
+         entries.clear();
+      }
+   }
+
+   /**
+    * Registers this cache to be invalidated by the changes committed in any {@link ResourceTransaction} of the given
+    * {@link ResourceFactory}. Subsequent calls are ignored.
+    */
+   void listenTo(ResourceFactory factory)
+   {
+      if (registration == null)
+      {
+         synchronized (this)
+         {
+            if (registration == null)
+            {
+               registration = factory.addTransactionListener(new CacheInvalidationListener());
+            }
+         }
+      }
+   }
+
+   /**
+    * The number of lookups that returned a valid cached {@link JavaSource}
+    */
+   public long getHitCount()
+   {
+      return hits.get();
+   }
+
+   /**
+    * The number of lookups that required the file to be parsed again
+    */
+   public long getMissCount()
+   {
+      return misses.get();
+   }
+
+   /**
+    * The number of entries currently stored in this cache
+    */
+   public int size()
+   {
+      synchronized (entries)
+      {
+         return entries.size();
+      }
+   }
+
+   @Override
+   public String toString()
+   {
+      return "JavaSourceCache [size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + "]";
+   }
+
+   private class CacheInvalidationListener implements ResourceTransactionListener
+   {
+      @Override
+      public void transactionStarted(ResourceTransaction transaction)
+      {
+      }
+
+      @Override
+      public void transactionCommitted(ResourceTransaction transaction, Set<ResourceEvent> changeSet)
+      {
+         for (ResourceEvent event : changeSet)
+         {
+            Resource<?> resource = event.getResource();
+            if (resource != null && resource.getUnderlyingResourceObject() instanceof File)
+            {
+               evict((File) resource.getUnderlyingResourceObject());
+            }
+         }
+      }
+
+      @Override
+      public void transactionRolledBack(ResourceTransaction transaction)
+      {
+         // Entries are never parsed from uncommitted contents
+      }
+   }
+
+   private static class CacheEntry
+   {
+      private final long lastModified;
+      private final long size;
+      private final JavaSource<?> source;
+
+      public CacheEntry(long lastModified, long size, JavaSource<?> source)
+      {
+         this.lastModified = lastModified;
+         this.size = size;
+         this.source = source;
+      }
+   }
+}
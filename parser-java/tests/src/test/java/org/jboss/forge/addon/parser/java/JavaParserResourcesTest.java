@@ -17,13 +17,16 @@ import javax.inject.Inject;
 import org.jboss.arquillian.container.test.api.Deployment;
 import org.jboss.arquillian.junit.Arquillian;
 import org.jboss.forge.addon.parser.java.resources.JavaResource;
+import org.jboss.forge.addon.resource.FileResource;
 import org.jboss.forge.addon.resource.Resource;
 import org.jboss.forge.addon.resource.ResourceFactory;
+import org.jboss.forge.addon.resource.transaction.ResourceTransaction;
 import org.jboss.forge.arquillian.AddonDependency;
 import org.jboss.forge.arquillian.Dependencies;
 import org.jboss.forge.arquillian.archive.ForgeArchive;
 import org.jboss.forge.furnace.repositories.AddonDependencyEntry;
 import org.jboss.forge.parser.JavaParser;
+import org.jboss.forge.parser.java.Field;
 import org.jboss.forge.parser.java.JavaClass;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.junit.Assert;
@@ -81,4 +84,81 @@ public class JavaParserResourcesTest
       Assert.assertThat(newResource, is(instanceOf(JavaResource.class)));
       Assert.assertEquals(resource, newResource);
    }
+
+   @Test
+   public void testJavaResourceCacheIsRefreshedOnChange() throws Exception
+   {
+      JavaClass javaClass = JavaParser.create(JavaClass.class).setPackage("org.jboss.forge.test").setName("Example");
+      JavaResource resource = factory.create(JavaResource.class, File.createTempFile("forge", ".java"));
+      resource.createNewFile();
+      resource.setContents(javaClass);
+      Assert.assertEquals("org.jboss.forge.test.Example", resource.toString());
+
+      JavaClass source = (JavaClass) resource.getJavaSource();
+      source.setName("Changed");
+      Assert.assertEquals("org.jboss.forge.test.Example", resource.toString());
+
+      resource.setContents(source);
+      Assert.assertEquals("org.jboss.forge.test.Changed", resource.toString());
+   }
+
+   @Test
+   public void testJavaResourceChildrenDoNotShareTheCachedSource() throws Exception
+   {
+      JavaClass javaClass = JavaParser.create(JavaClass.class).setPackage("org.jboss.forge.test").setName("Example");
+      javaClass.addField("private int count;");
+      JavaResource resource = factory.create(JavaResource.class, File.createTempFile("forge", ".java"));
+      resource.createNewFile();
+      resource.setContents(javaClass);
+      Assert.assertEquals("org.jboss.forge.test.Example", resource.toString());
+
+      Field<?> field = (Field<?>) resource.getChild("count").getUnderlyingResourceObject();
+      field.setName("changed");
+      ((JavaClass) field.getOrigin()).setName("Changed");
+
+      Assert.assertEquals("org.jboss.forge.test.Example", resource.toString());
+      Assert.assertNotNull(resource.getChild("count"));
+   }
+
+   @Test
+   public void testJavaResourceChildrenCanBeDeleted() throws Exception
+   {
+      JavaClass javaClass = JavaParser.create(JavaClass.class).setPackage("org.jboss.forge.test").setName("Example");
+      javaClass.addField("private int count;");
+      javaClass.addMethod("public void run() {}");
+      JavaResource resource = factory.create(JavaResource.class, File.createTempFile("forge", ".java"));
+      resource.createNewFile();
+      resource.setContents(javaClass);
+      Assert.assertEquals(2, resource.listResources().size());
+
+      Assert.assertTrue(resource.getChild("count").delete());
+      Assert.assertNull(resource.getChild("count"));
+      Assert.assertTrue(resource.getChild("run").delete());
+      Assert.assertTrue(resource.listResources().isEmpty());
+      Assert.assertFalse(((JavaClass) resource.getJavaSource()).hasField("count"));
+   }
+
+   @Test
+   public void testJavaResourceCacheIsNotUsedInTransaction() throws Exception
+   {
+      JavaClass javaClass = JavaParser.create(JavaClass.class).setPackage("org.jboss.forge.test").setName("Example");
+      JavaResource resource = factory.create(JavaResource.class, File.createTempFile("forge", ".java"));
+      resource.createNewFile();
+      resource.setContents(javaClass);
+      Assert.assertEquals("org.jboss.forge.test.Example", resource.toString());
+
+      ResourceTransaction transaction = factory.getTransaction();
+      transaction.begin();
+      try
+      {
+         FileResource<?> file = factory.create(FileResource.class, resource.getUnderlyingResourceObject());
+         file.setContents(javaClass.setName("Changed").toString());
+         Assert.assertEquals("org.jboss.forge.test.Changed", resource.toString());
+      }
+      finally
+      {
+         transaction.rollback();
+      }
+      Assert.assertEquals("org.jboss.forge.test.Example", resource.toString());
+   }
 }
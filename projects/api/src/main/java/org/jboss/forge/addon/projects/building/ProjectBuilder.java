@@ -28,6 +28,12 @@ public interface ProjectBuilder
     */
    ProjectBuilder runTests(boolean test);
 
+   /**
+    * Enable or disable incremental builds. When enabled, the build system may skip cleaning the build outputs and
+    * rebuilding the parts of the project that did not change since the last build, and reports what was skipped.
+    */
+   ProjectBuilder incremental(boolean incremental);
+
    /**
     * Execute the build, returning the final product as a {@link Resource}.
     */
@@ -49,13 +49,17 @@ public class BuildCommand extends AbstractProjectCommand
    @WithAttributes(label = "Profile")
    private UIInput<String> profile;
 
+   @Inject
+   @WithAttributes(label = "Incremental", description = "Only rebuild what changed since the last build")
+   private UIInput<Boolean> incremental;
+
    @Inject
    private ProjectFactory projectFactory;
 
    @Override
    public void initializeUI(UIBuilder builder) throws Exception
    {
-      builder.add(arguments).add(notest).add(profile);
+      builder.add(arguments).add(notest).add(profile).add(incremental);
    }
 
    @Override
@@ -92,6 +96,11 @@ public class BuildCommand extends AbstractProjectCommand
          builder.runTests(false);
       }
 
+      if (incremental.getValue())
+      {
+         builder.incremental(true);
+      }
+
       if (profile.getValue() != null)
       {
          builder.addArguments("-P" + profile.getValue());
@@ -1,11 +1,20 @@
 package org.jboss.forge.addon.resource;
 
-import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 
 import org.jboss.forge.addon.resource.monitor.ResourceMonitor;
 import org.jboss.forge.furnace.util.Assert;
@@ -21,6 +30,12 @@ import org.jboss.forge.furnace.util.Streams;
 public abstract class AbstractFileResource<T extends FileResource<T>> extends AbstractResource<File> implements
          FileResource<T>
 {
+   /**
+    * Files at least this large are memory mapped by {@link #getContentsAsByteBuffer()}
+    */
+   private static final long MAPPING_THRESHOLD = Long.getLong("resource.file.mapping.threshold", 1024L * 1024L);
+   private static final long TRANSFER_SIZE = 1024L * 1024L * 50L;
+
    protected File file;
    protected long lastModification;
 
@@ -103,13 +118,15 @@ public abstract class AbstractFileResource<T extends FileResource<T>> extends Ab
    @Override
    public boolean isStale()
    {
-      return lastModification != getUnderlyingResourceObject().lastModified();
+      return lastModification != getFileOperations().getLastModified(getUnderlyingResourceObject());
    }
 
    @Override
    public void refresh()
    {
-      lastModification = getUnderlyingResourceObject().lastModified();
+      FileOperations fileOperations = getFileOperations();
+      fileOperations.invalidate(file);
+      lastModification = fileOperations.getLastModified(getUnderlyingResourceObject());
    }
 
    @Override
@@ -203,11 +220,7 @@ public abstract class AbstractFileResource<T extends FileResource<T>> extends Ab
    @Override
    public T setContents(String data)
    {
-      if (data == null)
-      {
-         data = "";
-      }
-      return setContents(data.toCharArray());
+      return setContents(data, Charset.defaultCharset());
    }
 
    @Override
@@ -217,19 +230,19 @@ public abstract class AbstractFileResource<T extends FileResource<T>> extends Ab
       {
          data = "";
       }
-      return setContents(data.toCharArray(), charset);
+      return setContents(ByteBuffer.wrap(data.getBytes(charset)));
    }
 
    @Override
    public T setContents(char[] data, Charset charset)
    {
-      return setContents(new ByteArrayInputStream(new String(data).getBytes(charset)));
+      return setContents(charset.encode(CharBuffer.wrap(data)));
    }
 
    @Override
    public T setContents(final char[] data)
    {
-      return setContents(new ByteArrayInputStream(new String(data).getBytes()));
+      return setContents(data, Charset.defaultCharset());
    }
 
    @Override
@@ -240,36 +253,148 @@ public abstract class AbstractFileResource<T extends FileResource<T>> extends Ab
 
       try
       {
-         if (!exists())
+         OutputStream out = openOutputStream();
+         try
          {
-            getParent().mkdirs();
-            if (!createNewFile())
+            if (data instanceof FileInputStream && out instanceof FileOutputStream)
             {
-               throw new IOException("Failed to create file: " + file);
+               transfer(((FileInputStream) data).getChannel(), ((FileOutputStream) out).getChannel());
             }
+            else
+            {
+               Streams.write(data, out);
+            }
+         }
+         finally
+         {
+            Streams.closeQuietly(data);
+            closeOutputStream(out);
          }
+      }
+      catch (IOException e)
+      {
+         throw new ResourceException(e);
+      }
+      return (T) this;
+   }
 
-         OutputStream out = getFileOperations().createOutputStream(file);
+   @Override
+   @SuppressWarnings("unchecked")
+   public T setContents(final ByteBuffer data)
+   {
+      Assert.notNull(data, "ByteBuffer must not be null.");
+
+      ByteBuffer buffer = data.duplicate();
+      try
+      {
+         OutputStream out = openOutputStream();
          try
          {
-            Streams.write(data, out);
+            if (buffer.hasArray())
+            {
+               out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            }
+            else
+            {
+               // A FileOutputStream writes direct buffers without copying them to the heap
+               WritableByteChannel channel = Channels.newChannel(out);
+               while (buffer.hasRemaining())
+               {
+                  channel.write(buffer);
+               }
+            }
          }
          finally
          {
-            Streams.closeQuietly(data);
-            out.flush();
-            Streams.closeQuietly(out);
-            if (OperatingSystemUtils.isWindows())
+            closeOutputStream(out);
+         }
+      }
+      catch (IOException e)
+      {
+         throw new ResourceException(e);
+      }
+      return (T) this;
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public T transferFrom(final FileResource<?> source)
+   {
+      Assert.notNull(source, "Source must not be null.");
+      source.copyTo(this);
+      return (T) this;
+   }
+
+   @Override
+   public ByteBuffer getContentsAsByteBuffer()
+   {
+      FileOperations fileOperations = getFileOperations();
+      long size = fileOperations.getFileLength(file);
+      if (size > Integer.MAX_VALUE)
+      {
+         throw new ResourceException("File is too large to be read in a single buffer: " + file.getAbsolutePath());
+      }
+      try
+      {
+         if (size >= MAPPING_THRESHOLD && fileOperations.isDirect())
+         {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
             {
-               System.gc();
+               return channel.map(MapMode.READ_ONLY, 0, channel.size());
             }
          }
+         InputStream in = fileOperations.createInputStream(file);
+         try
+         {
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) size);
+            Streams.write(in, out);
+            return ByteBuffer.wrap(out.toByteArray()).asReadOnlyBuffer();
+         }
+         finally
+         {
+            Streams.closeQuietly(in);
+         }
       }
       catch (IOException e)
       {
          throw new ResourceException(e);
       }
-      return (T) this;
+   }
+
+   /**
+    * Opens the {@link OutputStream} replacing the contents of this file, creating it first if necessary
+    */
+   private OutputStream openOutputStream() throws IOException
+   {
+      if (!exists())
+      {
+         getParent().mkdirs();
+         if (!createNewFile())
+         {
+            throw new IOException("Failed to create file: " + file);
+         }
+      }
+      return getFileOperations().createOutputStream(file);
+   }
+
+   private void closeOutputStream(OutputStream out) throws IOException
+   {
+      out.flush();
+      Streams.closeQuietly(out);
+      if (OperatingSystemUtils.isWindows())
+      {
+         System.gc();
+      }
+   }
+
+   private static void transfer(FileChannel source, FileChannel target) throws IOException
+   {
+      long position = 0;
+      long count;
+      while ((count = target.transferFrom(source, position, TRANSFER_SIZE)) > 0)
+      {
+         position += count;
+      }
    }
 
    @Override
@@ -317,6 +442,57 @@ public abstract class AbstractFileResource<T extends FileResource<T>> extends Ab
       return renameTo(target.getUnderlyingResourceObject());
    }
 
+   @Override
+   public void copyTo(final FileResource<?> target)
+   {
+      Assert.notNull(target, "Target must not be null.");
+      FileOperations fileOperations = getFileOperations();
+      if (fileOperations.isDirect())
+      {
+         try
+         {
+            fileOperations.copyFile(file, target.getUnderlyingResourceObject());
+         }
+         catch (IOException e)
+         {
+            throw new ResourceException(e);
+         }
+      }
+      else
+      {
+         // Transactions do not all replace an existing target, so the contents are written instead
+         target.setContents(getResourceInputStream());
+      }
+   }
+
+   @Override
+   public boolean moveTo(final FileResource<?> target)
+   {
+      Assert.notNull(target, "Target must not be null.");
+      File targetFile = target.getUnderlyingResourceObject();
+      DirectoryResource parent = target.getParent();
+      if (parent != null)
+      {
+         parent.mkdirs();
+      }
+      if (renameTo(targetFile))
+      {
+         return true;
+      }
+      if (isDirectory())
+      {
+         return false;
+      }
+      copyTo(target);
+      if (!getFileOperations().deleteFile(file))
+      {
+         getFileOperations().deleteFile(targetFile);
+         return false;
+      }
+      file = targetFile;
+      return true;
+   }
+
    private boolean renameTo(final File target)
    {
       if (getFileOperations().renameFile(file, target))
@@ -377,13 +553,14 @@ public abstract class AbstractFileResource<T extends FileResource<T>> extends Ab
    @Override
    public long getLastModified()
    {
-      return file.lastModified();
+      return getFileOperations().getLastModified(file);
    }
 
    @Override
    public void setLastModified(long time)
    {
       file.setLastModified(time);
+      getFileOperations().invalidate(file);
    }
 
 }
\ No newline at end of file
@@ -52,6 +52,12 @@ public enum DefaultFileOperations implements FileOperations
       return f.length();
    }
 
+   @Override
+   public long getLastModified(File f)
+   {
+      return f.lastModified();
+   }
+
    @Override
    public boolean deleteFile(File file)
    {
@@ -193,4 +199,22 @@ public enum DefaultFileOperations implements FileOperations
                   srcFile + "' to '" + destFile + "'");
       }
    }
-}
\ No newline at end of file
+
+   @Override
+   public void invalidate(File file)
+   {
+      // Nothing is remembered
+   }
+
+   @Override
+   public void invalidate()
+   {
+      // Nothing is remembered
+   }
+
+   @Override
+   public boolean isDirect()
+   {
+      return true;
+   }
+}
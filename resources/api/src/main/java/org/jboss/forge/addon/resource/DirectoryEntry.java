@@ -0,0 +1,53 @@
+/**
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.resource;
+
+import java.io.File;
+
+/**
+ * A child of a {@link DirectoryResource}, as returned by {@link DirectoryResource#listEntries(DirectoryEntryFilter)}.
+ * Its file attributes are read at most once, and its {@link Resource} is only created when requested.
+ * 
+ */
+public interface DirectoryEntry
+{
+   /**
+    * Returns the name of this entry
+    */
+   public String getName();
+
+   /**
+    * Returns the file of this entry
+    */
+   public File getFile();
+
+   /**
+    * Return true if this entry is a directory
+    */
+   public boolean isDirectory();
+
+   /**
+    * Return true if this entry is a file that can be executed
+    */
+   public boolean isExecutable();
+
+   /**
+    * Returns the size of this entry, in bytes
+    */
+   public long getSize();
+
+   /**
+    * Returns the time this entry was last modified, in milliseconds since the epoch
+    */
+   public long getLastModified();
+
+   /**
+    * Returns the {@link Resource} of this entry, creating it on the first call
+    */
+   public Resource<?> getResource();
+}
@@ -0,0 +1,19 @@
+/**
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.resource;
+
+import org.jboss.forge.furnace.util.Predicate;
+
+/**
+ * Used to filter {@link DirectoryEntry} instances while listing a {@link DirectoryResource}, before their
+ * {@link Resource} is created.
+ * 
+ */
+public interface DirectoryEntryFilter extends Predicate<DirectoryEntry>
+{
+}
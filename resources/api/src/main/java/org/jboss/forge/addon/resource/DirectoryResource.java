@@ -7,6 +7,7 @@
 
 package org.jboss.forge.addon.resource;
 
+import java.nio.file.DirectoryStream;
 
 /**
  * A standard, build-in, resource for representing directories on the file-system.
@@ -36,4 +37,18 @@ public interface DirectoryResource extends FileResource<DirectoryResource>
     */
    public <E, T extends Resource<E>> T getChildOfType(final Class<T> type, final String name) throws ResourceException;
 
+   /**
+    * Return a {@link DirectoryStream} over the children of this directory, read as the stream is iterated. Unlike
+    * {@link #listResources()}, no {@link Resource} is created until {@link DirectoryEntry#getResource()} is called. The
+    * returned stream must be closed.
+    */
+   public DirectoryStream<DirectoryEntry> listEntries() throws ResourceException;
+
+   /**
+    * Return a {@link DirectoryStream} over the children of this directory accepted by the given
+    * {@link DirectoryEntryFilter}, read as the stream is iterated. The filter is applied before any {@link Resource} is
+    * created. The returned stream must be closed.
+    */
+   public DirectoryStream<DirectoryEntry> listEntries(DirectoryEntryFilter filter) throws ResourceException;
+
 }
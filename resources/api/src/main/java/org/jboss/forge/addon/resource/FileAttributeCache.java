@@ -0,0 +1,326 @@
+/**
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.resource;
+
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link FileOperations} that remembers the attributes (existence, type, length and modification time) of the files
+ * it was asked about, so that a command reading the same files over and over only reaches the file system once per
+ * file. Every write made through this {@link FileOperations} discards the attributes of the files it changes.
+ *
+ * Changes made to the file system by other means are not seen, so an instance must only be used for a short scope,
+ * such as a single command or resource transaction. {@link #invalidate()} discards every attribute after such changes,
+ * for instance after running an external build.
+ */
+public class FileAttributeCache implements FileOperations
+{
+   private final FileOperations delegate;
+
+   private final Map<File, Boolean> exists = new ConcurrentHashMap<>();
+   private final Map<File, Boolean> directories = new ConcurrentHashMap<>();
+   private final Map<File, Long> lengths = new ConcurrentHashMap<>();
+   private final Map<File, Long> lastModified = new ConcurrentHashMap<>();
+
+   private final AtomicLong hits = new AtomicLong();
+   private final AtomicLong misses = new AtomicLong();
+
+   public FileAttributeCache(FileOperations delegate)
+   {
+      this.delegate = delegate;
+   }
+
+   /**
+    * Returns the {@link FileOperations} this cache reads from and writes to
+    */
+   public FileOperations getDelegate()
+   {
+      return delegate;
+   }
+
+   @Override
+   public boolean fileExists(File file)
+   {
+      Boolean result = exists.get(file);
+      if (result != null)
+      {
+         hits.incrementAndGet();
+         return result;
+      }
+      misses.incrementAndGet();
+      result = delegate.fileExists(file);
+      exists.put(file, result);
+      return result;
+   }
+
+   @Override
+   public boolean fileExistsAndIsDirectory(File file)
+   {
+      Boolean result = directories.get(file);
+      if (result != null)
+      {
+         hits.incrementAndGet();
+         return result;
+      }
+      misses.incrementAndGet();
+      result = delegate.fileExistsAndIsDirectory(file);
+      directories.put(file, result);
+      if (result)
+      {
+         exists.put(file, Boolean.TRUE);
+      }
+      return result;
+   }
+
+   @Override
+   public long getFileLength(File file)
+   {
+      Long result = lengths.get(file);
+      if (result != null)
+      {
+         hits.incrementAndGet();
+         return result;
+      }
+      misses.incrementAndGet();
+      result = delegate.getFileLength(file);
+      lengths.put(file, result);
+      return result;
+   }
+
+   @Override
+   public long getLastModified(File file)
+   {
+      Long result = lastModified.get(file);
+      if (result != null)
+      {
+         hits.incrementAndGet();
+         return result;
+      }
+      misses.incrementAndGet();
+      result = delegate.getLastModified(file);
+      lastModified.put(file, result);
+      return result;
+   }
+
+   @Override
+   public File[] listFiles(File file)
+   {
+      return delegate.listFiles(file);
+   }
+
+   @Override
+   public boolean renameFile(File src, File dest)
+   {
+      try
+      {
+         return delegate.renameFile(src, dest);
+      }
+      finally
+      {
+         // The files under a renamed directory are moved too
+         invalidate();
+      }
+   }
+
+   @Override
+   public void copyFile(File src, File dest) throws IOException
+   {
+      try
+      {
+         delegate.copyFile(src, dest);
+      }
+      finally
+      {
+         changed(dest);
+      }
+   }
+
+   @Override
+   public boolean deleteFile(File file)
+   {
+      try
+      {
+         return delegate.deleteFile(file);
+      }
+      finally
+      {
+         changed(file);
+      }
+   }
+
+   @Override
+   public void deleteFileOnExit(File file)
+   {
+      delegate.deleteFileOnExit(file);
+   }
+
+   @Override
+   public boolean createNewFile(File file) throws IOException
+   {
+      try
+      {
+         return delegate.createNewFile(file);
+      }
+      finally
+      {
+         changed(file);
+      }
+   }
+
+   @Override
+   public boolean mkdir(File file)
+   {
+      try
+      {
+         return delegate.mkdir(file);
+      }
+      finally
+      {
+         changed(file);
+      }
+   }
+
+   @Override
+   public boolean mkdirs(File file)
+   {
+      try
+      {
+         return delegate.mkdirs(file);
+      }
+      finally
+      {
+         // Missing parents are created too
+         for (File parent = file; parent != null; parent = parent.getParentFile())
+         {
+            changed(parent);
+         }
+      }
+   }
+
+   @Override
+   public OutputStream createOutputStream(final File file) throws IOException
+   {
+      try
+      {
+         return new FilterOutputStream(delegate.createOutputStream(file))
+         {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException
+            {
+               out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException
+            {
+               try
+               {
+                  super.close();
+               }
+               finally
+               {
+                  changed(file);
+               }
+            }
+         };
+      }
+      finally
+      {
+         changed(file);
+      }
+   }
+
+   @Override
+   public InputStream createInputStream(File file) throws IOException
+   {
+      return delegate.createInputStream(file);
+   }
+
+   /**
+    * Discards the attributes of the given file, and the modification time of its directory
+    */
+   private void changed(File file)
+   {
+      invalidate(file);
+      File parent = file.getParentFile();
+      if (parent != null)
+      {
+         lastModified.remove(parent);
+      }
+   }
+
+   /**
+    * Discards the attributes of the given file
+    */
+   @Override
+   public void invalidate(File file)
+   {
+      exists.remove(file);
+      directories.remove(file);
+      lengths.remove(file);
+      lastModified.remove(file);
+   }
+
+   /**
+    * Discards every attribute
+    */
+   @Override
+   public void invalidate()
+   {
+      exists.clear();
+      directories.clear();
+      lengths.clear();
+      lastModified.clear();
+   }
+
+   @Override
+   public boolean isDirect()
+   {
+      return delegate.isDirect();
+   }
+
+   /**
+    * The number of attributes returned without reaching the file system
+    */
+   public long getHitCount()
+   {
+      return hits.get();
+   }
+
+   /**
+    * The number of attributes read from the file system
+    */
+   public long getMissCount()
+   {
+      return misses.get();
+   }
+
+   /**
+    * The ratio of attributes returned without reaching the file system, between 0 and 1
+    */
+   public double getHitRatio()
+   {
+      long hitCount = getHitCount();
+      long total = hitCount + getMissCount();
+      return total == 0 ? 0d : (double) hitCount / total;
+   }
+
+   @Override
+   public String toString()
+   {
+      return "FileAttributeCache [hits=" + getHitCount() + ", misses=" + getMissCount() + ", hitRatio="
+               + String.format("%.2f", getHitRatio()) + "]";
+   }
+}
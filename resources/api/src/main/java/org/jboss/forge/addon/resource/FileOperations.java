@@ -27,6 +27,8 @@ public interface FileOperations
 
    public long getFileLength(File file);
 
+   public long getLastModified(File file);
+
    public boolean renameFile(File src, File dest);
 
    public void copyFile(File src, File dest) throws IOException;
@@ -44,4 +46,22 @@ public interface FileOperations
    public OutputStream createOutputStream(File file) throws IOException;
 
    public InputStream createInputStream(File file) throws IOException;
+
+   /**
+    * Discards any attribute of the given file remembered by this {@link FileOperations}, after it was changed by other
+    * means
+    */
+   public void invalidate(File file);
+
+   /**
+    * Discards every file attribute remembered by this {@link FileOperations}, after files were changed by other means
+    * (such as an external build)
+    */
+   public void invalidate();
+
+   /**
+    * Returns true if this {@link FileOperations} reads and writes the file system directly, false if changes are staged
+    * until they are committed (as within a resource transaction)
+    */
+   public boolean isDirect();
 }
@@ -2,6 +2,7 @@ package org.jboss.forge.addon.resource;
 
 import java.io.File;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 import org.jboss.forge.addon.resource.monitor.ResourceMonitor;
@@ -74,6 +75,25 @@ public interface FileResource<T extends FileResource<T>> extends Resource<File>
     */
    public T setContents(final InputStream data);
 
+   /**
+    * Set the contents of this {@link FileResource} to the bytes between the position and the limit of the given
+    * {@link ByteBuffer}. The position of the given {@link ByteBuffer} is left unchanged.
+    */
+   public T setContents(final ByteBuffer data);
+
+   /**
+    * Set the contents of this {@link FileResource} to the contents of the given {@link FileResource}, without reading
+    * them into memory when no resource transaction is started.
+    */
+   public T transferFrom(final FileResource<?> source);
+
+   /**
+    * Returns the contents of this {@link FileResource} as a read-only {@link ByteBuffer}. Large files are memory mapped
+    * instead of being read into memory when no resource transaction is started. (On Windows, a memory mapped file
+    * cannot be deleted until the returned buffer is garbage collected.)
+    */
+   public ByteBuffer getContentsAsByteBuffer();
+
    /**
     * Create the file in the underlying resource system. Necessary directory paths will be created automatically.
     */
@@ -94,6 +114,19 @@ public interface FileResource<T extends FileResource<T>> extends Resource<File>
     */
    public boolean renameTo(final FileResource<?> target);
 
+   /**
+    * Copy the contents of this {@link FileResource} to the given {@link FileResource}, replacing its contents if it
+    * already exists. Necessary directory paths will be created automatically.
+    */
+   public void copyTo(final FileResource<?> target);
+
+   /**
+    * Move this {@link Resource} to the given {@link FileResource}. Unlike {@link #renameTo(FileResource)}, the file is
+    * copied then deleted when it cannot be renamed, for instance when the target is on another file system. Necessary
+    * directory paths will be created automatically.
+    */
+   public boolean moveTo(final FileResource<?> target);
+
    /**
     * Returns the size of the file denoted by this abstract pathname
     */
@@ -9,7 +9,9 @@ package org.jboss.forge.addon.resource.transaction;
 
 import java.util.Set;
 
+import org.jboss.forge.addon.resource.FileOperations;
 import org.jboss.forge.addon.resource.Resource;
+import org.jboss.forge.addon.resource.ResourceFactory;
 import org.jboss.forge.addon.resource.events.ResourceEvent;
 
 /**
@@ -24,6 +26,19 @@ public interface ResourceTransaction
     */
    public void begin() throws ResourceTransactionException;
 
+   /**
+    * Starts this transaction when the first change is made through the {@link FileOperations} returned by
+    * {@link ResourceFactory#getFileOperations()}, so that reading resources does not pay for a transaction that ends
+    * up changing nothing. Until then {@link #isStarted()} returns false, and {@link #commit()} or {@link #rollback()}
+    * only discard the pending start. Throws {@link ResourceTransactionException} if the transaction is already started
+    */
+   public void beginLazily() throws ResourceTransactionException;
+
+   /**
+    * Returns true if {@link #beginLazily()} was called and this transaction was not started nor discarded since
+    */
+   public boolean isBeginPending();
+
    /**
     * Applies every change in the {@link Set} returned by {@link ResourceTransaction#getChangeSet()}
     */
@@ -0,0 +1,16 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.jboss.forge.addon.resource.visit;
+
+/**
+ * Marks a {@link ResourceVisitor} as safe to be called from multiple threads at the same time. Only visitors
+ * implementing this interface are called concurrently by {@link ResourceVisit#performParallel}; any other visitor is
+ * called from the thread that started the visit.
+ */
+public interface ConcurrentResourceVisitor extends ResourceVisitor
+{
+}
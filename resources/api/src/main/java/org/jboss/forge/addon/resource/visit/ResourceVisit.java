@@ -6,7 +6,14 @@
  */
 package org.jboss.forge.addon.resource.visit;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 import org.jboss.forge.addon.resource.Resource;
+import org.jboss.forge.addon.resource.ResourceFactory;
 import org.jboss.forge.addon.resource.ResourceFilter;
 
 /**
@@ -15,6 +22,8 @@ import org.jboss.forge.addon.resource.ResourceFilter;
  */
 public class ResourceVisit
 {
+   private static final ForkJoinPool pool = new ForkJoinPool();
+
    private final Resource<?> root;
    private final VisitContextImpl context = new VisitContextImpl();
 
@@ -66,6 +75,110 @@ public class ResourceVisit
       perform(root, visitor, recurseFilter, visitFilter);
    }
 
+   /**
+    * Perform the visit using the given {@link ResourceVisitor}, listing directories in parallel. All {@link Resource}
+    * instances accepted by the recurse filter will be recursed, but only resources matching the visit filter will be
+    * visited.
+    * <p>
+    * If the visitor is a {@link ConcurrentResourceVisitor} and <code>ordered</code> is <code>false</code>, every
+    * resource is visited in a task of its own, from multiple threads, as soon as it is found. Otherwise resources are
+    * visited from the calling thread, in the same order as
+    * {@link #perform(ResourceVisitor, ResourceFilter, ResourceFilter)}, while the directories after them are still
+    * being listed.
+    * <p>
+    * Resource transactions are not thread-safe, so while the transaction of the root resource is started the
+    * directories are listed from the calling thread, and only the visits of a {@link ConcurrentResourceVisitor} run in
+    * parallel.
+    * 
+    * @param visitor the visitor instance
+    * @param recurseFilter the filter that will accept resources to recurse into
+    * @param visitFilter the filter that will accept resources to visit
+    * @param ordered whether resources must be visited in order, from the calling thread
+    */
+   public void performParallel(final ResourceVisitor visitor, final ResourceFilter recurseFilter,
+            final ResourceFilter visitFilter, final boolean ordered)
+   {
+      boolean concurrent = !ordered && visitor instanceof ConcurrentResourceVisitor;
+      if (isTransactionStarted(root))
+      {
+         if (concurrent)
+         {
+            List<Resource<?>> resources = new ArrayList<>();
+            collect(root, recurseFilter, visitFilter, resources);
+            pool.invoke(new VisitTask(resources, 0, resources.size(), visitor));
+         }
+         else
+         {
+            perform(root, visitor, recurseFilter, visitFilter);
+         }
+      }
+      else if (concurrent)
+      {
+         pool.invoke(new ConcurrentVisitTask(root, visitor, recurseFilter, visitFilter));
+      }
+      else
+      {
+         ListTask task = recurseFilter.accept(root) ? new ListTask(root, recurseFilter) : null;
+         if (task != null)
+         {
+            pool.execute(task);
+         }
+         visitInOrder(root, task, visitor, visitFilter);
+      }
+   }
+
+   private static boolean isTransactionStarted(Resource<?> resource)
+   {
+      ResourceFactory factory = resource.getResourceFactory();
+      return factory != null && factory.getTransaction().isStarted();
+   }
+
+   /**
+    * Lists the resources to be visited under the given {@link Resource}, in visit order, from the calling thread
+    */
+   private void collect(Resource<?> resource, ResourceFilter recurseFilter, ResourceFilter visitFilter,
+            List<Resource<?>> result)
+   {
+      if (context.isTerminated())
+         return;
+
+      if (visitFilter.accept(resource))
+         result.add(resource);
+
+      if (recurseFilter.accept(resource))
+      {
+         for (Resource<?> child : resource.listResources())
+         {
+            collect(child, recurseFilter, visitFilter, result);
+         }
+      }
+   }
+
+   /**
+    * Visits the given {@link Resource} and, once their listing is complete, the resources under it, from the calling
+    * thread
+    */
+   private void visitInOrder(Resource<?> resource, ListTask task, ResourceVisitor visitor, ResourceFilter visitFilter)
+   {
+      if (context.isTerminated())
+         return;
+
+      if (visitFilter.accept(resource))
+         visitor.visit(context, resource);
+
+      if (task != null)
+      {
+         task.join();
+         Iterator<ListTask> tasks = task.tasks.iterator();
+         for (Resource<?> child : task.children)
+         {
+            visitInOrder(child, tasks.next(), visitor, visitFilter);
+            if (context.isTerminated())
+               break;
+         }
+      }
+   }
+
    private void perform(final Resource<?> root, final ResourceVisitor visitor, final ResourceFilter recurseFilter,
             final ResourceFilter visitFilter)
    {
@@ -94,7 +207,7 @@ public class ResourceVisit
 
    private static class VisitContextImpl implements VisitContext
    {
-      private boolean terminated;
+      private volatile boolean terminated;
 
       @Override
       public void terminate()
@@ -112,4 +225,124 @@ public class ResourceVisit
    {
       return context.isTerminated();
    }
+
+   /**
+    * Lists the children of a given {@link Resource}, and forks the listing of those that will be recursed. The listing
+    * tasks of the children are not joined, so that the visit can start before the whole tree is listed.
+    */
+   private class ListTask extends RecursiveAction
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final Resource<?> resource;
+      private final ResourceFilter recurseFilter;
+      private final List<Resource<?>> children = new ArrayList<>();
+      private final List<ListTask> tasks = new ArrayList<>();
+
+      public ListTask(Resource<?> resource, ResourceFilter recurseFilter)
+      {
+         this.resource = resource;
+         this.recurseFilter = recurseFilter;
+      }
+
+      @Override
+      protected void compute()
+      {
+         if (context.isTerminated())
+            return;
+
+         for (Resource<?> child : resource.listResources())
+         {
+            ListTask task = null;
+            if (recurseFilter.accept(child))
+            {
+               task = new ListTask(child, recurseFilter);
+               task.fork();
+            }
+            children.add(child);
+            tasks.add(task);
+         }
+      }
+   }
+
+   /**
+    * Visits a range of already listed resources, splitting it until every resource is visited in a task of its own.
+    */
+   private class VisitTask extends RecursiveAction
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final List<Resource<?>> resources;
+      private final int from;
+      private final int to;
+      private final ResourceVisitor visitor;
+
+      public VisitTask(List<Resource<?>> resources, int from, int to, ResourceVisitor visitor)
+      {
+         this.resources = resources;
+         this.from = from;
+         this.to = to;
+         this.visitor = visitor;
+      }
+
+      @Override
+      protected void compute()
+      {
+         if (context.isTerminated())
+            return;
+
+         if (to - from == 1)
+         {
+            visitor.visit(context, resources.get(from));
+         }
+         else if (to - from > 1)
+         {
+            int middle = (from + to) >>> 1;
+            invokeAll(new VisitTask(resources, from, middle, visitor), new VisitTask(resources, middle, to, visitor));
+         }
+      }
+   }
+
+   /**
+    * Visits a given {@link Resource} and the resources under it as they are found, each in a task of its own.
+    */
+   private class ConcurrentVisitTask extends RecursiveAction
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final Resource<?> resource;
+      private final ResourceVisitor visitor;
+      private final ResourceFilter recurseFilter;
+      private final ResourceFilter visitFilter;
+
+      public ConcurrentVisitTask(Resource<?> resource, ResourceVisitor visitor, ResourceFilter recurseFilter,
+               ResourceFilter visitFilter)
+      {
+         this.resource = resource;
+         this.visitor = visitor;
+         this.recurseFilter = recurseFilter;
+         this.visitFilter = visitFilter;
+      }
+
+      @Override
+      protected void compute()
+      {
+         if (context.isTerminated())
+            return;
+
+         if (visitFilter.accept(resource))
+            visitor.visit(context, resource);
+
+         if (recurseFilter.accept(resource))
+         {
+            List<ConcurrentVisitTask> tasks = new ArrayList<>();
+            for (Resource<?> child : resource.listResources())
+            {
+               if (recurseFilter.accept(child) || visitFilter.accept(child))
+                  tasks.add(new ConcurrentVisitTask(child, visitor, recurseFilter, visitFilter));
+            }
+            invokeAll(tasks);
+         }
+      }
+   }
 }
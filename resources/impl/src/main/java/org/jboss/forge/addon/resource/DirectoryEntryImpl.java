@@ -0,0 +1,150 @@
+/**
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * A {@link DirectoryEntry} read from a {@link java.nio.file.DirectoryStream}, or from the {@link FileOperations} of the
+ * current resource transaction. Its {@link BasicFileAttributes} are read once, on first use.
+ * 
+ */
+class DirectoryEntryImpl implements DirectoryEntry
+{
+   private final ResourceFactory factory;
+   private final File file;
+   private final FileOperations transaction;
+   private BasicFileAttributes attributes;
+   private Resource<?> resource;
+
+   /**
+    * Creates an entry for the given path, whose attributes are read from the file system
+    */
+   DirectoryEntryImpl(ResourceFactory factory, Path path)
+   {
+      this.factory = factory;
+      this.file = path.toFile();
+      this.transaction = null;
+   }
+
+   /**
+    * Creates an entry for the given file listed in a resource transaction, whose attributes are read from the given
+    * {@link FileOperations}
+    */
+   DirectoryEntryImpl(ResourceFactory factory, File file, FileOperations transaction)
+   {
+      this.factory = factory;
+      this.file = file;
+      this.transaction = transaction;
+   }
+
+   @Override
+   public String getName()
+   {
+      return file.getName();
+   }
+
+   @Override
+   public File getFile()
+   {
+      return file;
+   }
+
+   @Override
+   public boolean isDirectory()
+   {
+      if (transaction != null)
+      {
+         return transaction.fileExistsAndIsDirectory(file);
+      }
+      BasicFileAttributes attributes = getAttributes();
+      return attributes != null && attributes.isDirectory();
+   }
+
+   @Override
+   public boolean isExecutable()
+   {
+      if (transaction != null)
+      {
+         return file.canExecute() && !transaction.fileExistsAndIsDirectory(file);
+      }
+      return !isDirectory() && Files.isExecutable(file.toPath());
+   }
+
+   @Override
+   public long getSize()
+   {
+      if (transaction != null)
+      {
+         return transaction.getFileLength(file);
+      }
+      BasicFileAttributes attributes = getAttributes();
+      return attributes == null ? 0L : attributes.size();
+   }
+
+   @Override
+   public long getLastModified()
+   {
+      if (transaction != null)
+      {
+         return transaction.getLastModified(file);
+      }
+      BasicFileAttributes attributes = getAttributes();
+      return attributes == null ? 0L : attributes.lastModifiedTime().toMillis();
+   }
+
+   @Override
+   public Resource<?> getResource()
+   {
+      if (resource == null)
+      {
+         resource = factory.create(file);
+      }
+      return resource;
+   }
+
+   @Override
+   public String toString()
+   {
+      return file.getAbsolutePath();
+   }
+
+   /**
+    * Returns the attributes of this entry, following symbolic links like {@link File} does, or <code>null</code> if
+    * they cannot be read
+    */
+   private BasicFileAttributes getAttributes()
+   {
+      if (attributes == null)
+      {
+         Path path = file.toPath();
+         try
+         {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+         }
+         catch (IOException e)
+         {
+            try
+            {
+               // Broken symbolic link
+               attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            }
+            catch (IOException ignored)
+            {
+               // Removed since it was listed
+            }
+         }
+      }
+      return attributes;
+   }
+}
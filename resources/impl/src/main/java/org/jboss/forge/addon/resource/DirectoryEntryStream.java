@@ -0,0 +1,164 @@
+/**
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@link DirectoryStream} returned by {@link DirectoryResourceImpl#listEntries(DirectoryEntryFilter)}. Outside of a
+ * resource transaction, the directory is read with a {@link DirectoryStream} as it is iterated. Within a transaction,
+ * the files it lists are used, so that changes made in the transaction are seen.
+ * 
+ * As with {@link File#listFiles()}, a directory that cannot be read is listed as empty.
+ */
+class DirectoryEntryStream implements DirectoryStream<DirectoryEntry>
+{
+   private static final Logger log = Logger.getLogger(DirectoryEntryStream.class.getName());
+
+   private final ResourceFactory factory;
+   private final DirectoryEntryFilter filter;
+   private final DirectoryStream<Path> stream;
+   private final FileOperations transaction;
+   private final File[] files;
+   private boolean iterated;
+
+   DirectoryEntryStream(ResourceFactory factory, File directory, DirectoryEntryFilter filter)
+   {
+      this.factory = factory;
+      this.filter = filter;
+      FileOperations fileOperations = factory.getFileOperations();
+      if (fileOperations.isDirect())
+      {
+         this.stream = openStream(directory);
+         this.transaction = null;
+         this.files = null;
+      }
+      else
+      {
+         File[] listed = fileOperations.listFiles(directory);
+         this.stream = null;
+         this.transaction = fileOperations;
+         this.files = listed == null ? new File[0] : listed;
+      }
+   }
+
+   private static DirectoryStream<Path> openStream(File directory)
+   {
+      try
+      {
+         return Files.newDirectoryStream(directory.toPath());
+      }
+      catch (NoSuchFileException | NotDirectoryException e)
+      {
+         // Nothing to list, as with File.listFiles()
+         return null;
+      }
+      catch (IOException e)
+      {
+         log.log(Level.FINE, "Could not list directory: " + directory.getAbsolutePath(), e);
+         return null;
+      }
+   }
+
+   @Override
+   public synchronized Iterator<DirectoryEntry> iterator()
+   {
+      if (iterated)
+      {
+         throw new IllegalStateException("Iterator already obtained");
+      }
+      iterated = true;
+      final Iterator<?> children;
+      if (stream != null)
+      {
+         children = stream.iterator();
+      }
+      else if (files != null)
+      {
+         children = Arrays.asList(files).iterator();
+      }
+      else
+      {
+         children = Collections.emptyIterator();
+      }
+      return new Iterator<DirectoryEntry>()
+      {
+         private DirectoryEntry next;
+
+         @Override
+         public boolean hasNext()
+         {
+            while (next == null && hasNextChild())
+            {
+               Object child = children.next();
+               DirectoryEntry entry = (child instanceof Path) ? new DirectoryEntryImpl(factory, (Path) child)
+                        : new DirectoryEntryImpl(factory, (File) child, transaction);
+               if (filter == null || filter.accept(entry))
+               {
+                  next = entry;
+               }
+            }
+            return next != null;
+         }
+
+         private boolean hasNextChild()
+         {
+            try
+            {
+               return children.hasNext();
+            }
+            catch (DirectoryIteratorException e)
+            {
+               // The rest of the directory cannot be read
+               log.log(Level.FINE, "Could not list directory entries", e.getCause());
+               return false;
+            }
+         }
+
+         @Override
+         public DirectoryEntry next()
+         {
+            if (!hasNext())
+            {
+               throw new NoSuchElementException();
+            }
+            DirectoryEntry result = next;
+            next = null;
+            return result;
+         }
+
+         @Override
+         public void remove()
+         {
+            throw new UnsupportedOperationException();
+         }
+      };
+   }
+
+   @Override
+   public void close() throws IOException
+   {
+      if (stream != null)
+      {
+         stream.close();
+      }
+   }
+}
@@ -10,11 +10,14 @@ package org.jboss.forge.addon.resource;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
-import java.util.LinkedList;
+import java.nio.file.DirectoryStream;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.jboss.forge.furnace.util.OperatingSystemUtils;
+import org.jboss.forge.furnace.util.Streams;
 
 /**
  * A standard, build-in, resource for representing directories on the file-system.
@@ -40,21 +43,37 @@ public class DirectoryResourceImpl extends AbstractFileResource<DirectoryResourc
 
       if (listCache == null)
       {
-         listCache = new LinkedList<>();
-
-         File[] files = getFileOperations().listFiles(file);
-         if (files != null)
+         List<Resource<?>> resources = new ArrayList<>();
+         DirectoryStream<DirectoryEntry> entries = listEntries();
+         try
          {
-            for (File f : files)
+            for (DirectoryEntry entry : entries)
             {
-               listCache.add(getResourceFactory().create(f));
+               resources.add(entry.getResource());
             }
          }
+         finally
+         {
+            Streams.closeQuietly(entries);
+         }
+         listCache = resources;
       }
 
       return listCache;
    }
 
+   @Override
+   public DirectoryStream<DirectoryEntry> listEntries()
+   {
+      return listEntries(null);
+   }
+
+   @Override
+   public DirectoryStream<DirectoryEntry> listEntries(DirectoryEntryFilter filter)
+   {
+      return new DirectoryEntryStream(getResourceFactory(), file, filter);
+   }
+
    /**
     * Obtain a reference to the child resource.
     */
@@ -205,6 +224,27 @@ public class DirectoryResourceImpl extends AbstractFileResource<DirectoryResourc
       throw new UnsupportedOperationException("setContents(InputStream) is not supported on DirectoryResource objects");
    }
 
+   @Override
+   public DirectoryResource setContents(ByteBuffer data)
+   {
+      throw new UnsupportedOperationException(
+               "setContents(ByteBuffer) is not supported on DirectoryResource objects");
+   }
+
+   @Override
+   public DirectoryResource transferFrom(FileResource<?> source)
+   {
+      throw new UnsupportedOperationException(
+               "transferFrom(FileResource) is not supported on DirectoryResource objects");
+   }
+
+   @Override
+   public ByteBuffer getContentsAsByteBuffer()
+   {
+      throw new UnsupportedOperationException(
+               "getContentsAsByteBuffer() is not supported on DirectoryResource objects");
+   }
+
    @Override
    public DirectoryResource setContents(String data)
    {
@@ -6,18 +6,25 @@
  */
 package org.jboss.forge.addon.resource;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.TreeMap;
 
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.jboss.forge.addon.resource.monitor.FileMonitor;
 import org.jboss.forge.addon.resource.monitor.ResourceMonitor;
 import org.jboss.forge.addon.resource.transaction.ResourceTransactionListener;
-import org.jboss.forge.addon.resource.transaction.file.FileResourceTransactionImpl;
+import org.jboss.forge.addon.resource.transaction.file.AbstractFileResourceTransaction;
 import org.jboss.forge.addon.resource.transaction.file.FileResourceTransactionManager;
 import org.jboss.forge.addon.resource.util.RelatedClassComparator;
 import org.jboss.forge.furnace.addons.AddonRegistry;
+import org.jboss.forge.furnace.event.PostStartup;
+import org.jboss.forge.furnace.event.PreShutdown;
 import org.jboss.forge.furnace.services.Imported;
 import org.jboss.forge.furnace.spi.ListenerRegistration;
 import org.jboss.forge.furnace.util.Assert;
@@ -41,42 +48,123 @@ public class ResourceFactoryImpl implements ResourceFactory
    @Inject
    private FileResourceTransactionManager transactionManager;
 
-   private Imported<ResourceGenerator<?, ?>> instances;
+   private volatile Imported<ResourceGenerator<?, ?>> instances;
+
+   /**
+    * Every registered {@link ResourceGenerator} instance, used to dispatch {@link File} resources without looking the
+    * generators up again. Reads are lock-free; the list is dropped when addons are started or stopped.
+    */
+   private volatile List<ResourceGenerator<?, ?>> fileGenerators;
+
+   void addonStarted(@Observes PostStartup event)
+   {
+      invalidateFileGenerators();
+   }
+
+   void addonStopped(@Observes PreShutdown event)
+   {
+      invalidateFileGenerators();
+   }
+
+   private synchronized void invalidateFileGenerators()
+   {
+      fileGenerators = null;
+   }
+
+   private synchronized List<ResourceGenerator<?, ?>> loadFileGenerators()
+   {
+      if (fileGenerators == null)
+      {
+         fileGenerators = resolveGenerators(null, null);
+      }
+      return fileGenerators;
+   }
 
    @Override
    @SuppressWarnings({ "unchecked", "rawtypes" })
    public <E, T extends Resource<E>> T create(final Class<T> type, final E underlyingResource)
    {
       T result = null;
-      synchronized (this)
+      List<ResourceGenerator<?, ?>> generators = getGenerators(type, underlyingResource);
+      TreeMap<Class<?>, ResourceGenerator> generated = new TreeMap<>(new RelatedClassComparator());
+      for (ResourceGenerator generator : generators)
       {
-         TreeMap<Class<?>, ResourceGenerator> generated = new TreeMap<>(
-                  new RelatedClassComparator());
-
-         // FIXME Workaround for FORGE-1263
-         if (instances == null)
-            instances = (Imported) registry.getServices(ResourceGenerator.class);
-
-         for (ResourceGenerator generator : instances)
+         Class resourceType = generator.getResourceType(this, type, underlyingResource);
+         if (type.isAssignableFrom(resourceType))
+         {
+            generated.put(resourceType, generator);
+         }
+      }
+      if (generated.size() > 0)
+      {
+         result = (T) generated.lastEntry().getValue().getResource(this, type, underlyingResource);
+      }
+      if (!(underlyingResource instanceof File))
+      {
+         for (ResourceGenerator generator : generators)
          {
-            if (generator.handles(type, underlyingResource))
-            {
-               Class resourceType = generator.getResourceType(this, type, underlyingResource);
-               if (type.isAssignableFrom(resourceType))
-               {
-                  generated.put(resourceType, generator);
-               }
-            }
             instances.release(generator);
          }
-         if (generated.size() > 0)
+      }
+      return result;
+   }
+
+   /**
+    * Returns the {@link ResourceGenerator} instances handling the given type and underlying resource. For {@link File}
+    * resources, the generator instances are kept and only asked whether they handle the file, since generators may
+    * match a whole file name (such as <code>pom.xml</code>) as well as an extension. Other resources are dispatched by
+    * looking up every {@link ResourceGenerator}, and the returned instances must be released once used.
+    */
+   @SuppressWarnings({ "unchecked", "rawtypes" })
+   private List<ResourceGenerator<?, ?>> getGenerators(Class<?> type, Object underlyingResource)
+   {
+      if (!(underlyingResource instanceof File))
+      {
+         return resolveGenerators(type, underlyingResource);
+      }
+
+      List<ResourceGenerator<?, ?>> generators = fileGenerators;
+      if (generators == null)
+      {
+         generators = loadFileGenerators();
+      }
+      List<ResourceGenerator<?, ?>> result = new ArrayList<>(2);
+      for (ResourceGenerator generator : generators)
+      {
+         if (generator.handles(type, underlyingResource))
          {
-            result = (T) generated.lastEntry().getValue().getResource(this, type, underlyingResource);
+            result.add(generator);
          }
       }
       return result;
    }
 
+   /**
+    * Looks up the {@link ResourceGenerator} instances handling the given type and underlying resource, or every
+    * instance if no underlying resource is given
+    */
+   @SuppressWarnings({ "unchecked", "rawtypes" })
+   private synchronized List<ResourceGenerator<?, ?>> resolveGenerators(Class<?> type, Object underlyingResource)
+   {
+      // FIXME Workaround for FORGE-1263
+      if (instances == null)
+         instances = (Imported) registry.getServices(ResourceGenerator.class);
+
+      List<ResourceGenerator<?, ?>> result = new ArrayList<>();
+      for (ResourceGenerator generator : instances)
+      {
+         if (underlyingResource == null || generator.handles(type, underlyingResource))
+         {
+            result.add(generator);
+         }
+         else
+         {
+            instances.release(generator);
+         }
+      }
+      return Collections.unmodifiableList(result);
+   }
+
    @Override
    @SuppressWarnings("unchecked")
    public <E> Resource<E> create(E underlyingResource)
@@ -105,7 +193,7 @@ public class ResourceFactoryImpl implements ResourceFactory
    }
 
    @Override
-   public FileResourceTransactionImpl getTransaction()
+   public AbstractFileResourceTransaction getTransaction()
    {
       return transactionManager.getCurrentTransaction(this);
    }
@@ -113,10 +201,14 @@ public class ResourceFactoryImpl implements ResourceFactory
    @Override
    public FileOperations getFileOperations()
    {
-      FileResourceTransactionImpl transaction = getTransaction();
+      AbstractFileResourceTransaction transaction = getTransaction();
       if (transaction.isStarted())
       {
-         return transaction;
+         return transaction.getAttributeCache();
+      }
+      else if (transaction.isBeginPending())
+      {
+         return transaction.getPendingFileOperations();
       }
       else
       {
@@ -129,4 +221,4 @@ public class ResourceFactoryImpl implements ResourceFactory
    {
       return transactionManager.addTransactionListener(listener);
    }
-}
\ No newline at end of file
+}
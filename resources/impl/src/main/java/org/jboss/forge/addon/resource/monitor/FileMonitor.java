@@ -8,6 +8,7 @@
 package org.jboss.forge.addon.resource.monitor;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.concurrent.ThreadFactory;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -29,7 +30,10 @@ import org.jboss.forge.furnace.event.PostStartup;
 import org.jboss.forge.furnace.event.PreShutdown;
 
 /**
- * This {@link FileMonitor} uses commons-io to listen for changes in files
+ * This {@link FileMonitor} listens for changes in files using the native {@link java.nio.file.WatchService} of the
+ * platform when available, falling back to polling with commons-io otherwise (or when the
+ * <code>resource.monitor.polling</code> system property is set to <code>true</code>). Directories that cannot be
+ * registered with the {@link java.nio.file.WatchService} are polled as well.
  * 
  * @author <a href="ggastald@redhat.com">George Gastaldi</a>
  */
@@ -37,12 +41,19 @@ import org.jboss.forge.furnace.event.PreShutdown;
 public class FileMonitor
 {
    private static final long CHECK_INTERVAL = Long.getLong("resource.monitor.interval", 5000L);
+   private static final boolean FORCE_POLLING = Boolean.getBoolean("resource.monitor.polling");
 
    private final Logger log = Logger.getLogger(getClass().getName());
    private FileAlterationMonitor alterationMonitor;
+   private WatchServiceFileMonitor watchServiceMonitor;
+   private boolean polling;
 
    public FileMonitor()
    {
+      if (!FORCE_POLLING)
+      {
+         watchServiceMonitor = WatchServiceFileMonitor.create();
+      }
       alterationMonitor = new FileAlterationMonitor(CHECK_INTERVAL);
       alterationMonitor.setThreadFactory(new ThreadFactory()
       {
@@ -59,11 +70,28 @@ public class FileMonitor
 
    void init(@Observes @Local PostStartup postStartup) throws Exception
    {
-      alterationMonitor.start();
+      if (watchServiceMonitor != null)
+      {
+         watchServiceMonitor.start();
+      }
+      else
+      {
+         startPolling();
+      }
    }
 
    void destroy(@Observes @Local PreShutdown preShutdown) throws Exception
    {
+      if (watchServiceMonitor != null)
+      {
+         watchServiceMonitor.stop();
+      }
+      synchronized (this)
+      {
+         if (!polling)
+            return;
+         polling = false;
+      }
       for (FileAlterationObserver observer : alterationMonitor.getObservers())
       {
          for (FileAlterationListener listener : observer.getListeners())
@@ -90,6 +118,19 @@ public class FileMonitor
          dirResource = resource.getParent();
          filter = FileFilterUtils.nameFileFilter(resource.getName());
       }
+      if (watchServiceMonitor != null)
+      {
+         String fileName = (resource instanceof DirectoryResource) ? null : resource.getName();
+         try
+         {
+            return watchServiceMonitor.registerMonitor(resourceFactory, dirResource, fileName, resourceFilter);
+         }
+         catch (IOException e)
+         {
+            log.log(Level.WARNING, "Could not watch [" + dirResource.getFullyQualifiedName()
+                     + "] for changes, polling it instead", e);
+         }
+      }
       if (resourceFilter != null)
       {
          FileFilterResourceAdapter adapter = new FileFilterResourceAdapter(resourceFactory, resourceFilter);
@@ -113,6 +154,23 @@ public class FileMonitor
          log.log(Level.SEVERE, "Error while initializing File observer", e);
       }
       alterationMonitor.addObserver(observer);
+      try
+      {
+         startPolling();
+      }
+      catch (Exception e)
+      {
+         log.log(Level.SEVERE, "Error while starting File monitor", e);
+      }
       return new ResourceMonitorImpl(dirResource, resourceFactory, alterationMonitor, observer);
    }
+
+   private synchronized void startPolling() throws Exception
+   {
+      if (!polling)
+      {
+         alterationMonitor.start();
+         polling = true;
+      }
+   }
 }
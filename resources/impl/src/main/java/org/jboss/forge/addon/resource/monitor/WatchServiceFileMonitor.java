@@ -0,0 +1,485 @@
+/**
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.resource.monitor;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchEvent.Kind;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jboss.forge.addon.resource.DirectoryResource;
+import org.jboss.forge.addon.resource.ResourceFactory;
+import org.jboss.forge.addon.resource.ResourceFilter;
+
+/**
+ * Listens for changes in files using the native {@link WatchService} of the platform. Directories are registered
+ * recursively and events received within {@link #BATCH_DELAY} milliseconds of each other are coalesced into a single
+ * batch before being fired. A batch is fired at the latest after {@link #BATCH_MAX_DELAY} milliseconds or once it holds
+ * {@link #BATCH_MAX_SIZE} changes, so that a steady stream of events is still delivered. The entries of each watched directory are recorded, so that if the {@link WatchService}
+ * overflows the affected directory is scanned again and the changes that were lost are fired.
+ */
+public class WatchServiceFileMonitor implements Runnable
+{
+   private static final long BATCH_DELAY = Long.getLong("resource.monitor.batch.delay", 50L);
+   private static final long BATCH_MAX_DELAY = Long.getLong("resource.monitor.batch.maxDelay", 1000L);
+   private static final int BATCH_MAX_SIZE = Integer.getInteger("resource.monitor.batch.maxSize", 10000);
+
+   private static final Logger log = Logger.getLogger(WatchServiceFileMonitor.class.getName());
+
+   private final WatchService watchService;
+   private final Map<WatchKey, Path> keys = new ConcurrentHashMap<>();
+   private final Map<Path, WatchKey> directories = new ConcurrentHashMap<>();
+   private final Map<Path, Map<Path, FileState>> entries = new ConcurrentHashMap<>();
+   private final List<WatchServiceResourceMonitor> monitors = new CopyOnWriteArrayList<>();
+
+   private volatile Thread thread;
+
+   private WatchServiceFileMonitor(WatchService watchService)
+   {
+      this.watchService = watchService;
+   }
+
+   /**
+    * Create a new {@link WatchServiceFileMonitor}, or return <code>null</code> if the platform does not provide a native
+    * {@link WatchService}
+    */
+   public static WatchServiceFileMonitor create()
+   {
+      try
+      {
+         WatchService watchService = FileSystems.getDefault().newWatchService();
+         // The JDK falls back to a polling implementation where native notifications are unavailable
+         if (watchService.getClass().getName().endsWith("PollingWatchService"))
+         {
+            watchService.close();
+            return null;
+         }
+         return new WatchServiceFileMonitor(watchService);
+      }
+      catch (IOException | UnsupportedOperationException e)
+      {
+         log.log(Level.FINE, "Native WatchService is not available", e);
+         return null;
+      }
+   }
+
+   public void start()
+   {
+      thread = new Thread(this, "Resource File Watcher");
+      thread.setDaemon(true);
+      thread.setContextClassLoader(null);
+      thread.start();
+   }
+
+   public void stop()
+   {
+      monitors.clear();
+      if (thread != null)
+      {
+         thread.interrupt();
+         thread = null;
+      }
+      try
+      {
+         watchService.close();
+      }
+      catch (IOException e)
+      {
+         log.log(Level.WARNING, "Error while closing WatchService", e);
+      }
+   }
+
+   /**
+    * Register a {@link ResourceMonitor} for the given directory. If a file name is provided, only the file with that
+    * name in the given directory is monitored, otherwise the whole directory tree is monitored.
+    * 
+    * @throws IOException if a directory could not be registered with the {@link WatchService}, in which case nothing
+    *            is monitored
+    */
+   public ResourceMonitor registerMonitor(ResourceFactory resourceFactory, DirectoryResource directory,
+            String fileName, ResourceFilter resourceFilter) throws IOException
+   {
+      WatchServiceResourceMonitor monitor = new WatchServiceResourceMonitor(this, resourceFactory, directory,
+               fileName, resourceFilter);
+      Path root = monitor.getRoot();
+      try
+      {
+         if (monitor.isRecursive())
+            registerAll(root);
+         else
+            register(root);
+      }
+      catch (IOException | RuntimeException e)
+      {
+         // Release the directories registered so far
+         cancel(monitor);
+         throw e;
+      }
+      monitors.add(monitor);
+      return monitor;
+   }
+
+   void cancel(WatchServiceResourceMonitor monitor)
+   {
+      monitors.remove(monitor);
+      Iterator<Entry<Path, WatchKey>> iterator = directories.entrySet().iterator();
+      while (iterator.hasNext())
+      {
+         Entry<Path, WatchKey> entry = iterator.next();
+         if (!isWatched(entry.getKey()))
+         {
+            entry.getValue().cancel();
+            keys.remove(entry.getValue());
+            entries.remove(entry.getKey());
+            iterator.remove();
+         }
+      }
+   }
+
+   @Override
+   public void run()
+   {
+      try
+      {
+         while (!Thread.currentThread().isInterrupted())
+         {
+            WatchKey key = watchService.take();
+            Map<Path, Change> batch = new LinkedHashMap<>();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BATCH_MAX_DELAY);
+            do
+            {
+               process(key, batch);
+               if (batch.size() >= BATCH_MAX_SIZE || System.nanoTime() - deadline >= 0)
+               {
+                  // Events still queued are fired with the next batch
+                  break;
+               }
+               key = watchService.poll(BATCH_DELAY, TimeUnit.MILLISECONDS);
+            }
+            while (key != null);
+
+            for (WatchServiceResourceMonitor monitor : monitors)
+            {
+               try
+               {
+                  monitor.fireEvents(batch);
+               }
+               catch (Exception e)
+               {
+                  log.log(Level.SEVERE, "Error while firing resource events", e);
+               }
+            }
+         }
+      }
+      catch (InterruptedException | ClosedWatchServiceException e)
+      {
+         // Monitor is stopped
+      }
+   }
+
+   private void process(WatchKey key, Map<Path, Change> batch)
+   {
+      Path directory = keys.get(key);
+      if (directory == null)
+      {
+         key.cancel();
+         return;
+      }
+
+      for (WatchEvent<?> event : key.pollEvents())
+      {
+         Kind<?> kind = event.kind();
+         if (kind == OVERFLOW)
+         {
+            rescan(directory, batch);
+            continue;
+         }
+
+         Path child = directory.resolve((Path) event.context());
+         Map<Path, FileState> contents = entries.get(directory);
+         if (kind == ENTRY_DELETE)
+         {
+            FileState previous = contents == null ? null : contents.remove(child);
+            coalesce(batch, child, kind, previous != null ? previous.directory : directories.containsKey(child));
+         }
+         else
+         {
+            FileState current = FileState.of(child);
+            boolean isDirectory = current != null && current.directory;
+            if (contents != null && current != null)
+               contents.put(child, current);
+            coalesce(batch, child, kind, isDirectory);
+            if (kind == ENTRY_CREATE && isDirectory && isWatchedRecursively(child))
+            {
+               registerCreated(child, batch);
+            }
+         }
+      }
+
+      if (!key.reset())
+      {
+         keys.remove(key);
+         directories.remove(directory);
+         entries.remove(directory);
+      }
+   }
+
+   /**
+    * Merges the given event with any previous event for the same path in this batch
+    */
+   private void coalesce(Map<Path, Change> batch, Path path, Kind<?> kind, boolean directory)
+   {
+      Change previous = batch.get(path);
+      if (previous == null)
+      {
+         batch.put(path, new Change(kind, directory));
+      }
+      else if (previous.kind == ENTRY_CREATE && kind == ENTRY_DELETE)
+      {
+         // Created and deleted within the same batch
+         batch.remove(path);
+      }
+      else if (previous.kind == ENTRY_DELETE && kind == ENTRY_CREATE)
+      {
+         batch.put(path, new Change(ENTRY_MODIFY, directory));
+      }
+      else if (previous.kind != ENTRY_CREATE)
+      {
+         batch.put(path, new Change(kind, directory));
+      }
+   }
+
+   /**
+    * Registers a newly created directory tree, reporting its contents as created since they may have been created
+    * before the registration took place
+    */
+   private void registerCreated(final Path directory, final Map<Path, Change> batch)
+   {
+      try
+      {
+         Files.walkFileTree(directory, new SimpleFileVisitor<Path>()
+         {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException
+            {
+               register(dir);
+               if (!dir.equals(directory))
+                  coalesce(batch, dir, ENTRY_CREATE, true);
+               return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException
+            {
+               coalesce(batch, file, ENTRY_CREATE, false);
+               return FileVisitResult.CONTINUE;
+            }
+         });
+      }
+      catch (IOException e)
+      {
+         log.log(Level.WARNING, "Error while registering directory [" + directory + "] for monitoring", e);
+      }
+   }
+
+   /**
+    * Events were lost for the given directory: list it again and report the differences with the entries recorded
+    * before
+    */
+   private void rescan(Path directory, Map<Path, Change> batch)
+   {
+      Map<Path, FileState> previous = entries.get(directory);
+      if (previous == null)
+         previous = new HashMap<>();
+      Map<Path, FileState> current;
+      try
+      {
+         register(directory);
+         current = entries.get(directory);
+      }
+      catch (IOException e)
+      {
+         log.log(Level.WARNING, "Error while scanning directory [" + directory + "]", e);
+         return;
+      }
+
+      boolean recursive = isWatchedRecursively(directory);
+      for (Entry<Path, FileState> entry : current.entrySet())
+      {
+         Path child = entry.getKey();
+         FileState before = previous.get(child);
+         if (before == null)
+         {
+            coalesce(batch, child, ENTRY_CREATE, entry.getValue().directory);
+            if (recursive && entry.getValue().directory)
+               registerCreated(child, batch);
+         }
+         else if (before.lastModified != entry.getValue().lastModified)
+         {
+            coalesce(batch, child, ENTRY_MODIFY, entry.getValue().directory);
+         }
+      }
+      for (Entry<Path, FileState> entry : previous.entrySet())
+      {
+         Path child = entry.getKey();
+         if (!current.containsKey(child))
+         {
+            coalesce(batch, child, ENTRY_DELETE, entry.getValue().directory);
+            if (entry.getValue().directory)
+               unregisterAll(child);
+         }
+      }
+   }
+
+   private void registerAll(Path root) throws IOException
+   {
+      Files.walkFileTree(root, new SimpleFileVisitor<Path>()
+      {
+         @Override
+         public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException
+         {
+            register(dir);
+            return FileVisitResult.CONTINUE;
+         }
+      });
+   }
+
+   /**
+    * Registers the given directory and records its entries. Registering a directory again returns the same
+    * {@link WatchKey} and records its entries anew.
+    */
+   private void register(Path directory) throws IOException
+   {
+      WatchKey key = directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+      Map<Path, FileState> contents = new ConcurrentHashMap<>();
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory))
+      {
+         for (Path child : stream)
+         {
+            FileState entry = FileState.of(child);
+            if (entry != null)
+               contents.put(child, entry);
+         }
+      }
+      keys.put(key, directory);
+      directories.put(directory, key);
+      entries.put(directory, contents);
+   }
+
+   /**
+    * Forgets the given deleted directory and the directories below it
+    */
+   private void unregisterAll(Path directory)
+   {
+      Iterator<Entry<Path, WatchKey>> iterator = directories.entrySet().iterator();
+      while (iterator.hasNext())
+      {
+         Entry<Path, WatchKey> entry = iterator.next();
+         if (entry.getKey().startsWith(directory))
+         {
+            entry.getValue().cancel();
+            keys.remove(entry.getValue());
+            entries.remove(entry.getKey());
+            iterator.remove();
+         }
+      }
+   }
+
+   private boolean isWatched(Path directory)
+   {
+      for (WatchServiceResourceMonitor monitor : monitors)
+      {
+         if (monitor.isRecursive() ? directory.startsWith(monitor.getRoot()) : directory.equals(monitor.getRoot()))
+            return true;
+      }
+      return false;
+   }
+
+   private boolean isWatchedRecursively(Path directory)
+   {
+      for (WatchServiceResourceMonitor monitor : monitors)
+      {
+         if (monitor.isRecursive() && directory.startsWith(monitor.getRoot()))
+            return true;
+      }
+      return false;
+   }
+
+   /**
+    * The recorded state of an entry of a watched directory
+    */
+   private static class FileState
+   {
+      final long lastModified;
+      final boolean directory;
+
+      FileState(long lastModified, boolean directory)
+      {
+         this.lastModified = lastModified;
+         this.directory = directory;
+      }
+
+      /**
+       * Returns the current state of the given path, or <code>null</code> if it does not exist anymore
+       */
+      static FileState of(Path path)
+      {
+         try
+         {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class,
+                     LinkOption.NOFOLLOW_LINKS);
+            return new FileState(attributes.lastModifiedTime().toMillis(), attributes.isDirectory());
+         }
+         catch (IOException e)
+         {
+            return null;
+         }
+      }
+   }
+
+   /**
+    * A coalesced change to a path
+    */
+   static class Change
+   {
+      final Kind<?> kind;
+      final boolean directory;
+
+      Change(Kind<?> kind, boolean directory)
+      {
+         this.kind = kind;
+         this.directory = directory;
+      }
+   }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.resource.monitor;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.jboss.forge.addon.resource.DirectoryResource;
+import org.jboss.forge.addon.resource.FileResource;
+import org.jboss.forge.addon.resource.ResourceFactory;
+import org.jboss.forge.addon.resource.ResourceFilter;
+import org.jboss.forge.addon.resource.events.ResourceCreated;
+import org.jboss.forge.addon.resource.events.ResourceDeleted;
+import org.jboss.forge.addon.resource.events.ResourceEvent;
+import org.jboss.forge.addon.resource.events.ResourceModified;
+import org.jboss.forge.addon.resource.monitor.WatchServiceFileMonitor.Change;
+import org.jboss.forge.furnace.spi.ListenerRegistration;
+
+/**
+ * {@link ResourceMonitor} implementation fed by a {@link WatchServiceFileMonitor}
+ */
+@SuppressWarnings("unchecked")
+public class WatchServiceResourceMonitor implements ResourceMonitor
+{
+   private final WatchServiceFileMonitor fileMonitor;
+   private final ResourceFactory resourceFactory;
+   private final DirectoryResource resource;
+   private final Path root;
+   private final String fileName;
+   private final ResourceFilter resourceFilter;
+   private final List<ResourceListener> listeners = new CopyOnWriteArrayList<>();
+
+   public WatchServiceResourceMonitor(WatchServiceFileMonitor fileMonitor, ResourceFactory resourceFactory,
+            DirectoryResource resource, String fileName, ResourceFilter resourceFilter)
+   {
+      this.fileMonitor = fileMonitor;
+      this.resourceFactory = resourceFactory;
+      this.resource = resource;
+      this.root = resource.getUnderlyingResourceObject().toPath().toAbsolutePath();
+      this.fileName = fileName;
+      this.resourceFilter = resourceFilter;
+   }
+
+   @Override
+   public ListenerRegistration<ResourceListener> addResourceListener(final ResourceListener listener)
+   {
+      listeners.add(listener);
+      return new ListenerRegistration<ResourceListener>()
+      {
+         @Override
+         public ResourceListener removeListener()
+         {
+            listeners.remove(listener);
+            return listener;
+         }
+      };
+   }
+
+   @Override
+   public DirectoryResource getResource()
+   {
+      return resource;
+   }
+
+   @Override
+   public void cancel()
+   {
+      fileMonitor.cancel(this);
+   }
+
+   Path getRoot()
+   {
+      return root;
+   }
+
+   /**
+    * Returns <code>true</code> if the whole directory tree is monitored, <code>false</code> if only a single file is
+    */
+   boolean isRecursive()
+   {
+      return fileName == null;
+   }
+
+   /**
+    * Fires the events in the given batch that concern this monitor. Like the polling implementation, a modification of
+    * the parent directory is reported before any entry is created or deleted below the monitored directory.
+    */
+   void fireEvents(Map<Path, Change> batch)
+   {
+      if (listeners.isEmpty())
+         return;
+
+      Set<Path> modifiedDirectories = new HashSet<>();
+      for (Entry<Path, Change> entry : batch.entrySet())
+      {
+         Path path = entry.getKey();
+         Change change = entry.getValue();
+         if (!concerns(path))
+            continue;
+
+         Path parent = path.getParent();
+         if (isRecursive() && change.kind != ENTRY_CREATE && change.kind != ENTRY_DELETE)
+         {
+            if (change.directory && !modifiedDirectories.add(path))
+               continue;
+         }
+         else if (isRecursive() && !parent.equals(root) && modifiedDirectories.add(parent))
+         {
+            fireEvent(new ResourceModified(resourceFactory.create(DirectoryResource.class, parent.toFile())));
+         }
+
+         FileResource<?> changed;
+         if (change.directory)
+            changed = resourceFactory.create(DirectoryResource.class, path.toFile());
+         else
+            changed = resourceFactory.create(FileResource.class, path.toFile());
+
+         if (change.kind == ENTRY_CREATE)
+            fireEvent(new ResourceCreated(changed));
+         else if (change.kind == ENTRY_DELETE)
+            fireEvent(new ResourceDeleted(changed));
+         else
+            fireEvent(new ResourceModified(changed));
+      }
+   }
+
+   private boolean concerns(Path path)
+   {
+      if (isRecursive())
+         return path.startsWith(root) && !path.equals(root);
+      else
+         return root.equals(path.getParent()) && fileName.equals(path.getFileName().toString());
+   }
+
+   private void fireEvent(ResourceEvent event)
+   {
+      if (resourceFilter == null || resourceFilter.accept(event.getResource()))
+      {
+         for (ResourceListener listener : listeners)
+         {
+            listener.processEvent(event);
+         }
+      }
+   }
+}
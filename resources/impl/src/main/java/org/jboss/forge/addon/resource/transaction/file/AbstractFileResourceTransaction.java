@@ -0,0 +1,327 @@
+/**
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.resource.transaction.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jboss.forge.addon.resource.DefaultFileOperations;
+import org.jboss.forge.addon.resource.FileAttributeCache;
+import org.jboss.forge.addon.resource.FileOperations;
+import org.jboss.forge.addon.resource.ResourceFactory;
+import org.jboss.forge.addon.resource.events.ResourceEvent;
+import org.jboss.forge.addon.resource.transaction.ResourceTransaction;
+import org.jboss.forge.addon.resource.transaction.ResourceTransactionException;
+import org.jboss.forge.addon.resource.transaction.ResourceTransactionListener;
+
+/**
+ * Base class of the {@link ResourceTransaction} implementations returned by {@link FileResourceTransactionManager}.
+ * Notifies the registered {@link ResourceTransactionListener} instances, keeps the {@link FileAttributeCache} used
+ * while the transaction is started, and starts the transaction on the first change when {@link #beginLazily()} is
+ * called.
+ */
+public abstract class AbstractFileResourceTransaction implements ResourceTransaction, FileOperations
+{
+   private static final Logger log = Logger.getLogger(AbstractFileResourceTransaction.class.getName());
+
+   private final FileResourceTransactionManager manager;
+   protected final ResourceFactory resourceFactory;
+
+   private volatile FileAttributeCache attributeCache;
+   private volatile boolean beginPending;
+
+   private final FileOperations pendingFileOperations = new PendingFileOperations();
+
+   protected AbstractFileResourceTransaction(FileResourceTransactionManager manager, ResourceFactory resourceFactory)
+   {
+      this.manager = manager;
+      this.resourceFactory = resourceFactory;
+   }
+
+   /**
+    * Returns the {@link FileOperations} of this transaction, which remembers the file attributes read until the
+    * transaction ends
+    */
+   public FileOperations getAttributeCache()
+   {
+      FileAttributeCache cache = attributeCache;
+      return cache == null ? this : cache;
+   }
+
+   @Override
+   public synchronized void beginLazily() throws ResourceTransactionException
+   {
+      if (isStarted())
+      {
+         throw new ResourceTransactionException("Transaction is already started");
+      }
+      beginPending = true;
+   }
+
+   @Override
+   public boolean isBeginPending()
+   {
+      return beginPending;
+   }
+
+   /**
+    * Returns the {@link FileOperations} to use while {@link #isBeginPending()}: reads go straight to the file system,
+    * and the first change starts this transaction
+    */
+   public FileOperations getPendingFileOperations()
+   {
+      return pendingFileOperations;
+   }
+
+   /**
+    * Must be called by {@link #commit()} and {@link #rollback()} before anything else. Returns true if this
+    * transaction was only pending, in which case there is nothing else to do.
+    */
+   protected synchronized boolean discardPendingBegin()
+   {
+      if (beginPending && !isStarted())
+      {
+         beginPending = false;
+         return true;
+      }
+      return false;
+   }
+
+   @Override
+   public void deleteFileOnExit(File file)
+   {
+      file.deleteOnExit();
+   }
+
+   @Override
+   public void invalidate(File file)
+   {
+      FileAttributeCache cache = attributeCache;
+      if (cache != null)
+      {
+         cache.invalidate(file);
+      }
+   }
+
+   @Override
+   public void invalidate()
+   {
+      FileAttributeCache cache = attributeCache;
+      if (cache != null)
+      {
+         cache.invalidate();
+      }
+   }
+
+   @Override
+   public boolean isDirect()
+   {
+      return false;
+   }
+
+   /**
+    * Must be called once this transaction is started. {@link #isBeginPending()} still returns true while the listeners
+    * are notified of a lazy start.
+    */
+   protected void fireTransactionStarted()
+   {
+      this.attributeCache = new FileAttributeCache(this);
+      for (ResourceTransactionListener listener : manager.getTransactionListeners())
+      {
+         try
+         {
+            listener.transactionStarted(this);
+         }
+         catch (Exception e)
+         {
+            log.log(Level.SEVERE, "Error encountered while notifying ResourceTransactionListener: ["
+                     + listener + "]", e);
+         }
+      }
+      this.beginPending = false;
+   }
+
+   /**
+    * Must be called once the given changes are committed
+    */
+   protected void fireTransactionCommitted(Set<ResourceEvent> changeSet)
+   {
+      for (ResourceTransactionListener listener : manager.getTransactionListeners())
+      {
+         try
+         {
+            listener.transactionCommitted(this, changeSet);
+         }
+         catch (Exception e)
+         {
+            log.log(Level.SEVERE, "Error encountered while notifying ResourceTransactionListener: ["
+                     + listener + "]", e);
+         }
+      }
+   }
+
+   /**
+    * Must be called once the changes of this transaction are discarded
+    */
+   protected void fireTransactionRolledBack()
+   {
+      for (ResourceTransactionListener listener : manager.getTransactionListeners())
+      {
+         try
+         {
+            listener.transactionRolledBack(this);
+         }
+         catch (Exception e)
+         {
+            log.log(Level.SEVERE, "Error encountered while notifying ResourceTransactionListener: ["
+                     + listener + "]", e);
+         }
+      }
+   }
+
+   /**
+    * Must be called once this transaction is committed or rolled back
+    */
+   protected void transactionEnded()
+   {
+      FileAttributeCache cache = attributeCache;
+      attributeCache = null;
+      if (cache != null)
+      {
+         manager.recordAttributeCacheStatistics(cache.getHitCount(), cache.getMissCount());
+         log.fine("Resource transaction ended: " + cache);
+      }
+   }
+
+   /**
+    * Starts this transaction if it is pending, and returns the {@link FileOperations} the next change must be made with
+    */
+   private synchronized FileOperations beginIfPending()
+   {
+      if (beginPending && !isStarted())
+      {
+         begin();
+      }
+      return current();
+   }
+
+   private FileOperations current()
+   {
+      return isStarted() ? getAttributeCache() : DefaultFileOperations.INSTANCE;
+   }
+
+   private class PendingFileOperations implements FileOperations
+   {
+      @Override
+      public boolean fileExists(File f)
+      {
+         return current().fileExists(f);
+      }
+
+      @Override
+      public boolean fileExistsAndIsDirectory(File f)
+      {
+         return current().fileExistsAndIsDirectory(f);
+      }
+
+      @Override
+      public File[] listFiles(File f)
+      {
+         return current().listFiles(f);
+      }
+
+      @Override
+      public long getFileLength(File f)
+      {
+         return current().getFileLength(f);
+      }
+
+      @Override
+      public long getLastModified(File f)
+      {
+         return current().getLastModified(f);
+      }
+
+      @Override
+      public InputStream createInputStream(File f) throws IOException
+      {
+         return current().createInputStream(f);
+      }
+
+      @Override
+      public boolean renameFile(File src, File dest)
+      {
+         return beginIfPending().renameFile(src, dest);
+      }
+
+      @Override
+      public void copyFile(File src, File dest) throws IOException
+      {
+         beginIfPending().copyFile(src, dest);
+      }
+
+      @Override
+      public boolean deleteFile(File file)
+      {
+         return beginIfPending().deleteFile(file);
+      }
+
+      @Override
+      public void deleteFileOnExit(File file)
+      {
+         current().deleteFileOnExit(file);
+      }
+
+      @Override
+      public boolean createNewFile(File file) throws IOException
+      {
+         return beginIfPending().createNewFile(file);
+      }
+
+      @Override
+      public boolean mkdir(File file)
+      {
+         return beginIfPending().mkdir(file);
+      }
+
+      @Override
+      public boolean mkdirs(File file)
+      {
+         return beginIfPending().mkdirs(file);
+      }
+
+      @Override
+      public OutputStream createOutputStream(File file) throws IOException
+      {
+         return beginIfPending().createOutputStream(file);
+      }
+
+      @Override
+      public void invalidate(File file)
+      {
+         current().invalidate(file);
+      }
+
+      @Override
+      public void invalidate()
+      {
+         current().invalidate();
+      }
+
+      @Override
+      public boolean isDirect()
+      {
+         return current().isDirect();
+      }
+   }
+}
@@ -17,10 +17,7 @@ import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
-import org.jboss.forge.addon.resource.FileOperations;
 import org.jboss.forge.addon.resource.Resource;
 import org.jboss.forge.addon.resource.ResourceFactory;
 import org.jboss.forge.addon.resource.events.ResourceCreated;
@@ -29,7 +26,6 @@ import org.jboss.forge.addon.resource.events.ResourceEvent;
 import org.jboss.forge.addon.resource.events.ResourceModified;
 import org.jboss.forge.addon.resource.transaction.ResourceTransaction;
 import org.jboss.forge.addon.resource.transaction.ResourceTransactionException;
-import org.jboss.forge.addon.resource.transaction.ResourceTransactionListener;
 import org.jboss.forge.furnace.util.Assert;
 import org.xadisk.additional.XAFileInputStreamWrapper;
 import org.xadisk.additional.XAFileOutputStreamWrapper;
@@ -47,18 +43,14 @@ import org.xadisk.filesystem.exceptions.InsufficientPermissionOnFileException;
 import org.xadisk.filesystem.exceptions.NoTransactionAssociatedException;
 
 /**
- * Implementation of the {@link ResourceTransaction} interface for files
+ * Implementation of the {@link ResourceTransaction} interface for files, backed by XADisk
  * 
  * @author <a href="ggastald@redhat.com">George Gastaldi</a>
  * @author <a href="mailto:lincolnbaxter@gmail.com">Lincoln Baxter, III</a>
  */
-public class FileResourceTransactionImpl implements ResourceTransaction, FileOperations
+public class FileResourceTransactionImpl extends AbstractFileResourceTransaction
 {
-   private static final Logger log = Logger.getLogger(FileResourceTransactionImpl.class.getName());
-
-   private final FileResourceTransactionManager manager;
    private final XAFileSystem fileSystem;
-   private final ResourceFactory resourceFactory;
 
    private volatile Session session;
    private int timeout = 0;
@@ -66,9 +58,8 @@ public class FileResourceTransactionImpl implements ResourceTransaction, FileOpe
    public FileResourceTransactionImpl(FileResourceTransactionManager manager, XAFileSystem fileSystem,
             ResourceFactory resourceFactory)
    {
-      this.manager = manager;
+      super(manager, resourceFactory);
       this.fileSystem = fileSystem;
-      this.resourceFactory = resourceFactory;
    }
 
    @Override
@@ -79,42 +70,22 @@ public class FileResourceTransactionImpl implements ResourceTransaction, FileOpe
       {
          this.session.setTransactionTimeout(timeout);
       }
-
-      for (ResourceTransactionListener listener : manager.getTransactionListeners())
-      {
-         try
-         {
-            listener.transactionStarted(this);
-         }
-         catch (Exception e)
-         {
-            log.log(Level.SEVERE, "Error encountered while notifying ResourceTransactionListener: ["
-                     + listener + "]", e);
-         }
-      }
+      fireTransactionStarted();
    }
 
    @Override
    public void commit() throws ResourceTransactionException
    {
+      if (discardPendingBegin())
+      {
+         return;
+      }
       assertSessionCreated();
       try
       {
          Set<ResourceEvent> changeSet = getChangeSet();
          session.commit();
-
-         for (ResourceTransactionListener listener : manager.getTransactionListeners())
-         {
-            try
-            {
-               listener.transactionCommitted(this, changeSet);
-            }
-            catch (Exception e)
-            {
-               log.log(Level.SEVERE, "Error encountered while notifying ResourceTransactionListener: ["
-                        + listener + "]", e);
-            }
-         }
+         fireTransactionCommitted(changeSet);
       }
       catch (NoTransactionAssociatedException e)
       {
@@ -123,29 +94,22 @@ public class FileResourceTransactionImpl implements ResourceTransaction, FileOpe
       finally
       {
          session = null;
+         transactionEnded();
       }
    }
 
    @Override
    public void rollback() throws ResourceTransactionException
    {
+      if (discardPendingBegin())
+      {
+         return;
+      }
       assertSessionCreated();
       try
       {
          session.rollback();
-
-         for (ResourceTransactionListener listener : manager.getTransactionListeners())
-         {
-            try
-            {
-               listener.transactionRolledBack(this);
-            }
-            catch (Exception e)
-            {
-               log.log(Level.SEVERE, "Error encountered while notifying ResourceTransactionListener: ["
-                        + listener + "]", e);
-            }
-         }
+         fireTransactionRolledBack();
       }
       catch (NoTransactionAssociatedException e)
       {
@@ -154,6 +118,7 @@ public class FileResourceTransactionImpl implements ResourceTransaction, FileOpe
       finally
       {
          session = null;
+         transactionEnded();
       }
    }
 
@@ -284,6 +249,13 @@ public class FileResourceTransactionImpl implements ResourceTransaction, FileOpe
       }
    }
 
+   @Override
+   public long getLastModified(File f)
+   {
+      // Changes are only written to the file system on commit
+      return f.lastModified();
+   }
+
    @Override
    public boolean renameFile(File src, File dest)
    {
@@ -454,12 +426,6 @@ public class FileResourceTransactionImpl implements ResourceTransaction, FileOpe
       return this.session == null ? timeout : this.session.getTransactionTimeout();
    }
 
-   @Override
-   public void deleteFileOnExit(File file)
-   {
-      file.deleteOnExit();
-   }
-
    private void assertSessionCreated()
    {
       Assert.notNull(session, "Transaction is not started");
@@ -11,6 +11,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -19,6 +20,7 @@ import javax.enterprise.inject.Produces;
 import javax.inject.Singleton;
 
 import org.jboss.forge.addon.resource.ResourceFactory;
+import org.jboss.forge.addon.resource.transaction.ResourceTransaction;
 import org.jboss.forge.addon.resource.transaction.ResourceTransactionListener;
 import org.jboss.forge.furnace.container.cdi.events.Local;
 import org.jboss.forge.furnace.event.PostStartup;
@@ -31,22 +33,35 @@ import org.xadisk.bridge.proxies.interfaces.XAFileSystemProxy;
 import org.xadisk.filesystem.standalone.StandaloneFileSystemConfiguration;
 
 /**
+ * Provides the file {@link ResourceTransaction}. Transactions are backed by XADisk unless the
+ * <code>forge.resource.transaction</code> system property is set to <code>journal</code>, which selects
+ * {@link JournalingResourceTransactionImpl} and skips booting XADisk altogether.
  * 
  * @author <a href="ggastald@redhat.com">George Gastaldi</a>
  */
 @Singleton
 public class FileResourceTransactionManager
 {
+   private static final boolean JOURNAL = "journal".equalsIgnoreCase(System.getProperty(
+            "forge.resource.transaction", "xadisk"));
+
    private final Logger logger = Logger.getLogger(getClass().getName());
 
    private XAFileSystem fileSystem;
 
-   private FileResourceTransactionImpl transaction;
+   private AbstractFileResourceTransaction transaction;
 
    private final List<ResourceTransactionListener> listeners = new CopyOnWriteArrayList<>();
 
+   private final AtomicLong attributeCacheHits = new AtomicLong();
+   private final AtomicLong attributeCacheMisses = new AtomicLong();
+
    public void startup(@Observes @Local PostStartup startup) throws Exception
    {
+      if (JOURNAL)
+      {
+         return;
+      }
       File xaDiskHome = OperatingSystemUtils.createTempDir();
       StandaloneFileSystemConfiguration config = new StandaloneFileSystemConfiguration(
                xaDiskHome.getAbsolutePath(), "furnace-instance");
@@ -74,12 +89,19 @@ public class FileResourceTransactionManager
    }
 
    @Produces
-   public FileResourceTransactionImpl getCurrentTransaction(ResourceFactory resourceFactory)
+   public AbstractFileResourceTransaction getCurrentTransaction(ResourceFactory resourceFactory)
    {
-      Assert.notNull(fileSystem, "FileSystem was not yet initialized. Is the Furnace container running?");
       if (transaction == null)
       {
-         transaction = new FileResourceTransactionImpl(this, fileSystem, resourceFactory);
+         if (JOURNAL)
+         {
+            transaction = new JournalingResourceTransactionImpl(this, resourceFactory);
+         }
+         else
+         {
+            Assert.notNull(fileSystem, "FileSystem was not yet initialized. Is the Furnace container running?");
+            transaction = new FileResourceTransactionImpl(this, fileSystem, resourceFactory);
+         }
       }
       return transaction;
    }
@@ -104,4 +126,37 @@ public class FileResourceTransactionManager
       return listeners;
    }
 
+   void recordAttributeCacheStatistics(long hits, long misses)
+   {
+      attributeCacheHits.addAndGet(hits);
+      attributeCacheMisses.addAndGet(misses);
+   }
+
+   /**
+    * The number of file attributes returned from the attribute caches of the transactions ended so far, without
+    * reaching the file system
+    */
+   public long getAttributeCacheHitCount()
+   {
+      return attributeCacheHits.get();
+   }
+
+   /**
+    * The number of file attributes read from the file system by the transactions ended so far
+    */
+   public long getAttributeCacheMissCount()
+   {
+      return attributeCacheMisses.get();
+   }
+
+   /**
+    * The ratio of file attributes returned from the attribute caches of the transactions ended so far, between 0 and 1
+    */
+   public double getAttributeCacheHitRatio()
+   {
+      long hits = getAttributeCacheHitCount();
+      long total = hits + getAttributeCacheMissCount();
+      return total == 0 ? 0d : (double) hits / total;
+   }
+
 }
@@ -0,0 +1,930 @@
+/**
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.resource.transaction.file;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jboss.forge.addon.resource.Resource;
+import org.jboss.forge.addon.resource.ResourceFactory;
+import org.jboss.forge.addon.resource.events.ResourceCreated;
+import org.jboss.forge.addon.resource.events.ResourceDeleted;
+import org.jboss.forge.addon.resource.events.ResourceEvent;
+import org.jboss.forge.addon.resource.events.ResourceModified;
+import org.jboss.forge.addon.resource.transaction.ResourceTransaction;
+import org.jboss.forge.addon.resource.transaction.ResourceTransactionException;
+import org.jboss.forge.furnace.util.Streams;
+
+/**
+ * Implementation of the {@link ResourceTransaction} interface for files, which needs no transaction manager to be
+ * booted.
+ *
+ * Files written in the transaction are staged in a temporary directory (created on the first write), and the other
+ * changes are only recorded, so the file system is left untouched until {@link #commit()}. Reads see the staged
+ * changes on top of the file system. On commit, directories are created and removed, and each staged file is moved
+ * into place with an atomic rename, keeping the permissions of the replaced file and symbolic links pointing to it.
+ * Every step is recorded in an undo journal, kept with a backup of each replaced or deleted file, so that a failed
+ * commit puts back the files it already changed. Backups are kept in a journal directory of their own, so that the
+ * directories deleted by the commit are empty when they are removed.
+ */
+public class JournalingResourceTransactionImpl extends AbstractFileResourceTransaction
+{
+   private static final Logger log = Logger.getLogger(JournalingResourceTransactionImpl.class.getName());
+
+   private static final int DEFAULT_TIMEOUT = 600;
+
+   private static final AtomicLong counter = new AtomicLong();
+
+   /**
+    * The maximum number of symbolic links followed to find the file to replace
+    */
+   private static final int MAX_LINKS = 40;
+
+   /**
+    * The state of a changed path at the end of the transaction
+    */
+   private enum State
+   {
+      FILE, DIRECTORY, DELETED
+   }
+
+   /**
+    * The events of the change set
+    */
+   private enum EventType
+   {
+      CREATED, MODIFIED, DELETED
+   }
+
+   /**
+    * The undo actions of the journal
+    */
+   private enum Undo
+   {
+      /**
+       * Puts the backup back in place of the target
+       */
+      RESTORE,
+      /**
+       * Deletes the created target
+       */
+      DELETE,
+      /**
+       * Creates the removed target directory again
+       */
+      MKDIR
+   }
+
+   private final Map<File, Change> changes = new LinkedHashMap<>();
+   private final List<Event> events = new ArrayList<>();
+   private File stagingDirectory;
+   private Path journalDirectory;
+   private boolean started;
+   private long startTime;
+   private int timeout = 0;
+
+   public JournalingResourceTransactionImpl(FileResourceTransactionManager manager, ResourceFactory resourceFactory)
+   {
+      super(manager, resourceFactory);
+   }
+
+   @Override
+   public synchronized void begin() throws ResourceTransactionException
+   {
+      if (started)
+      {
+         throw new ResourceTransactionException("Transaction is already started");
+      }
+      started = true;
+      startTime = System.currentTimeMillis();
+      fireTransactionStarted();
+   }
+
+   @Override
+   public synchronized void commit() throws ResourceTransactionException
+   {
+      if (discardPendingBegin())
+      {
+         return;
+      }
+      assertStarted();
+      try
+      {
+         Set<ResourceEvent> changeSet = getChangeSet();
+         try
+         {
+            apply();
+         }
+         catch (ResourceTransactionException e)
+         {
+            end();
+            fireTransactionRolledBack();
+            throw e;
+         }
+         end();
+         fireTransactionCommitted(changeSet);
+      }
+      finally
+      {
+         if (started)
+         {
+            end();
+         }
+         transactionEnded();
+      }
+   }
+
+   @Override
+   public synchronized void rollback() throws ResourceTransactionException
+   {
+      if (discardPendingBegin())
+      {
+         return;
+      }
+      assertStarted();
+      try
+      {
+         end();
+         fireTransactionRolledBack();
+      }
+      finally
+      {
+         transactionEnded();
+      }
+   }
+
+   @Override
+   public synchronized boolean isStarted()
+   {
+      return started;
+   }
+
+   @Override
+   public synchronized Set<ResourceEvent> getChangeSet()
+   {
+      assertStarted();
+      Set<ResourceEvent> changeSet = new LinkedHashSet<>();
+      for (Event event : events)
+      {
+         Resource<File> resource = resourceFactory.create(event.file);
+         switch (event.type)
+         {
+         case CREATED:
+            changeSet.add(new ResourceCreated(resource));
+            break;
+         case MODIFIED:
+            changeSet.add(new ResourceModified(resource));
+            break;
+         case DELETED:
+            changeSet.add(new ResourceDeleted(resource));
+            break;
+         }
+      }
+      return Collections.unmodifiableSet(changeSet);
+   }
+
+   @Override
+   public synchronized void setTransactionTimeout(int seconds)
+   {
+      if (seconds < 0)
+      {
+         throw new ResourceTransactionException("Timeout cannot be a negative value");
+      }
+      this.timeout = seconds;
+   }
+
+   @Override
+   public synchronized int getTransactionTimeout()
+   {
+      return started ? getTimeout() : timeout;
+   }
+
+   @Override
+   public synchronized boolean fileExists(File f)
+   {
+      assertStarted();
+      Change change = changes.get(key(f));
+      return change == null ? f.exists() : change.state != State.DELETED;
+   }
+
+   @Override
+   public synchronized boolean fileExistsAndIsDirectory(File f)
+   {
+      assertStarted();
+      Change change = changes.get(key(f));
+      return change == null ? f.isDirectory() : change.state == State.DIRECTORY;
+   }
+
+   @Override
+   public synchronized File[] listFiles(File file)
+   {
+      assertStarted();
+      File dir = key(file);
+      if (!fileExistsAndIsDirectory(dir))
+      {
+         return new File[0];
+      }
+      Set<File> files = new LinkedHashSet<>();
+      File[] children = dir.listFiles();
+      if (children != null)
+      {
+         for (File child : children)
+         {
+            Change change = changes.get(child);
+            if (change == null || change.state != State.DELETED)
+            {
+               files.add(child);
+            }
+         }
+      }
+      for (Entry<File, Change> entry : changes.entrySet())
+      {
+         if (entry.getValue().state != State.DELETED && dir.equals(entry.getKey().getParentFile()))
+         {
+            files.add(entry.getKey());
+         }
+      }
+      return files.toArray(new File[files.size()]);
+   }
+
+   @Override
+   public synchronized long getFileLength(File f)
+   {
+      assertStarted();
+      Change change = changes.get(key(f));
+      if (change == null)
+      {
+         return f.length();
+      }
+      return change.state == State.FILE ? change.staged.length() : 0L;
+   }
+
+   @Override
+   public synchronized long getLastModified(File f)
+   {
+      assertStarted();
+      Change change = changes.get(key(f));
+      if (change == null)
+      {
+         return f.lastModified();
+      }
+      return change.state == State.FILE ? change.staged.lastModified() : 0L;
+   }
+
+   @Override
+   public synchronized boolean renameFile(File src, File dest)
+   {
+      assertStarted();
+      File source = key(src);
+      File target = key(dest);
+      if (!fileExists(source) || fileExists(target) || !parentExists(target))
+      {
+         return false;
+      }
+      if (fileExistsAndIsDirectory(source))
+      {
+         mkdir(target);
+         for (File child : listFiles(source))
+         {
+            renameFile(child, new File(target, child.getName()));
+         }
+      }
+      else
+      {
+         Change change = changes.get(source);
+         File staged;
+         if (change == null)
+         {
+            // Copy on write: the original file is only removed on commit
+            staged = stage(source);
+         }
+         else
+         {
+            staged = change.staged;
+            change.staged = null;
+         }
+         changes.put(target, new Change(target, State.FILE, staged));
+         recordCreated(target);
+      }
+      remove(source);
+      return true;
+   }
+
+   @Override
+   public synchronized void copyFile(File src, File dest) throws IOException
+   {
+      assertStarted();
+      File source = key(src);
+      File target = key(dest);
+      if (!fileExists(source) || fileExistsAndIsDirectory(source))
+      {
+         throw new FileNotFoundException("Source '" + src + "' does not exist or is a directory");
+      }
+      if (!parentExists(target) && !mkdirs(target.getParentFile()))
+      {
+         throw new IOException("Destination '" + dest + "' directory cannot be created");
+      }
+      if (fileExistsAndIsDirectory(target))
+      {
+         throw new IOException("Destination '" + dest + "' exists but is a directory");
+      }
+      boolean existed = fileExists(target);
+      setStaged(target, stage(source));
+      if (!existed)
+      {
+         recordCreated(target);
+      }
+      record(target, EventType.MODIFIED);
+   }
+
+   @Override
+   public synchronized boolean deleteFile(File f)
+   {
+      assertStarted();
+      File file = key(f);
+      if (!fileExists(file) || (fileExistsAndIsDirectory(file) && listFiles(file).length > 0))
+      {
+         return false;
+      }
+      remove(file);
+      return true;
+   }
+
+   @Override
+   public synchronized boolean createNewFile(File f) throws IOException
+   {
+      assertStarted();
+      File file = key(f);
+      if (fileExists(file))
+      {
+         return false;
+      }
+      if (!parentExists(file))
+      {
+         throw new IOException("No such file or directory: " + file.getParentFile());
+      }
+      File staged = newStagedFile();
+      if (!staged.createNewFile())
+      {
+         throw new IOException("Could not stage file: " + staged);
+      }
+      setStaged(file, staged);
+      recordCreated(file);
+      return true;
+   }
+
+   @Override
+   public synchronized boolean mkdir(File f)
+   {
+      assertStarted();
+      File file = key(f);
+      if (fileExists(file) || !parentExists(file))
+      {
+         return false;
+      }
+      changes.put(file, new Change(file, State.DIRECTORY, null));
+      recordCreated(file);
+      return true;
+   }
+
+   @Override
+   public synchronized boolean mkdirs(File f)
+   {
+      assertStarted();
+      List<File> missing = new ArrayList<>();
+      for (File parent = key(f); parent != null && !fileExistsAndIsDirectory(parent); parent = parent.getParentFile())
+      {
+         missing.add(0, parent);
+      }
+      for (File dir : missing)
+      {
+         if (!mkdir(dir))
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   @Override
+   public synchronized OutputStream createOutputStream(File f) throws IOException
+   {
+      assertStarted();
+      File file = key(f);
+      if (fileExistsAndIsDirectory(file) || !parentExists(file))
+      {
+         throw new FileNotFoundException(file + " (is a directory, or its parent directory does not exist)");
+      }
+      boolean existed = fileExists(file);
+      File staged = newStagedFile();
+      OutputStream out = new BufferedOutputStream(new FileOutputStream(staged));
+      setStaged(file, staged);
+      if (!existed)
+      {
+         recordCreated(file);
+      }
+      record(file, EventType.MODIFIED);
+      return out;
+   }
+
+   @Override
+   public synchronized InputStream createInputStream(File f) throws IOException
+   {
+      assertStarted();
+      File file = key(f);
+      Change change = changes.get(file);
+      if (change == null)
+      {
+         return new BufferedInputStream(new FileInputStream(file));
+      }
+      if (change.state != State.FILE)
+      {
+         throw new FileNotFoundException(file + " (No such file)");
+      }
+      return new BufferedInputStream(new FileInputStream(change.staged));
+   }
+
+   private boolean parentExists(File file)
+   {
+      File parent = file.getParentFile();
+      return parent != null && fileExistsAndIsDirectory(parent);
+   }
+
+   /**
+    * Marks the given existing path as deleted
+    */
+   private void remove(File file)
+   {
+      Change change = changes.remove(file);
+      if (change != null && change.staged != null)
+      {
+         change.staged.delete();
+      }
+      if (file.exists())
+      {
+         changes.put(file, new Change(file, State.DELETED, null));
+      }
+      record(file, EventType.DELETED);
+      record(file.getParentFile(), EventType.MODIFIED);
+   }
+
+   /**
+    * Makes the given staged file the contents of the given path
+    */
+   private void setStaged(File file, File staged)
+   {
+      Change previous = changes.put(file, new Change(file, State.FILE, staged));
+      if (previous != null && previous.staged != null)
+      {
+         previous.staged.delete();
+      }
+   }
+
+   private void recordCreated(File file)
+   {
+      record(file, EventType.CREATED);
+      record(file.getParentFile(), EventType.MODIFIED);
+   }
+
+   /**
+    * Records an event for the change set
+    */
+   private void record(File file, EventType type)
+   {
+      if (file != null)
+      {
+         events.add(new Event(file, type));
+      }
+   }
+
+   /**
+    * Copies the current contents of the given file to a new staged file
+    */
+   private File stage(File file)
+   {
+      File staged = newStagedFile();
+      InputStream in = null;
+      try
+      {
+         in = createInputStream(file);
+         Files.copy(in, staged.toPath(), StandardCopyOption.REPLACE_EXISTING);
+         return staged;
+      }
+      catch (IOException e)
+      {
+         throw new ResourceTransactionException("Could not stage file: " + file, e);
+      }
+      finally
+      {
+         Streams.closeQuietly(in);
+      }
+   }
+
+   private File newStagedFile()
+   {
+      if (stagingDirectory == null)
+      {
+         try
+         {
+            stagingDirectory = Files.createTempDirectory("forge-transaction").toFile();
+         }
+         catch (IOException e)
+         {
+            throw new ResourceTransactionException("Could not create the staging directory", e);
+         }
+      }
+      return new File(stagingDirectory, "staged-" + counter.incrementAndGet());
+   }
+
+   /**
+    * Writes every change to the file system, undoing the changes already written if one fails
+    */
+   private void apply()
+   {
+      List<Journal> journal = new ArrayList<>();
+      List<Change> deleted = new ArrayList<>();
+      List<Change> written = new ArrayList<>();
+      for (Change change : changes.values())
+      {
+         (change.state == State.DELETED ? deleted : written).add(change);
+      }
+      // Children are deleted before their parent, and parents created before their children
+      Collections.sort(deleted, Collections.reverseOrder(BY_DEPTH));
+      Collections.sort(written, BY_DEPTH);
+      try
+      {
+         for (Change change : deleted)
+         {
+            delete(change.file.toPath(), journal);
+         }
+         for (Change change : written)
+         {
+            Path target = change.file.toPath();
+            if (change.state == State.DIRECTORY)
+            {
+               if (!Files.isDirectory(target))
+               {
+                  delete(target, journal);
+                  Files.createDirectory(target);
+                  journal.add(new Journal(Undo.DELETE, target, null));
+               }
+            }
+            else
+            {
+               install(change.staged.toPath(), target, journal);
+            }
+         }
+      }
+      catch (IOException | RuntimeException e)
+      {
+         if (undo(journal))
+         {
+            deleteJournal(journal);
+         }
+         else
+         {
+            // The backups of the changes that could not be undone are left for the user
+            journalDirectory = null;
+         }
+         throw new ResourceTransactionException("Could not commit transaction, changes were undone", e);
+      }
+      deleteJournal(journal);
+   }
+
+   /**
+    * Deletes the backups of the given journal, and the journal directory
+    */
+   private void deleteJournal(List<Journal> journal)
+   {
+      for (Journal entry : journal)
+      {
+         if (entry.backup != null)
+         {
+            try
+            {
+               Files.deleteIfExists(entry.backup);
+            }
+            catch (IOException e)
+            {
+               log.log(Level.FINE, "Could not delete backup [" + entry.backup + "]", e);
+            }
+         }
+      }
+      if (journalDirectory != null)
+      {
+         try
+         {
+            Files.deleteIfExists(journalDirectory);
+         }
+         catch (IOException e)
+         {
+            log.log(Level.FINE, "Could not delete journal directory [" + journalDirectory + "]", e);
+         }
+         journalDirectory = null;
+      }
+   }
+
+   /**
+    * Returns a new path for a backup in the journal directory, which is created on the first backup
+    */
+   private Path newBackup() throws IOException
+   {
+      if (journalDirectory == null)
+      {
+         journalDirectory = Files.createTempDirectory("forge-journal");
+      }
+      return journalDirectory.resolve("backup-" + counter.incrementAndGet());
+   }
+
+   /**
+    * Moves the given file, with an atomic rename where possible, or by copying it when the files are on different file
+    * stores
+    */
+   private static void move(Path source, Path target) throws IOException
+   {
+      try
+      {
+         Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+      }
+      catch (AtomicMoveNotSupportedException e)
+      {
+         Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+   }
+
+   /**
+    * Deletes the given path, if it exists, keeping a backup of it if it is a file
+    */
+   private void delete(Path target, List<Journal> journal) throws IOException
+   {
+      if (Files.isDirectory(target, LinkOption.NOFOLLOW_LINKS))
+      {
+         Files.delete(target);
+         journal.add(new Journal(Undo.MKDIR, target, null));
+      }
+      else if (Files.exists(target, LinkOption.NOFOLLOW_LINKS))
+      {
+         Path backup = newBackup();
+         move(target, backup);
+         journal.add(new Journal(Undo.RESTORE, target, backup));
+      }
+   }
+
+   /**
+    * Moves the given staged file in place of the given target with an atomic rename. A symbolic link target is left in
+    * place and the file it points to is replaced instead. The staged file gets the POSIX permissions and ownership of
+    * the file it replaces.
+    */
+   private void install(Path staged, Path target, List<Journal> journal) throws IOException
+   {
+      target = resolveLinks(target);
+      if (Files.isDirectory(target, LinkOption.NOFOLLOW_LINKS))
+      {
+         delete(target, journal);
+      }
+      Path replacement = staged;
+      if (!Files.getFileStore(staged).equals(Files.getFileStore(target.getParent())))
+      {
+         // The staging directory is on another file store: copy next to the target first
+         replacement = sibling(target, "new");
+         Files.copy(staged, replacement);
+      }
+      try
+      {
+         if (Files.exists(target, LinkOption.NOFOLLOW_LINKS))
+         {
+            copyPosixAttributes(target, replacement);
+            Path backup = newBackup();
+            try
+            {
+               Files.createLink(backup, target);
+            }
+            catch (IOException | UnsupportedOperationException e)
+            {
+               Files.copy(target, backup, StandardCopyOption.COPY_ATTRIBUTES);
+            }
+            journal.add(new Journal(Undo.RESTORE, target, backup));
+         }
+         else
+         {
+            journal.add(new Journal(Undo.DELETE, target, null));
+         }
+         Files.move(replacement, target, StandardCopyOption.ATOMIC_MOVE);
+      }
+      finally
+      {
+         if (replacement != staged)
+         {
+            Files.deleteIfExists(replacement);
+         }
+      }
+   }
+
+   /**
+    * Returns the path the given path points to, following symbolic links
+    */
+   private static Path resolveLinks(Path path) throws IOException
+   {
+      Path result = path;
+      for (int i = 0; i < MAX_LINKS && Files.isSymbolicLink(result); i++)
+      {
+         result = result.resolveSibling(Files.readSymbolicLink(result));
+      }
+      return result;
+   }
+
+   /**
+    * Copies the POSIX permissions, and the owner and group where allowed, of the given file to the other one
+    */
+   private static void copyPosixAttributes(Path source, Path target) throws IOException
+   {
+      PosixFileAttributeView sourceView = Files.getFileAttributeView(source, PosixFileAttributeView.class,
+               LinkOption.NOFOLLOW_LINKS);
+      PosixFileAttributeView targetView = Files.getFileAttributeView(target, PosixFileAttributeView.class,
+               LinkOption.NOFOLLOW_LINKS);
+      if (sourceView == null || targetView == null)
+      {
+         return;
+      }
+      PosixFileAttributes attributes = sourceView.readAttributes();
+      targetView.setPermissions(attributes.permissions());
+      try
+      {
+         targetView.setGroup(attributes.group());
+         targetView.setOwner(attributes.owner());
+      }
+      catch (IOException e)
+      {
+         log.log(Level.FINE, "Could not keep the owner of [" + source + "]", e);
+      }
+   }
+
+   private static Path sibling(Path target, String suffix)
+   {
+      return target.resolveSibling("." + target.getFileName() + ".forge-" + suffix + "-" + counter.incrementAndGet());
+   }
+
+   /**
+    * Undoes the given journal, in reverse order. Returns false if a change could not be undone, so that the backups must
+    * be kept.
+    */
+   private boolean undo(List<Journal> journal)
+   {
+      boolean undone = true;
+      for (int i = journal.size() - 1; i >= 0; i--)
+      {
+         Journal entry = journal.get(i);
+         try
+         {
+            switch (entry.undo)
+            {
+            case RESTORE:
+               move(entry.backup, entry.target);
+               break;
+            case DELETE:
+               Files.deleteIfExists(entry.target);
+               break;
+            case MKDIR:
+               Files.createDirectories(entry.target);
+               break;
+            }
+         }
+         catch (IOException e)
+         {
+            undone = false;
+            log.log(Level.SEVERE, "Could not undo change to [" + entry.target + "]"
+                     + (entry.backup == null ? "" : ", its backup is in [" + entry.backup + "]"), e);
+         }
+      }
+      return undone;
+   }
+
+   /**
+    * Discards the changes and the staging directory
+    */
+   private void end()
+   {
+      started = false;
+      changes.clear();
+      events.clear();
+      if (stagingDirectory != null)
+      {
+         File[] staged = stagingDirectory.listFiles();
+         if (staged != null)
+         {
+            for (File file : staged)
+            {
+               file.delete();
+            }
+         }
+         stagingDirectory.delete();
+         stagingDirectory = null;
+      }
+   }
+
+   private int getTimeout()
+   {
+      return timeout > 0 ? timeout : DEFAULT_TIMEOUT;
+   }
+
+   private void assertStarted()
+   {
+      if (!started)
+      {
+         throw new ResourceTransactionException("Transaction is not started");
+      }
+      if (System.currentTimeMillis() - startTime > TimeUnit.SECONDS.toMillis(getTimeout()))
+      {
+         end();
+         fireTransactionRolledBack();
+         transactionEnded();
+         throw new ResourceTransactionException("Transaction timed out after " + getTimeout() + " seconds");
+      }
+   }
+
+   private static File key(File file)
+   {
+      return file.getAbsoluteFile().toPath().normalize().toFile();
+   }
+
+   private static final Comparator<Change> BY_DEPTH = new Comparator<Change>()
+   {
+      @Override
+      public int compare(Change o1, Change o2)
+      {
+         return Integer.compare(o1.file.toPath().getNameCount(), o2.file.toPath().getNameCount());
+      }
+   };
+
+   private static class Change
+   {
+      private final File file;
+      private final State state;
+      private File staged;
+
+      Change(File file, State state, File staged)
+      {
+         this.file = file;
+         this.state = state;
+         this.staged = staged;
+      }
+   }
+
+   private static class Event
+   {
+      private final File file;
+      private final EventType type;
+
+      Event(File file, EventType type)
+      {
+         this.file = file;
+         this.type = type;
+      }
+   }
+
+   private static class Journal
+   {
+      private final Undo undo;
+      private final Path target;
+      private final Path backup;
+
+      Journal(Undo undo, Path target, Path backup)
+      {
+         this.undo = undo;
+         this.target = target;
+         this.backup = backup;
+      }
+   }
+}
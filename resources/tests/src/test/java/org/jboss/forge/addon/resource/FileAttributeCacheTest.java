@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.resource;
+
+import java.io.File;
+import java.io.OutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FileAttributeCacheTest
+{
+   @Test
+   public void testAttributesAreReadOnce() throws Exception
+   {
+      File file = File.createTempFile("fileattributecachetest", ".tmp");
+      file.deleteOnExit();
+      FileAttributeCache cache = new FileAttributeCache(DefaultFileOperations.INSTANCE);
+
+      Assert.assertTrue(cache.fileExists(file));
+      Assert.assertTrue(cache.fileExists(file));
+      Assert.assertFalse(cache.fileExistsAndIsDirectory(file));
+      Assert.assertFalse(cache.fileExistsAndIsDirectory(file));
+      Assert.assertEquals(2, cache.getHitCount());
+      Assert.assertEquals(2, cache.getMissCount());
+      Assert.assertEquals(0.5d, cache.getHitRatio(), 0d);
+   }
+
+   @Test
+   public void testWritesInvalidateAttributes() throws Exception
+   {
+      File file = File.createTempFile("fileattributecachetest", ".tmp");
+      file.deleteOnExit();
+      FileAttributeCache cache = new FileAttributeCache(DefaultFileOperations.INSTANCE);
+
+      Assert.assertEquals(0L, cache.getFileLength(file));
+      OutputStream out = cache.createOutputStream(file);
+      out.write(new byte[] { 1, 2, 3 });
+      out.close();
+      Assert.assertEquals(3L, cache.getFileLength(file));
+
+      Assert.assertTrue(cache.fileExists(file));
+      Assert.assertTrue(cache.deleteFile(file));
+      Assert.assertFalse(cache.fileExists(file));
+   }
+
+   @Test
+   public void testInvalidateSeesChangesMadeByOtherMeans() throws Exception
+   {
+      File file = File.createTempFile("fileattributecachetest", ".tmp");
+      file.deleteOnExit();
+      FileOperations cache = new FileAttributeCache(DefaultFileOperations.INSTANCE);
+      Assert.assertTrue(cache.isDirect());
+
+      Assert.assertTrue(cache.fileExists(file));
+      Assert.assertTrue(file.delete());
+      Assert.assertTrue(cache.fileExists(file));
+      cache.invalidate();
+      Assert.assertFalse(cache.fileExists(file));
+   }
+}
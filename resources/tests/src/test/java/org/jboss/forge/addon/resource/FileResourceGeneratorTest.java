@@ -101,6 +101,28 @@ public class FileResourceGeneratorTest
       Assert.assertTrue(childResource.exists());
    }
 
+   @Test
+   public void testCreateResourceWithSameNameAsDirectoryAndFile() throws Exception
+   {
+      File first = OperatingSystemUtils.createTempDir();
+      File second = OperatingSystemUtils.createTempDir();
+      first.deleteOnExit();
+      second.deleteOnExit();
+
+      File dir = new File(first, "child");
+      dir.mkdir();
+      dir.deleteOnExit();
+      File file = new File(second, "child");
+      file.createNewFile();
+      file.deleteOnExit();
+
+      for (int i = 0; i < 2; i++)
+      {
+         Assert.assertTrue(factory.create(dir) instanceof DirectoryResource);
+         Assert.assertEquals(FileResourceImpl.class, factory.create(file).getClass());
+      }
+   }
+
    @Test
    public void testFileSize() throws Exception
    {
@@ -9,6 +9,10 @@ package org.jboss.forge.addon.resource;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.inject.Inject;
 
@@ -20,6 +24,7 @@ import org.jboss.forge.arquillian.archive.ForgeArchive;
 import org.jboss.forge.furnace.repositories.AddonDependencyEntry;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
@@ -58,4 +63,93 @@ public class FileResourceTest
       Assert.assertNotNull(fileResource);
       Assert.assertNull(fileResource.reify(DirectoryResource.class));
    }
+
+   @Test
+   public void testDirectoryEntriesAreFilteredBeforeResourceCreation() throws IOException
+   {
+      File tempDir = File.createTempFile("fileresourcetest", ".tmp");
+      tempDir.delete();
+      tempDir.mkdir();
+      new File(tempDir, "file.txt").createNewFile();
+      new File(tempDir, ".hidden").createNewFile();
+      new File(tempDir, "subdir").mkdir();
+      DirectoryResource dir = resourceFactory.create(DirectoryResource.class, tempDir);
+
+      List<String> names = new ArrayList<>();
+      DirectoryStream<DirectoryEntry> entries = dir.listEntries(new DirectoryEntryFilter()
+      {
+         @Override
+         public boolean accept(DirectoryEntry entry)
+         {
+            return !entry.getName().startsWith(".");
+         }
+      });
+      try
+      {
+         for (DirectoryEntry entry : entries)
+         {
+            names.add(entry.getName());
+            Assert.assertEquals(entry.getName().equals("subdir"), entry.isDirectory());
+            Assert.assertEquals(entry.isDirectory(), entry.getResource() instanceof DirectoryResource);
+         }
+      }
+      finally
+      {
+         entries.close();
+         dir.delete(true);
+      }
+      Assert.assertEquals(2, names.size());
+      Assert.assertTrue(names.contains("file.txt"));
+      Assert.assertTrue(names.contains("subdir"));
+   }
+
+   @Test
+   public void testUnreadableDirectoryIsListedAsEmpty() throws IOException
+   {
+      File tempDir = File.createTempFile("fileresourcetest", ".tmp");
+      tempDir.delete();
+      tempDir.mkdir();
+      File locked = new File(tempDir, "locked");
+      locked.mkdir();
+      new File(locked, "file.txt").createNewFile();
+      new File(tempDir, "file.txt").createNewFile();
+      locked.setReadable(false);
+      DirectoryResource dir = resourceFactory.create(DirectoryResource.class, tempDir);
+      try
+      {
+         Assume.assumeFalse("Directory permissions are not enforced", locked.canRead());
+         Assert.assertEquals(2, dir.listResources().size());
+         Assert.assertTrue(dir.getChildDirectory("locked").listResources().isEmpty());
+      }
+      finally
+      {
+         locked.setReadable(true);
+         dir.delete(true);
+      }
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void testCopyAndMoveFileResource() throws IOException
+   {
+      File tempDir = File.createTempFile("fileresourcetest", ".tmp");
+      tempDir.delete();
+      tempDir.mkdir();
+      FileResource<?> source = resourceFactory.create(FileResource.class, new File(tempDir, "source.txt"));
+      source.setContents(ByteBuffer.wrap("Hello World".getBytes()));
+
+      FileResource<?> copy = resourceFactory.create(FileResource.class, new File(tempDir, "copy/copy.txt"));
+      source.copyTo(copy);
+      Assert.assertEquals("Hello World", copy.getContents());
+
+      FileResource<?> moved = resourceFactory.create(FileResource.class, new File(tempDir, "moved/moved.txt"));
+      Assert.assertTrue(copy.moveTo(moved));
+      Assert.assertFalse(new File(tempDir, "copy/copy.txt").exists());
+      Assert.assertEquals("Hello World", moved.getContents());
+
+      ByteBuffer contents = moved.getContentsAsByteBuffer();
+      Assert.assertTrue(contents.isReadOnly());
+      Assert.assertEquals(ByteBuffer.wrap("Hello World".getBytes()), contents);
+      resourceFactory.create(DirectoryResource.class, tempDir).delete(true);
+   }
 }
@@ -12,11 +12,16 @@ import static org.hamcrest.CoreMatchers.is;
 
 import java.io.File;
 import java.net.URL;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Inject;
 
@@ -40,6 +45,7 @@ import org.jboss.forge.furnace.util.Callables;
 import org.jboss.forge.furnace.util.OperatingSystemUtils;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
@@ -379,6 +385,198 @@ public class ResourceMonitorTest
       monitor.cancel();
    }
 
+   @Test
+   public void testResourceMonitorDirectoryCreatedAfterRegistration() throws Exception
+   {
+      File tempDir = OperatingSystemUtils.createTempDir();
+      DirectoryResource tempDirResource = resourceFactory.create(DirectoryResource.class, tempDir);
+      ResourceMonitor monitor = resourceFactory.monitor(tempDirResource);
+      final Set<String> created = collectCreated(monitor);
+
+      final File nested = new File(tempDir, "a/b");
+      waitForMonitor(new Callable<Void>()
+      {
+         @Override
+         public Void call() throws Exception
+         {
+            nested.mkdirs();
+            return null;
+         }
+      }, new Callable<Boolean>()
+      {
+         @Override
+         public Boolean call() throws Exception
+         {
+            return created.contains(nested.getAbsolutePath());
+         }
+      }, 5, TimeUnit.SECONDS);
+
+      final File file = new File(nested, "c.txt");
+      waitForMonitor(new Callable<Void>()
+      {
+         @Override
+         public Void call() throws Exception
+         {
+            file.createNewFile();
+            return null;
+         }
+      }, new Callable<Boolean>()
+      {
+         @Override
+         public Boolean call() throws Exception
+         {
+            return created.contains(file.getAbsolutePath());
+         }
+      }, 5, TimeUnit.SECONDS);
+      monitor.cancel();
+   }
+
+   @Test
+   public void testResourceMonitorReportsEveryFileCreatedInABurst() throws Exception
+   {
+      final File tempDir = OperatingSystemUtils.createTempDir();
+      DirectoryResource tempDirResource = resourceFactory.create(DirectoryResource.class, tempDir);
+      ResourceMonitor monitor = resourceFactory.monitor(tempDirResource);
+      final Set<String> created = collectCreated(monitor);
+
+      // Enough files to overflow the event queue of the directory, so that it has to be scanned again
+      final int count = 2000;
+      waitForMonitor(new Callable<Void>()
+      {
+         @Override
+         public Void call() throws Exception
+         {
+            for (int i = 0; i < count; i++)
+            {
+               new File(tempDir, "file" + i + ".txt").createNewFile();
+            }
+            return null;
+         }
+      }, new Callable<Boolean>()
+      {
+         @Override
+         public Boolean call() throws Exception
+         {
+            return created.size() == count;
+         }
+      }, 10, TimeUnit.SECONDS);
+      monitor.cancel();
+   }
+
+   @Test
+   public void testResourceMonitorReportsChangesDuringASteadyStreamOfEvents() throws Exception
+   {
+      final File tempDir = OperatingSystemUtils.createTempDir();
+      DirectoryResource tempDirResource = resourceFactory.create(DirectoryResource.class, tempDir);
+      ResourceMonitor monitor = resourceFactory.monitor(tempDirResource);
+      final Set<String> created = collectCreated(monitor);
+
+      // Keeps writing a file more often than the batch delay, as a running build does
+      final AtomicBoolean writing = new AtomicBoolean(true);
+      Thread writer = new Thread()
+      {
+         @Override
+         public void run()
+         {
+            File busy = new File(tempDir, "busy.txt");
+            try
+            {
+               for (int i = 0; writing.get(); i++)
+               {
+                  Files.write(busy.toPath(), String.valueOf(i).getBytes());
+                  Thread.sleep(10);
+               }
+            }
+            catch (Exception e)
+            {
+               // Test is over
+            }
+         }
+      };
+      writer.start();
+      try
+      {
+         final File file = new File(tempDir, "child_file.txt");
+         waitForMonitor(new Callable<Void>()
+         {
+            @Override
+            public Void call() throws Exception
+            {
+               file.createNewFile();
+               return null;
+            }
+         }, new Callable<Boolean>()
+         {
+            @Override
+            public Boolean call() throws Exception
+            {
+               return created.contains(file.getAbsolutePath());
+            }
+         }, 5, TimeUnit.SECONDS);
+      }
+      finally
+      {
+         writing.set(false);
+         writer.join();
+         monitor.cancel();
+      }
+   }
+
+   @Test
+   public void testResourceMonitorFallsBackToPollingWhenDirectoryCannotBeWatched() throws Exception
+   {
+      File tempDir = OperatingSystemUtils.createTempDir();
+      File locked = new File(tempDir, "locked");
+      locked.mkdir();
+      locked.setReadable(false);
+      try
+      {
+         Assume.assumeFalse("Directory permissions are not enforced", locked.canRead());
+         DirectoryResource tempDirResource = resourceFactory.create(DirectoryResource.class, tempDir);
+         ResourceMonitor monitor = resourceFactory.monitor(tempDirResource);
+         Assert.assertThat(monitor, is(instanceOf(ResourceMonitorImpl.class)));
+         final Set<String> created = collectCreated(monitor);
+
+         final File file = new File(tempDir, "child_file.txt");
+         waitForMonitor(new Callable<Void>()
+         {
+            @Override
+            public Void call() throws Exception
+            {
+               file.createNewFile();
+               return null;
+            }
+         }, new Callable<Boolean>()
+         {
+            @Override
+            public Boolean call() throws Exception
+            {
+               return created.contains(file.getAbsolutePath());
+            }
+         }, 5, TimeUnit.SECONDS);
+         monitor.cancel();
+      }
+      finally
+      {
+         locked.setReadable(true);
+      }
+   }
+
+   private Set<String> collectCreated(ResourceMonitor monitor)
+   {
+      final Set<String> created = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+      monitor.addResourceListener(new ResourceListener()
+      {
+         @Override
+         public void processEvent(ResourceEvent event)
+         {
+            if (event instanceof ResourceCreated)
+               created.add(event.getResource().getFullyQualifiedName());
+         }
+      });
+      return created;
+   }
+
    private void waitForMonitor(Callable<Void> task, Callable<Boolean> status, int quantity, TimeUnit unit)
             throws TimeoutException
    {
@@ -0,0 +1,246 @@
+/**
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Eclipse Public License version 1.0, available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.jboss.forge.addon.resource.transaction;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.forge.addon.resource.ResourceFactory;
+import org.jboss.forge.addon.resource.transaction.file.FileResourceTransactionManager;
+import org.jboss.forge.addon.resource.transaction.file.JournalingResourceTransactionImpl;
+import org.jboss.forge.arquillian.AddonDependency;
+import org.jboss.forge.arquillian.Dependencies;
+import org.jboss.forge.arquillian.archive.ForgeArchive;
+import org.jboss.forge.furnace.repositories.AddonDependencyEntry;
+import org.jboss.forge.furnace.util.OperatingSystemUtils;
+import org.jboss.forge.furnace.util.Streams;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Tests {@link JournalingResourceTransactionImpl}
+ */
+@RunWith(Arquillian.class)
+public class JournalingResourceTransactionTest
+{
+   @Deployment
+   @Dependencies({
+            @AddonDependency(name = "org.jboss.forge.addon:facets"),
+            @AddonDependency(name = "org.jboss.forge.addon:resources") })
+   public static ForgeArchive getDeployment()
+   {
+      ForgeArchive archive = ShrinkWrap.create(ForgeArchive.class)
+               .addBeansXML()
+               .addAsAddonDependencies(
+                        AddonDependencyEntry.create("org.jboss.forge.furnace.container:cdi"),
+                        AddonDependencyEntry.create("org.jboss.forge.addon:facets"),
+                        AddonDependencyEntry.create("org.jboss.forge.addon:resources")
+               );
+
+      return archive;
+   }
+
+   @Inject
+   private ResourceFactory resourceFactory;
+
+   @Inject
+   private FileResourceTransactionManager manager;
+
+   private JournalingResourceTransactionImpl transaction;
+
+   @Before
+   public void setUp()
+   {
+      transaction = new JournalingResourceTransactionImpl(manager, resourceFactory);
+   }
+
+   @Test
+   public void testChangesAreOnlyWrittenOnCommit() throws Exception
+   {
+      File tempDir = OperatingSystemUtils.createTempDir();
+      File dir = new File(tempDir, "dir");
+      File file = new File(dir, "file.txt");
+      transaction.begin();
+      Assert.assertTrue(transaction.mkdirs(dir));
+      write(file, "Hello World");
+      Assert.assertTrue(transaction.fileExists(file));
+      Assert.assertEquals(11L, transaction.getFileLength(file));
+      Assert.assertEquals("Hello World", read(file));
+      Assert.assertEquals(Arrays.asList(file), Arrays.asList(transaction.listFiles(dir)));
+      Assert.assertFalse(dir.exists());
+      Assert.assertEquals(5, transaction.getChangeSet().size());
+      transaction.commit();
+      Assert.assertFalse(transaction.isStarted());
+      Assert.assertTrue(file.isFile());
+      Assert.assertEquals(11L, file.length());
+   }
+
+   @Test
+   public void testRollbackLeavesFilesUntouched() throws Exception
+   {
+      File tempDir = OperatingSystemUtils.createTempDir();
+      File existing = File.createTempFile("journaltest", ".tmp", tempDir);
+      File renamed = new File(tempDir, "renamed.tmp");
+      transaction.begin();
+      write(existing, "Changed");
+      Assert.assertTrue(transaction.renameFile(existing, renamed));
+      Assert.assertFalse(transaction.fileExists(existing));
+      Assert.assertEquals("Changed", read(renamed));
+      transaction.rollback();
+      Assert.assertTrue(existing.exists());
+      Assert.assertEquals(0L, existing.length());
+      Assert.assertFalse(renamed.exists());
+   }
+
+   @Test
+   public void testDeleteIsOnlyAppliedOnCommit() throws Exception
+   {
+      File tempDir = OperatingSystemUtils.createTempDir();
+      File existing = File.createTempFile("journaltest", ".tmp", tempDir);
+      transaction.begin();
+      Assert.assertFalse(transaction.deleteFile(tempDir));
+      Assert.assertTrue(transaction.deleteFile(existing));
+      Assert.assertFalse(transaction.fileExists(existing));
+      Assert.assertEquals(0, transaction.listFiles(tempDir).length);
+      Assert.assertTrue(existing.exists());
+      transaction.commit();
+      Assert.assertFalse(existing.exists());
+      Assert.assertEquals(0, tempDir.list().length);
+   }
+
+   @Test
+   public void testRecursiveDeleteOfNonEmptyDirectory() throws Exception
+   {
+      File tempDir = OperatingSystemUtils.createTempDir();
+      File dir = new File(tempDir, "dir");
+      File subDir = new File(dir, "sub");
+      Assert.assertTrue(subDir.mkdirs());
+      File file = new File(dir, "a.txt");
+      File nested = new File(subDir, "b.txt");
+      Files.write(file.toPath(), "A".getBytes());
+      Files.write(nested.toPath(), "B".getBytes());
+      transaction.begin();
+      Assert.assertTrue(transaction.deleteFile(nested));
+      Assert.assertTrue(transaction.deleteFile(subDir));
+      Assert.assertTrue(transaction.deleteFile(file));
+      Assert.assertTrue(transaction.deleteFile(dir));
+      transaction.commit();
+      Assert.assertFalse(dir.exists());
+      Assert.assertEquals(0, tempDir.list().length);
+   }
+
+   @Test
+   public void testRenameDirectory() throws Exception
+   {
+      File tempDir = OperatingSystemUtils.createTempDir();
+      File dir = new File(tempDir, "dir");
+      File subDir = new File(dir, "sub");
+      Assert.assertTrue(subDir.mkdirs());
+      Files.write(new File(dir, "a.txt").toPath(), "A".getBytes());
+      Files.write(new File(subDir, "b.txt").toPath(), "B".getBytes());
+      File renamed = new File(tempDir, "renamed");
+      transaction.begin();
+      Assert.assertTrue(transaction.renameFile(dir, renamed));
+      transaction.commit();
+      Assert.assertFalse(dir.exists());
+      Assert.assertEquals("A", new String(Files.readAllBytes(new File(renamed, "a.txt").toPath())));
+      Assert.assertEquals("B", new String(Files.readAllBytes(new File(renamed, "sub/b.txt").toPath())));
+      Assert.assertEquals(Arrays.asList("renamed"), Arrays.asList(tempDir.list()));
+      Assert.assertEquals(2, renamed.list().length);
+   }
+
+   @Test
+   public void testFailedCommitIsUndone() throws Exception
+   {
+      File tempDir = OperatingSystemUtils.createTempDir();
+      File existing = new File(tempDir, "a.txt");
+      Files.write(existing.toPath(), "Original".getBytes());
+      File blocked = new File(tempDir, "b.txt");
+      transaction.begin();
+      write(existing, "Changed");
+      write(blocked, "New");
+      // A non empty directory cannot be replaced by a file, so installing b.txt fails after a.txt was replaced
+      Assert.assertTrue(new File(blocked, "child").mkdirs());
+      try
+      {
+         transaction.commit();
+         Assert.fail("Commit should have failed");
+      }
+      catch (ResourceTransactionException e)
+      {
+         // Expected
+      }
+      Assert.assertEquals("Original", new String(Files.readAllBytes(existing.toPath())));
+      Assert.assertTrue(new File(blocked, "child").isDirectory());
+      Assert.assertEquals(2, tempDir.list().length);
+   }
+
+   @Test
+   public void testCommitKeepsPermissionsAndLinks() throws Exception
+   {
+      Assume.assumeFalse(OperatingSystemUtils.isWindows());
+      File tempDir = OperatingSystemUtils.createTempDir();
+      Path script = new File(tempDir, "mvnw").toPath();
+      Files.write(script, "#!/bin/sh".getBytes());
+      Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rwxr-x---");
+      Files.setPosixFilePermissions(script, permissions);
+      Path link = new File(tempDir, "link").toPath();
+      Files.createSymbolicLink(link, script.getFileName());
+
+      transaction.begin();
+      write(script.toFile(), "#!/bin/sh\necho changed");
+      write(link.toFile(), "#!/bin/sh\necho linked");
+      transaction.commit();
+
+      Assert.assertEquals(permissions, Files.getPosixFilePermissions(script));
+      Assert.assertTrue(Files.isSymbolicLink(link));
+      Assert.assertEquals("#!/bin/sh\necho linked", new String(Files.readAllBytes(script)));
+      Assert.assertEquals(2, tempDir.list().length);
+   }
+
+   private void write(File file, String contents) throws Exception
+   {
+      OutputStream out = transaction.createOutputStream(file);
+      try
+      {
+         out.write(contents.getBytes());
+      }
+      finally
+      {
+         out.close();
+      }
+   }
+
+   private String read(File file) throws Exception
+   {
+      InputStream in = transaction.createInputStream(file);
+      try
+      {
+         return Streams.toString(in);
+      }
+      finally
+      {
+         in.close();
+      }
+   }
+}
@@ -245,6 +245,37 @@ public class ResourceTransactionTest
       Assert.assertFalse(transaction.isStarted());
    }
 
+   @Test
+   @SuppressWarnings("unchecked")
+   public void testResourceTransactionBeginsLazily() throws IOException
+   {
+      File tempDir = OperatingSystemUtils.createTempDir();
+      File file = createTempFile(tempDir, true);
+      ResourceTransaction transaction = resourceFactory.getTransaction();
+      transaction.beginLazily();
+      Assert.assertTrue(transaction.isBeginPending());
+      Assert.assertFalse(transaction.isStarted());
+      FileResource<?> fileResource = resourceFactory.create(FileResource.class, file);
+      Assert.assertFalse(fileResource.exists());
+      Assert.assertFalse(transaction.isStarted());
+      fileResource.setContents("Hello World");
+      Assert.assertTrue(transaction.isStarted());
+      Assert.assertFalse(transaction.isBeginPending());
+      Assert.assertFalse(file.exists());
+      transaction.commit();
+      Assert.assertEquals("Hello World", fileResource.getContents());
+   }
+
+   @Test
+   public void testPendingResourceTransactionIsDiscarded() throws Exception
+   {
+      ResourceTransaction transaction = resourceFactory.getTransaction();
+      transaction.beginLazily();
+      transaction.commit();
+      Assert.assertFalse(transaction.isBeginPending());
+      Assert.assertFalse(transaction.isStarted());
+   }
+
    @Test
    public void testResourceTransactionInjection() throws Exception
    {
@@ -271,7 +302,7 @@ public class ResourceTransactionTest
    public void tearDown()
    {
       ResourceTransaction transaction = resourceFactory.getTransaction();
-      if (transaction.isStarted())
+      if (transaction.isStarted() || transaction.isBeginPending())
          transaction.rollback();
    }
 
@@ -9,6 +9,13 @@ package org.jboss.forge.addon.resource.visit;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
@@ -19,6 +26,8 @@ import org.jboss.forge.addon.resource.DirectoryResource;
 import org.jboss.forge.addon.resource.FileResource;
 import org.jboss.forge.addon.resource.Resource;
 import org.jboss.forge.addon.resource.ResourceFactory;
+import org.jboss.forge.addon.resource.ResourceFilter;
+import org.jboss.forge.addon.resource.transaction.ResourceTransaction;
 import org.jboss.forge.arquillian.AddonDependency;
 import org.jboss.forge.arquillian.Dependencies;
 import org.jboss.forge.arquillian.archive.ForgeArchive;
@@ -118,6 +127,99 @@ public class ResourceVisitorTest
       }
    }
 
+   @Test
+   public void testResourceVisitParallel() throws IOException
+   {
+      File tempDir = OperatingSystemUtils.createTempDir();
+      tempDir.deleteOnExit();
+      File subDir = new File(tempDir, "sub");
+      subDir.mkdir();
+      createTempFile(tempDir, false).deleteOnExit();
+      createTempFile(subDir, false).deleteOnExit();
+      createTempFile(subDir, false).deleteOnExit();
+      FileResource<?> dirResource = resourceFactory.create(DirectoryResource.class, tempDir);
+      try
+      {
+         final List<Resource<?>> serial = new ArrayList<>();
+         new ResourceVisit(dirResource).perform(new ResourceVisitor()
+         {
+            @Override
+            public void visit(VisitContext context, Resource<?> resource)
+            {
+               serial.add(resource);
+            }
+         });
+
+         final List<Resource<?>> ordered = new ArrayList<>();
+         new ResourceVisit(dirResource).performParallel(new ResourceVisitor()
+         {
+            @Override
+            public void visit(VisitContext context, Resource<?> resource)
+            {
+               ordered.add(resource);
+            }
+         }, ACCEPT_ALL, ACCEPT_ALL, true);
+         Assert.assertEquals(serial, ordered);
+
+         final Set<Resource<?>> unordered = Collections.newSetFromMap(new ConcurrentHashMap<Resource<?>, Boolean>());
+         new ResourceVisit(dirResource).performParallel(new ConcurrentResourceVisitor()
+         {
+            @Override
+            public void visit(VisitContext context, Resource<?> resource)
+            {
+               unordered.add(resource);
+            }
+         }, ACCEPT_ALL, ACCEPT_ALL, false);
+         Assert.assertEquals(new HashSet<>(serial), unordered);
+      }
+      finally
+      {
+         dirResource.delete(true);
+      }
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void testResourceVisitParallelInTransaction() throws IOException
+   {
+      File tempDir = OperatingSystemUtils.createTempDir();
+      tempDir.deleteOnExit();
+      ResourceTransaction transaction = resourceFactory.getTransaction();
+      transaction.begin();
+      try
+      {
+         DirectoryResource dirResource = resourceFactory.create(DirectoryResource.class, tempDir);
+         DirectoryResource subDir = dirResource.getChildDirectory("sub");
+         subDir.mkdir();
+         resourceFactory.create(FileResource.class, new File(tempDir, "sub/a.txt")).setContents("A");
+         resourceFactory.create(FileResource.class, new File(tempDir, "b.txt")).setContents("B");
+
+         final Set<String> visited = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+         new ResourceVisit(dirResource).performParallel(new ConcurrentResourceVisitor()
+         {
+            @Override
+            public void visit(VisitContext context, Resource<?> resource)
+            {
+               visited.add(resource.getName());
+            }
+         }, ACCEPT_ALL, ACCEPT_ALL, false);
+         Assert.assertEquals(new HashSet<>(Arrays.asList(tempDir.getName(), "sub", "a.txt", "b.txt")), visited);
+      }
+      finally
+      {
+         transaction.rollback();
+      }
+   }
+
+   private static final ResourceFilter ACCEPT_ALL = new ResourceFilter()
+   {
+      @Override
+      public boolean accept(Resource<?> resource)
+      {
+         return true;
+      }
+   };
+
    private File createTempFile(File tempDir, boolean delete) throws IOException
    {
       File file = File.createTempFile("fileresourcetest", ".tmp", tempDir);
@@ -8,11 +8,16 @@ import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import javax.inject.Inject;
 import javax.persistence.CascadeType;
@@ -52,6 +57,8 @@ import org.jboss.forge.addon.scaffold.spi.ScaffoldSetupContext;
 import org.jboss.forge.addon.scaffold.spi.ScaffoldProvider;
 import org.jboss.forge.addon.ui.command.UICommand;
 import org.jboss.forge.addon.ui.context.UIValidationContext;
+import org.jboss.forge.addon.ui.progress.UIProgressMonitor;
+import org.jboss.forge.furnace.util.ClassLoaders;
 import org.jboss.forge.parser.JavaParser;
 import org.jboss.forge.parser.java.Annotation;
 import org.jboss.forge.parser.java.Field;
@@ -112,6 +119,12 @@ public class FacesScaffoldProvider extends AbstractFacet<Project> implements Sca
    private static final String ERROR_TEMPLATE = "scaffold/faces/error.xhtml";
    private static final String INDEX_TEMPLATE = "scaffold/faces/index.xhtml";
    private static final String INDEX_WELCOME_TEMPLATE = "scaffold/faces/index.html";
+
+   /**
+    * The number of entities rendered at the same time by {@link #generateFrom(Project, ScaffoldGenerationContext)}
+    */
+   private static final int GENERATION_THREADS = Integer.getInteger("scaffold.generation.threads", Runtime
+            .getRuntime().availableProcessors());
    
    private final Dependency richfaces3UI = DependencyBuilder.create("org.richfaces.ui:richfaces-ui");
    private final Dependency richfaces3Impl = DependencyBuilder.create("org.richfaces.framework:richfaces-impl");
@@ -139,13 +152,10 @@ public class FacesScaffoldProvider extends AbstractFacet<Project> implements Sca
    protected Template errorTemplate;
    protected Template indexWelcomeTemplate;
    protected Template indexTemplate;
-   protected StaticHtmlMetawidget entityMetawidget;
-   protected StaticHtmlMetawidget searchMetawidget;
-   protected StaticHtmlMetawidget beanMetawidget;
-   protected StaticJavaMetawidget qbeMetawidget;
-   protected StaticJavaMetawidget rmEntityMetawidget;
 
    private Configuration config;
+   private ForgeConfigReader configReader;
+   private Project configReaderProject;
    
    @Inject
    public FacesScaffoldProvider(final Configuration config, final FreemarkerTemplateProcessor templateProcessor)
@@ -179,7 +189,6 @@ public class FacesScaffoldProvider extends AbstractFacet<Project> implements Sca
    public void setFaceted(Project origin)
    {
       super.setFaceted(origin);
-      resetMetaWidgets();
    }
 
    @Override
@@ -207,26 +216,128 @@ public class FacesScaffoldProvider extends AbstractFacet<Project> implements Sca
       return resources;
    }
 
+   /**
+    * Generates the scaffold of each entity in two stages: the backing bean, then the views that inspect it. The
+    * Metawidget inspection and template rendering of each stage run on a pool of
+    * <code>scaffold.generation.threads</code> threads (one per processor by default), while the generated files are
+    * written on the calling thread, in the order of the entities, so that the output is the same as when entities are
+    * generated one at a time. Project resources are only accessed while holding the lock of the {@link Project}, as
+    * Metawidget inspections read the sources of the inspected types. If the generation is cancelled, no more backing
+    * beans are written, but the views of the backing beans already written are, so that each entity is either
+    * scaffolded completely or not at all.
+    */
    @Override
    public List<Resource<?>> generateFrom(Project project, ScaffoldGenerationContext scaffoldContext)
    {
-      List<Resource<?>> generatedResources = new ArrayList<Resource<?>>();
-      Collection<?> resources = scaffoldContext.getResources();
-      for (Object resource : resources)
+      String targetDir = scaffoldContext.getTargetDirectory();
+      final String dir = (targetDir == null) ? "" : targetDir;
+      Resource<?> template = (Resource<?>) scaffoldContext.getAttribute("pageTemplate");
+      boolean overwrite = scaffoldContext.isOverwrite();
+      UIProgressMonitor monitor = scaffoldContext.getProgressMonitor();
+
+      List<EntityGeneration> generations = new ArrayList<EntityGeneration>();
+      for (Object resource : scaffoldContext.getResources())
+      {
+         generations.add(new EntityGeneration((JavaClass) resource));
+      }
+      if (monitor != null)
+      {
+         monitor.beginTask("Generating scaffold", generations.size() * 2);
+      }
+
+      loadTemplates();
+      // Inspections remember the types they read during this run only, so that later changes to them are seen
+      this.configReader = null;
+      JavaSourceFacet java = this.origin.getFacet(JavaSourceFacet.class);
+      WebResourcesFacet web = this.origin.getFacet(WebResourcesFacet.class);
+      final String viewPackage = java.getBasePackage() + ".view";
+      ExecutorService executor = GENERATION_THREADS > 1 && generations.size() > 1 ? Executors
+               .newFixedThreadPool(Math.min(GENERATION_THREADS, generations.size())) : null;
+      try
+      {
+         // Render the backing beans
+         List<Future<?>> backingBeans = new ArrayList<Future<?>>();
+         for (final EntityGeneration generation : generations)
+         {
+            generation.metawidgets = createMetawidgets();
+            backingBeans.add(submit(executor, new Callable<Void>()
+            {
+               @Override
+               public Void call() throws Exception
+               {
+                  renderBackingBean(generation, viewPackage);
+                  return null;
+               }
+            }));
+         }
+
+         // Write each backing bean, then render the views inspecting it
+         List<Future<?>> views = new ArrayList<Future<?>>();
+         for (int i = 0; i < generations.size() && !isCancelled(monitor); i++)
+         {
+            final EntityGeneration generation = generations.get(i);
+            await(backingBeans.get(i));
+            if (monitor != null)
+            {
+               monitor.subTask("Generating backing bean for " + generation.entity.getName());
+            }
+            final Map<Object, Object> context;
+            synchronized (this.origin)
+            {
+               generation.result.add(ScaffoldUtil.createOrOverwrite(java.getJavaResource(generation.viewBean),
+                        generation.viewBeanSource, overwrite));
+               context = getTemplateContext(dir, template);
+            }
+            worked(monitor);
+
+            views.add(submit(executor, new Callable<Void>()
+            {
+               @Override
+               public Void call() throws Exception
+               {
+                  renderViews(generation, context);
+                  return null;
+               }
+            }));
+         }
+
+         // Write the views, even if cancelled, as their backing beans were written
+         for (int i = 0; i < views.size(); i++)
+         {
+            EntityGeneration generation = generations.get(i);
+            await(views.get(i));
+            if (monitor != null)
+            {
+               monitor.subTask("Generating views for " + generation.entity.getName());
+            }
+            synchronized (this.origin)
+            {
+               writeViews(generation, dir, java, web, overwrite);
+            }
+            worked(monitor);
+         }
+      }
+      finally
       {
-         JavaClass entity  = (JavaClass) resource;
-         String targetDir = scaffoldContext.getTargetDirectory();
-         targetDir = (targetDir == null) ? "" : targetDir;
-         Resource<?> template = (Resource<?>) scaffoldContext.getAttribute("pageTemplate");
-         boolean overwrite = scaffoldContext.isOverwrite();
-         List<Resource<?>> generatedResourcesForEntity = this.generateFromEntity(targetDir , template, entity, overwrite );
+         if (executor != null)
+         {
+            executor.shutdownNow();
+         }
+      }
 
+      List<Resource<?>> generatedResources = new ArrayList<Resource<?>>();
+      for (EntityGeneration generation : generations)
+      {
          // TODO give plugins a chance to react to generated resources, use event bus?
          // if (!generatedResources.isEmpty())
          // {
          //    generatedEvent.fire(new ScaffoldGeneratedResources(provider, prepareResources(generatedResources)));
          // }
-         generatedResources.addAll(generatedResourcesForEntity);
+         generatedResources.addAll(generation.result);
+      }
+      if (monitor != null)
+      {
+         monitor.done();
       }
       return generatedResources;
    }
@@ -632,50 +743,74 @@ public class FacesScaffoldProvider extends AbstractFacet<Project> implements Sca
       return indent;
    }
    
-   private void resetMetaWidgets()
+   /**
+    * Returns the {@link ForgeConfigReader} of the current project. It caches the Metawidget configuration files it
+    * read, and the inspectors and widget builders they declare, so that they are shared by the Metawidgets of every
+    * entity instead of being read again for each one. It is created again for each scaffold run, as the property
+    * styles it declares keep the properties of every type they inspected.
+    */
+   private ForgeConfigReader getConfigReader()
    {
-      ForgeConfigReader configReader = new ForgeConfigReader(this.config, this.origin);
-
-      this.entityMetawidget = new StaticHtmlMetawidget();
-      this.entityMetawidget.setConfigReader(configReader);
-      this.entityMetawidget.setConfig("scaffold/faces/metawidget-entity.xml");
-
-      this.searchMetawidget = new StaticHtmlMetawidget();
-      this.searchMetawidget.setConfigReader(configReader);
-      this.searchMetawidget.setConfig("scaffold/faces/metawidget-search.xml");
-
-      this.beanMetawidget = new StaticHtmlMetawidget();
-      this.beanMetawidget.setConfigReader(configReader);
-      this.beanMetawidget.setConfig("scaffold/faces/metawidget-bean.xml");
-
-      this.qbeMetawidget = new StaticJavaMetawidget();
-      this.qbeMetawidget.setConfigReader(configReader);
-      this.qbeMetawidget.setConfig("scaffold/faces/metawidget-qbe.xml");
-      
-      this.rmEntityMetawidget = new StaticJavaMetawidget();
-      this.rmEntityMetawidget.setConfigReader(configReader);
-      this.rmEntityMetawidget.setConfig("scaffold/faces/metawidget-remove-entity.xml");
+      if (this.configReader == null || this.configReaderProject != this.origin)
+      {
+         this.configReader = new ForgeConfigReader(this.config, this.origin);
+         this.configReaderProject = this.origin;
+      }
+      return this.configReader;
    }
-   
-   private List<Resource<?>> generateFromEntity(String targetDir, final Resource<?> template, final JavaClass entity,
-            final boolean overwrite)
+
+   /**
+    * Creates new Metawidgets, so that the imports and namespaces they collect are not carried over from the previous
+    * entity. Their configuration comes from the cache of {@link #getConfigReader()}, and is read right away, so that
+    * the Metawidgets can then be used on another thread.
+    */
+   private EntityMetawidgets createMetawidgets()
    {
-      resetMetaWidgets();
+      ForgeConfigReader configReader = getConfigReader();
+      EntityMetawidgets metawidgets = new EntityMetawidgets();
+
+      metawidgets.entity = new StaticHtmlMetawidget();
+      metawidgets.entity.setConfigReader(configReader);
+      metawidgets.entity.setConfig("scaffold/faces/metawidget-entity.xml");
+      metawidgets.entity.getWidgetBuilder();
+
+      metawidgets.search = new StaticHtmlMetawidget();
+      metawidgets.search.setConfigReader(configReader);
+      metawidgets.search.setConfig("scaffold/faces/metawidget-search.xml");
+      metawidgets.search.getWidgetBuilder();
+
+      metawidgets.bean = new StaticHtmlMetawidget();
+      metawidgets.bean.setConfigReader(configReader);
+      metawidgets.bean.setConfig("scaffold/faces/metawidget-bean.xml");
+      metawidgets.bean.getWidgetBuilder();
+
+      metawidgets.qbe = new StaticJavaMetawidget();
+      metawidgets.qbe.setConfigReader(configReader);
+      metawidgets.qbe.setConfig("scaffold/faces/metawidget-qbe.xml");
+      metawidgets.qbe.getWidgetBuilder();
+
+      metawidgets.rmEntity = new StaticJavaMetawidget();
+      metawidgets.rmEntity.setConfigReader(configReader);
+      metawidgets.rmEntity.setConfig("scaffold/faces/metawidget-remove-entity.xml");
+      metawidgets.rmEntity.getWidgetBuilder();
 
       // FORGE-460: setupRichFaces during generateFromEntity, not during setup, as generally 'richfaces setup' is called
       // *after* 'scaffold setup'
       // TODO: Decide on whether to support Richfaces via the Faces scaffold
-      // setupRichFaces();
+      // setupRichFaces(metawidgets);
 
-      // Track the list of resources generated
+      return metawidgets;
+   }
 
-      List<Resource<?>> result = new ArrayList<Resource<?>>();
+   /**
+    * Renders the backing bean of the given entity. Does not write any resource, so that it can run on any thread.
+    */
+   private void renderBackingBean(final EntityGeneration generation, final String viewPackage)
+   {
       try
       {
-         JavaSourceFacet java = this.origin.getFacet(JavaSourceFacet.class);
-         WebResourcesFacet web = this.origin.getFacet(WebResourcesFacet.class);
-
-         loadTemplates();
+         JavaClass entity = generation.entity;
+         EntityMetawidgets metawidgets = generation.metawidgets;
          Map<Object, Object> context = CollectionUtils.newHashMap();
          context.put("entity", entity);
          String ccEntity = StringUtils.decapitalize(entity.getName());
@@ -684,20 +819,20 @@ public class FacesScaffoldProvider extends AbstractFacet<Project> implements Sca
          setPrimaryKeyMetaData(context, entity);
 
          // Prepare qbeMetawidget
-         this.qbeMetawidget.setPath(entity.getQualifiedName());
+         metawidgets.qbe.setPath(entity.getQualifiedName());
          StringWriter stringWriter = new StringWriter();
-         this.qbeMetawidget.write(stringWriter, this.backingBeanTemplateQbeMetawidgetIndent);
+         metawidgets.qbe.write(stringWriter, this.backingBeanTemplateQbeMetawidgetIndent);
          context.put("qbeMetawidget", stringWriter.toString().trim());
-         
+
          // Prepare removeEntityMetawidget
-         this.rmEntityMetawidget.setPath(entity.getQualifiedName());
+         metawidgets.rmEntity.setPath(entity.getQualifiedName());
          stringWriter = new StringWriter();
-         this.rmEntityMetawidget.write(stringWriter, this.backingBeanTemplateRmEntityMetawidgetIndent);
+         metawidgets.rmEntity.write(stringWriter, this.backingBeanTemplateRmEntityMetawidgetIndent);
          context.put("rmEntityMetawidget", stringWriter.toString().trim());
-         
+
          // Prepare Java imports
-         Set<String> qbeMetawidgetImports = this.qbeMetawidget.getImports();
-         Set<String> rmEntityMetawidgetImports = this.rmEntityMetawidget.getImports();
+         Set<String> qbeMetawidgetImports = metawidgets.qbe.getImports();
+         Set<String> rmEntityMetawidgetImports = metawidgets.rmEntity.getImports();
          Set<String> metawidgetImports = CollectionUtils.newHashSet();
          metawidgetImports.addAll(qbeMetawidgetImports);
          metawidgetImports.addAll(rmEntityMetawidgetImports);
@@ -706,87 +841,187 @@ public class FacesScaffoldProvider extends AbstractFacet<Project> implements Sca
                   CollectionUtils.toString(metawidgetImports, ";\r\nimport ", true, false));
 
          // Create the Backing Bean for this entity
-         JavaClass viewBean = JavaParser.parse(JavaClass.class, this.templateProcessor.processTemplate(context, this.backingBeanTemplate));
-         viewBean.setPackage(java.getBasePackage() + ".view");
-         result.add(ScaffoldUtil.createOrOverwrite(java.getJavaResource(viewBean), viewBean.toString(),
-                  overwrite));
+         JavaClass viewBean = JavaParser.parse(JavaClass.class,
+                  this.templateProcessor.processTemplate(context, this.backingBeanTemplate));
+         viewBean.setPackage(viewPackage);
+         generation.ccEntity = ccEntity;
+         generation.viewBean = viewBean;
+         generation.viewBeanSource = viewBean.toString();
+      }
+      catch (Exception e)
+      {
+         throw new RuntimeException("Error generating default scaffolding: " + e.getMessage(), e);
+      }
+   }
+
+   /**
+    * Renders the views of the given entity, once its backing bean was written. Does not write any resource, so that it
+    * can run on any thread.
+    */
+   private void renderViews(final EntityGeneration generation, final Map<Object, Object> context)
+   {
+      try
+      {
+         JavaClass entity = generation.entity;
+         EntityMetawidgets metawidgets = generation.metawidgets;
+         String ccEntity = generation.ccEntity;
 
          // Set new context for view generation
-         context = getTemplateContext(targetDir, template);
-         String beanName = StringUtils.decapitalize(viewBean.getName());
+         String beanName = StringUtils.decapitalize(generation.viewBean.getName());
          context.put("beanName", beanName);
          context.put("ccEntity", ccEntity);
          context.put("entityName", StringUtils.uncamelCase(entity.getName()));
          setPrimaryKeyMetaData(context, entity);
 
          // Prepare entityMetawidget
-         this.entityMetawidget.setValue(StaticFacesUtils.wrapExpression(beanName + "." + ccEntity));
-         this.entityMetawidget.setPath(entity.getQualifiedName());
-         this.entityMetawidget.setReadOnly(false);
-         this.entityMetawidget.setStyle(null);
+         metawidgets.entity.setValue(StaticFacesUtils.wrapExpression(beanName + "." + ccEntity));
+         metawidgets.entity.setPath(entity.getQualifiedName());
+         metawidgets.entity.setReadOnly(false);
+         metawidgets.entity.setStyle(null);
 
          // Generate create
-         writeEntityMetawidget(context, this.createTemplateEntityMetawidgetIndent, this.createTemplateNamespaces);
-
-         result.add(ScaffoldUtil.createOrOverwrite(
-                  web.getWebResource(targetDir + "/" + ccEntity + "/create.xhtml"),
-                  this.templateProcessor.processTemplate(context, this.createTemplate),
-                  overwrite));
+         writeEntityMetawidget(metawidgets.entity, context, this.createTemplateEntityMetawidgetIndent,
+                  this.createTemplateNamespaces);
+         generation.create = this.templateProcessor.processTemplate(context, this.createTemplate);
 
          // Generate view
-         this.entityMetawidget.setReadOnly(true);
-         writeEntityMetawidget(context, this.viewTemplateEntityMetawidgetIndent, this.viewTemplateNamespaces);
-
-         result.add(ScaffoldUtil.createOrOverwrite(
-                  web.getWebResource(targetDir + "/" + ccEntity + "/view.xhtml"),
-                  this.templateProcessor.processTemplate(context, this.viewTemplate), overwrite));
+         metawidgets.entity.setReadOnly(true);
+         writeEntityMetawidget(metawidgets.entity, context, this.viewTemplateEntityMetawidgetIndent,
+                  this.viewTemplateNamespaces);
+         generation.view = this.templateProcessor.processTemplate(context, this.viewTemplate);
 
          // Generate search
-         this.searchMetawidget.setValue(StaticFacesUtils.wrapExpression(beanName + ".example"));
-         this.searchMetawidget.setPath(entity.getQualifiedName());
-         this.beanMetawidget.setValue(StaticFacesUtils.wrapExpression(beanName + ".pageItems"));
-         this.beanMetawidget.setPath(viewBean.getQualifiedName() + "/pageItems");
-         writeSearchAndBeanMetawidget(context, this.searchTemplateSearchMetawidgetIndent,
-                  this.searchTemplateBeanMetawidgetIndent, this.searchTemplateNamespaces);
+         metawidgets.search.setValue(StaticFacesUtils.wrapExpression(beanName + ".example"));
+         metawidgets.search.setPath(entity.getQualifiedName());
+         metawidgets.bean.setValue(StaticFacesUtils.wrapExpression(beanName + ".pageItems"));
+         metawidgets.bean.setPath(generation.viewBean.getQualifiedName() + "/pageItems");
+         writeSearchAndBeanMetawidget(metawidgets.search, metawidgets.bean, context,
+                  this.searchTemplateSearchMetawidgetIndent, this.searchTemplateBeanMetawidgetIndent,
+                  this.searchTemplateNamespaces);
+         generation.search = this.templateProcessor.processTemplate(context, this.searchTemplate);
+
+         // Need ViewUtils and forge.taglib.xml for forgeview:asList
+         JavaClass viewUtils = JavaParser.parse(JavaClass.class,
+                  this.templateProcessor.processTemplate(context, this.viewUtilsTemplate));
+         viewUtils.setPackage(generation.viewBean.getPackage());
+         generation.viewUtils = viewUtils;
+         generation.viewUtilsSource = viewUtils.toString();
+
+         context.put("viewPackage", generation.viewBean.getPackage());
+         generation.taglib = this.templateProcessor.processTemplate(context, this.taglibTemplate);
+      }
+      catch (Exception e)
+      {
+         throw new RuntimeException("Error generating default scaffolding: " + e.getMessage(), e);
+      }
+   }
 
+   /**
+    * Writes the rendered views of the given entity
+    */
+   private void writeViews(final EntityGeneration generation, final String targetDir, final JavaSourceFacet java,
+            final WebResourcesFacet web, final boolean overwrite)
+   {
+      try
+      {
+         String ccEntity = generation.ccEntity;
+         List<Resource<?>> result = generation.result;
          result.add(ScaffoldUtil.createOrOverwrite(
-                  web.getWebResource(targetDir + "/" + ccEntity + "/search.xhtml"),
-                  this.templateProcessor.processTemplate(context, this.searchTemplate), overwrite));
+                  web.getWebResource(targetDir + "/" + ccEntity + "/create.xhtml"), generation.create, overwrite));
+         result.add(ScaffoldUtil.createOrOverwrite(
+                  web.getWebResource(targetDir + "/" + ccEntity + "/view.xhtml"), generation.view, overwrite));
+         result.add(ScaffoldUtil.createOrOverwrite(
+                  web.getWebResource(targetDir + "/" + ccEntity + "/search.xhtml"), generation.search, overwrite));
 
          // Generate navigation
          result.add(generateNavigation(targetDir, overwrite));
 
-         // Need ViewUtils and forge.taglib.xml for forgeview:asList
-         JavaClass viewUtils = JavaParser.parse(JavaClass.class, this.templateProcessor.processTemplate(context, this.viewUtilsTemplate));
-         viewUtils.setPackage(viewBean.getPackage());
-         result.add(ScaffoldUtil.createOrOverwrite(java.getJavaResource(viewUtils), viewUtils.toString(),
-                  true));
-
-         context.put("viewPackage", viewBean.getPackage());
+         result.add(ScaffoldUtil.createOrOverwrite(java.getJavaResource(generation.viewUtils),
+                  generation.viewUtilsSource, true));
          result.add(ScaffoldUtil.createOrOverwrite(
-                  web.getWebResource("WEB-INF/classes/META-INF/forge.taglib.xml"),
-                  this.templateProcessor.processTemplate(context, this.taglibTemplate), true));
+                  web.getWebResource("WEB-INF/classes/META-INF/forge.taglib.xml"), generation.taglib, true));
 
-         createInitializers(entity);
+         createInitializers(generation.entity);
       }
       catch (Exception e)
       {
          throw new RuntimeException("Error generating default scaffolding: " + e.getMessage(), e);
       }
-      return result;
    }
-   
+
+   /**
+    * Runs the given task on the given {@link ExecutorService}, or right away on this thread if there is none. The task
+    * runs with the context {@link ClassLoader} of this thread.
+    */
+   private Future<?> submit(final ExecutorService executor, final Callable<Void> task)
+   {
+      final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+      FutureTask<Void> future = new FutureTask<Void>(new Callable<Void>()
+      {
+         @Override
+         public Void call() throws Exception
+         {
+            return ClassLoaders.executeIn(loader, task);
+         }
+      });
+      if (executor == null)
+      {
+         future.run();
+      }
+      else
+      {
+         executor.execute(future);
+      }
+      return future;
+   }
+
+   private void await(final Future<?> future)
+   {
+      try
+      {
+         future.get();
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new RuntimeException("Interrupted while generating scaffolding", e);
+      }
+      catch (ExecutionException e)
+      {
+         Throwable cause = e.getCause();
+         if (cause instanceof RuntimeException)
+         {
+            throw (RuntimeException) cause;
+         }
+         throw new RuntimeException("Error generating default scaffolding: " + cause.getMessage(), cause);
+      }
+   }
+
+   private boolean isCancelled(final UIProgressMonitor monitor)
+   {
+      return monitor != null && monitor.isCancelled();
+   }
+
+   private void worked(final UIProgressMonitor monitor)
+   {
+      if (monitor != null)
+      {
+         monitor.worked(1);
+      }
+   }
+
    /**
     * Writes the entity Metawidget and its namespaces into the given context.
     */
-   protected void writeEntityMetawidget(final Map<Object, Object> context, final int entityMetawidgetIndent,
+   protected void writeEntityMetawidget(final StaticHtmlMetawidget entityMetawidget,
+            final Map<Object, Object> context, final int entityMetawidgetIndent,
             final Map<String, String> existingNamespaces)
    {
       StringWriter stringWriter = new StringWriter();
-      this.entityMetawidget.write(stringWriter, entityMetawidgetIndent);
+      entityMetawidget.write(stringWriter, entityMetawidgetIndent);
       context.put("metawidget", stringWriter.toString().trim());
 
-      Map<String, String> namespaces = this.entityMetawidget.getNamespaces();
+      Map<String, String> namespaces = entityMetawidget.getNamespaces();
       namespaces.keySet().removeAll(existingNamespaces.keySet());
       context.put("metawidgetNamespaces", namespacesToString(namespaces));
    }
@@ -794,20 +1029,21 @@ public class FacesScaffoldProvider extends AbstractFacet<Project> implements Sca
    /**
     * Writes the search Metawidget, the bean Metawidget and their namespaces into the given context.
     */
-   protected void writeSearchAndBeanMetawidget(final Map<Object, Object> context, final int searchMetawidgetIndent,
-            final int beanMetawidgetIndent,
+   protected void writeSearchAndBeanMetawidget(final StaticHtmlMetawidget searchMetawidget,
+            final StaticHtmlMetawidget beanMetawidget, final Map<Object, Object> context,
+            final int searchMetawidgetIndent, final int beanMetawidgetIndent,
             final Map<String, String> existingNamespaces)
    {
       StringWriter stringWriter = new StringWriter();
-      this.searchMetawidget.write(stringWriter, searchMetawidgetIndent);
+      searchMetawidget.write(stringWriter, searchMetawidgetIndent);
       context.put("searchMetawidget", stringWriter.toString().trim());
 
       stringWriter = new StringWriter();
-      this.beanMetawidget.write(stringWriter, beanMetawidgetIndent);
+      beanMetawidget.write(stringWriter, beanMetawidgetIndent);
       context.put("beanMetawidget", stringWriter.toString().trim());
 
-      Map<String, String> namespaces = this.searchMetawidget.getNamespaces();
-      namespaces.putAll(this.beanMetawidget.getNamespaces());
+      Map<String, String> namespaces = searchMetawidget.getNamespaces();
+      namespaces.putAll(beanMetawidget.getNamespaces());
       namespaces.keySet().removeAll(existingNamespaces.keySet());
       context.put("metawidgetNamespaces", namespacesToString(namespaces));
    }
@@ -933,23 +1169,23 @@ public class FacesScaffoldProvider extends AbstractFacet<Project> implements Sca
       context.put("nullablePrimaryKeyType", nullablePkType);
    }
    
-   protected void setupRichFaces()
+   protected void setupRichFaces(final EntityMetawidgets metawidgets)
    {
       if ((this.origin.getFacet(DependencyFacet.class).hasEffectiveDependency(this.richfaces3UI)
                && this.origin.getFacet(DependencyFacet.class).hasEffectiveDependency(this.richfaces3Impl))
                || (this.origin.getFacet(DependencyFacet.class).hasEffectiveDependency(this.richfaces4UI)
                && this.origin.getFacet(DependencyFacet.class).hasEffectiveDependency(this.richfaces4Impl)))
       {
-         this.entityMetawidget
-                  .setWidgetBuilder(insertRichFacesWidgetBuilder((CompositeWidgetBuilder<StaticWidget, StaticMetawidget>) this.entityMetawidget
+         metawidgets.entity
+                  .setWidgetBuilder(insertRichFacesWidgetBuilder((CompositeWidgetBuilder<StaticWidget, StaticMetawidget>) metawidgets.entity
                            .getWidgetBuilder()));
 
-         this.searchMetawidget
-                  .setWidgetBuilder(insertRichFacesWidgetBuilder((CompositeWidgetBuilder<StaticWidget, StaticMetawidget>) this.searchMetawidget
+         metawidgets.search
+                  .setWidgetBuilder(insertRichFacesWidgetBuilder((CompositeWidgetBuilder<StaticWidget, StaticMetawidget>) metawidgets.search
                            .getWidgetBuilder()));
 
-         this.beanMetawidget
-                  .setWidgetBuilder(insertRichFacesWidgetBuilder((CompositeWidgetBuilder<StaticWidget, StaticMetawidget>) this.beanMetawidget
+         metawidgets.bean
+                  .setWidgetBuilder(insertRichFacesWidgetBuilder((CompositeWidgetBuilder<StaticWidget, StaticMetawidget>) metawidgets.bean
                            .getWidgetBuilder()));
       }
    }
@@ -997,4 +1233,39 @@ public class FacesScaffoldProvider extends AbstractFacet<Project> implements Sca
                new CompositeWidgetBuilderConfig<W, M>().setWidgetBuilders(newWidgetBuilders));
    }
 
+   /**
+    * The Metawidgets generating the pages of one entity
+    */
+   protected static class EntityMetawidgets
+   {
+      protected StaticHtmlMetawidget entity;
+      protected StaticHtmlMetawidget search;
+      protected StaticHtmlMetawidget bean;
+      protected StaticJavaMetawidget qbe;
+      protected StaticJavaMetawidget rmEntity;
+   }
+
+   /**
+    * The state of the generation of one entity, passed from the thread rendering it to the thread writing it
+    */
+   private static class EntityGeneration
+   {
+      private final JavaClass entity;
+      private final List<Resource<?>> result = new ArrayList<Resource<?>>();
+      private EntityMetawidgets metawidgets;
+      private String ccEntity;
+      private JavaClass viewBean;
+      private String viewBeanSource;
+      private String create;
+      private String view;
+      private String search;
+      private JavaClass viewUtils;
+      private String viewUtilsSource;
+      private String taglib;
+
+      EntityGeneration(JavaClass entity)
+      {
+         this.entity = entity;
+      }
+   }
 }
@@ -14,7 +14,6 @@ import java.text.MessageFormat;
 import java.util.List;
 import java.util.Map;
 
-import org.jboss.forge.parser.JavaParser;
 import org.jboss.forge.parser.java.EnumConstant;
 import org.jboss.forge.parser.java.Field;
 import org.jboss.forge.parser.java.FieldHolder;
@@ -54,6 +53,13 @@ public class ForgePropertyStyle
 
    private final MessageFormat privateFieldConvention;
 
+   /**
+    * Sources already looked up, keyed by fully qualified name, so that each type (and each supertype shared by
+    * several types) is only read once. Guarded by the project lock.
+    */
+
+   private final Map<String, JavaSource<?>> sources = CollectionUtils.newHashMap();
+
    //
    // Constructor
    //
@@ -149,7 +155,7 @@ public class ForgePropertyStyle
             Map<String, Property> properties)
    {
 
-      JavaSource<?> clazz = sourceForName(this.project, type);
+      JavaSource<?> clazz = getSource(type);
 
       if (clazz instanceof MethodHolder<?>)
       {
@@ -158,11 +164,10 @@ public class ForgePropertyStyle
 
          if (clazz instanceof JavaClass)
          {
-            JavaClass source = JavaParser.parse(JavaClass.class,
-                     clazz.toString());
-            if (!source.getSuperType().equals("java.lang.Object"))
+            String superType = ((JavaClass) clazz).getSuperType();
+            if (!superType.equals("java.lang.Object"))
             {
-               inspectClassProperties(source.getSuperType(), properties);
+               inspectClassProperties(superType, properties);
             }
          }
       }
@@ -225,7 +230,7 @@ public class ForgePropertyStyle
 
          properties
                   .put(propertyName,
-                           new ForgeProperty(propertyName, returnType, method, null, privateField, this.project));
+                           new ForgeProperty(propertyName, returnType, method, null, privateField, this));
       }
    }
 
@@ -333,7 +338,7 @@ public class ForgePropertyStyle
                      propertyName,
                      new ForgeProperty(propertyName, existingForgeProperty.getType(),
                               existingForgeProperty.getReadMethod(), method, getPrivateField((FieldHolder<?>) clazz,
-                                       propertyName), this.project));
+                                       propertyName), this));
             continue;
          }
 
@@ -346,7 +351,7 @@ public class ForgePropertyStyle
 
          properties
                   .put(propertyName,
-                           new ForgeProperty(propertyName, type, null, method, privateField, this.project));
+                           new ForgeProperty(propertyName, type, null, method, privateField, this));
       }
    }
 
@@ -413,9 +418,27 @@ public class ForgePropertyStyle
    // Private methods
    //
 
+   /**
+    * Returns the source of the given type, or <code>null</code> if it is not a Forge-based type. Each type is only read
+    * once by this property style.
+    */
+
    /*package private*/
 
-   static JavaSource<?> sourceForName(final Project project, final String type)
+   JavaSource<?> getSource(final String type)
+   {
+      // Inspections may run on several threads, while the project resources must be read one at a time
+      synchronized (this.project)
+      {
+         if (!this.sources.containsKey(type))
+         {
+            this.sources.put(type, readSource(this.project, type));
+         }
+         return this.sources.get(type);
+      }
+   }
+
+   private static JavaSource<?> readSource(final Project project, final String type)
    {
       try
       {
@@ -453,7 +476,7 @@ public class ForgePropertyStyle
 
       private final Field<?> privateField;
 
-      private final Project project;
+      private final ForgePropertyStyle propertyStyle;
 
       //
       // Constructor
@@ -462,7 +485,7 @@ public class ForgePropertyStyle
       public ForgeProperty(final String name, final String type, final Method<?> readMethod,
                final Method<?> writeMethod,
                final Field<?> privateField,
-               final Project project)
+               final ForgePropertyStyle propertyStyle)
       {
          super(name, type);
 
@@ -477,7 +500,7 @@ public class ForgePropertyStyle
          }
 
          this.privateField = privateField;
-         this.project = project;
+         this.propertyStyle = propertyStyle;
       }
 
       //
@@ -536,7 +559,7 @@ public class ForgePropertyStyle
 
       public List<EnumConstant<JavaEnum>> getEnumConstants()
       {
-         JavaSource<?> source = sourceForName( this.project, getType() );
+         JavaSource<?> source = this.propertyStyle.getSource( getType() );
 
          if ( source instanceof JavaEnum ) {
             return ((JavaEnum) source).getEnumConstants();
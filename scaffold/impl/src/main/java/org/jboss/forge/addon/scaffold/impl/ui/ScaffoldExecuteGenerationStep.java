@@ -16,6 +16,7 @@ import org.jboss.forge.addon.ui.context.UIExecutionContext;
 import org.jboss.forge.addon.ui.context.UINavigationContext;
 import org.jboss.forge.addon.ui.context.UIValidationContext;
 import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
+import org.jboss.forge.addon.ui.progress.UIProgressMonitor;
 import org.jboss.forge.addon.ui.result.NavigationResult;
 import org.jboss.forge.addon.ui.result.Result;
 import org.jboss.forge.addon.ui.result.Results;
@@ -60,8 +61,15 @@ public class ScaffoldExecuteGenerationStep extends AbstractProjectCommand implem
       Map<Object, Object> attributeMap = context.getUIContext().getAttributeMap();
       ScaffoldProvider selectedProvider = (ScaffoldProvider) attributeMap.get(ScaffoldProvider.class);
       ResourceCollection resourceCollection = (ResourceCollection) attributeMap.get(ResourceCollection.class);
-      selectedProvider.generateFrom(getSelectedProject(context),
-               populateGenerationContext(context.getUIContext(), resourceCollection.getResources()));
+      ScaffoldGenerationContext generationContext = populateGenerationContext(context.getUIContext(),
+               resourceCollection.getResources());
+      UIProgressMonitor progressMonitor = context.getProgressMonitor();
+      generationContext.setProgressMonitor(progressMonitor);
+      selectedProvider.generateFrom(getSelectedProject(context), generationContext);
+      if (progressMonitor != null && progressMonitor.isCancelled())
+      {
+         return Results.fail("Scaffold generation was cancelled, only some of the selected entities were generated.");
+      }
       return Results.success("Scaffold was generated successfully.");
    }
 
@@ -11,6 +11,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.jboss.forge.addon.ui.progress.UIProgressMonitor;
+
 /**
  * A context object for the scaffold generation.
  * 
@@ -21,6 +23,7 @@ public class ScaffoldGenerationContext
    private boolean overwrite;
    private Collection<?> resources;
    private Map<String, Object> attributes;
+   private UIProgressMonitor progressMonitor;
 
    public ScaffoldGenerationContext(String targetDirectory, boolean overwrite, Collection<?> resources)
    {
@@ -61,6 +64,20 @@ public class ScaffoldGenerationContext
       this.resources = resources;
    }
    
+   /**
+    * Returns the {@link UIProgressMonitor} the generation should report its progress to, or <code>null</code> if there
+    * is none
+    */
+   public UIProgressMonitor getProgressMonitor()
+   {
+      return progressMonitor;
+   }
+
+   public void setProgressMonitor(UIProgressMonitor progressMonitor)
+   {
+      this.progressMonitor = progressMonitor;
+   }
+
    public Object getAttribute(String key)
    {
       return attributes.get(key);
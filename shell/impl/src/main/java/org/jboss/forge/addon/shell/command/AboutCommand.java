@@ -24,7 +24,8 @@ public class AboutCommand
    @Inject
    Furnace furnace;
 
-   @Command(value = "version", help = "Displays the current Forge version.", enabled = NonGUIEnabledPredicate.class)
+   @Command(value = "version", help = "Displays the current Forge version.", enabled = NonGUIEnabledPredicate.class,
+            readOnly = true)
    public void showVersion(final UIOutput output)
    {
       Version version = furnace.getVersion();
@@ -32,7 +33,8 @@ public class AboutCommand
                "JBoss Forge, version [ " + version + " ] - JBoss, by Red Hat, Inc. [ http://jboss.org/forge ]");
    }
 
-   @Command(value = "about", help = "Display information about this forge.", enabled = NonGUIEnabledPredicate.class)
+   @Command(value = "about", help = "Display information about this forge.", enabled = NonGUIEnabledPredicate.class,
+            readOnly = true)
    public void showAbout(final UIOutput output)
    {
       output.out().println();
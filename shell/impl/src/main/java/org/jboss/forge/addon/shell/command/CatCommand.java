@@ -42,7 +42,8 @@ public class CatCommand extends AbstractShellCommand
                .name("cat")
                .description(
                         "The cat utility reads files sequentially, writing them to the standard output.  "
-                                 + "The file operands are processed in command-line order.");
+                                 + "The file operands are processed in command-line order.")
+               .readOnly(true);
    }
 
    @Override
@@ -63,7 +63,7 @@ public class CdCommand extends AbstractShellCommand
    public UICommandMetadata getMetadata(UIContext context)
    {
       return Metadata.from(super.getMetadata(context), getClass()).name("cd")
-               .description("Change the current directory");
+               .description("Change the current directory").readOnly(true);
    }
 
    @Override
@@ -25,7 +25,8 @@ public class ClearCommand extends AbstractShellCommand
    @Override
    public UICommandMetadata getMetadata(UIContext context)
    {
-      return Metadata.from(super.getMetadata(context), getClass()).name("clear").description("Clear the console");
+      return Metadata.from(super.getMetadata(context), getClass()).name("clear").description("Clear the console")
+               .readOnly(true);
    }
 
    @Override
@@ -57,7 +57,8 @@ public class CommandListCommand extends AbstractShellCommand
    @Override
    public UICommandMetadata getMetadata(UIContext context)
    {
-      return Metadata.forCommand(getClass()).name("command-list").description("List all available commands.");
+      return Metadata.forCommand(getClass()).name("command-list").description("List all available commands.")
+               .readOnly(true);
    }
 
    @Override
@@ -38,7 +38,7 @@ public class EchoCommand extends AbstractShellCommand
    public UICommandMetadata getMetadata(UIContext context)
    {
       return Metadata.from(super.getMetadata(context), getClass()).name("echo")
-               .description("display a line of text");
+               .description("display a line of text").readOnly(true);
    }
 
    @Override
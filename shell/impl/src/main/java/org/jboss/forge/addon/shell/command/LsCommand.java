@@ -1,5 +1,6 @@
 package org.jboss.forge.addon.shell.command;
 
+import java.nio.file.DirectoryStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -9,6 +10,9 @@ import javax.inject.Inject;
 
 import org.jboss.aesh.parser.Parser;
 import org.jboss.aesh.terminal.TerminalSize;
+import org.jboss.forge.addon.resource.DirectoryEntry;
+import org.jboss.forge.addon.resource.DirectoryEntryFilter;
+import org.jboss.forge.addon.resource.DirectoryResource;
 import org.jboss.forge.addon.resource.FileResource;
 import org.jboss.forge.addon.resource.Resource;
 import org.jboss.forge.addon.resource.ResourceFactory;
@@ -28,6 +32,7 @@ import org.jboss.forge.addon.ui.output.UIOutput;
 import org.jboss.forge.addon.ui.result.Result;
 import org.jboss.forge.addon.ui.result.Results;
 import org.jboss.forge.addon.ui.util.Metadata;
+import org.jboss.forge.furnace.util.Streams;
 
 /**
  * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
@@ -49,7 +54,8 @@ public class LsCommand extends AbstractShellCommand
    @Override
    public UICommandMetadata getMetadata(UIContext context)
    {
-      return Metadata.from(super.getMetadata(context), getClass()).name("ls").description("List files");
+      return Metadata.from(super.getMetadata(context), getClass()).name("ls").description("List files")
+               .readOnly(true);
    }
 
    @Override
@@ -74,9 +80,17 @@ public class LsCommand extends AbstractShellCommand
          resourceList = new ResourcePathResolver(resourceFactory, currentResource, value).resolve();
          if (!searching && !resourceList.isEmpty() && resourceList.get(0).exists())
          {
+            if (resourceList.get(0) instanceof DirectoryResource)
+            {
+               return listDirectory((DirectoryResource) resourceList.get(0), shell);
+            }
             resourceList = resourceList.get(0).listResources();
          }
       }
+      else if (currentResource instanceof DirectoryResource)
+      {
+         return listDirectory((DirectoryResource) currentResource, shell);
+      }
       else
       {
          resourceList = currentResource.listResources();
@@ -95,9 +109,38 @@ public class LsCommand extends AbstractShellCommand
       return result;
    }
 
+   /**
+    * Lists the given directory from its entries, so that no resource is created for its children
+    */
+   private Result listDirectory(DirectoryResource directory, Shell shell)
+   {
+      final boolean showAll = all.getValue();
+      List<String> display = new ArrayList<>();
+      DirectoryStream<DirectoryEntry> entries = directory.listEntries(new DirectoryEntryFilter()
+      {
+         @Override
+         public boolean accept(DirectoryEntry entry)
+         {
+            return showAll || !entry.getName().startsWith(".");
+         }
+      });
+      try
+      {
+         for (DirectoryEntry entry : entries)
+         {
+            display.add(ShellUtil.colorizeEntry(entry));
+         }
+      }
+      finally
+      {
+         Streams.closeQuietly(entries);
+      }
+      shell.getOutput().out().println(formatDisplayList(display, shell));
+      return Results.success();
+   }
+
    private String listMany(Iterable<Resource<?>> resources, Shell shell)
    {
-      TerminalSize terminalSize = shell.getConsole().getShell().getSize();
       List<String> display = new ArrayList<>();
       boolean showAll = all.getValue();
       if (resources != null)
@@ -121,6 +164,12 @@ public class LsCommand extends AbstractShellCommand
             display.add(name);
          }
       }
+      return formatDisplayList(display, shell);
+   }
+
+   private String formatDisplayList(List<String> display, Shell shell)
+   {
+      TerminalSize terminalSize = shell.getConsole().getShell().getSize();
       return Parser.formatDisplayList(display, terminalSize.getHeight(), terminalSize.getWidth());
    }
 }
@@ -36,7 +36,7 @@ public class PwdCommand extends AbstractShellCommand
    public UICommandMetadata getMetadata(UIContext context)
    {
       return Metadata.from(super.getMetadata(context), getClass()).name("pwd")
-               .description("Print the full filename of the current working directory.");
+               .description("Print the full filename of the current working directory.").readOnly(true);
    }
 
    @Override
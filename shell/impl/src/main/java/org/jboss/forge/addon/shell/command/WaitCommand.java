@@ -37,7 +37,7 @@ public class WaitCommand extends AbstractShellCommand
    public UICommandMetadata getMetadata(UIContext context)
    {
       return Metadata.from(super.getMetadata(context), getClass()).name("wait")
-               .description("Wait for ENTER.");
+               .description("Wait for ENTER.").readOnly(true);
    }
 
    @Override
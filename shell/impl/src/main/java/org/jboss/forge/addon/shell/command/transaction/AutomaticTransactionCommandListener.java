@@ -26,10 +26,16 @@ import org.jboss.forge.addon.resource.transaction.ResourceTransaction;
 import org.jboss.forge.addon.ui.command.CommandExecutionListener;
 import org.jboss.forge.addon.ui.command.UICommand;
 import org.jboss.forge.addon.ui.context.UIExecutionContext;
+import org.jboss.forge.addon.ui.metadata.UICommandMetadata;
 import org.jboss.forge.addon.ui.output.UIOutput;
 import org.jboss.forge.addon.ui.result.Failed;
 import org.jboss.forge.addon.ui.result.Result;
 
+/**
+ * Wraps every command in a {@link ResourceTransaction}, and prints the resources it changed. The transaction is only
+ * started by the first change to a resource, and commands whose {@link UICommandMetadata#isReadOnly()} returns true do
+ * not get one at all.
+ */
 public class AutomaticTransactionCommandListener implements CommandExecutionListener
 {
    private final ResourceFactory factory;
@@ -48,12 +54,14 @@ public class AutomaticTransactionCommandListener implements CommandExecutionList
    @Override
    public void preCommandExecuted(UICommand command, UIExecutionContext context)
    {
+      if (command.getMetadata(context.getUIContext()).isReadOnly())
+      {
+         return;
+      }
       ResourceTransaction transaction = factory.getTransaction();
-      if (!transaction.isStarted())
+      if (!transaction.isStarted() && !transaction.isBeginPending())
       {
-         otherTransactionListener.disable();
-         transaction.begin();
-         otherTransactionListener.enable();
+         transaction.beginLazily();
       }
    }
 
@@ -65,14 +73,14 @@ public class AutomaticTransactionCommandListener implements CommandExecutionList
       {
          if (result instanceof Failed)
          {
-            if (transaction.isStarted())
+            if (transaction.isStarted() || transaction.isBeginPending())
             {
                transaction.rollback();
             }
          }
          else
          {
-            if (transaction.isStarted())
+            if (transaction.isStarted() || transaction.isBeginPending())
             {
                transaction.commit();
             }
@@ -124,7 +132,7 @@ public class AutomaticTransactionCommandListener implements CommandExecutionList
    public void postCommandFailure(UICommand command, UIExecutionContext context, Throwable failure)
    {
       ResourceTransaction transaction = factory.getTransaction();
-      if (transaction.isStarted())
+      if (transaction.isStarted() || transaction.isBeginPending())
       {
          transaction.rollback();
       }
@@ -23,7 +23,8 @@ public class OtherTransactionStartedListener implements ResourceTransactionListe
    @Override
    public void transactionStarted(ResourceTransaction transaction)
    {
-      if (enabled)
+      // Lazy starts are requested by AutomaticTransactionCommandListener, not by another command
+      if (enabled && !transaction.isBeginPending())
          setInForeignTransaction(true);
    }
 
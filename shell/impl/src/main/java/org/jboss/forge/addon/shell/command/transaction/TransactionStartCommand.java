@@ -58,7 +58,7 @@ public class TransactionStartCommand extends AbstractShellCommand
    {
       ResourceTransaction transaction = resourceFactory.getTransaction();
 
-      if (transaction.isStarted())
+      if (transaction.isStarted() || transaction.isBeginPending())
       {
          if (trackChangesSettings.isTrackChanges() && !trackChangesSettings.isInForeignTransaction())
             transaction.rollback();
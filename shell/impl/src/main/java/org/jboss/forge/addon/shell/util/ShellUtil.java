@@ -10,6 +10,7 @@ package org.jboss.forge.addon.shell.util;
 import org.jboss.aesh.terminal.Color;
 import org.jboss.aesh.terminal.TerminalColor;
 import org.jboss.aesh.terminal.TerminalString;
+import org.jboss.forge.addon.resource.DirectoryEntry;
 import org.jboss.forge.addon.resource.FileResource;
 
 /**
@@ -49,4 +50,24 @@ public class ShellUtil
       }
       return name;
    }
+
+   /**
+    * Applies ANSI colors in a specific directory entry, without creating its resource
+    * 
+    * @param entry
+    * @return
+    */
+   public static String colorizeEntry(DirectoryEntry entry)
+   {
+      String name = entry.getName();
+      if (entry.isDirectory())
+      {
+         name = new TerminalString(name, new TerminalColor(Color.BLUE, Color.DEFAULT)).toString();
+      }
+      else if (entry.isExecutable())
+      {
+         name = new TerminalString(name, new TerminalColor(Color.GREEN, Color.DEFAULT)).toString();
+      }
+      return name;
+   }
 }
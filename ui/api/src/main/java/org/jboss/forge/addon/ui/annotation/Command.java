@@ -49,4 +49,10 @@ public @interface Command
     */
    String[] categories() default {};
 
+   /**
+    * Set to true if this command does not change any resource, so it can be executed without starting a resource
+    * transaction
+    */
+   boolean readOnly() default false;
+
 }
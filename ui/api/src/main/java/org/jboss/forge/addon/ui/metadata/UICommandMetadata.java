@@ -49,4 +49,10 @@ public interface UICommandMetadata
     */
    URL getDocLocation();
 
+   /**
+    * Returns true if the corresponding {@link UICommand} does not change any resource, so it can be executed without
+    * starting a resource transaction.
+    */
+   boolean isReadOnly();
+
 }
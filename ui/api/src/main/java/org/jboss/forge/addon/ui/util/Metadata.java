@@ -31,6 +31,7 @@ public class Metadata implements UICommandMetadata
    private String description;
    private UICategory category;
    private URL docLocation;
+   private boolean readOnly;
 
    private final Class<?> type;
 
@@ -44,7 +45,7 @@ public class Metadata implements UICommandMetadata
       Assert.notNull(type, "UICommand type must not be null.");
       Metadata metadata = new Metadata(type);
       metadata.docLocation(origin.getDocLocation()).name(origin.getName()).description(origin.getDescription())
-               .category(origin.getCategory());
+               .category(origin.getCategory()).readOnly(origin.isReadOnly());
       return metadata;
    }
 
@@ -100,6 +101,16 @@ public class Metadata implements UICommandMetadata
       return this;
    }
 
+   /**
+    * Set whether the corresponding {@link UICommand} only reads resources, and can therefore be executed without
+    * starting a resource transaction.
+    */
+   public Metadata readOnly(boolean readOnly)
+   {
+      this.readOnly = readOnly;
+      return this;
+   }
+
    private URL getDocLocationFor(Class<?> type)
    {
       URL url = null;
@@ -139,6 +150,12 @@ public class Metadata implements UICommandMetadata
       return docLocation;
    }
 
+   @Override
+   public boolean isReadOnly()
+   {
+      return readOnly;
+   }
+
    @Override
    public String toString()
    {
@@ -146,7 +163,8 @@ public class Metadata implements UICommandMetadata
                "name: " + name +
                ", description: " + description +
                ", category: " + category +
-               ", docLocation: " + docLocation + "]";
+               ", docLocation: " + docLocation +
+               ", readOnly: " + readOnly + "]";
    }
 
    @Override
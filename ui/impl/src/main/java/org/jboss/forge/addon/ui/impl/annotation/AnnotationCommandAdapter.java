@@ -63,7 +63,7 @@ public class AnnotationCommandAdapter implements UICommand
          name = method.getName();
       }
       return Metadata.forCommand(method.getDeclaringClass()).name(name).description(ann.help())
-               .category(Categories.create(ann.categories()));
+               .category(Categories.create(ann.categories())).readOnly(ann.readOnly());
    }
 
    @Override